@@ -0,0 +1,70 @@
+package com.quantum.trust.backend;
+
+import java.io.IOException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.quantum.trust.backend.services.ConcurrencyLimitService;
+import com.quantum.trust.backend.services.ConcurrencyLimitService.Permit;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * @class ConcurrencyLimitFilter
+ * @description Filter class shedding load before any work is done for a
+ *              request. Requests above the adaptive concurrency limit of their
+ *              endpoint group are rejected at once with 503 and a Retry-After
+ *              header instead of waiting for a worker thread, so the API fails
+ *              fast while the database or password hashing is slow. The filter
+ *              is not a bean, so it runs only in the security filter chain
+ *              and every request takes a single permit.
+ *
+ * @constructor
+ *              Initializes the ConcurrencyLimitFilter with the specified
+ *              service.
+ * @param {ConcurrencyLimitService} concurrencyLimitService - The service for
+ *                                  adaptive concurrency limiting.
+ *
+ * @method doFilterInternal - Admits the request or sheds it and releases the
+ *         permit with the outcome of the request once it completes.
+ * @param {HttpServletRequest}  request - The HTTP servlet request.
+ * @param {HttpServletResponse} response - The HTTP servlet response.
+ * @param {FilterChain}         filterChain - The filter chain.
+ * @throws {ServletException} - If an error occurs during filtering.
+ * @throws {IOException}      - If an I/O error occurs during filtering.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+    private final ConcurrencyLimitService concurrencyLimitService;
+
+    @Autowired
+    public ConcurrencyLimitFilter(ConcurrencyLimitService concurrencyLimitService) {
+        this.concurrencyLimitService = concurrencyLimitService;
+    }
+
+    @SuppressWarnings("null")
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Permit permit = this.concurrencyLimitService.tryAcquire(request);
+        if (permit == null) {
+            long retryAfterSeconds = this.concurrencyLimitService.getRetryAfterSeconds(request);
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            response.getWriter().write("Service is overloaded. Try again later.");
+            return;
+        }
+        boolean isFailed = true;
+        try {
+            filterChain.doFilter(request, response);
+            isFailed = response.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value();
+        } finally {
+            permit.release(isFailed);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.quantum.trust.backend;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quantum.trust.backend.annotations.EncryptedBody;
+import com.quantum.trust.backend.services.CryptoService;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * @class EncryptedBodyArgumentResolver
+ * @description Resolves parameters annotated with EncryptedBody. The request
+ *              stream is Base64 decoded and decrypted on the fly with the codec
+ *              named in its envelope header and fed directly into the Jackson
+ *              parser of the target type. Payloads sent as a JSON string
+ *              containing the serialized object are unwrapped before binding.
+ *
+ * @constructor
+ *              Initializes the resolver with the specified services.
+ * @param {CryptoService} cryptoService - The service for handling encryption.
+ * @param {ObjectMapper}  objectMapper - Mapper for converting JSON to objects.
+ *
+ * @method supportsParameter - Checks whether the parameter is annotated with
+ *         EncryptedBody.
+ * @param {MethodParameter} parameter - The method parameter to be checked.
+ * @returns {boolean} - True if the parameter can be resolved.
+ *
+ * @method resolveArgument - Decrypts the request body into the parameter type.
+ * @param {MethodParameter}  parameter - The method parameter to be resolved.
+ * @param {NativeWebRequest} webRequest - The current request.
+ * @returns {Object} - The deserialized request body.
+ * @throws {HttpMessageNotReadableException} - If the body cannot be decrypted
+ *         or deserialized.
+ */
+public class EncryptedBodyArgumentResolver implements HandlerMethodArgumentResolver {
+    private final CryptoService cryptoService;
+    private final ObjectMapper objectMapper;
+
+    public EncryptedBodyArgumentResolver(CryptoService cryptoService, ObjectMapper objectMapper) {
+        this.cryptoService = cryptoService;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(EncryptedBody.class);
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+            NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        HttpServletRequest httpServletRequest = webRequest.getNativeRequest(HttpServletRequest.class);
+        JavaType targetType = this.objectMapper.constructType(parameter.getNestedGenericParameterType());
+        try (InputStream decryptedStream = this.cryptoService
+                .getDecryptingStream(httpServletRequest.getInputStream());
+                JsonParser jsonParser = this.objectMapper.createParser(decryptedStream)) {
+            JsonToken firstToken = jsonParser.nextToken();
+            if (firstToken == null) {
+                throw new IOException("Encrypted body is empty");
+            }
+            if (firstToken == JsonToken.VALUE_STRING && !targetType.hasRawClass(String.class)) {
+                return this.objectMapper.readValue(jsonParser.getText(), targetType);
+            }
+            return this.objectMapper.readValue(jsonParser, targetType);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new HttpMessageNotReadableException("Could not read encrypted body: " + e.getMessage(), e,
+                    new ServletServerHttpRequest(httpServletRequest));
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.quantum.trust.backend;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import com.quantum.trust.backend.model.dto.EncryptedPayload;
+import com.quantum.trust.backend.services.CryptoService;
+
+/**
+ * @class EncryptedPayloadHttpMessageConverter
+ * @description Write-only message converter streaming EncryptedPayload bodies
+ *              as {"encryptedData":"<envelope>"}. The JSON produced by Jackson
+ *              is passed through the cipher and the Base64 encoder directly into
+ *              the response stream, so only fixed-size buffers are held
+ *              regardless of the payload size.
+ *
+ * @constructor
+ *              Initializes the converter with the specified service.
+ * @param {CryptoService} cryptoService - The service for handling encryption.
+ *
+ * @method supports - Checks whether the given class is an EncryptedPayload.
+ * @param {Class<?>} clazz - The class to be checked.
+ * @returns {boolean} - True if the class can be written by this converter.
+ *
+ * @method canRead - Always returns false as the converter is write-only.
+ *
+ * @method writeInternal - Streams the encrypted payload into the response body.
+ * @param {EncryptedPayload}  encryptedPayload - The payload to be written.
+ * @param {HttpOutputMessage} outputMessage - The response message.
+ */
+public class EncryptedPayloadHttpMessageConverter extends AbstractHttpMessageConverter<EncryptedPayload> {
+    private static final byte[] PREFIX = "{\"encryptedData\":\"".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] SUFFIX = "\"}".getBytes(StandardCharsets.US_ASCII);
+
+    private final CryptoService cryptoService;
+
+    public EncryptedPayloadHttpMessageConverter(CryptoService cryptoService) {
+        super(MediaType.APPLICATION_JSON);
+        this.cryptoService = cryptoService;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return EncryptedPayload.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected EncryptedPayload readInternal(Class<? extends EncryptedPayload> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("EncryptedPayload can only be written", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(EncryptedPayload encryptedPayload, HttpOutputMessage outputMessage)
+            throws IOException {
+        OutputStream body = outputMessage.getBody();
+        body.write(PREFIX);
+        this.cryptoService.writeEncryptedData(encryptedPayload.getData(), encryptedPayload.getEnvelope(), body);
+        body.write(SUFFIX);
+        body.flush();
+    }
+}
@@ -0,0 +1,159 @@
+package com.quantum.trust.backend;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.RequestPath;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import com.quantum.trust.backend.model.AuthContext;
+import com.quantum.trust.backend.model.entities.IdempotencyRecord;
+import com.quantum.trust.backend.services.IdempotencyService;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * @class IdempotencyFilter
+ * @description Filter class making the endpoints which move money safe to
+ *              retry. A request sent with an Idempotency-Key header runs once
+ *              per user, path and key, a repeated request gets the stored
+ *              response with an Idempotent-Replayed header instead and a
+ *              duplicate sent while the first one is still running waits for
+ *              its response. Only final outcomes are stored. Responses with a
+ *              server error or a transient client error, a conflict, a
+ *              timeout or too many requests, are not stored, so the request
+ *              can be retried. The request body is not compared,
+ *              because encrypted bodies of the same request differ on every
+ *              retry. The filter runs in the security filter chain after the
+ *              JWT request filter, which authenticates the caller.
+ *
+ * @constructor
+ *              Initializes the IdempotencyFilter with the specified service.
+ * @param {IdempotencyService} idempotencyService - The service keeping the
+ *                             stored responses.
+ *
+ * @method doFilterInternal - Runs the request once per idempotency key or
+ *         replays its stored response.
+ * @param {HttpServletRequest}  request - The HTTP servlet request.
+ * @param {HttpServletResponse} response - The HTTP servlet response.
+ * @param {FilterChain}         filterChain - The filter chain.
+ * @throws {ServletException} - If an error occurs during filtering.
+ * @throws {IOException}      - If an I/O error occurs during filtering.
+ *
+ * @method runOnce - Runs the request holding its key and stores its response
+ *         if it is a final outcome.
+ * @param {HttpServletRequest}  request - The HTTP servlet request.
+ * @param {HttpServletResponse} response - The HTTP servlet response.
+ * @param {FilterChain}         filterChain - The filter chain.
+ * @param {String}              scopedKey - The idempotency key scoped by the
+ *                              user and the path.
+ * @throws {ServletException} - If an error occurs during filtering.
+ * @throws {IOException}      - If an I/O error occurs during filtering.
+ *
+ * @method replay - Writes a stored response.
+ * @param {HttpServletResponse} response - The HTTP servlet response.
+ * @param {IdempotencyRecord}   record - The stored response.
+ * @throws {IOException} - If an I/O error occurs during writing.
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+    static final int MAX_KEY_LENGTH = 255;
+    private static final Set<Integer> TRANSIENT_STATUSES = Set.of(HttpStatus.REQUEST_TIMEOUT.value(),
+            HttpStatus.CONFLICT.value(), HttpStatus.TOO_EARLY.value(), HttpStatus.TOO_MANY_REQUESTS.value());
+
+    private static final List<PathPattern> IDEMPOTENT_PATTERNS = List.of(
+            PathPatternParser.defaultInstance.parse("/api/user/new-transfer"),
+            PathPatternParser.defaultInstance.parse("/api/cards/new"),
+            PathPatternParser.defaultInstance.parse("/api/cards/authorize"),
+            PathPatternParser.defaultInstance.parse("/api/deposits/new"));
+
+    private final IdempotencyService idempotencyService;
+
+    public IdempotencyFilter(IdempotencyService idempotencyService) {
+        this.idempotencyService = idempotencyService;
+    }
+
+    @SuppressWarnings("null")
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String idempotencyKey = request.getHeader(IDEMPOTENCY_KEY_HEADER);
+        AuthContext authContext = (AuthContext) request.getAttribute(JwtRequestFilter.AUTH_CONTEXT_ATTRIBUTE);
+        PathContainer path = RequestPath.parse(request.getRequestURI(), request.getContextPath())
+                .pathWithinApplication();
+        if (idempotencyKey == null || authContext == null || !HttpMethod.POST.matches(request.getMethod())
+                || IDEMPOTENT_PATTERNS.stream().noneMatch(pattern -> pattern.matches(path))) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            response.setStatus(HttpStatus.BAD_REQUEST.value());
+            response.getWriter().write("Invalid idempotency key");
+            return;
+        }
+        String scopedKey = authContext.getIdentificator() + ":" + path.value() + ":" + idempotencyKey;
+        IdempotencyRecord record;
+        try {
+            record = this.idempotencyService.acquire(scopedKey);
+        } catch (IllegalStateException e) {
+            response.setStatus(HttpStatus.CONFLICT.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.getWriter().write("Request with this idempotency key is still in progress");
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            return;
+        }
+        if (record != null) {
+            replay(response, record);
+            return;
+        }
+        this.runOnce(request, response, filterChain, scopedKey);
+    }
+
+    private void runOnce(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain,
+            String scopedKey) throws ServletException, IOException {
+        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        boolean isStored = false;
+        try {
+            filterChain.doFilter(request, responseWrapper);
+            if (isFinal(responseWrapper.getStatus())) {
+                this.idempotencyService.complete(scopedKey, responseWrapper.getStatus(),
+                        responseWrapper.getContentType(), responseWrapper.getContentAsByteArray());
+                isStored = true;
+            }
+        } finally {
+            if (!isStored) {
+                this.idempotencyService.release(scopedKey);
+            }
+            responseWrapper.copyBodyToResponse();
+        }
+    }
+
+    private static boolean isFinal(int status) {
+        return status < HttpStatus.INTERNAL_SERVER_ERROR.value() && !TRANSIENT_STATUSES.contains(status);
+    }
+
+    private static void replay(HttpServletResponse response, IdempotencyRecord record) throws IOException {
+        response.setStatus(record.getStatus());
+        response.setHeader(IDEMPOTENT_REPLAYED_HEADER, "true");
+        if (record.getContentType() != null) {
+            response.setContentType(record.getContentType());
+        }
+        response.setContentLength(record.getBody().length);
+        response.getOutputStream().write(record.getBody());
+    }
+}
@@ -1,32 +1,43 @@
 package com.quantum.trust.backend;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.RequestPath;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
-import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
 
+import com.quantum.trust.backend.model.AuthContext;
 import com.quantum.trust.backend.services.CookieService;
 import com.quantum.trust.backend.services.TokenBucketService;
 import com.quantum.trust.backend.services.TokenService;
 import com.quantum.trust.backend.services.UserAuthService;
 
+import io.jsonwebtoken.JwtException;
+
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
 /**
- * @component JwtRequestFilter
- * @description Filter class for validating JWT tokens in HTTP requests.
- *
  * @class JwtRequestFilter
+ * @description Filter class for validating JWT tokens in HTTP requests. The
+ *              filter keeps no per-request state in its fields, everything
+ *              known about the caller lives in an immutable AuthContext stored
+ *              as a request attribute, so a single instance serves any number
+ *              of concurrent requests. The filter is not a bean, so it runs
+ *              only in the security filter chain and every request takes a
+ *              single token from its bucket.
  *
  * @constructor
  *              Initializes the JwtRequestFilter with the specified services.
@@ -45,31 +56,51 @@ import jakarta.servlet.http.HttpServletResponse;
  * @throws {ServletException} - If an error occurs during filtering.
  * @throws {IOException}      - If an I/O error occurs during filtering.
  *
- * @method setCredentials - Sets the credentials from the request.
- * @param {HttpServletRequest} request - The HTTP servlet request.
+ * @method isRateLimited - Consumes a token from the bucket of the caller and
+ *         rejects the request when the bucket is empty. Authenticated callers
+ *         are limited by user, all others by IP.
+ * @param {HttpServletRequest}  request - The HTTP servlet request.
+ * @param {HttpServletResponse} response - The HTTP servlet response.
+ * @param {AuthContext}         authContext - The auth context of the request
+ *                              or null if it is not authenticated.
+ * @returns {boolean} - True if the request was rejected.
  *
- * @method getAuthHeader - Retrieves the authorization header from the request.
+ * @method isMatchingAnyPattern - Checks whether the path of the request
+ *         matches any of the given patterns.
  * @param {HttpServletRequest} request - The HTTP servlet request.
- * @returns {String} - The authorization header.
+ * @param {List<PathPattern>}  patterns - The precompiled path patterns.
+ * @returns {boolean} - True if any pattern matches.
  *
- * @method setToken - Sets the token from the authorization header.
+ * @method getToken - Retrieves the token from the cookie matching the request.
+ * @param {HttpServletRequest} request - The HTTP servlet request.
+ * @returns {String} - The token or null if the cookie is missing.
  *
- * @method setIdentificator - Sets the identificator from the token.
+ * @method getAuthContext - Verifies the token once and creates the auth
+ *         context of the request from the subject of its claims. The
+ *         verification already rejects forged and expired tokens, so the
+ *         claims are not validated a second time.
+ * @param {HttpServletRequest} request - The HTTP servlet request.
+ * @param {String}             token - The token of the request.
+ * @returns {AuthContext} - The auth context or null if the token is invalid.
  *
  * @method setAuthentication - Sets the authentication in the security context.
+ * @param {HttpServletRequest} request - The HTTP servlet request.
+ * @param {AuthContext}        authContext - The auth context of the request.
  */
-@Component
 public class JwtRequestFilter extends OncePerRequestFilter {
+    public static final String AUTH_CONTEXT_ATTRIBUTE = AuthContext.class.getName();
+
+    private static final List<PathPattern> ALLOWED_PATTERNS = compilePatterns("/api/media/public/**",
+            "/api/auth/login", "/api/auth/login/verification/send-email",
+            "/api/auth/register/verification/send-email", "/api/auth/register", "/api/user/id", "/api/user/email",
+            "/api/auth/refresh-token");
+    private static final List<PathPattern> REFRESH_TOKEN_PATTERNS = compilePatterns("/api/auth/logout",
+            "/api/check");
+
     private final TokenService tokenService;
     private final CookieService cookieService;
     private final UserAuthService userAuthService;
     private final TokenBucketService tokenBucketService;
-    private final List<String> allowedUris;
-
-    private String token;
-    private String authHeader;
-    private String identificator;
-    private HttpServletRequest request;
 
     @Autowired
     public JwtRequestFilter(TokenService tokenService, CookieService cookieService, UserAuthService userAuthService,
@@ -78,29 +109,30 @@ public class JwtRequestFilter extends OncePerRequestFilter {
         this.userAuthService = userAuthService;
         this.tokenBucketService = tokenBucketService;
         this.cookieService = cookieService;
-        this.allowedUris = List.of("/api/media/public", "/api/auth/login", "/api/auth/login/verification/send-email",
-                "/api/auth/register/verification/send-email",
-                "/api/auth/register", "/api/user/id", "/api/user/email", "/api/auth/refresh-token");
     }
 
     @SuppressWarnings("null")
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
-        boolean isAllowedUri = this.allowedUris.stream().anyMatch(request.getRequestURI()::contains);
-        if (isAllowedUri) {
+        if (isMatchingAnyPattern(request, ALLOWED_PATTERNS)) {
+            if (this.isRateLimited(request, response, null)) {
+                return;
+            }
             filterChain.doFilter(request, response);
             return;
         }
-        this.setCredentials(request);
-        if (this.token != null && !tokenBucketService.tryConsume()) {
-            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
-            response.getWriter().write("Too many requests. Try again later.");
+        String token = this.getToken(request);
+        boolean isAuthenticationRequired = token != null
+                && SecurityContextHolder.getContext().getAuthentication() == null;
+        AuthContext authContext = isAuthenticationRequired ? this.getAuthContext(request, token) : null;
+        if (this.isRateLimited(request, response, authContext)) {
             return;
         }
-        if (identificator != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            if (tokenService.validateToken(token, identificator)) {
-                this.setAuthentication();
+        if (isAuthenticationRequired) {
+            if (authContext != null) {
+                request.setAttribute(AUTH_CONTEXT_ATTRIBUTE, authContext);
+                this.setAuthentication(request, authContext);
             } else {
                 response.setStatus(HttpStatus.UNAUTHORIZED.value());
                 response.getWriter().write("Unauthorized");
@@ -110,39 +142,57 @@ public class JwtRequestFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
-    private void setCredentials(HttpServletRequest request) {
-        this.request = request;
-        this.authHeader = this.getAuthHeader(request);
-        this.setToken();
-        this.setIdentificator();
+    private boolean isRateLimited(HttpServletRequest request, HttpServletResponse response, AuthContext authContext)
+            throws IOException {
+        String identificator = authContext == null ? null : authContext.getIdentificator();
+        if (this.tokenBucketService.tryConsume(request, identificator)) {
+            return false;
+        }
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.getWriter().write("Too many requests. Try again later.");
+        return true;
     }
 
-    private String getAuthHeader(HttpServletRequest request) {
-        boolean isRequestCanBeVerifiedWithAnyToken = request.getRequestURI().contains("/api/auth/logout")
-                || request.getRequestURI().contains("/api/check");
-        return "Bearer "
-                + this.cookieService.getCookieValue(request,
-                        isRequestCanBeVerifiedWithAnyToken ? "REFRESH_TOKEN" : "ACCESS_TOKEN");
+    private static boolean isMatchingAnyPattern(HttpServletRequest request, List<PathPattern> patterns) {
+        PathContainer path = RequestPath.parse(request.getRequestURI(), request.getContextPath())
+                .pathWithinApplication();
+        for (PathPattern pattern : patterns) {
+            if (pattern.matches(path)) {
+                return true;
+            }
+        }
+        return false;
     }
 
-    private void setToken() {
-        if (this.authHeader != null && this.authHeader.startsWith("Bearer ")) {
-            this.token = this.authHeader.substring(7);
-        }
+    private String getToken(HttpServletRequest request) {
+        boolean isRequestCanBeVerifiedWithAnyToken = isMatchingAnyPattern(request, REFRESH_TOKEN_PATTERNS);
+        return this.cookieService.getCookieValue(request,
+                isRequestCanBeVerifiedWithAnyToken ? "REFRESH_TOKEN" : "ACCESS_TOKEN");
     }
 
-    private void setIdentificator() {
-        if (this.authHeader != null && this.authHeader.startsWith("Bearer ")) {
-            this.identificator = this.tokenService.getIdentificatorFromToken(this.token);
+    private AuthContext getAuthContext(HttpServletRequest request, String token) {
+        try {
+            String identificator = this.tokenService.getIdentificatorFromToken(request, token);
+            return identificator != null ? new AuthContext(token, identificator) : null;
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
         }
     }
 
-    private void setAuthentication() {
-        UserDetails userDetails = this.userAuthService.loadUserByUsername(this.identificator);
+    private void setAuthentication(HttpServletRequest request, AuthContext authContext) {
+        UserDetails userDetails = this.userAuthService.loadUserByUsername(authContext.getIdentificator());
         UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken = new UsernamePasswordAuthenticationToken(
                 userDetails, null, userDetails.getAuthorities());
         usernamePasswordAuthenticationToken
-                .setDetails(new WebAuthenticationDetailsSource().buildDetails(this.request));
+                .setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
         SecurityContextHolder.getContext().setAuthentication(usernamePasswordAuthenticationToken);
     }
-}
\ No newline at end of file
+
+    private static List<PathPattern> compilePatterns(String... patterns) {
+        List<PathPattern> compiledPatterns = new ArrayList<>();
+        for (String pattern : patterns) {
+            compiledPatterns.add(PathPatternParser.defaultInstance.parse(pattern));
+        }
+        return List.copyOf(compiledPatterns);
+    }
+}
@@ -0,0 +1,92 @@
+package com.quantum.trust.backend;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import com.quantum.trust.backend.crypto.PayloadCompression;
+import com.quantum.trust.backend.crypto.PayloadEnvelope;
+import com.quantum.trust.backend.model.dto.EncryptedPayload;
+import com.quantum.trust.backend.services.CryptoService;
+
+/**
+ * @class PayloadCodecResponseAdvice
+ * @description Response body advice choosing the envelope of encrypted
+ *              responses. Clients opt into another codec than the legacy CBC
+ *              format by naming it in the X-Payload-Codec request header and
+ *              into compression of the JSON before encryption by naming it in
+ *              the X-Payload-Compression request header. Unknown codecs and
+ *              compressions fall back to the legacy format.
+ *
+ * @constructor
+ *              Initializes the advice with the specified services.
+ * @param {CryptoService} cryptoService - The service for handling encryption.
+ *
+ * @method supports - Checks whether the body is written by the encrypted
+ *         payload converter.
+ * @param {MethodParameter} returnType - The return type of the handler.
+ * @param {Class<?>}        converterType - The selected converter type.
+ * @returns {boolean} - True if the advice applies.
+ *
+ * @method beforeBodyWrite - Applies the requested envelope to the body.
+ * @param {Object}            body - The body to be written.
+ * @param {ServerHttpRequest} request - The current request.
+ * @param {ServerHttpResponse} response - The current response.
+ * @returns {Object} - The body with the requested envelope.
+ *
+ * @method getRequestedCompression - Retrieves the compression named in the
+ *         request headers.
+ * @param {ServerHttpRequest} request - The current request.
+ * @returns {PayloadCompression} - The compression, NONE if none or an unknown
+ *          one was requested.
+ */
+@ControllerAdvice
+public class PayloadCodecResponseAdvice implements ResponseBodyAdvice<Object> {
+    public static final String CODEC_HEADER = "X-Payload-Codec";
+    public static final String COMPRESSION_HEADER = "X-Payload-Compression";
+
+    private final CryptoService cryptoService;
+
+    @Autowired
+    public PayloadCodecResponseAdvice(CryptoService cryptoService) {
+        this.cryptoService = cryptoService;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return EncryptedPayloadHttpMessageConverter.class.isAssignableFrom(converterType);
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+            Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request,
+            ServerHttpResponse response) {
+        if (!(body instanceof EncryptedPayload encryptedPayload)) {
+            return body;
+        }
+        response.getHeaders().add(HttpHeaders.VARY, CODEC_HEADER);
+        response.getHeaders().add(HttpHeaders.VARY, COMPRESSION_HEADER);
+        String codecName = request.getHeaders().getFirst(CODEC_HEADER);
+        boolean codecRequested = codecName != null && this.cryptoService.isCodecSupported(codecName);
+        PayloadCompression compression = this.getRequestedCompression(request);
+        if (!codecRequested && compression == PayloadCompression.NONE) {
+            return body;
+        }
+        PayloadEnvelope envelope = PayloadEnvelope.of(codecRequested ? codecName
+                : PayloadEnvelope.LEGACY.getCodecName(), compression);
+        return new EncryptedPayload(encryptedPayload.getData(), envelope);
+    }
+
+    private PayloadCompression getRequestedCompression(ServerHttpRequest request) {
+        String compressionName = request.getHeaders().getFirst(COMPRESSION_HEADER);
+        PayloadCompression compression = compressionName == null ? null
+                : PayloadCompression.fromName(compressionName.trim().toLowerCase());
+        return compression == null ? PayloadCompression.NONE : compression;
+    }
+}
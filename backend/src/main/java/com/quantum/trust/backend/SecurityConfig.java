@@ -20,7 +20,9 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 
+import com.quantum.trust.backend.services.ConcurrencyLimitService;
 import com.quantum.trust.backend.services.CookieService;
+import com.quantum.trust.backend.services.IdempotencyService;
 import com.quantum.trust.backend.services.TokenBucketService;
 import com.quantum.trust.backend.services.TokenService;
 import com.quantum.trust.backend.services.UserAuthService;
@@ -40,6 +42,10 @@ import jakarta.servlet.http.HttpServletRequest;
  *                             authentication.
  * @param {TokenBucketService} tokenBucketService - The service for rate
  *                             limiting.
+ * @param {ConcurrencyLimitService} concurrencyLimitService - The service for
+ *                                  adaptive concurrency limiting.
+ * @param {IdempotencyService} idempotencyService - The service keeping the
+ *                             responses of idempotent requests.
  *
  * @method authenticationManager - Configures the authentication manager.
  * @returns {AuthenticationManager} - The configured authentication manager.
@@ -56,6 +62,14 @@ import jakarta.servlet.http.HttpServletRequest;
  *
  * @method getJwtRequestFilter - Configures the JWT request filter.
  * @returns {Filter} - The configured JWT request filter.
+ *
+ * @method getConcurrencyLimitFilter - Configures the concurrency limit filter
+ *         which sheds load before the JWT request filter does any work.
+ * @returns {Filter} - The configured concurrency limit filter.
+ *
+ * @method getIdempotencyFilter - Configures the idempotency filter which runs
+ *         after the JWT request filter has authenticated the caller.
+ * @returns {Filter} - The configured idempotency filter.
  */
 @Configuration
 @EnableWebSecurity
@@ -64,14 +78,19 @@ public class SecurityConfig {
     private final CookieService cookieService;
     private final UserAuthService userAuthService;
     private final TokenBucketService tokenBucketService;
+    private final ConcurrencyLimitService concurrencyLimitService;
+    private final IdempotencyService idempotencyService;
 
     @Autowired
     public SecurityConfig(TokenService tokenService, CookieService cookieService, UserAuthService userAuthService,
-            TokenBucketService tokenBucketService) {
+            TokenBucketService tokenBucketService, ConcurrencyLimitService concurrencyLimitService,
+            IdempotencyService idempotencyService) {
         this.tokenService = tokenService;
         this.cookieService = cookieService;
         this.userAuthService = userAuthService;
         this.tokenBucketService = tokenBucketService;
+        this.concurrencyLimitService = concurrencyLimitService;
+        this.idempotencyService = idempotencyService;
     }
 
     @Bean
@@ -103,6 +122,8 @@ public class SecurityConfig {
                         .requestMatchers("/api/media/public/**").permitAll()
                         .anyRequest().authenticated())
                 .addFilterBefore(this.getJwtRequestFilter(), UsernamePasswordAuthenticationFilter.class)
+                .addFilterBefore(this.getConcurrencyLimitFilter(), JwtRequestFilter.class)
+                .addFilterAfter(this.getIdempotencyFilter(), JwtRequestFilter.class)
                 .exceptionHandling((customizer) -> customizer.authenticationEntryPoint(
                         (request, response, exception) -> {
                             response.sendError(HttpStatus.UNAUTHORIZED.value());
@@ -123,6 +144,7 @@ public class SecurityConfig {
                 corsConfiguration
                         .setAllowedOrigins(Arrays.asList("https://quantum-trust.cc", "https://www.quantum-trust.cc"));
                 corsConfiguration.addExposedHeader("Set-Cookie");
+                corsConfiguration.addExposedHeader(IdempotencyFilter.IDEMPOTENT_REPLAYED_HEADER);
                 corsConfiguration.setMaxAge(5L);
                 return corsConfiguration;
             }
@@ -132,4 +154,12 @@ public class SecurityConfig {
     Filter getJwtRequestFilter() {
         return new JwtRequestFilter(tokenService, cookieService, userAuthService, tokenBucketService);
     }
+
+    Filter getConcurrencyLimitFilter() {
+        return new ConcurrencyLimitFilter(concurrencyLimitService);
+    }
+
+    Filter getIdempotencyFilter() {
+        return new IdempotencyFilter(idempotencyService);
+    }
 }
\ No newline at end of file
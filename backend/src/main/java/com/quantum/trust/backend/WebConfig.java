@@ -0,0 +1,91 @@
+package com.quantum.trust.backend;
+
+import java.util.List;
+
+import org.apache.catalina.filters.RemoteIpFilter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quantum.trust.backend.services.CryptoService;
+
+/**
+ * @class WebConfig
+ * @description Configuration class for customizing Spring MVC. The backend
+ *              runs behind the nginx of the frontend, so the address of the
+ *              client is taken from the X-Forwarded-For header, but only from
+ *              the proxies matching the trusted-proxies pattern. Forwarded
+ *              headers of any other peer are ignored, so a client cannot pick
+ *              its own address and the rate limits keyed by address see every
+ *              client behind the proxy apart. The pattern can be set with the
+ *              rate-limit.trusted-proxies property and defaults to the private
+ *              and loopback networks the proxy reaches the backend from.
+ *
+ * @constructor
+ *              Initializes the WebConfig with the specified services.
+ * @param {CryptoService} cryptoService - The service for handling encryption.
+ * @param {ObjectMapper}  objectMapper - Mapper for converting JSON to objects.
+ *
+ * @method addArgumentResolvers - Registers the resolver of EncryptedBody
+ *         parameters.
+ * @param {List<HandlerMethodArgumentResolver>} resolvers - The custom argument
+ *                                              resolvers.
+ *
+ * @method extendMessageConverters - Registers the encrypted payload converter
+ *         ahead of the default converters.
+ * @param {List<HttpMessageConverter<?>>} converters - The configured message
+ *                                        converters.
+ *
+ * @method remoteIpFilterRegistration - Registers the filter resolving the
+ *         address of the client ahead of every other filter.
+ * @param {Environment} environment - The environment holding the pattern of
+ *                      the trusted proxies.
+ * @returns {FilterRegistrationBean<RemoteIpFilter>} - The registration of the
+ *          filter.
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+    static final String DEFAULT_TRUSTED_PROXIES = "10\\.\\d{1,3}\\.\\d{1,3}\\.\\d{1,3}|"
+            + "192\\.168\\.\\d{1,3}\\.\\d{1,3}|"
+            + "172\\.(1[6-9]|2[0-9]|3[0-1])\\.\\d{1,3}\\.\\d{1,3}|"
+            + "127\\.\\d{1,3}\\.\\d{1,3}\\.\\d{1,3}|"
+            + "0:0:0:0:0:0:0:1|::1";
+
+    private final CryptoService cryptoService;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public WebConfig(CryptoService cryptoService, ObjectMapper objectMapper) {
+        this.cryptoService = cryptoService;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(new EncryptedBodyArgumentResolver(this.cryptoService, this.objectMapper));
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(0, new EncryptedPayloadHttpMessageConverter(this.cryptoService));
+    }
+
+    @Bean
+    public FilterRegistrationBean<RemoteIpFilter> remoteIpFilterRegistration(Environment environment) {
+        RemoteIpFilter remoteIpFilter = new RemoteIpFilter();
+        remoteIpFilter.setInternalProxies(
+                environment.getProperty("rate-limit.trusted-proxies", DEFAULT_TRUSTED_PROXIES));
+        remoteIpFilter.setRemoteIpHeader("X-Forwarded-For");
+        remoteIpFilter.setProtocolHeader("X-Forwarded-Proto");
+        FilterRegistrationBean<RemoteIpFilter> registration = new FilterRegistrationBean<>(remoteIpFilter);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,40 @@
+package com.quantum.trust.backend.annotations;
+
+import static java.lang.annotation.ElementType.PARAMETER;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import com.quantum.trust.backend.EncryptedBodyArgumentResolver;
+
+/**
+ * Annotation to indicate that the annotated controller method parameter should
+ * be bound from an encrypted request body. The body is decrypted and
+ * deserialized into the parameter type by the
+ * {@link EncryptedBodyArgumentResolver} in a single pass.
+ * 
+ * <p>The request body is expected to be the Base64 encoded IV followed by the
+ * AES ciphertext of the JSON payload, as produced by the frontend crypto
+ * service.</p>
+ * 
+ * <p>Usage example:</p>
+ * <pre>
+ * {@code
+ * @PostMapping("/new")
+ * public ResponseEntity<?> orderNewCard(@EncryptedBody CardDto cardDto) {
+ *     ...
+ * }
+ * }
+ * </pre>
+ * 
+ * @see EncryptedBodyArgumentResolver
+ * @see Retention
+ * @see Target
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(PARAMETER)
+public @interface EncryptedBody {
+}
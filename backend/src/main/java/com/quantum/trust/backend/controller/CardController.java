@@ -5,11 +5,14 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.quantum.trust.backend.annotations.EncryptedBody;
+import com.quantum.trust.backend.model.dto.CardAuthorizationDto;
+import com.quantum.trust.backend.model.dto.CardDto;
+import com.quantum.trust.backend.services.CardAuthorizationService;
 import com.quantum.trust.backend.services.CardService;
 
 import jakarta.servlet.http.HttpServletRequest;
@@ -21,7 +24,8 @@ import jakarta.servlet.http.HttpServletRequest;
  * @class CardController
  *
  * @constructor
- *              Initializes the CardController with the specified CardService.
+ *              Initializes the CardController with the specified CardService
+ *              and CardAuthorizationService.
  *
  * @method getAllUserCards - Retrieves all cards for a user.
  * @param {HttpServletRequest} httpServletRequest - The HTTP request containing
@@ -30,7 +34,8 @@ import jakarta.servlet.http.HttpServletRequest;
  *          or an error status.
  *
  * @method orderNewCard - Orders a new card.
- * @param {String} encryptedCardDto - The encrypted card data transfer object.
+ * @param {CardDto} cardDto - The card data transfer object decrypted from the
+ *                  request body.
  * @returns {ResponseEntity<?>} - A ResponseEntity indicating the result of the
  *          operation.
  *
@@ -45,19 +50,31 @@ import jakarta.servlet.http.HttpServletRequest;
  *          operation.
  *
  * @method editCard - Edits a card.
- * @param {String} encryptedCardObject - The encrypted card object containing
- *                 the updated card information.
+ * @param {CardDto} cardDto - The card data transfer object decrypted from the
+ *                  request body containing the updated card information.
  * @returns {ResponseEntity<?>} - A ResponseEntity indicating the result of the
  *          operation.
+ *
+ * @method authorizeCardPayment - Authorizes a card payment of the calling user
+ *         against the daily limits of the card.
+ * @param {CardAuthorizationDto} cardAuthorizationDto - The authorization data
+ *                               transfer object decrypted from the request
+ *                               body.
+ * @param {HttpServletRequest}   httpServletRequest - The HTTP servlet request
+ *                               identifying the calling user.
+ * @returns {ResponseEntity<?>} - A ResponseEntity containing the decision or
+ *          an error status.
  */
 @RestController
 @RequestMapping("/api/cards")
 public class CardController {
     private final CardService cardService;
+    private final CardAuthorizationService cardAuthorizationService;
 
     @Autowired
-    public CardController(CardService cardService) {
+    public CardController(CardService cardService, CardAuthorizationService cardAuthorizationService) {
         this.cardService = cardService;
+        this.cardAuthorizationService = cardAuthorizationService;
     }
 
     @GetMapping("/user/all")
@@ -66,8 +83,8 @@ public class CardController {
     }
 
     @PostMapping("/new")
-    public ResponseEntity<?> orderNewCard(@RequestBody String encryptedCardDto) {
-        return this.cardService.orderNewCard(encryptedCardDto);
+    public ResponseEntity<?> orderNewCard(@EncryptedBody CardDto cardDto) {
+        return this.cardService.orderNewCard(cardDto);
     }
 
     @PatchMapping("/suspend")
@@ -81,7 +98,13 @@ public class CardController {
     }
 
     @PatchMapping("/edit")
-    public ResponseEntity<?> editCard(@RequestBody String encryptedCardObject) {
-        return this.cardService.editCard(encryptedCardObject);
+    public ResponseEntity<?> editCard(@EncryptedBody CardDto cardDto) {
+        return this.cardService.editCard(cardDto);
+    }
+
+    @PostMapping("/authorize")
+    public ResponseEntity<?> authorizeCardPayment(@EncryptedBody CardAuthorizationDto cardAuthorizationDto,
+            HttpServletRequest httpServletRequest) {
+        return this.cardAuthorizationService.authorizeCardPayment(httpServletRequest, cardAuthorizationDto);
     }
 }
@@ -4,10 +4,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.quantum.trust.backend.annotations.EncryptedBody;
+import com.quantum.trust.backend.model.dto.DepositDto;
 import com.quantum.trust.backend.services.DepositService;
 
 import jakarta.servlet.http.HttpServletRequest;
@@ -65,7 +66,7 @@ public class DepositController {
 
     @PostMapping("/new")
     public ResponseEntity<?> openNewDeposit(HttpServletRequest httpServletRequest,
-            @RequestBody String encryptedDepositDto) {
-        return this.depositService.saveNewDeposit(httpServletRequest, encryptedDepositDto);
+            @EncryptedBody DepositDto depositDto) {
+        return this.depositService.saveNewDeposit(httpServletRequest, depositDto);
     }
 }
@@ -4,14 +4,22 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.quantum.trust.backend.PayloadCodecResponseAdvice;
+import com.quantum.trust.backend.annotations.EncryptedBody;
+import com.quantum.trust.backend.model.TransactionFilter;
+import com.quantum.trust.backend.model.dto.AccountDto;
+import com.quantum.trust.backend.model.dto.TransferDto;
+import com.quantum.trust.backend.model.dto.UserDto;
 import com.quantum.trust.backend.services.AccountService;
+import com.quantum.trust.backend.services.TransactionExportService;
 import com.quantum.trust.backend.services.TransactionService;
 import com.quantum.trust.backend.services.UserService;
 
@@ -25,7 +33,8 @@ import jakarta.servlet.http.HttpServletRequest;
  *
  * @constructor
  *              Initializes the UserController with the specified UserService,
- *              AccountService, and TransactionService.
+ *              AccountService, TransactionService, and
+ *              TransactionExportService.
  *
  * @method findUserWithId - Finds a user by their ID.
  * @param {String} id - The ID of the user to find.
@@ -55,28 +64,65 @@ import jakarta.servlet.http.HttpServletRequest;
  * @returns {ResponseEntity<?>} - A ResponseEntity containing the user's
  *          transactions or an error status.
  *
+ * @method getUserTransactionsPage - Retrieves one page of the transactions of
+ *         a user, optionally filtered.
+ * @param {TransactionFilter}  transactionFilter - The filters bound from the
+ *                             query parameters.
+ * @param {String}             cursor - The cursor of the page, absent for the
+ *                             first page.
+ * @param {Integer}            limit - The size of the page.
+ * @param {HttpServletRequest} httpServletRequest - The HTTP request containing
+ *                             user information.
+ * @returns {ResponseEntity<?>} - A ResponseEntity containing the page.
+ *
+ * @method exportAccountTransactions - Streams the full transaction history of
+ *         an account as a file.
+ * @param {String}             accountNumber - The number of the account.
+ * @param {String}             format - The export format, csv or ndjson.
+ * @param {boolean}            encrypted - Whether the export is encrypted.
+ * @param {String}             codec - The requested payload codec.
+ * @param {String}             compression - The requested payload
+ *                             compression.
+ * @param {HttpServletRequest} httpServletRequest - The HTTP request containing
+ *                             user information.
+ * @returns {ResponseEntity<?>} - A ResponseEntity streaming the export.
+ *
  * @method getIsAccountExists - Checks if an account exists.
  * @param {String} accountNumber - The account number to check.
  * @returns {ResponseEntity<?>} - A ResponseEntity indicating whether the
  *          account exists.
  *
  * @method openNewAccount - Opens a new account.
- * @param {String}             encryptedAccountDto - The encrypted account data
- *                             transfer object.
+ * @param {AccountDto}         accountDto - The account data transfer object
+ *                             decrypted from the request body.
  * @param {HttpServletRequest} httpServletRequest - The HTTP request containing
  *                             user information.
  * @returns {ResponseEntity<?>} - A ResponseEntity indicating the result of the
  *          operation.
  *
- * @method sendNewTransfer - Sends a new transfer.
- * @param {String} encryptedTransferDto - The encrypted transfer data transfer
- *                 object.
+ * @method sendNewTransfer - Sends a new transfer, or queues it when the
+ *         client asks for the asynchronous mode.
+ * @param {TransferDto}        transferDto - The transfer data transfer object
+ *                             decrypted from the request body.
+ * @param {boolean}            async - Whether the transfer is queued and
+ *                             applied later.
+ * @param {HttpServletRequest} httpServletRequest - The HTTP servlet request
+ *                             identifying the user sending the transfer.
  * @returns {ResponseEntity<?>} - A ResponseEntity indicating the result of the
- *          operation.
+ *          operation or holding the identifier of the queued transfer.
+ *
+ * @method getTransferStatus - Retrieves the state of a transfer queued by the
+ *         calling user.
+ * @param {String}             transferId - The identifier of the transfer.
+ * @param {HttpServletRequest} httpServletRequest - The HTTP servlet request
+ *                             identifying the calling user.
+ * @returns {ResponseEntity<?>} - A ResponseEntity containing the state of the
+ *          transfer or an error status.
  *
  * @method editUser - Edits a user's account.
- * @param {String}             encryptedUserObject - The encrypted user object
- *                             containing the updated user information.
+ * @param {UserDto}            userDto - The user data transfer object
+ *                             decrypted from the request body containing the
+ *                             updated user information.
  * @param {HttpServletRequest} httpServletRequest - The HTTP request containing
  *                             user information.
  * @returns {ResponseEntity<?>} - A ResponseEntity indicating the result of the
@@ -88,13 +134,15 @@ public class UserController {
     private final UserService userService;
     private final AccountService accountService;
     private final TransactionService transactionService;
+    private final TransactionExportService transactionExportService;
 
     @Autowired
     public UserController(UserService userService, AccountService accountService,
-            TransactionService transactionService) {
+            TransactionService transactionService, TransactionExportService transactionExportService) {
         this.userService = userService;
         this.accountService = accountService;
         this.transactionService = transactionService;
+        this.transactionExportService = transactionExportService;
     }
 
     @GetMapping("/id")
@@ -124,24 +172,49 @@ public class UserController {
         return this.transactionService.getAllUserTransactions(httpServletRequest);
     }
 
+    @GetMapping("/transactions")
+    public ResponseEntity<?> getUserTransactionsPage(@ModelAttribute TransactionFilter transactionFilter,
+            @RequestParam(required = false) String cursor, @RequestParam(required = false) Integer limit,
+            HttpServletRequest httpServletRequest) {
+        return this.transactionService.getUserTransactionsPage(httpServletRequest, transactionFilter, cursor, limit);
+    }
+
+    @GetMapping("/transactions/export")
+    public ResponseEntity<?> exportAccountTransactions(@RequestParam String accountNumber,
+            @RequestParam(defaultValue = "csv") String format, @RequestParam(defaultValue = "false") boolean encrypted,
+            @RequestHeader(value = PayloadCodecResponseAdvice.CODEC_HEADER, required = false) String codec,
+            @RequestHeader(value = PayloadCodecResponseAdvice.COMPRESSION_HEADER, required = false) String compression,
+            HttpServletRequest httpServletRequest) {
+        return this.transactionExportService.exportAccountTransactions(httpServletRequest, accountNumber, format,
+                encrypted, codec, compression);
+    }
+
     @PostMapping("/account")
     public ResponseEntity<?> getIsAccountExists(@RequestParam String accountNumber) {
         return this.userService.getIsAccountExists(accountNumber);
     }
 
     @PostMapping("/account/open")
-    public ResponseEntity<?> openNewAccount(@RequestBody String encryptedAccountDto,
+    public ResponseEntity<?> openNewAccount(@EncryptedBody AccountDto accountDto,
             HttpServletRequest httpServletRequest) {
-        return this.userService.saveNewBankAccount(httpServletRequest, encryptedAccountDto);
+        return this.userService.saveNewBankAccount(httpServletRequest, accountDto);
     }
 
     @PostMapping("/new-transfer")
-    public ResponseEntity<?> sendNewTransfer(@RequestBody String encryptedTransferDto) {
-        return this.userService.sendNewTransfer(encryptedTransferDto);
+    public ResponseEntity<?> sendNewTransfer(@EncryptedBody TransferDto transferDto,
+            @RequestParam(defaultValue = "false") boolean async, HttpServletRequest httpServletRequest) {
+        return async ? this.userService.queueNewTransfer(httpServletRequest, transferDto)
+                : this.userService.sendNewTransfer(httpServletRequest, transferDto);
+    }
+
+    @GetMapping("/transfer-status")
+    public ResponseEntity<?> getTransferStatus(@RequestParam String transferId,
+            HttpServletRequest httpServletRequest) {
+        return this.userService.getTransferStatus(httpServletRequest, transferId);
     }
 
     @PatchMapping("/edit")
-    public ResponseEntity<?> editUser(@RequestBody String encryptedUserObject, HttpServletRequest httpServletRequest) {
-        return this.userService.editUserAccount(encryptedUserObject, httpServletRequest);
+    public ResponseEntity<?> editUser(@EncryptedBody UserDto userDto, HttpServletRequest httpServletRequest) {
+        return this.userService.editUserAccount(userDto, httpServletRequest);
     }
 }
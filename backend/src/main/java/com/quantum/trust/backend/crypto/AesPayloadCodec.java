@@ -0,0 +1,118 @@
+package com.quantum.trust.backend.crypto;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.security.spec.AlgorithmParameterSpec;
+
+import javax.crypto.Cipher;
+import javax.crypto.CipherInputStream;
+import javax.crypto.CipherOutputStream;
+import javax.crypto.SecretKey;
+
+/**
+ * @class AesPayloadCodec
+ * @description Base class for AES codecs prefixing the ciphertext with a random
+ *              nonce. Every thread reuses its own Cipher for the byte array
+ *              operations, while every stream gets a Cipher of its own.
+ *
+ * @constructor
+ * @param {String} name - The name of the codec.
+ * @param {String} transformation - The cipher transformation.
+ * @param {int}    nonceLength - The length of the nonce in bytes.
+ *
+ * @method getParameterSpec - Creates the cipher parameters for the given nonce.
+ * @param {byte[]} nonce - The array containing the nonce.
+ * @param {int}    offset - The offset of the nonce.
+ * @returns {AlgorithmParameterSpec} - The cipher parameters.
+ */
+public abstract class AesPayloadCodec implements PayloadCodec {
+    private static final SecureRandom nonceSource = new SecureRandom();
+
+    private final String name;
+    private final String transformation;
+    private final int nonceLength;
+    private final ThreadLocal<Cipher> cipher;
+
+    protected AesPayloadCodec(String name, String transformation, int nonceLength) {
+        this.name = name;
+        this.transformation = transformation;
+        this.nonceLength = nonceLength;
+        this.cipher = ThreadLocal.withInitial(this::createCipher);
+    }
+
+    @Override
+    public String getName() {
+        return this.name;
+    }
+
+    @Override
+    public byte[] encrypt(SecretKey key, byte[] input, int offset, int length) throws GeneralSecurityException {
+        byte[] nonce = this.getNonce();
+        Cipher encryptCipher = this.cipher.get();
+        encryptCipher.init(Cipher.ENCRYPT_MODE, key, this.getParameterSpec(nonce, 0));
+        byte[] output = new byte[this.nonceLength + encryptCipher.getOutputSize(length)];
+        System.arraycopy(nonce, 0, output, 0, this.nonceLength);
+        int written = encryptCipher.doFinal(input, offset, length, output, this.nonceLength);
+        if (this.nonceLength + written != output.length) {
+            throw new GeneralSecurityException("Unexpected ciphertext length");
+        }
+        return output;
+    }
+
+    @Override
+    public byte[] decrypt(SecretKey key, byte[] input, int offset, int length) throws GeneralSecurityException {
+        if (length < this.nonceLength) {
+            throw new GeneralSecurityException("Encrypted data is too short to contain a nonce");
+        }
+        Cipher decryptCipher = this.cipher.get();
+        decryptCipher.init(Cipher.DECRYPT_MODE, key, this.getParameterSpec(input, offset));
+        return decryptCipher.doFinal(input, offset + this.nonceLength, length - this.nonceLength);
+    }
+
+    @Override
+    public OutputStream getEncryptingStream(SecretKey key, OutputStream outputStream) throws IOException {
+        byte[] nonce = this.getNonce();
+        Cipher streamCipher = this.createCipher();
+        try {
+            streamCipher.init(Cipher.ENCRYPT_MODE, key, this.getParameterSpec(nonce, 0));
+        } catch (GeneralSecurityException e) {
+            throw new IOException("Could not initialize cipher", e);
+        }
+        outputStream.write(nonce);
+        return new CipherOutputStream(outputStream, streamCipher);
+    }
+
+    @Override
+    public InputStream getDecryptingStream(SecretKey key, InputStream inputStream) throws IOException {
+        byte[] nonce = inputStream.readNBytes(this.nonceLength);
+        if (nonce.length != this.nonceLength) {
+            throw new IOException("Encrypted data is too short to contain a nonce");
+        }
+        Cipher streamCipher = this.createCipher();
+        try {
+            streamCipher.init(Cipher.DECRYPT_MODE, key, this.getParameterSpec(nonce, 0));
+        } catch (GeneralSecurityException e) {
+            throw new IOException("Could not initialize cipher", e);
+        }
+        return new CipherInputStream(inputStream, streamCipher);
+    }
+
+    protected abstract AlgorithmParameterSpec getParameterSpec(byte[] nonce, int offset);
+
+    private byte[] getNonce() {
+        byte[] nonce = new byte[this.nonceLength];
+        nonceSource.nextBytes(nonce);
+        return nonce;
+    }
+
+    private Cipher createCipher() {
+        try {
+            return Cipher.getInstance(this.transformation);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cipher " + this.transformation + " is not available", e);
+        }
+    }
+}
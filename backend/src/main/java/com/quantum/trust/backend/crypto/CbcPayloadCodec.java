@@ -0,0 +1,29 @@
+package com.quantum.trust.backend.crypto;
+
+import java.security.spec.AlgorithmParameterSpec;
+
+import javax.crypto.spec.IvParameterSpec;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * @class CbcPayloadCodec
+ * @description AES/CBC/PKCS5Padding codec with a 16 byte IV. This is the
+ *              format used by the frontend and by payloads without an envelope
+ *              header.
+ */
+@Component
+public class CbcPayloadCodec extends AesPayloadCodec {
+    public static final String NAME = "cbc";
+
+    private static final int IV_LENGTH = 16;
+
+    public CbcPayloadCodec() {
+        super(NAME, "AES/CBC/PKCS5Padding", IV_LENGTH);
+    }
+
+    @Override
+    protected AlgorithmParameterSpec getParameterSpec(byte[] nonce, int offset) {
+        return new IvParameterSpec(nonce, offset, IV_LENGTH);
+    }
+}
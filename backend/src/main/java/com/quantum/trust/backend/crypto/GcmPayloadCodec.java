@@ -0,0 +1,31 @@
+package com.quantum.trust.backend.crypto;
+
+import java.security.spec.AlgorithmParameterSpec;
+
+import javax.crypto.spec.GCMParameterSpec;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * @class GcmPayloadCodec
+ * @description AES/GCM/NoPadding codec with a random 12 byte nonce and a 128 bit
+ *              authentication tag appended to the ciphertext. GCM needs no
+ *              padding, runs on the AES and carry-less multiplication
+ *              intrinsics of the JVM and rejects tampered payloads.
+ */
+@Component
+public class GcmPayloadCodec extends AesPayloadCodec {
+    public static final String NAME = "gcm";
+
+    private static final int NONCE_LENGTH = 12;
+    private static final int TAG_LENGTH_BITS = 128;
+
+    public GcmPayloadCodec() {
+        super(NAME, "AES/GCM/NoPadding", NONCE_LENGTH);
+    }
+
+    @Override
+    protected AlgorithmParameterSpec getParameterSpec(byte[] nonce, int offset) {
+        return new GCMParameterSpec(TAG_LENGTH_BITS, nonce, offset, NONCE_LENGTH);
+    }
+}
@@ -0,0 +1,60 @@
+package com.quantum.trust.backend.crypto;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.GeneralSecurityException;
+
+import javax.crypto.SecretKey;
+
+/**
+ * @interface PayloadCodec
+ * @description Service provider interface for the ciphers used to protect
+ *              encrypted payloads. Every codec registered as a Spring bean can
+ *              be selected by its name in the envelope header. The binary form
+ *              produced by a codec always starts with its nonce followed by the
+ *              ciphertext.
+ *
+ * @method getName - Retrieves the name of the codec used in envelope headers.
+ * @returns {String} - The codec name.
+ *
+ * @method encrypt - Encrypts the given range of bytes.
+ * @param {SecretKey} key - The AES key.
+ * @param {byte[]}    input - The plain data.
+ * @param {int}       offset - The offset of the plain data.
+ * @param {int}       length - The length of the plain data.
+ * @returns {byte[]} - The nonce followed by the ciphertext.
+ *
+ * @method decrypt - Decrypts the given range of bytes.
+ * @param {SecretKey} key - The AES key.
+ * @param {byte[]}    input - The nonce followed by the ciphertext.
+ * @param {int}       offset - The offset of the encrypted data.
+ * @param {int}       length - The length of the encrypted data.
+ * @returns {byte[]} - The plain data.
+ *
+ * @method getEncryptingStream - Writes a fresh nonce to the given stream and
+ *         returns a stream encrypting everything written to it. Closing the
+ *         returned stream finishes the encryption.
+ * @param {SecretKey}    key - The AES key.
+ * @param {OutputStream} outputStream - The stream receiving the nonce and the
+ *                       ciphertext.
+ * @returns {OutputStream} - The encrypting stream.
+ *
+ * @method getDecryptingStream - Reads the nonce from the given stream and
+ *         returns a stream decrypting the remaining ciphertext.
+ * @param {SecretKey}   key - The AES key.
+ * @param {InputStream} inputStream - The stream with the nonce and the
+ *                      ciphertext.
+ * @returns {InputStream} - The decrypting stream.
+ */
+public interface PayloadCodec {
+    String getName();
+
+    byte[] encrypt(SecretKey key, byte[] input, int offset, int length) throws GeneralSecurityException;
+
+    byte[] decrypt(SecretKey key, byte[] input, int offset, int length) throws GeneralSecurityException;
+
+    OutputStream getEncryptingStream(SecretKey key, OutputStream outputStream) throws IOException;
+
+    InputStream getDecryptingStream(SecretKey key, InputStream inputStream) throws IOException;
+}
@@ -0,0 +1,137 @@
+package com.quantum.trust.backend.crypto;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * @enum PayloadCompression
+ * @description Compression applied to the JSON of an encrypted payload before
+ *              it is encrypted. Ciphertext does not compress, so repetitive
+ *              JSON has to be compressed on this side of the cipher to save
+ *              bandwidth and AES work. DEFLATE produces the zlib format read by
+ *              the usual browser inflate libraries and favours speed over
+ *              ratio, inflated data is limited to MAX_INFLATED_SIZE bytes.
+ *
+ * @method getName - Retrieves the name used in envelope headers.
+ * @returns {String} - The name, empty for no compression.
+ *
+ * @method compress - Wraps the given stream into a compressing stream. Closing
+ *         the returned stream finishes the compression and closes the given
+ *         stream.
+ * @param {OutputStream} outputStream - The stream receiving compressed data.
+ * @returns {OutputStream} - The compressing stream.
+ *
+ * @method decompress - Wraps the given stream into a decompressing stream.
+ * @param {InputStream} inputStream - The stream of compressed data.
+ * @returns {InputStream} - The decompressing stream.
+ *
+ * @method fromName - Finds the compression with the given name.
+ * @param {String} name - The name of the compression.
+ * @returns {PayloadCompression} - The compression or null if it is unknown.
+ */
+public enum PayloadCompression {
+    NONE("") {
+        @Override
+        public OutputStream compress(OutputStream outputStream) {
+            return outputStream;
+        }
+
+        @Override
+        public InputStream decompress(InputStream inputStream) {
+            return inputStream;
+        }
+    },
+    DEFLATE("deflate") {
+        @Override
+        public OutputStream compress(OutputStream outputStream) {
+            return new FastDeflaterOutputStream(outputStream);
+        }
+
+        @Override
+        public InputStream decompress(InputStream inputStream) {
+            return new BoundedInflaterInputStream(inputStream);
+        }
+    };
+
+    public static final long MAX_INFLATED_SIZE = 16L * 1024 * 1024;
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final String name;
+
+    PayloadCompression(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public abstract OutputStream compress(OutputStream outputStream);
+
+    public abstract InputStream decompress(InputStream inputStream);
+
+    public static PayloadCompression fromName(String name) {
+        for (PayloadCompression compression : values()) {
+            if (compression.name.equals(name)) {
+                return compression;
+            }
+        }
+        return null;
+    }
+
+    private static final class FastDeflaterOutputStream extends DeflaterOutputStream {
+        private boolean closed;
+
+        private FastDeflaterOutputStream(OutputStream outputStream) {
+            super(outputStream, new Deflater(Deflater.BEST_SPEED), BUFFER_SIZE);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (this.closed) {
+                return;
+            }
+            this.closed = true;
+            try {
+                super.close();
+            } finally {
+                this.def.end();
+            }
+        }
+    }
+
+    private static final class BoundedInflaterInputStream extends InflaterInputStream {
+        private long inflatedSize;
+
+        private BoundedInflaterInputStream(InputStream inputStream) {
+            super(inputStream, new Inflater(), BUFFER_SIZE);
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                this.inflatedSize += read;
+                if (this.inflatedSize > MAX_INFLATED_SIZE) {
+                    throw new IOException("Inflated payload exceeds " + MAX_INFLATED_SIZE + " bytes");
+                }
+            }
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                this.inf.end();
+            }
+        }
+    }
+}
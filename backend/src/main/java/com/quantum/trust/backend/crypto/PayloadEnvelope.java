@@ -0,0 +1,162 @@
+package com.quantum.trust.backend.crypto;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Pattern;
+
+/**
+ * @class PayloadEnvelope
+ * @description Describes the textual envelope of an encrypted payload. An
+ *              envelope has the form qt1.&lt;codec&gt;.&lt;Base64&gt; or
+ *              qt1.&lt;codec&gt;+&lt;compression&gt;.&lt;Base64&gt;, where the
+ *              Base64 part holds the binary output of the codec. As Base64
+ *              never contains a dot, data without a header is unambiguous and
+ *              is read as the legacy uncompressed CBC format.
+ *
+ * @method of - Creates an uncompressed envelope for the given codec.
+ * @param {String} codecName - The name of the codec.
+ * @returns {PayloadEnvelope} - The envelope.
+ * @throws {IllegalArgumentException} - If the codec name is malformed.
+ *
+ * @method of - Creates an envelope for the given codec and compression.
+ * @param {String}             codecName - The name of the codec.
+ * @param {PayloadCompression} compression - The compression of the JSON.
+ * @returns {PayloadEnvelope} - The envelope.
+ * @throws {IllegalArgumentException} - If the codec name is malformed.
+ *
+ * @method parse - Reads the envelope from the header of the encrypted data.
+ * @param {String} encryptedData - The encrypted data.
+ * @returns {PayloadEnvelope} - The envelope of the data.
+ * @throws {IllegalArgumentException} - If the header is malformed.
+ *
+ * @method read - Reads the envelope from the header of the encrypted stream and
+ *         leaves the stream positioned at the Base64 part.
+ * @param {InputStream} inputStream - The stream supporting mark and reset.
+ * @returns {PayloadEnvelope} - The envelope of the stream.
+ * @throws {IOException} - If the header is malformed.
+ *
+ * @method getCompression - Retrieves the compression applied before the
+ *         encryption.
+ * @returns {PayloadCompression} - The compression.
+ *
+ * @method getHeader - Retrieves the header preceding the Base64 part.
+ * @returns {String} - The header or an empty string for the legacy format.
+ */
+public final class PayloadEnvelope {
+    public static final String VERSION = "qt1";
+    public static final PayloadEnvelope LEGACY = new PayloadEnvelope(CbcPayloadCodec.NAME, PayloadCompression.NONE,
+            "");
+
+    private static final char SEPARATOR = '.';
+    private static final char COMPRESSION_SEPARATOR = '+';
+    private static final int MAX_TOKEN_LENGTH = 48;
+    private static final Pattern CODEC_NAME_PATTERN = Pattern.compile("[a-z0-9]{1,32}");
+
+    private final String codecName;
+    private final PayloadCompression compression;
+    private final String header;
+
+    private PayloadEnvelope(String codecName, PayloadCompression compression, String header) {
+        this.codecName = codecName;
+        this.compression = compression;
+        this.header = header;
+    }
+
+    public static PayloadEnvelope of(String codecName) {
+        return of(codecName, PayloadCompression.NONE);
+    }
+
+    public static PayloadEnvelope of(String codecName, PayloadCompression compression) {
+        if (codecName == null || !CODEC_NAME_PATTERN.matcher(codecName).matches()) {
+            throw new IllegalArgumentException("Malformed codec name");
+        }
+        String token = compression == PayloadCompression.NONE ? codecName
+                : codecName + COMPRESSION_SEPARATOR + compression.getName();
+        return new PayloadEnvelope(codecName, compression, VERSION + SEPARATOR + token + SEPARATOR);
+    }
+
+    public static PayloadEnvelope parse(String encryptedData) {
+        int versionEnd = encryptedData.indexOf(SEPARATOR);
+        if (versionEnd < 0) {
+            return LEGACY;
+        }
+        if (!VERSION.equals(encryptedData.substring(0, versionEnd))) {
+            throw new IllegalArgumentException("Unsupported envelope version");
+        }
+        int codecEnd = encryptedData.indexOf(SEPARATOR, versionEnd + 1);
+        if (codecEnd < 0) {
+            throw new IllegalArgumentException("Malformed envelope header");
+        }
+        return fromToken(encryptedData.substring(versionEnd + 1, codecEnd));
+    }
+
+    public static PayloadEnvelope read(InputStream inputStream) throws IOException {
+        inputStream.mark(MAX_TOKEN_LENGTH + 1);
+        String version = readToken(inputStream);
+        if (version == null) {
+            inputStream.reset();
+            return LEGACY;
+        }
+        if (!VERSION.equals(version)) {
+            throw new IOException("Unsupported envelope version");
+        }
+        String token = readToken(inputStream);
+        if (token == null) {
+            throw new IOException("Malformed envelope header");
+        }
+        try {
+            return fromToken(token);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    public String getCodecName() {
+        return this.codecName;
+    }
+
+    public PayloadCompression getCompression() {
+        return this.compression;
+    }
+
+    public String getHeader() {
+        return this.header;
+    }
+
+    public boolean isLegacy() {
+        return this.header.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return this.isLegacy() ? "legacy" : this.header;
+    }
+
+    private static PayloadEnvelope fromToken(String token) {
+        int compressionStart = token.indexOf(COMPRESSION_SEPARATOR);
+        if (compressionStart < 0) {
+            return of(token);
+        }
+        PayloadCompression compression = PayloadCompression.fromName(token.substring(compressionStart + 1));
+        if (compression == null || compression == PayloadCompression.NONE) {
+            throw new IllegalArgumentException("Unsupported payload compression");
+        }
+        return of(token.substring(0, compressionStart), compression);
+    }
+
+    private static String readToken(InputStream inputStream) throws IOException {
+        byte[] token = new byte[MAX_TOKEN_LENGTH];
+        for (int length = 0; length <= MAX_TOKEN_LENGTH; length++) {
+            int nextByte = inputStream.read();
+            if (nextByte == SEPARATOR) {
+                return new String(token, 0, length, StandardCharsets.US_ASCII);
+            }
+            if (nextByte < 0 || length == MAX_TOKEN_LENGTH) {
+                return null;
+            }
+            token[length] = (byte) nextByte;
+        }
+        return null;
+    }
+}
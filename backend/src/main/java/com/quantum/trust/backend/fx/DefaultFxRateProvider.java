@@ -0,0 +1,37 @@
+package com.quantum.trust.backend.fx;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * @class DefaultFxRateProvider
+ * @description Provider of the fixed exchange rates built into the
+ *              application. It is used until the configured provider has
+ *              loaded its first rates and whenever no provider is configured.
+ */
+@Component
+public class DefaultFxRateProvider implements FxRateProvider {
+    public static final String NAME = "default";
+
+    private static final Map<String, BigDecimal> rates = Map.of(
+            "PLN", BigDecimal.ONE,
+            "EUR", new BigDecimal("4.2883"),
+            "USD", new BigDecimal("3.8659"),
+            "GBP", new BigDecimal("5.0812"),
+            "CHF", new BigDecimal("4.5574"),
+            "JPY", new BigDecimal("0.027475"),
+            "AUD", new BigDecimal("2.596"),
+            "CAD", new BigDecimal("2.8475"));
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public Map<String, BigDecimal> loadRates() {
+        return rates;
+    }
+}
@@ -0,0 +1,59 @@
+package com.quantum.trust.backend.fx;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * @class FileFxRateProvider
+ * @description Provider reading the exchange rates from a properties file
+ *              with one currency code and its rate per line, for example
+ *              {@code EUR=4.2883}. The file is read again on every load, so
+ *              replacing it publishes new rates on the next refresh.
+ *
+ * @method loadRates - Reads the rates from the configured file.
+ * @returns {Map<String, BigDecimal>} - The rates by currency code.
+ * @throws {IOException} - If no file is configured, the file cannot be read
+ *         or a rate is not a decimal number.
+ */
+@Component
+public class FileFxRateProvider implements FxRateProvider {
+    public static final String NAME = "file";
+
+    @Value("${fx.rates.file:}")
+    String ratesFile;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public Map<String, BigDecimal> loadRates() throws IOException {
+        if (this.ratesFile == null || this.ratesFile.isBlank()) {
+            throw new IOException("No exchange rate file is configured");
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(Path.of(this.ratesFile), StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        Map<String, BigDecimal> rates = new HashMap<>();
+        for (String currency : properties.stringPropertyNames()) {
+            try {
+                rates.put(currency.trim(), new BigDecimal(properties.getProperty(currency).trim()));
+            } catch (NumberFormatException e) {
+                throw new IOException("Invalid exchange rate of " + currency, e);
+            }
+        }
+        return rates;
+    }
+}
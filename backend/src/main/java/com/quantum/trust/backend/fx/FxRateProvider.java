@@ -0,0 +1,26 @@
+package com.quantum.trust.backend.fx;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * @interface FxRateProvider
+ * @description Service provider interface for the sources of exchange rates.
+ *              Every provider registered as a Spring bean can be selected by
+ *              its name in the configuration. The rates are the prices of one
+ *              unit of every currency in the base currency, the złoty.
+ *
+ * @method getName - Retrieves the name of the provider used in the
+ *         configuration.
+ * @returns {String} - The provider name.
+ *
+ * @method loadRates - Loads the current exchange rates.
+ * @returns {Map<String, BigDecimal>} - The rates by ISO 4217 currency code.
+ * @throws {IOException} - If the rates cannot be loaded.
+ */
+public interface FxRateProvider {
+    String getName();
+
+    Map<String, BigDecimal> loadRates() throws IOException;
+}
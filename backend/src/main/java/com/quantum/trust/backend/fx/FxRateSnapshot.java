@@ -0,0 +1,154 @@
+package com.quantum.trust.backend.fx;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.quantum.trust.backend.model.Money;
+
+/**
+ * @class FxRateSnapshot
+ * @description Immutable version of the exchange rate table. Every currency
+ *              gets a dense index and the cross rates of all currency pairs
+ *              are divided once when the snapshot is built, so a conversion
+ *              is two index lookups and one multiplication. Cross rates keep
+ *              34 significant digits and the result is rounded once, half to
+ *              even, to the minor unit of the target currency. Currencies
+ *              without a rate are converted at the rate of the base currency,
+ *              as before. A snapshot is never modified, it can be shared
+ *              between threads and kept by a caller to convert every amount
+ *              of an operation at the same rates.
+ *
+ * @field {long} version - The version of the snapshot, increasing with every
+ *        published table.
+ *
+ * @method of - Builds a snapshot of the given rates.
+ * @param {long}                    version - The version of the snapshot.
+ * @param {Map<String, BigDecimal>} rates - The rates of the currencies in the
+ *                                  base currency.
+ * @returns {FxRateSnapshot} - The snapshot.
+ * @throws {IllegalArgumentException} - If a currency is unknown or a rate is
+ *         not positive.
+ *
+ * @method getRates - Retrieves the rates the snapshot was built from.
+ * @returns {Map<String, BigDecimal>} - The rates sorted by currency code.
+ *
+ * @method getRate - Retrieves the cross rate of a currency pair.
+ * @param {String} fromCurrency - The original currency.
+ * @param {String} toCurrency - The target currency.
+ * @returns {BigDecimal} - The price of one unit of the original currency in
+ *          the target currency.
+ *
+ * @method convertMinorUnits - Converts minor units into another currency.
+ * @param {long}   minorUnits - The amount in minor units of the original
+ *                 currency.
+ * @param {String} fromCurrency - The original currency.
+ * @param {String} toCurrency - The target currency.
+ * @returns {long} - The amount in minor units of the target currency.
+ *
+ * @method convert - Converts money into another currency.
+ * @param {Money}  amount - The money to be converted.
+ * @param {String} toCurrency - The target currency.
+ * @returns {Money} - The converted money.
+ *
+ * @method convert - Converts an approximate amount into another currency.
+ * @param {float}  amount - The amount in major units.
+ * @param {String} fromCurrency - The original currency.
+ * @param {String} toCurrency - The target currency.
+ * @returns {float} - The amount in major units of the target currency.
+ */
+public final class FxRateSnapshot {
+    private static final MathContext CROSS_RATE_CONTEXT = MathContext.DECIMAL128;
+    private static final RoundingMode CONVERSION_ROUNDING = RoundingMode.HALF_EVEN;
+
+    private final long version;
+    private final Map<String, BigDecimal> rates;
+    private final Map<String, Integer> currencyIndexes;
+    private final int[] fractionDigits;
+    private final BigDecimal[][] crossRates;
+    private final float[][] floatCrossRates;
+
+    private FxRateSnapshot(long version, Map<String, BigDecimal> rates) {
+        this.version = version;
+        this.rates = Collections.unmodifiableMap(new TreeMap<>(rates));
+        int size = this.rates.size() + 1;
+        BigDecimal[] indexedRates = new BigDecimal[size];
+        this.currencyIndexes = new HashMap<>();
+        this.fractionDigits = new int[size];
+        int index = 0;
+        for (Map.Entry<String, BigDecimal> rate : this.rates.entrySet()) {
+            this.currencyIndexes.put(rate.getKey(), index);
+            this.fractionDigits[index] = Money.getFractionDigits(rate.getKey());
+            indexedRates[index++] = rate.getValue();
+        }
+        indexedRates[index] = BigDecimal.ONE;
+        this.crossRates = new BigDecimal[size][size];
+        this.floatCrossRates = new float[size][size];
+        for (int from = 0; from < size; from++) {
+            for (int to = 0; to < size; to++) {
+                this.crossRates[from][to] = indexedRates[from].divide(indexedRates[to], CROSS_RATE_CONTEXT);
+                this.floatCrossRates[from][to] = this.crossRates[from][to].floatValue();
+            }
+        }
+    }
+
+    public static FxRateSnapshot of(long version, Map<String, BigDecimal> rates) throws IllegalArgumentException {
+        for (Map.Entry<String, BigDecimal> rate : rates.entrySet()) {
+            Money.getFractionDigits(rate.getKey());
+            if (rate.getValue() == null || rate.getValue().signum() <= 0) {
+                throw new IllegalArgumentException("Invalid exchange rate of " + rate.getKey());
+            }
+        }
+        return new FxRateSnapshot(version, rates);
+    }
+
+    public long getVersion() {
+        return this.version;
+    }
+
+    public Map<String, BigDecimal> getRates() {
+        return this.rates;
+    }
+
+    public BigDecimal getRate(String fromCurrency, String toCurrency) {
+        return this.crossRates[this.getIndex(fromCurrency)][this.getIndex(toCurrency)];
+    }
+
+    public long convertMinorUnits(long minorUnits, String fromCurrency, String toCurrency) {
+        if (fromCurrency.equals(toCurrency)) {
+            return minorUnits;
+        }
+        int from = this.getIndex(fromCurrency);
+        int to = this.getIndex(toCurrency);
+        return BigDecimal.valueOf(minorUnits, this.getFractionDigits(from, fromCurrency))
+                .multiply(this.crossRates[from][to])
+                .setScale(this.getFractionDigits(to, toCurrency), CONVERSION_ROUNDING)
+                .unscaledValue().longValueExact();
+    }
+
+    public Money convert(Money amount, String toCurrency) {
+        if (amount.getCurrency().equals(toCurrency)) {
+            return amount;
+        }
+        return Money.ofMinor(this.convertMinorUnits(amount.getMinorUnits(), amount.getCurrency(), toCurrency),
+                toCurrency);
+    }
+
+    public float convert(float amount, String fromCurrency, String toCurrency) {
+        return amount * this.floatCrossRates[this.getIndex(fromCurrency)][this.getIndex(toCurrency)];
+    }
+
+    private int getIndex(String currency) {
+        Integer index = this.currencyIndexes.get(currency);
+        return index != null ? index : this.fractionDigits.length - 1;
+    }
+
+    private int getFractionDigits(int index, String currency) {
+        return index < this.fractionDigits.length - 1 ? this.fractionDigits[index]
+                : Money.getFractionDigits(currency);
+    }
+}
@@ -2,6 +2,7 @@ package com.quantum.trust.backend.mappers;
 
 import org.springframework.stereotype.Component;
 
+import com.quantum.trust.backend.model.Money;
 import com.quantum.trust.backend.model.dto.AccountDto;
 import com.quantum.trust.backend.model.entities.Account;
 
@@ -12,13 +13,17 @@ import com.quantum.trust.backend.model.entities.Account;
  *
  * @class AccountMapper
  *
- * @method convertToAccountDto - Converts an Account entity to an AccountDto.
+ * @method convertToAccountDto - Converts an Account entity to an AccountDto
+ *         with the balance in major units.
  * @param {Account} account - The Account entity to convert.
  * @returns {AccountDto} - The converted AccountDto.
  *
- * @method convertToAccount - Converts an AccountDto to an Account entity.
+ * @method convertToAccount - Converts an AccountDto to an Account entity
+ *         with the balance in minor units.
  * @param {AccountDto} accountDto - The AccountDto to convert.
  * @returns {Account} - The converted Account entity.
+ * @throws {ArithmeticException} - If the balance is finer than the minor unit
+ *         of the currency.
  */
 @Component
 public class AccountMapper {
@@ -26,7 +31,7 @@ public class AccountMapper {
         return AccountDto
                 .builder()
                 .id(account.getId())
-                .balance(account.getBalance())
+                .balance(Money.ofMinor(account.getBalance(), account.getCurrency()).toDecimal())
                 .currency(account.getCurrency())
                 .image(account.getImage())
                 .type(account.getType())
@@ -36,7 +41,7 @@ public class AccountMapper {
     public Account convertToAccount(AccountDto accountDto) {
         return Account
                 .builder()
-                .balance(accountDto.getBalance())
+                .balance(Money.of(accountDto.getBalance(), accountDto.getCurrency()).getMinorUnits())
                 .currency(accountDto.getCurrency())
                 .image(accountDto.getImage())
                 .type(accountDto.getType())
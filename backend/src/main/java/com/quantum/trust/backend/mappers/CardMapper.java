@@ -11,6 +11,10 @@ import com.quantum.trust.backend.model.entities.Card;
 /**
  * @component CardMapper
  * @description Mapper class for converting between Card entities and Card DTOs.
+ *              The DTOs carry the expiration date as MM/yy when read and as
+ *              dd-MM-yyyy when a card is ordered. The fees and limits are
+ *              encrypted for the DTOs and decoded from them by the
+ *              CardService, as their units depend on the account of the card.
  *
  * @class CardMapper
  *
@@ -24,11 +28,11 @@ import com.quantum.trust.backend.model.entities.Card;
  */
 @Component
 public class CardMapper {
+    private static final DateTimeFormatter INPUT_DATE_FORMATTER = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+    private static final DateTimeFormatter OUTPUT_DATE_FORMATTER = DateTimeFormatter.ofPattern("MM/yy");
+
     public CardDto convertToCardDto(Card card) {
-        DateTimeFormatter inputFormatter = DateTimeFormatter.ofPattern("dd-MM-yyyy");
-        LocalDate expirationDate = LocalDate.parse(card.getExpirationDate(), inputFormatter);
-        DateTimeFormatter outputFormatter = DateTimeFormatter.ofPattern("MM/yy");
-        String formattedExpirationDate = expirationDate.format(outputFormatter);
+        String formattedExpirationDate = card.getExpirationDate().format(OUTPUT_DATE_FORMATTER);
         return CardDto
                 .builder()
                 .id(card.getId())
@@ -36,9 +40,7 @@ public class CardMapper {
                 .backImage(card.getBackImage())
                 .cvcCode(card.getCvcCode())
                 .expirationDate(formattedExpirationDate)
-                .fees(card.getFees())
                 .image(card.getImage())
-                .limits(card.getLimits())
                 .pin(card.getPin())
                 .publisher(card.getPublisher())
                 .showingCardSite(card.getShowingCardSite())
@@ -48,14 +50,14 @@ public class CardMapper {
     }
 
     public Card convertToCard(CardDto cardDto) {
+        LocalDate expirationDate = cardDto.getExpirationDate() == null ? null
+                : LocalDate.parse(cardDto.getExpirationDate(), INPUT_DATE_FORMATTER);
         return Card
                 .builder()
                 .backImage(cardDto.getBackImage())
                 .cvcCode(cardDto.getCvcCode())
-                .expirationDate(cardDto.getExpirationDate())
-                .fees(cardDto.getFees())
+                .expirationDate(expirationDate)
                 .image(cardDto.getImage())
-                .limits(cardDto.getLimits())
                 .pin(cardDto.getPin())
                 .publisher(cardDto.getPublisher())
                 .showingCardSite(cardDto.getShowingCardSite())
@@ -2,6 +2,7 @@ package com.quantum.trust.backend.mappers;
 
 import org.springframework.stereotype.Component;
 
+import com.quantum.trust.backend.model.Money;
 import com.quantum.trust.backend.model.dto.DepositDto;
 import com.quantum.trust.backend.model.entities.Deposit;
 
@@ -12,13 +13,17 @@ import com.quantum.trust.backend.model.entities.Deposit;
  *
  * @class DepositMapper
  *
- * @method convertToDepositDto - Converts a Deposit entity to a DepositDto.
+ * @method convertToDepositDto - Converts a Deposit entity to a DepositDto
+ *         with the balance in major units.
  * @param {Deposit} deposit - The Deposit entity to convert.
  * @returns {DepositDto} - The converted DepositDto.
  *
- * @method convertToDeposit - Converts a DepositDto to a Deposit entity.
+ * @method convertToDeposit - Converts a DepositDto to a Deposit entity with
+ *         the balance in minor units.
  * @param {DepositDto} depositDto - The DepositDto to convert.
  * @returns {Deposit} - The converted Deposit entity.
+ * @throws {ArithmeticException} - If the balance is finer than the minor unit
+ *         of the currency.
  */
 @Component
 public class DepositMapper {
@@ -27,7 +32,7 @@ public class DepositMapper {
                 .builder()
                 .id(deposit.getId())
                 .assignedAccountNumber(deposit.getAccount().toString())
-                .balance(deposit.getBalance())
+                .balance(Money.ofMinor(deposit.getBalance(), deposit.getCurrency()).toDecimal())
                 .currency(deposit.getCurrency())
                 .duration(deposit.getDuration())
                 .endDate(deposit.getEndDate())
@@ -39,7 +44,7 @@ public class DepositMapper {
     public Deposit convertToDeposit(DepositDto depositDto) {
         return Deposit
                 .builder()
-                .balance(depositDto.getBalance())
+                .balance(Money.of(depositDto.getBalance(), depositDto.getCurrency()).getMinorUnits())
                 .currency(depositDto.getCurrency())
                 .duration(depositDto.getDuration())
                 .endDate(depositDto.getEndDate())
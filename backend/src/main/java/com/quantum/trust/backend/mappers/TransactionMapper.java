@@ -2,6 +2,7 @@ package com.quantum.trust.backend.mappers;
 
 import org.springframework.stereotype.Component;
 
+import com.quantum.trust.backend.model.Money;
 import com.quantum.trust.backend.model.dto.TransactionDto;
 import com.quantum.trust.backend.model.entities.Transaction;
 
@@ -32,9 +33,10 @@ public class TransactionMapper {
                         .id(transaction.getId())
                         .assignedAccountNumber(
                                         assignedAccountNumber)
-                        .accountAmountAfter(transaction.getAccountAmountAfter())
+                        .accountAmountAfter(Money.ofMinor(transaction.getAccountAmountAfter(),
+                                        transaction.getAccountCurrency()))
                         .accountCurrency(transaction.getAccountCurrency())
-                        .amount(transaction.getAmount())
+                        .amount(Money.ofMinor(transaction.getAmount(), transaction.getCurrency()))
                         .category(transaction.getCategory())
                         .currency(transaction.getCurrency())
                         .date(transaction.getDate())
@@ -48,11 +50,11 @@ public class TransactionMapper {
         public Transaction convertToTransaction(TransactionDto transactionDto) {
                 return Transaction
                                 .builder()
-                                .accountAmountAfter(transactionDto.getAccountAmountAfter())
+                                .accountAmountAfter(transactionDto.getAccountAmountAfter().getMinorUnits())
                                 .account(transactionDto.getAccount())
                                 .card(transactionDto.getCard())
                                 .accountCurrency(transactionDto.getAccountCurrency())
-                                .amount(transactionDto.getAmount())
+                                .amount(transactionDto.getAmount().getMinorUnits())
                                 .category(transactionDto.getCategory())
                                 .currency(transactionDto.getCurrency())
                                 .date(transactionDto.getDate())
@@ -0,0 +1,21 @@
+package com.quantum.trust.backend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * @class AccountBalance
+ * @description Projection of a sum of journal lines of one account.
+ *
+ * @field {String} accountId - The number of the account or the code of the
+ *        system account.
+ * @field {long} amount - The sum of the lines in minor units.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class AccountBalance {
+    private final String accountId;
+    private final long amount;
+}
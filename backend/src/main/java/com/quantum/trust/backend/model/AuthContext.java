@@ -0,0 +1,23 @@
+package com.quantum.trust.backend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * @class AuthContext
+ * @description Immutable authentication state of a single request, created by
+ *              the JWT request filter once the token has been verified and
+ *              stored as a request attribute.
+ *
+ * @field {String} token - The verified JWT token.
+ * @field {String} identificator - The identificator of the user from the
+ *        token.
+ */
+@Getter
+@AllArgsConstructor
+@ToString(exclude = "token")
+public class AuthContext {
+    private final String token;
+    private final String identificator;
+}
@@ -0,0 +1,25 @@
+package com.quantum.trust.backend.model;
+
+/**
+ * @enum AuthorizationDecision
+ * @description Enum representing the decisions of a card payment
+ *              authorization.
+ *
+ * @field APPROVED - The payment is within the limits and the balance, and
+ *        its hold is posted to the ledger.
+ * @field DECLINED_CARD - The card does not exist, is suspended or expired, or
+ *        the security code is wrong.
+ * @field DECLINED_AMOUNT_LIMIT - The payment would exceed the daily amount
+ *        limit of its channel.
+ * @field DECLINED_COUNT_LIMIT - The payment would exceed the daily number of
+ *        payments of its channel.
+ * @field DECLINED_INSUFFICIENT_FUNDS - The balance of the account of the card
+ *        does not cover the payment.
+ */
+public enum AuthorizationDecision {
+    APPROVED,
+    DECLINED_CARD,
+    DECLINED_AMOUNT_LIMIT,
+    DECLINED_COUNT_LIMIT,
+    DECLINED_INSUFFICIENT_FUNDS
+}
@@ -0,0 +1,28 @@
+package com.quantum.trust.backend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * @class CardSpending
+ * @description Projection of a card transaction counted against the daily
+ *              limits of the card.
+ *
+ * @field {String} cardId - The number of the card.
+ * @field {String} category - The category of the transaction, naming its
+ *        channel.
+ * @field {long} amount - The amount in minor units of the account currency.
+ * @field {String} date - The date of the transaction.
+ * @field {String} hour - The hour of the transaction.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class CardSpending {
+    private final String cardId;
+    private final String category;
+    private final long amount;
+    private final String date;
+    private final String hour;
+}
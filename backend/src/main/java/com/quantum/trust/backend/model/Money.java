@@ -0,0 +1,200 @@
+package com.quantum.trust.backend.model;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/**
+ * @class Money
+ * @description Immutable class representing an amount of money as a long
+ *              number of minor units (grosze, cents) of an ISO 4217 currency.
+ *              The arithmetic is exact and fails on overflow instead of
+ *              drifting like float amounts. Conversions between currencies
+ *              are computed from the exact decimal rates of both currencies
+ *              against a common base currency and rounded once, half to
+ *              even, to the minor unit of the target currency. The static
+ *              methods offer the same operations on primitive minor units
+ *              for paths which should not allocate. Money is serialized to
+ *              JSON as a plain decimal number in major units.
+ *
+ * @field {long} minorUnits - The amount in minor units of the currency.
+ * @field {String} currency - The ISO 4217 code of the currency.
+ *
+ * @method ofMinor - Creates money from minor units.
+ * @param {long}   minorUnits - The amount in minor units.
+ * @param {String} currency - The code of the currency.
+ * @returns {Money} - The money.
+ *
+ * @method of - Creates money from a decimal amount in major units.
+ * @param {BigDecimal} amount - The amount in major units.
+ * @param {String}     currency - The code of the currency.
+ * @returns {Money} - The money.
+ * @throws {ArithmeticException} - If the amount has more fraction digits
+ *         than the currency or does not fit into minor units.
+ *
+ * @method zero - Creates zero money.
+ * @param {String} currency - The code of the currency.
+ * @returns {Money} - The money.
+ *
+ * @method plus - Adds money of the same currency.
+ * @param {Money} other - The money to add.
+ * @returns {Money} - The sum.
+ * @throws {IllegalArgumentException} - If the currencies differ.
+ * @throws {ArithmeticException} - If the sum overflows.
+ *
+ * @method minus - Subtracts money of the same currency.
+ * @param {Money} other - The money to subtract.
+ * @returns {Money} - The difference.
+ * @throws {IllegalArgumentException} - If the currencies differ.
+ * @throws {ArithmeticException} - If the difference overflows.
+ *
+ * @method isNegative - Checks whether the amount is below zero.
+ * @returns {boolean} - True if the amount is negative.
+ *
+ * @method convert - Converts the money into another currency.
+ * @param {String}     toCurrency - The code of the target currency.
+ * @param {BigDecimal} fromRate - The rate of the currency of the money.
+ * @param {BigDecimal} toRate - The rate of the target currency.
+ * @returns {Money} - The converted money.
+ *
+ * @method toDecimal - Retrieves the amount in major units.
+ * @returns {BigDecimal} - The amount scaled to the fraction digits of the
+ *          currency.
+ *
+ * @method getFractionDigits - Retrieves the number of fraction digits of a
+ *         currency.
+ * @param {String} currency - The code of the currency.
+ * @returns {int} - The number of fraction digits.
+ * @throws {IllegalArgumentException} - If the currency is unknown or has no
+ *         minor unit.
+ *
+ * @method toMinorUnits - Converts a decimal amount in major units into minor
+ *         units with the given rounding.
+ * @param {BigDecimal}   amount - The amount in major units.
+ * @param {String}       currency - The code of the currency.
+ * @param {RoundingMode} roundingMode - The rounding of surplus fraction
+ *                       digits.
+ * @returns {long} - The amount in minor units.
+ *
+ * @method convertMinorUnits - Converts minor units between currencies.
+ * @param {long}       minorUnits - The amount in minor units.
+ * @param {String}     fromCurrency - The code of the source currency.
+ * @param {BigDecimal} fromRate - The rate of the source currency.
+ * @param {String}     toCurrency - The code of the target currency.
+ * @param {BigDecimal} toRate - The rate of the target currency.
+ * @returns {long} - The amount in minor units of the target currency.
+ */
+@Getter
+@EqualsAndHashCode
+@JsonSerialize(using = Money.Serializer.class)
+public final class Money implements Comparable<Money>, Serializable {
+    private static final RoundingMode CONVERSION_ROUNDING = RoundingMode.HALF_EVEN;
+
+    private final long minorUnits;
+    private final String currency;
+
+    private Money(long minorUnits, String currency) {
+        this.minorUnits = minorUnits;
+        this.currency = currency;
+    }
+
+    public static Money ofMinor(long minorUnits, String currency) {
+        getFractionDigits(currency);
+        return new Money(minorUnits, currency);
+    }
+
+    public static Money of(BigDecimal amount, String currency) throws ArithmeticException {
+        return new Money(toMinorUnits(amount, currency, RoundingMode.UNNECESSARY), currency);
+    }
+
+    public static Money zero(String currency) {
+        return ofMinor(0L, currency);
+    }
+
+    public Money plus(Money other) {
+        this.requireSameCurrency(other);
+        return new Money(Math.addExact(this.minorUnits, other.minorUnits), this.currency);
+    }
+
+    public Money minus(Money other) {
+        this.requireSameCurrency(other);
+        return new Money(Math.subtractExact(this.minorUnits, other.minorUnits), this.currency);
+    }
+
+    public boolean isNegative() {
+        return this.minorUnits < 0;
+    }
+
+    public Money convert(String toCurrency, BigDecimal fromRate, BigDecimal toRate) {
+        if (this.currency.equals(toCurrency)) {
+            return this;
+        }
+        return new Money(convertMinorUnits(this.minorUnits, this.currency, fromRate, toCurrency, toRate),
+                toCurrency);
+    }
+
+    public BigDecimal toDecimal() {
+        return BigDecimal.valueOf(this.minorUnits, getFractionDigits(this.currency));
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        this.requireSameCurrency(other);
+        return Long.compare(this.minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public String toString() {
+        return this.toDecimal().toPlainString() + " " + this.currency;
+    }
+
+    public static int getFractionDigits(String currency) throws IllegalArgumentException {
+        int fractionDigits = Currency.getInstance(currency).getDefaultFractionDigits();
+        if (fractionDigits < 0) {
+            throw new IllegalArgumentException("Currency " + currency + " has no minor unit");
+        }
+        return fractionDigits;
+    }
+
+    public static long toMinorUnits(BigDecimal amount, String currency, RoundingMode roundingMode)
+            throws ArithmeticException {
+        return amount.setScale(getFractionDigits(currency), roundingMode).unscaledValue().longValueExact();
+    }
+
+    public static long convertMinorUnits(long minorUnits, String fromCurrency, BigDecimal fromRate,
+            String toCurrency, BigDecimal toRate) {
+        if (fromCurrency.equals(toCurrency)) {
+            return minorUnits;
+        }
+        return BigDecimal.valueOf(minorUnits, getFractionDigits(fromCurrency)).multiply(fromRate)
+                .divide(toRate, getFractionDigits(toCurrency), CONVERSION_ROUNDING).unscaledValue().longValueExact();
+    }
+
+    private void requireSameCurrency(Money other) {
+        if (!this.currency.equals(other.currency)) {
+            throw new IllegalArgumentException("Currency mismatch: " + this.currency + " and " + other.currency);
+        }
+    }
+
+    public static final class Serializer extends StdSerializer<Money> {
+        public Serializer() {
+            super(Money.class);
+        }
+
+        @Override
+        public void serialize(Money money, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            generator.writeNumber(money.toDecimal());
+        }
+    }
+}
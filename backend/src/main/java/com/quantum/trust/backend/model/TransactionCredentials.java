@@ -7,9 +7,10 @@ import lombok.Getter;
  * @class TransactionCredentials
  * @description Class representing the credentials for a transaction.
  *
- * @field {Float} accountAmountAfter - The account balance after the
- *        transaction.
- * @field {Float} amount - The amount of the transaction.
+ * @field {long} accountAmountAfter - The account balance after the
+ *        transaction in minor units.
+ * @field {long} amount - The amount of the transaction in minor units of the
+ *        account currency.
  * @field {String} category - The category of the transaction.
  * @field {String} status - The status of the transaction.
  * @field {String} title - The title of the transaction.
@@ -18,8 +19,8 @@ import lombok.Getter;
 @Getter
 @AllArgsConstructor
 public class TransactionCredentials {
-    private final Float accountAmountAfter;
-    private final Float amount;
+    private final long accountAmountAfter;
+    private final long amount;
     private final String category;
     private final String status;
     private final String title;
@@ -0,0 +1,72 @@
+package com.quantum.trust.backend.model;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Base64;
+
+import com.quantum.trust.backend.model.dto.TransactionDto;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * @class TransactionCursor
+ * @description Class representing the position of the last transaction of a
+ *              history page. The history is ordered by date, hour and id, all
+ *              descending, so the next page starts strictly after this key
+ *              and stays stable while new transactions are added.
+ *
+ * @field {String} date - The date of the last transaction of the page.
+ * @field {String} hour - The hour of the last transaction of the page.
+ * @field {Long} id - The identifier of the last transaction of the page.
+ *
+ * @method of - Creates the cursor pointing after the given transaction.
+ * @param {TransactionDto} transactionDto - The last transaction of the page.
+ * @returns {TransactionCursor} - The cursor.
+ *
+ * @method encode - Encodes the cursor into an opaque URL safe token.
+ * @returns {String} - The token.
+ *
+ * @method decode - Decodes a token created by encode.
+ * @param {String} token - The token.
+ * @returns {TransactionCursor} - The cursor.
+ * @throws {IllegalArgumentException} - If the token is malformed.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor
+public class TransactionCursor {
+    private static final String SEPARATOR = "|";
+
+    private final String date;
+    private final String hour;
+    private final Long id;
+
+    public static TransactionCursor of(TransactionDto transactionDto) {
+        return new TransactionCursor(transactionDto.getDate(), transactionDto.getHour(), transactionDto.getId());
+    }
+
+    public String encode() {
+        String value = this.date + SEPARATOR + this.hour + SEPARATOR + this.id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TransactionCursor decode(String token) throws IllegalArgumentException {
+        String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        String[] parts = value.split("\\|", -1);
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Malformed transaction cursor");
+        }
+        try {
+            LocalDate.parse(parts[0]);
+            LocalTime.parse(parts[1]);
+            return new TransactionCursor(parts[0], parts[1], Long.valueOf(parts[2]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Malformed transaction cursor", e);
+        }
+    }
+}
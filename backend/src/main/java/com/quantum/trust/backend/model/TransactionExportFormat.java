@@ -0,0 +1,48 @@
+package com.quantum.trust.backend.model;
+
+/**
+ * @enum TransactionExportFormat
+ * @description Enum representing the formats of the transaction export.
+ *
+ * @field CSV - Comma separated values with a header row.
+ * @field NDJSON - One JSON object per line.
+ *
+ * @method getMediaType - Retrieves the media type of the format.
+ * @returns {String} - The media type.
+ *
+ * @method getExtension - Retrieves the file extension of the format.
+ * @returns {String} - The file extension.
+ *
+ * @method fromName - Finds the format with the given name, ignoring case.
+ * @param {String} name - The name of the format.
+ * @returns {TransactionExportFormat} - The format or null if it is unknown.
+ */
+public enum TransactionExportFormat {
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String mediaType;
+    private final String extension;
+
+    TransactionExportFormat(String mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public String getMediaType() {
+        return this.mediaType;
+    }
+
+    public String getExtension() {
+        return this.extension;
+    }
+
+    public static TransactionExportFormat fromName(String name) {
+        for (TransactionExportFormat format : values()) {
+            if (format.name().equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        return null;
+    }
+}
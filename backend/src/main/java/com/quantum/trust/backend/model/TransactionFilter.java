@@ -0,0 +1,68 @@
+package com.quantum.trust.backend.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * @class TransactionFilter
+ * @description Class representing the optional server-side filters of the
+ *              transaction history, bound from the query parameters. Unset
+ *              fields do not filter.
+ *
+ * @field {String} fromDate - The first date of the transactions, inclusive.
+ * @field {String} toDate - The last date of the transactions, inclusive.
+ * @field {String} assignedAccountNumber - The number of the account or the
+ *        identifier of the card the transactions belong to.
+ * @field {String} type - The type of the transactions, incoming or outgoing.
+ * @field {String} category - The category of the transactions.
+ * @field {String} status - The status of the transactions.
+ * @field {BigDecimal} minAmount - The lowest amount of the transactions in
+ *        major units of their currency.
+ * @field {BigDecimal} maxAmount - The highest amount of the transactions in
+ *        major units of their currency.
+ *
+ * @method validate - Checks that the dates are ISO dates, the amounts fit
+ *         into minor units and the ranges are not reversed.
+ * @throws {IllegalArgumentException} - If the filter is invalid.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionFilter {
+    private static final BigDecimal MAX_AMOUNT = BigDecimal.valueOf(1_000_000_000_000L);
+
+    private String fromDate;
+    private String toDate;
+    private String assignedAccountNumber;
+    private String type;
+    private String category;
+    private String status;
+    private BigDecimal minAmount;
+    private BigDecimal maxAmount;
+
+    public void validate() throws IllegalArgumentException {
+        LocalDate from = this.fromDate != null ? LocalDate.parse(this.fromDate) : null;
+        LocalDate to = this.toDate != null ? LocalDate.parse(this.toDate) : null;
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("Date range is reversed");
+        }
+        if (isAmountOutOfRange(this.minAmount) || isAmountOutOfRange(this.maxAmount)) {
+            throw new IllegalArgumentException("Amount out of range");
+        }
+        if (this.minAmount != null && this.maxAmount != null && this.minAmount.compareTo(this.maxAmount) > 0) {
+            throw new IllegalArgumentException("Amount range is reversed");
+        }
+    }
+
+    private static boolean isAmountOutOfRange(BigDecimal amount) {
+        return amount != null && amount.abs().compareTo(MAX_AMOUNT) > 0;
+    }
+}
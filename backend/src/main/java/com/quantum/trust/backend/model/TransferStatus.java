@@ -0,0 +1,20 @@
+package com.quantum.trust.backend.model;
+
+/**
+ * @enum TransferStatus
+ * @description Enum representing the states of a queued transfer.
+ *
+ * @field PENDING - The transfer is accepted and waits in the queue of its
+ *        shard.
+ * @field COMPLETED - The transfer is applied and its transactions are
+ *        recorded.
+ * @field REJECTED - The transfer was not applied because an account does not
+ *        exist or the sender cannot cover the amount.
+ * @field FAILED - The transfer was not applied because of an error.
+ */
+public enum TransferStatus {
+    PENDING,
+    COMPLETED,
+    REJECTED,
+    FAILED
+}
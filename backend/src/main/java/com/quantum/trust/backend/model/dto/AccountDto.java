@@ -1,6 +1,7 @@
 package com.quantum.trust.backend.model.dto;
 
 import java.io.Serializable;
+import java.math.BigDecimal;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -17,7 +18,7 @@ import lombok.ToString;
  * @field {String} id - The unique identifier of the account.
  * @field {String} image - The image associated with the account.
  * @field {String} type - The type of the account.
- * @field {Float} balance - The balance of the account.
+ * @field {BigDecimal} balance - The balance of the account in major units.
  * @field {String} currency - The currency of the account.
  */
 @Getter
@@ -29,6 +30,6 @@ public class AccountDto implements Serializable {
     private String id;
     private String image;
     private String type;
-    private Float balance;
+    private BigDecimal balance;
     private String currency;
 }
@@ -0,0 +1,39 @@
+package com.quantum.trust.backend.model.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * @dto CardAuthorizationDto
+ * @description Data Transfer Object for card payment authorizations.
+ *
+ * @class CardAuthorizationDto
+ *
+ * @field {String} cardId - The number of the card.
+ * @field {String} channel - The channel of the payment, internet or cash.
+ * @field {String} securityCode - The CVC code for internet payments or the
+ *        PIN for cash withdrawals.
+ * @field {String} title - The title of the payment.
+ * @field {BigDecimal} amount - The amount of the payment in major units of the
+ *        account currency.
+ */
+@Getter
+@Setter
+@Builder
+@ToString(exclude = "securityCode")
+@AllArgsConstructor
+@NoArgsConstructor
+public class CardAuthorizationDto implements Serializable {
+    private String cardId;
+    private String channel;
+    private String securityCode;
+    private String title;
+    private BigDecimal amount;
+}
@@ -0,0 +1,30 @@
+package com.quantum.trust.backend.model.dto;
+
+import java.io.Serializable;
+
+import com.quantum.trust.backend.model.AuthorizationDecision;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * @dto CardAuthorizationResultDto
+ * @description Data Transfer Object for the result of a card payment
+ *              authorization.
+ *
+ * @class CardAuthorizationResultDto
+ *
+ * @field {String} authorizationId - The identifier of the approved
+ *        authorization or null if it was declined.
+ * @field {AuthorizationDecision} decision - The decision.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+public class CardAuthorizationResultDto implements Serializable {
+    private String authorizationId;
+    private AuthorizationDecision decision;
+}
@@ -1,6 +1,7 @@
 package com.quantum.trust.backend.model.dto;
 
 import java.io.Serializable;
+import java.math.BigDecimal;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -18,7 +19,7 @@ import lombok.ToString;
  * @field {String} id - The unique identifier of the deposit.
  * @field {String} type - The type of the deposit.
  * @field {Float} percent - The interest rate of the deposit.
- * @field {Float} balance - The balance of the deposit.
+ * @field {BigDecimal} balance - The balance of the deposit in major units.
  * @field {String} currency - The currency of the deposit.
  * @field {String} endDate - The end date of the deposit.
  * @field {String} assignedAccountNumber - The account number assigned to the
@@ -35,7 +36,7 @@ public class DepositDto implements Serializable {
     private String id;
     private String type;
     private Float percent;
-    private Float balance;
+    private BigDecimal balance;
     private String currency;
     private String endDate;
     private String assignedAccountNumber;
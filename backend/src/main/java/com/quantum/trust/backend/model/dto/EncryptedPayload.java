@@ -0,0 +1,32 @@
+package com.quantum.trust.backend.model.dto;
+
+import com.quantum.trust.backend.crypto.PayloadEnvelope;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * @dto EncryptedPayload
+ * @description Response body wrapper marking the given data for encryption.
+ *              The data is serialized, encrypted and Base64 encoded while it is
+ *              written to the response, producing the same JSON shape as
+ *              EncryptedDto.
+ *
+ * @class EncryptedPayload
+ *
+ * @field {Object}          data - The data to be encrypted.
+ * @field {PayloadEnvelope} envelope - The envelope of the encrypted data,
+ *        legacy unless the client asked for another codec.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class EncryptedPayload {
+    private final Object data;
+    private final PayloadEnvelope envelope;
+
+    public EncryptedPayload(Object data) {
+        this(data, PayloadEnvelope.LEGACY);
+    }
+}
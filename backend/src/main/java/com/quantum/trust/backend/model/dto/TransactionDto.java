@@ -2,6 +2,7 @@ package com.quantum.trust.backend.model.dto;
 
 import java.io.Serializable;
 
+import com.quantum.trust.backend.model.Money;
 import com.quantum.trust.backend.model.entities.Account;
 import com.quantum.trust.backend.model.entities.Card;
 
@@ -27,13 +28,18 @@ import lombok.ToString;
  * @field {String} assignedAccountNumber - The account number assigned to the
  *        transaction.
  * @field {String} type - The type of the transaction.
- * @field {Float} amount - The amount of the transaction.
+ * @field {Money} amount - The amount of the transaction.
  * @field {String} currency - The currency of the transaction.
- * @field {Float} accountAmountAfter - The account balance after the
+ * @field {Money} accountAmountAfter - The account balance after the
  *        transaction.
  * @field {String} category - The category of the transaction.
  * @field {String} accountCurrency - The currency of the account.
  * @field {String} status - The status of the transaction.
+ *
+ * @constructor
+ *              Initializes the TransactionDto without the account and card
+ *              entities from minor units, used by the projection of the transaction
+ *              history.
  */
 @Getter
 @Setter
@@ -50,10 +56,17 @@ public class TransactionDto implements Serializable {
     private Card card;
     private String assignedAccountNumber;
     private String type;
-    private Float amount;
+    private Money amount;
     private String currency;
-    private Float accountAmountAfter;
+    private Money accountAmountAfter;
     private String category;
     private String accountCurrency;
     private String status;
+
+    public TransactionDto(Long id, String date, String hour, String title, String assignedAccountNumber, String type,
+            long amount, String currency, long accountAmountAfter, String category, String accountCurrency,
+            String status) {
+        this(id, date, hour, title, null, null, assignedAccountNumber, type, Money.ofMinor(amount, currency), currency,
+                Money.ofMinor(accountAmountAfter, accountCurrency), category, accountCurrency, status);
+    }
 }
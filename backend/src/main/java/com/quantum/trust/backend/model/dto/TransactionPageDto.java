@@ -0,0 +1,27 @@
+package com.quantum.trust.backend.model.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * @dto TransactionPageDto
+ * @description Data Transfer Object for a page of the transaction history.
+ *
+ * @class TransactionPageDto
+ *
+ * @field {List<TransactionDto>} transactions - The transactions of the page,
+ *        from the newest.
+ * @field {String} nextCursor - The cursor of the next page or null if this is
+ *        the last page.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class TransactionPageDto implements Serializable {
+    private final List<TransactionDto> transactions;
+    private final String nextCursor;
+}
@@ -0,0 +1,36 @@
+package com.quantum.trust.backend.model.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * @dto TransferDto
+ * @description Data Transfer Object for new transfers.
+ *
+ * @class TransferDto
+ *
+ * @field {String} senderAccountNumber - The account number of the sender.
+ * @field {String} receiverAccountNumber - The account number of the receiver.
+ * @field {String} transferTitle - The title of the transfer.
+ * @field {BigDecimal} transferAmount - The amount of the transfer in major
+ *        units of the sender account currency.
+ */
+@Getter
+@Setter
+@Builder
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+public class TransferDto implements Serializable {
+    private String senderAccountNumber;
+    private String receiverAccountNumber;
+    private String transferTitle;
+    private BigDecimal transferAmount;
+}
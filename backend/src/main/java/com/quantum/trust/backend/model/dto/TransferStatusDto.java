@@ -0,0 +1,28 @@
+package com.quantum.trust.backend.model.dto;
+
+import java.io.Serializable;
+
+import com.quantum.trust.backend.model.TransferStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * @dto TransferStatusDto
+ * @description Data Transfer Object for the state of a queued transfer.
+ *
+ * @class TransferStatusDto
+ *
+ * @field {String} transferId - The identifier of the queued transfer.
+ * @field {TransferStatus} status - The state of the transfer.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+public class TransferStatusDto implements Serializable {
+    private String transferId;
+    private TransferStatus status;
+}
@@ -8,6 +8,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -24,7 +25,8 @@ import lombok.ToString;
  * @field {String} id - The unique identifier of the account.
  * @field {String} image - The image associated with the account.
  * @field {String} type - The type of the account.
- * @field {Float} balance - The balance of the account.
+ * @field {long} balance - The balance of the account in minor units of its
+ *        currency, loaded from the ledger and never persisted.
  * @field {String} currency - The currency of the account.
  * @field {User} user - The user associated with the account.
  */
@@ -47,8 +49,8 @@ public class Account {
     @Column(name = "type", nullable = false)
     private String type;
 
-    @Column(name = "balance", nullable = false)
-    private Float balance;
+    @Transient
+    private long balance;
 
     @Column(name = "currency", nullable = false)
     private String currency;
@@ -0,0 +1,59 @@
+package com.quantum.trust.backend.model.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * @entity BalanceCheckpoint
+ * @description Entity class representing the balance of an account folded
+ *              from the journal up to a journal line. The balance of the
+ *              account is the checkpoint plus the lines after it. Checkpoints
+ *              are written only by the compaction, the version makes two
+ *              concurrent compactions fail instead of folding lines twice.
+ *
+ * @class BalanceCheckpoint
+ *
+ * @field {String} accountId - The number of the account or the code of the
+ *        system account.
+ * @field {long} balance - The folded balance in minor units.
+ * @field {long} lastEntryId - The identifier of the last folded journal line.
+ * @field {Long} version - The optimistic lock version, null until the
+ *        checkpoint is first saved.
+ *
+ * @index idx_balance_checkpoints_last_entry - Serves the progress of the
+ *        compaction.
+ */
+@Getter
+@Setter
+@Builder
+@Entity
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "balance_checkpoints", indexes = {
+        @Index(name = "idx_balance_checkpoints_last_entry", columnList = "last_entry_id") })
+public class BalanceCheckpoint {
+    @Id
+    @Column(name = "account_id")
+    private String accountId;
+
+    @Column(name = "balance", nullable = false)
+    private long balance;
+
+    @Column(name = "last_entry_id", nullable = false)
+    private long lastEntryId;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+}
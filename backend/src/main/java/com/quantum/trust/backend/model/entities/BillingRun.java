@@ -0,0 +1,88 @@
+package com.quantum.trust.backend.model.entities;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * @entity BillingRun
+ * @description Entity class representing the monthly card fee billing of one
+ *              day, together with the report of its last attempt. A run which
+ *              did not complete is resumed by the next attempt, which charges
+ *              only the cards without a charge of the day.
+ *
+ * @class BillingRun
+ *
+ * @field {LocalDate} billingDate - The day the fees are billed for.
+ * @field {String} status - The status of the run, running, completed or
+ *        failed.
+ * @field {int} attempts - The number of started attempts.
+ * @field {int} billedCards - The number of cards charged by all attempts.
+ * @field {int} cancelledCards - The number of cards removed for insufficient
+ *        funds by all attempts.
+ * @field {int} skippedCards - The number of cards the last attempt skipped
+ *        because they had already been charged.
+ * @field {int} failedCards - The number of cards the last attempt failed to
+ *        charge.
+ * @field {Instant} startedAt - The start of the last attempt.
+ * @field {Instant} finishedAt - The end of the last attempt or null while it
+ *        is running.
+ * @field {long} durationMillis - The duration of the last attempt.
+ * @field {Long} version - The optimistic lock version, null until the run is
+ *        first saved.
+ */
+@Getter
+@Setter
+@Builder
+@Entity
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "billing_runs")
+public class BillingRun {
+    @Id
+    @Column(name = "billing_date")
+    private LocalDate billingDate;
+
+    @Column(name = "status", nullable = false)
+    private String status;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "billed_cards", nullable = false)
+    private int billedCards;
+
+    @Column(name = "cancelled_cards", nullable = false)
+    private int cancelledCards;
+
+    @Column(name = "skipped_cards", nullable = false)
+    private int skippedCards;
+
+    @Column(name = "failed_cards", nullable = false)
+    private int failedCards;
+
+    @Column(name = "started_at", nullable = false)
+    private Instant startedAt;
+
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+
+    @Column(name = "duration_millis", nullable = false)
+    private long durationMillis;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+}
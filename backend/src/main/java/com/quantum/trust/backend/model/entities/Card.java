@@ -5,8 +5,10 @@ import java.time.LocalDate;
 import com.quantum.trust.backend.annotations.CardId;
 
 import jakarta.persistence.Column;
+import jakarta.persistence.Embedded;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -28,15 +30,20 @@ import lombok.ToString;
  * @field {String} type - The type of the card.
  * @field {String} publisher - The publisher of the card.
  * @field {String} image - The image associated with the card.
- * @field {String} limits - The limits of the card.
+ * @field {CardLimits} limits - The transaction limits of the card.
  * @field {String} pin - The PIN code of the card.
  * @field {String} cvcCode - The CVC code of the card.
- * @field {String} expirationDate - The expiration date of the card.
+ * @field {LocalDate} expirationDate - The last day the card is valid.
  * @field {LocalDate} creationDate - The creation date of the card.
  * @field {String} showingCardSite - The site where the card is shown.
  * @field {String} backImage - The back image of the card.
- * @field {String} fees - The fees associated with the card.
+ * @field {CardFees} fees - The fees associated with the card.
  * @field {String} status - The status of the card.
+ *
+ * @index idx_cards_expiration_date - Serves the removal of expired cards and
+ *        the lookup of the next expiration date.
+ * @index idx_cards_monthly_fee - Serves the lookup of cards by their monthly
+ *        fee.
  */
 @Getter
 @Setter
@@ -45,7 +52,9 @@ import lombok.ToString;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "cards")
+@Table(name = "cards", indexes = {
+        @Index(name = "idx_cards_expiration_date", columnList = "expirationDate"),
+        @Index(name = "idx_cards_monthly_fee", columnList = "monthlyFee") })
 public class Card {
 
     @Id
@@ -65,8 +74,8 @@ public class Card {
     @Column(name = "image", nullable = false)
     private String image;
 
-    @Column(name = "limits", nullable = false)
-    private String limits;
+    @Embedded
+    private CardLimits limits;
 
     @Column(name = "pin", nullable = false)
     private String pin;
@@ -75,7 +84,7 @@ public class Card {
     private String cvcCode;
 
     @Column(name = "expirationDate", nullable = false)
-    private String expirationDate;
+    private LocalDate expirationDate;
 
     @Column(name = "creationDate", nullable = false)
     private LocalDate creationDate;
@@ -86,8 +95,8 @@ public class Card {
     @Column(name = "backImage", nullable = false)
     private String backImage;
 
-    @Column(name = "fees", nullable = false)
-    private String fees;
+    @Embedded
+    private CardFees fees;
 
     @Column(name = "status", nullable = false)
     private String status;
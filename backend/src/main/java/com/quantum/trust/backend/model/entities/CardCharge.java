@@ -0,0 +1,65 @@
+package com.quantum.trust.backend.model.entities;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * @entity CardCharge
+ * @description Entity class representing the monthly fee of a card billed on
+ *              a day. It is saved in the transaction posting the fee, so a
+ *              card is charged at most once per billing day even when runs
+ *              are resumed or overlap on several instances.
+ *
+ * @class CardCharge
+ *
+ * @field {String} id - The identifier of the card and the billing day.
+ * @field {String} cardId - The identifier of the card.
+ * @field {LocalDate} billingDate - The billing day.
+ * @field {String} outcome - The outcome, billed or cancelled when the card was
+ *        removed for insufficient funds.
+ * @field {Instant} chargedAt - The time of the charge.
+ *
+ * @index idx_card_charges_billing_date - Serves the charges of a billing day.
+ */
+@Getter
+@Setter
+@Builder
+@Entity
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "card_charges", indexes = {
+        @Index(name = "idx_card_charges_billing_date", columnList = "billing_date") })
+public class CardCharge {
+    @Id
+    @Column(name = "id", nullable = false, updatable = false)
+    private String id;
+
+    @Column(name = "card_id", nullable = false, updatable = false)
+    private String cardId;
+
+    @Column(name = "billing_date", nullable = false, updatable = false)
+    private LocalDate billingDate;
+
+    @Column(name = "outcome", nullable = false, updatable = false)
+    private String outcome;
+
+    @Column(name = "charged_at", nullable = false, updatable = false)
+    private Instant chargedAt;
+
+    public static String getChargeId(String cardId, LocalDate billingDate) {
+        return cardId + ":" + billingDate;
+    }
+}
@@ -0,0 +1,37 @@
+package com.quantum.trust.backend.model.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * @embeddable CardFees
+ * @description Embeddable class representing the fees of a card, stored as
+ *              numeric columns of the card in minor units of the currency of
+ *              its account.
+ *
+ * @class CardFees
+ *
+ * @field {long} releaseFee - The release fee in minor units.
+ * @field {long} monthlyFee - The monthly fee in minor units.
+ */
+@Getter
+@Setter
+@Builder
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Embeddable
+public class CardFees {
+
+    @Column(name = "releaseFee", nullable = false)
+    private long releaseFee;
+
+    @Column(name = "monthlyFee", nullable = false)
+    private long monthlyFee;
+}
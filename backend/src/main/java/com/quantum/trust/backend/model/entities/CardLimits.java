@@ -0,0 +1,59 @@
+package com.quantum.trust.backend.model.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * @embeddable CardLimits
+ * @description Embeddable class representing the transaction limits of a
+ *              card, stored as numeric columns of the card. The limits are in
+ *              minor units of the currency of the account, the maximum limits
+ *              the card type allows are in minor units of PLN.
+ *
+ * @class CardLimits
+ *
+ * @field {long} internetTransactionsLimit - The limit of internet
+ *        transactions.
+ * @field {int}  internetTransactionsCount - The number of internet
+ *        transactions allowed.
+ * @field {long} internetTransactionsMaxLimit - The highest limit of internet
+ *        transactions of the card type.
+ * @field {long} cashTransactionsLimit - The limit of cash transactions.
+ * @field {int}  cashTransactionsCount - The number of cash transactions
+ *        allowed.
+ * @field {long} cashTransactionsMaxLimit - The highest limit of cash
+ *        transactions of the card type.
+ */
+@Getter
+@Setter
+@Builder
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Embeddable
+public class CardLimits {
+
+    @Column(name = "internetTransactionsLimit", nullable = false)
+    private long internetTransactionsLimit;
+
+    @Column(name = "internetTransactionsCount", nullable = false)
+    private int internetTransactionsCount;
+
+    @Column(name = "internetTransactionsMaxLimit", nullable = false)
+    private long internetTransactionsMaxLimit;
+
+    @Column(name = "cashTransactionsLimit", nullable = false)
+    private long cashTransactionsLimit;
+
+    @Column(name = "cashTransactionsCount", nullable = false)
+    private int cashTransactionsCount;
+
+    @Column(name = "cashTransactionsMaxLimit", nullable = false)
+    private long cashTransactionsMaxLimit;
+}
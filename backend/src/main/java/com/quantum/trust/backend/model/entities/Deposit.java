@@ -23,7 +23,8 @@ import lombok.Setter;
  * @field {String} id - The unique identifier of the deposit.
  * @field {String} type - The type of the deposit.
  * @field {Float} percent - The interest rate of the deposit.
- * @field {Float} balance - The balance of the deposit.
+ * @field {long} balance - The balance of the deposit in minor units of its
+ *        currency.
  * @field {String} currency - The currency of the deposit.
  * @field {String} endDate - The end date of the deposit.
  * @field {Account} account - The account associated with the deposit.
@@ -48,7 +49,7 @@ public class Deposit {
     private Float percent;
 
     @Column(name = "balance", nullable = false)
-    private Float balance;
+    private long balance;
 
     @Column(name = "currency", nullable = false)
     private String currency;
@@ -0,0 +1,62 @@
+package com.quantum.trust.backend.model.entities;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * @entity IdempotencyRecord
+ * @description Entity class representing the stored response of a request
+ *              made with an idempotency key, returned again instead of
+ *              repeating the request when the key is reused. Records are only
+ *              inserted and deleted once their retention has passed.
+ *
+ * @class IdempotencyRecord
+ *
+ * @field {String} key - The idempotency key scoped by the user and the path of
+ *        the request.
+ * @field {int} status - The HTTP status of the response.
+ * @field {String} contentType - The content type of the response or null if it
+ *        has no body.
+ * @field {byte[]} body - The body of the response.
+ * @field {Instant} createdAt - The time the response was stored.
+ *
+ * @index idx_idempotency_records_created_at - Serves the removal of expired
+ *        records.
+ */
+@Getter
+@Setter
+@Builder
+@Entity
+@ToString(exclude = "body")
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "idempotency_records", indexes = {
+        @Index(name = "idx_idempotency_records_created_at", columnList = "created_at") })
+public class IdempotencyRecord {
+    @Id
+    @Column(name = "idempotency_key", nullable = false, updatable = false)
+    private String key;
+
+    @Column(name = "status", nullable = false, updatable = false)
+    private int status;
+
+    @Column(name = "content_type", updatable = false)
+    private String contentType;
+
+    @Column(name = "body", nullable = false, updatable = false)
+    private byte[] body;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+}
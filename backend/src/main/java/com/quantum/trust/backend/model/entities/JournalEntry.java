@@ -0,0 +1,76 @@
+package com.quantum.trust.backend.model.entities;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * @entity JournalEntry
+ * @description Entity class representing one line of the append-only
+ *              double-entry journal. The lines of one posting share its
+ *              posting ID and their amounts sum to zero in every currency.
+ *              Lines are only ever inserted, a correction is a new posting.
+ *              The identifiers are taken from the sequence one by one, so they
+ *              follow the order of posting across instances.
+ *
+ * @class JournalEntry
+ *
+ * @field {Long} id - The unique identifier of the line.
+ * @field {String} postingId - The identifier of the posting of the line.
+ * @field {String} accountId - The number of the account or the code of the
+ *        system account of the line.
+ * @field {long} amount - The signed amount of the line in minor units, positive
+ *        when the account is credited.
+ * @field {String} currency - The currency of the amount.
+ * @field {String} type - The type of the posting.
+ * @field {Instant} postedAt - The time of the posting.
+ *
+ * @index idx_journal_entries_account_tail - Serves the sum of the lines of an
+ *        account after its checkpoint.
+ */
+@Getter
+@Setter
+@Builder
+@Entity
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "journal_entries", indexes = {
+        @Index(name = "idx_journal_entries_account_tail", columnList = "account_id, id") })
+public class JournalEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "journal_entry_seq")
+    @SequenceGenerator(name = "journal_entry_seq", sequenceName = "journal_entry_sequence", allocationSize = 1)
+    private Long id;
+
+    @Column(name = "posting_id", nullable = false, updatable = false)
+    private String postingId;
+
+    @Column(name = "account_id", nullable = false, updatable = false)
+    private String accountId;
+
+    @Column(name = "amount", nullable = false, updatable = false)
+    private long amount;
+
+    @Column(name = "currency", nullable = false, updatable = false)
+    private String currency;
+
+    @Column(name = "type", nullable = false, updatable = false)
+    private String type;
+
+    @Column(name = "posted_at", nullable = false, updatable = false)
+    private Instant postedAt;
+}
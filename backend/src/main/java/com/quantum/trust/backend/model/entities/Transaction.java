@@ -5,6 +5,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -27,13 +28,21 @@ import lombok.Setter;
  * @field {Account} account - The account associated with the transaction.
  * @field {Card} card - The card associated with the transaction.
  * @field {String} type - The type of the transaction.
- * @field {Float} amount - The amount of the transaction.
+ * @field {long} amount - The amount of the transaction in minor units of its
+ *        currency.
  * @field {String} currency - The currency of the transaction.
- * @field {Float} accountAmountAfter - The account balance after the
- *        transaction.
+ * @field {long} accountAmountAfter - The account balance after the
+ *        transaction in minor units of the account currency.
  * @field {String} category - The category of the transaction.
  * @field {String} accountCurrency - The currency of the account.
  * @field {String} status - The status of the transaction.
+ *
+ * @index idx_transactions_status_date - Serves the settlement of due
+ *        transactions by status and date.
+ * @index idx_transactions_account_history - Serves the keyset paginated
+ *        history of the accounts.
+ * @index idx_transactions_card_history - Serves the keyset paginated history
+ *        of the cards.
  */
 @Getter
 @Setter
@@ -41,7 +50,10 @@ import lombok.Setter;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        @Index(name = "idx_transactions_status_date", columnList = "status, date"),
+        @Index(name = "idx_transactions_account_history", columnList = "assignedAccountId, date, hour, id"),
+        @Index(name = "idx_transactions_card_history", columnList = "assignedCardId, date, hour, id") })
 public class Transaction {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -68,13 +80,13 @@ public class Transaction {
     private String type;
 
     @Column(name = "amount", nullable = false)
-    private Float amount;
+    private long amount;
 
     @Column(name = "currency", nullable = false)
     private String currency;
 
     @Column(name = "accountAmountAfter", nullable = false)
-    private Float accountAmountAfter;
+    private long accountAmountAfter;
 
     @Column(name = "category", nullable = false)
     private String category;
@@ -1,12 +1,18 @@
 package com.quantum.trust.backend.repositories;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.quantum.trust.backend.model.entities.Account;
 import com.quantum.trust.backend.model.entities.User;
 
+import jakarta.persistence.LockModeType;
+
 /**
  * @repository AccountRepository
  * @description Repository interface for managing Account entities.
@@ -17,7 +23,25 @@ import com.quantum.trust.backend.model.entities.User;
  *         user.
  * @param {User} user - The user whose accounts are to be found.
  * @returns {List<Account>} - A list of accounts associated with the user.
+ *
+ * @method existsByIdAndUserId - Checks whether the account belongs to the user.
+ * @param {String} id - The number of the account.
+ * @param {Long}   userId - The ID of the user.
+ * @returns {boolean} - True if the account belongs to the user.
+ *
+ * @method findAllForUpdateByIdIn - Finds the accounts with the given numbers
+ *         and locks their rows for writing until the end of the transaction.
+ *         The rows are locked in the order of their numbers, so two
+ *         transactions locking the same accounts never deadlock.
+ * @param {Collection<String>} ids - The numbers of the accounts.
+ * @returns {List<Account>} - The locked accounts sorted by number.
  */
 public interface AccountRepository extends JpaRepository<Account, String> {
     List<Account> findAllAcountsByUser(User user);
+
+    boolean existsByIdAndUserId(String id, Long userId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Account a WHERE a.id IN :ids ORDER BY a.id")
+    List<Account> findAllForUpdateByIdIn(@Param("ids") Collection<String> ids);
 }
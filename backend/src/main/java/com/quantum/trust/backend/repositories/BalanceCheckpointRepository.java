@@ -0,0 +1,41 @@
+package com.quantum.trust.backend.repositories;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.quantum.trust.backend.model.AccountBalance;
+import com.quantum.trust.backend.model.entities.BalanceCheckpoint;
+
+/**
+ * @repository BalanceCheckpointRepository
+ * @description Repository interface for managing BalanceCheckpoint entities.
+ *
+ * @interface BalanceCheckpointRepository
+ *
+ * @method findLastCompactedEntryId - Finds the identifier of the last journal
+ *         line folded into the checkpoints. Every line up to it is folded.
+ * @returns {long} - The identifier or zero before the first compaction.
+ *
+ * @method findBalancesByAccountIdIn - Finds the balances of the given
+ *         accounts with checkpoints, each the checkpoint plus the lines after
+ *         its last folded line. The checkpoint and its tail are read by one
+ *         statement, so a compaction committing meanwhile cannot pair an old
+ *         checkpoint with the tail of a new one.
+ * @param {Collection<String>} accountIds - The numbers of the accounts.
+ * @returns {List<AccountBalance>} - The balances of the accounts with
+ *          checkpoints.
+ */
+public interface BalanceCheckpointRepository extends JpaRepository<BalanceCheckpoint, String> {
+    @Query("SELECT COALESCE(MAX(c.lastEntryId), 0) FROM BalanceCheckpoint c")
+    long findLastCompactedEntryId();
+
+    @Query("SELECT new com.quantum.trust.backend.model.AccountBalance(c.accountId, c.balance + "
+            + "(SELECT COALESCE(SUM(e.amount), 0) FROM JournalEntry e "
+            + "WHERE e.accountId = c.accountId AND e.id > c.lastEntryId)) "
+            + "FROM BalanceCheckpoint c WHERE c.accountId IN :accountIds")
+    List<AccountBalance> findBalancesByAccountIdIn(@Param("accountIds") Collection<String> accountIds);
+}
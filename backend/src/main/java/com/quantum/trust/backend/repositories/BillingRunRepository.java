@@ -0,0 +1,30 @@
+package com.quantum.trust.backend.repositories;
+
+import java.time.LocalDate;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import com.quantum.trust.backend.model.entities.BillingRun;
+
+/**
+ * @repository BillingRunRepository
+ * @description Repository interface for managing BillingRun entities.
+ *
+ * @interface BillingRunRepository
+ *
+ * @method findLastCompletedBillingDate - Finds the latest day whose run has
+ *         completed.
+ * @returns {LocalDate} - The day or null if no run has completed.
+ *
+ * @method findFirstUnfinishedBillingDate - Finds the earliest day whose run
+ *         has not completed.
+ * @returns {LocalDate} - The day or null if every run has completed.
+ */
+public interface BillingRunRepository extends JpaRepository<BillingRun, LocalDate> {
+    @Query("SELECT MAX(b.billingDate) FROM BillingRun b WHERE b.status = 'completed'")
+    LocalDate findLastCompletedBillingDate();
+
+    @Query("SELECT MIN(b.billingDate) FROM BillingRun b WHERE b.status <> 'completed'")
+    LocalDate findFirstUnfinishedBillingDate();
+}
@@ -0,0 +1,25 @@
+package com.quantum.trust.backend.repositories;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.quantum.trust.backend.model.entities.CardCharge;
+
+/**
+ * @repository CardChargeRepository
+ * @description Repository interface for the monthly fee charges of cards.
+ *
+ * @interface CardChargeRepository
+ *
+ * @method findCardIdsByBillingDate - Finds the cards charged on a billing day.
+ * @param {LocalDate} billingDate - The billing day.
+ * @returns {Set<String>} - The identifiers of the charged cards.
+ */
+public interface CardChargeRepository extends JpaRepository<CardCharge, String> {
+    @Query("SELECT c.cardId FROM CardCharge c WHERE c.billingDate = :billingDate")
+    Set<String> findCardIdsByBillingDate(@Param("billingDate") LocalDate billingDate);
+}
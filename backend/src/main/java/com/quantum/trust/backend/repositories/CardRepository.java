@@ -1,12 +1,19 @@
 package com.quantum.trust.backend.repositories;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.quantum.trust.backend.model.entities.Account;
 import com.quantum.trust.backend.model.entities.Card;
 
+import jakarta.transaction.Transactional;
+
 /**
  * @repository CardRepository
  * @description Repository interface for managing Card entities.
@@ -17,7 +24,64 @@ import com.quantum.trust.backend.model.entities.Card;
  *         account.
  * @param {Account} assignedAccount - The account whose cards are to be found.
  * @returns {List<Card>} - A list of cards associated with the account.
+ *
+ * @method findEarliestExpirationDate - Finds the earliest expiration date of
+ *         all cards through the expiration date index.
+ * @returns {LocalDate} - The date or null if there are no cards.
+ *
+ * @method findAllDueForBilling - Finds the cards with their accounts whose
+ *         monthly fee is due on a billing day, created before it on a day of
+ *         the month in the given range.
+ * @param {LocalDate} billingDate - The billing day.
+ * @param {int}       fromDay - The first day of the month of creation.
+ * @param {int}       toDay - The last day of the month of creation.
+ * @returns {List<Card>} - The due cards.
+ *
+ * @method findAllByAccountCurrencyAndFeesMonthlyFeeGreaterThan - Finds the
+ *         cards of accounts in a currency whose monthly fee is higher than the
+ *         given one through the monthly fee index.
+ * @param {String} currency - The currency of the accounts.
+ * @param {long}   monthlyFee - The monthly fee in minor units.
+ * @returns {List<Card>} - The cards with a higher monthly fee.
+ *
+ * @method findAllWithAccountByIdIn - Finds the cards with the given numbers
+ *         together with their accounts in a single statement.
+ * @param {Collection<String>} ids - The numbers of the cards.
+ * @returns {List<Card>} - The found cards.
+ *
+ * @method deleteExpiredBefore - Deletes the cards which expired before the
+ *         given date in a single statement and in its own transaction.
+ * @param {LocalDate} date - The first day the deleted cards are not valid.
+ * @returns {int} - The number of deleted cards.
+ *
+ * @method suspendById - Suspends a card in a single statement and in its own
+ *         transaction.
+ * @param {String} id - The number of the card.
+ * @returns {int} - The number of suspended cards.
  */
 public interface CardRepository extends JpaRepository<Card, Long> {
     List<Card> findAllCardsByAccount(Account assignedAccount);
+
+    @Query("SELECT MIN(c.expirationDate) FROM Card c")
+    LocalDate findEarliestExpirationDate();
+
+    @Query("SELECT c FROM Card c JOIN FETCH c.account WHERE c.creationDate < :billingDate "
+            + "AND EXTRACT(DAY FROM c.creationDate) BETWEEN :fromDay AND :toDay")
+    List<Card> findAllDueForBilling(@Param("billingDate") LocalDate billingDate, @Param("fromDay") int fromDay,
+            @Param("toDay") int toDay);
+
+    List<Card> findAllByAccountCurrencyAndFeesMonthlyFeeGreaterThan(String currency, long monthlyFee);
+
+    @Query("SELECT c FROM Card c JOIN FETCH c.account WHERE c.id IN :ids")
+    List<Card> findAllWithAccountByIdIn(@Param("ids") Collection<String> ids);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM Card c WHERE c.expirationDate < :date")
+    int deleteExpiredBefore(@Param("date") LocalDate date);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Card c SET c.status = 'suspended' WHERE c.id = :id")
+    int suspendById(@Param("id") String id);
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.quantum.trust.backend.repositories;
+
+import java.time.Instant;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.quantum.trust.backend.model.entities.IdempotencyRecord;
+
+import jakarta.transaction.Transactional;
+
+/**
+ * @repository IdempotencyRecordRepository
+ * @description Repository interface for the stored responses of requests made
+ *              with an idempotency key.
+ *
+ * @interface IdempotencyRecordRepository
+ *
+ * @method deleteCreatedBefore - Deletes the records stored before the given
+ *         time in a single statement and in its own transaction.
+ * @param {Instant} cutoff - The time.
+ * @returns {int} - The number of deleted records.
+ */
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") Instant cutoff);
+}
@@ -0,0 +1,57 @@
+package com.quantum.trust.backend.repositories;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.quantum.trust.backend.model.AccountBalance;
+import com.quantum.trust.backend.model.entities.JournalEntry;
+
+/**
+ * @repository JournalEntryRepository
+ * @description Repository interface for appending and summing the lines of
+ *              the double-entry journal.
+ *
+ * @interface JournalEntryRepository
+ *
+ * @method sumAmountsAfter - Sums the lines of an account after a journal line
+ *         through the account tail index.
+ * @param {String} accountId - The number of the account.
+ * @param {long}   afterId - The identifier of the last line not summed.
+ * @returns {long} - The sum in minor units.
+ *
+ * @method sumAmounts - Sums all lines of every given account.
+ * @param {Collection<String>} accountIds - The numbers of the accounts.
+ * @returns {List<AccountBalance>} - The sums of the accounts with lines.
+ *
+ * @method sumAmountsBetween - Sums the lines of a range of the journal by
+ *         account.
+ * @param {long} afterId - The identifier of the last line before the range.
+ * @param {long} uptoId - The identifier of the last line of the range.
+ * @returns {List<AccountBalance>} - The sums of the accounts with lines in the
+ *          range.
+ *
+ * @method findMaxIdPostedBefore - Finds the identifier of the newest line
+ *         posted before the given time.
+ * @param {Instant} cutoff - The time.
+ * @returns {Long} - The identifier or null if no line is older.
+ */
+public interface JournalEntryRepository extends JpaRepository<JournalEntry, Long> {
+    @Query("SELECT COALESCE(SUM(e.amount), 0) FROM JournalEntry e WHERE e.accountId = :accountId AND e.id > :afterId")
+    long sumAmountsAfter(@Param("accountId") String accountId, @Param("afterId") long afterId);
+
+    @Query("SELECT new com.quantum.trust.backend.model.AccountBalance(e.accountId, SUM(e.amount)) "
+            + "FROM JournalEntry e WHERE e.accountId IN :accountIds GROUP BY e.accountId")
+    List<AccountBalance> sumAmounts(@Param("accountIds") Collection<String> accountIds);
+
+    @Query("SELECT new com.quantum.trust.backend.model.AccountBalance(e.accountId, SUM(e.amount)) "
+            + "FROM JournalEntry e WHERE e.id > :afterId AND e.id <= :uptoId GROUP BY e.accountId")
+    List<AccountBalance> sumAmountsBetween(@Param("afterId") long afterId, @Param("uptoId") long uptoId);
+
+    @Query("SELECT MAX(e.id) FROM JournalEntry e WHERE e.postedAt < :cutoff")
+    Long findMaxIdPostedBefore(@Param("cutoff") Instant cutoff);
+}
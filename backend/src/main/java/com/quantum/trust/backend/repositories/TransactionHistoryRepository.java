@@ -0,0 +1,29 @@
+package com.quantum.trust.backend.repositories;
+
+import java.util.List;
+
+import com.quantum.trust.backend.model.TransactionCursor;
+import com.quantum.trust.backend.model.TransactionFilter;
+import com.quantum.trust.backend.model.dto.TransactionDto;
+
+/**
+ * @repository TransactionHistoryRepository
+ * @description Repository fragment for reading the transaction history of a
+ *              user page by page.
+ *
+ * @interface TransactionHistoryRepository
+ *
+ * @method findTransactionHistoryPage - Finds one page of the transaction
+ *         history of a user, newest first, matching the given filter and
+ *         starting after the given cursor.
+ * @param {Long}              userId - The ID of the user.
+ * @param {TransactionFilter} filter - The filter of the transactions.
+ * @param {TransactionCursor} cursor - The position of the last transaction of
+ *                            the previous page or null for the first page.
+ * @param {int}               limit - The maximal number of transactions.
+ * @returns {List<TransactionDto>} - The transactions of the page.
+ */
+public interface TransactionHistoryRepository {
+    List<TransactionDto> findTransactionHistoryPage(Long userId, TransactionFilter filter, TransactionCursor cursor,
+            int limit);
+}
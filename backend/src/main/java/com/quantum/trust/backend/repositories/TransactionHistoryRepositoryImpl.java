@@ -0,0 +1,158 @@
+package com.quantum.trust.backend.repositories;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.quantum.trust.backend.model.TransactionCursor;
+import com.quantum.trust.backend.model.TransactionFilter;
+import com.quantum.trust.backend.model.dto.TransactionDto;
+import com.quantum.trust.backend.model.entities.Account;
+import com.quantum.trust.backend.model.entities.Card;
+import com.quantum.trust.backend.model.entities.Transaction;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+/**
+ * @repository TransactionHistoryRepositoryImpl
+ * @description Criteria based implementation of the transaction history
+ *              fragment. Only the filters which are set become predicates, the
+ *              rows are projected straight into DTOs and the page is cut with
+ *              a keyset condition on (date, hour, id) instead of an offset, so
+ *              every page costs the same however deep the client scrolls.
+ *              The amounts are stored in minor units, so the bounds of the
+ *              amount filter are scaled by the fraction digits of the currency
+ *              of every transaction, rounded inwards to whole minor units.
+ *
+ * @class TransactionHistoryRepositoryImpl
+ *
+ * @method findTransactionHistoryPage - Finds one page of the transaction
+ *         history of a user.
+ * @param {Long}              userId - The ID of the user.
+ * @param {TransactionFilter} filter - The filter of the transactions.
+ * @param {TransactionCursor} cursor - The position of the last transaction of
+ *                            the previous page or null for the first page.
+ * @param {int}               limit - The maximal number of transactions.
+ * @returns {List<TransactionDto>} - The transactions of the page.
+ */
+public class TransactionHistoryRepositoryImpl implements TransactionHistoryRepository {
+    private static final int DEFAULT_FRACTION_DIGITS = 2;
+    private static final Map<Integer, List<String>> currenciesByFractionDigits = getCurrenciesByFractionDigits();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<TransactionDto> findTransactionHistoryPage(Long userId, TransactionFilter filter,
+            TransactionCursor cursor, int limit) {
+        CriteriaBuilder criteriaBuilder = this.entityManager.getCriteriaBuilder();
+        CriteriaQuery<TransactionDto> query = criteriaBuilder.createQuery(TransactionDto.class);
+        Root<Transaction> transaction = query.from(Transaction.class);
+        Join<Transaction, Account> account = transaction.join("account", JoinType.LEFT);
+        Join<Transaction, Card> card = transaction.join("card", JoinType.LEFT);
+        Join<Card, Account> cardAccount = card.join("account", JoinType.LEFT);
+        Path<String> date = transaction.get("date");
+        Path<String> hour = transaction.get("hour");
+        Path<Long> id = transaction.get("id");
+        Path<String> accountId = account.get("id");
+        Path<String> cardId = card.get("id");
+        query.select(criteriaBuilder.construct(TransactionDto.class, id, date, hour, transaction.get("title"),
+                criteriaBuilder.coalesce(accountId, cardId), transaction.get("type"), transaction.get("amount"),
+                transaction.get("currency"), transaction.get("accountAmountAfter"), transaction.get("category"),
+                transaction.get("accountCurrency"), transaction.get("status")));
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(criteriaBuilder.or(criteriaBuilder.equal(account.get("user").get("id"), userId),
+                criteriaBuilder.equal(cardAccount.get("user").get("id"), userId)));
+        this.addFilterPredicates(criteriaBuilder, transaction, accountId, cardId, filter, predicates);
+        if (cursor != null) {
+            predicates.add(criteriaBuilder.or(criteriaBuilder.lessThan(date, cursor.getDate()),
+                    criteriaBuilder.and(criteriaBuilder.equal(date, cursor.getDate()),
+                            criteriaBuilder.lessThan(hour, cursor.getHour())),
+                    criteriaBuilder.and(criteriaBuilder.equal(date, cursor.getDate()),
+                            criteriaBuilder.equal(hour, cursor.getHour()),
+                            criteriaBuilder.lessThan(id, cursor.getId()))));
+        }
+        query.where(predicates.toArray(new Predicate[0]))
+                .orderBy(criteriaBuilder.desc(date), criteriaBuilder.desc(hour), criteriaBuilder.desc(id));
+        return this.entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    private void addFilterPredicates(CriteriaBuilder criteriaBuilder, Root<Transaction> transaction,
+            Path<String> accountId, Path<String> cardId, TransactionFilter filter, List<Predicate> predicates) {
+        if (filter == null) {
+            return;
+        }
+        if (filter.getFromDate() != null) {
+            predicates.add(criteriaBuilder.greaterThanOrEqualTo(transaction.get("date"), filter.getFromDate()));
+        }
+        if (filter.getToDate() != null) {
+            predicates.add(criteriaBuilder.lessThanOrEqualTo(transaction.get("date"), filter.getToDate()));
+        }
+        if (filter.getAssignedAccountNumber() != null) {
+            predicates.add(criteriaBuilder.or(criteriaBuilder.equal(accountId, filter.getAssignedAccountNumber()),
+                    criteriaBuilder.equal(cardId, filter.getAssignedAccountNumber())));
+        }
+        if (filter.getType() != null) {
+            predicates.add(criteriaBuilder.equal(transaction.get("type"), filter.getType()));
+        }
+        if (filter.getCategory() != null) {
+            predicates.add(criteriaBuilder.equal(transaction.get("category"), filter.getCategory()));
+        }
+        if (filter.getStatus() != null) {
+            predicates.add(criteriaBuilder.equal(transaction.get("status"), filter.getStatus()));
+        }
+        if (filter.getMinAmount() != null) {
+            predicates.add(this.getAmountPredicate(criteriaBuilder, transaction, filter.getMinAmount(), true));
+        }
+        if (filter.getMaxAmount() != null) {
+            predicates.add(this.getAmountPredicate(criteriaBuilder, transaction, filter.getMaxAmount(), false));
+        }
+    }
+
+    private Predicate getAmountPredicate(CriteriaBuilder criteriaBuilder, Root<Transaction> transaction,
+            BigDecimal bound, boolean isLowerBound) {
+        Path<Long> amount = transaction.get("amount");
+        Path<String> currency = transaction.get("currency");
+        List<Predicate> predicates = new ArrayList<>();
+        List<String> otherCurrencies = new ArrayList<>();
+        for (Map.Entry<Integer, List<String>> entry : currenciesByFractionDigits.entrySet()) {
+            long minorBound = getMinorBound(bound, entry.getKey(), isLowerBound);
+            predicates.add(criteriaBuilder.and(currency.in(entry.getValue()),
+                    isLowerBound ? criteriaBuilder.ge(amount, minorBound) : criteriaBuilder.le(amount, minorBound)));
+            otherCurrencies.addAll(entry.getValue());
+        }
+        long minorBound = getMinorBound(bound, DEFAULT_FRACTION_DIGITS, isLowerBound);
+        predicates.add(criteriaBuilder.and(criteriaBuilder.not(currency.in(otherCurrencies)),
+                isLowerBound ? criteriaBuilder.ge(amount, minorBound) : criteriaBuilder.le(amount, minorBound)));
+        return criteriaBuilder.or(predicates.toArray(new Predicate[0]));
+    }
+
+    private static long getMinorBound(BigDecimal bound, int fractionDigits, boolean isLowerBound) {
+        RoundingMode roundingMode = isLowerBound ? RoundingMode.CEILING : RoundingMode.FLOOR;
+        return bound.setScale(fractionDigits, roundingMode).unscaledValue().longValueExact();
+    }
+
+    private static Map<Integer, List<String>> getCurrenciesByFractionDigits() {
+        Map<Integer, List<String>> currencies = new TreeMap<>();
+        for (Currency currency : Currency.getAvailableCurrencies()) {
+            int fractionDigits = currency.getDefaultFractionDigits();
+            if (fractionDigits >= 0 && fractionDigits != DEFAULT_FRACTION_DIGITS) {
+                currencies.computeIfAbsent(fractionDigits, digits -> new ArrayList<>()).add(currency.getCurrencyCode());
+            }
+        }
+        return currencies;
+    }
+}
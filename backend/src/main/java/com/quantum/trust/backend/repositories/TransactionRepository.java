@@ -1,19 +1,33 @@
 package com.quantum.trust.backend.repositories;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import com.quantum.trust.backend.model.CardSpending;
+import com.quantum.trust.backend.model.dto.TransactionDto;
 import com.quantum.trust.backend.model.entities.Account;
 import com.quantum.trust.backend.model.entities.Card;
 import com.quantum.trust.backend.model.entities.Transaction;
 
+import jakarta.persistence.QueryHint;
+import jakarta.transaction.Transactional;
+
 /**
  * @repository TransactionRepository
  * @description Repository interface for managing Transaction entities.
  *
  * @interface TransactionRepository
  *
+ * @extends TransactionHistoryRepository - The keyset paginated history.
+ *
  * @method findAllTransactionsByAccount - Finds all transactions associated with
  *         a specific account.
  * @param {Account} assignedAccount - The account whose transactions are to be
@@ -26,9 +40,82 @@ import com.quantum.trust.backend.model.entities.Transaction;
  * @param {Card} assignedCard - The card whose transactions are to be found.
  * @returns {List<Transaction>} - A list of transactions associated with the
  *          card.
+ *
+ * @method findAllTransactionDtosByUserId - Finds the whole transaction history
+ *         of a user in a single statement, joining the transactions of the
+ *         accounts of the user and of the cards assigned to them, projected
+ *         into DTOs and sorted from the newest.
+ * @param {Long} userId - The ID of the user.
+ * @returns {List<TransactionDto>} - The transactions of the user.
+ *
+ * @method streamTransactionDtosByAccountNumber - Streams the whole history of
+ *         an account and of the cards assigned to it, oldest first, projected
+ *         into DTOs. Rows are fetched from the database in batches of the
+ *         fetch size, so the stream has to be consumed and closed inside a
+ *         transaction.
+ * @param {String} accountNumber - The number of the account.
+ * @returns {Stream<TransactionDto>} - The transactions of the account.
+ *
+ * @method findCardSpendingsSince - Finds the outgoing card transactions of the
+ *         given categories dated on or after the given date, projected into
+ *         the amounts counted against the limits of the cards.
+ * @param {String}             fromDate - The inclusive lower bound of the
+ *                             date.
+ * @param {Collection<String>} categories - The categories of the
+ *                             transactions.
+ * @returns {List<CardSpending>} - The spendings of the cards.
+ *
+ * @method findDueTransactionIds - Finds the identifiers of the transactions
+ *         with the given status dated before the given date, using the status
+ *         and date index. Dates are ISO formatted, so they compare as strings.
+ * @param {String}   status - The status of the transactions.
+ * @param {String}   beforeDate - The exclusive upper bound of the date.
+ * @param {Pageable} pageable - The maximal number of identifiers to find.
+ * @returns {List<Long>} - The identifiers of the due transactions.
+ *
+ * @method updateStatuses - Changes the status of the given transactions in a
+ *         single statement and in its own transaction, skipping transactions
+ *         whose status has changed meanwhile.
+ * @param {List<Long>} ids - The identifiers of the transactions.
+ * @param {String}     fromStatus - The expected current status.
+ * @param {String}     toStatus - The new status.
+ * @returns {int} - The number of updated transactions.
  */
-public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+public interface TransactionRepository extends JpaRepository<Transaction, Long>, TransactionHistoryRepository {
     List<Transaction> findAllTransactionsByAccount(Account assignedAccount);
 
     List<Transaction> findAllTransactionsByCard(Card assignedCard);
+
+    @Query("SELECT new com.quantum.trust.backend.model.dto.TransactionDto(t.id, t.date, t.hour, t.title, "
+            + "COALESCE(a.id, c.id), t.type, t.amount, t.currency, t.accountAmountAfter, t.category, "
+            + "t.accountCurrency, t.status) "
+            + "FROM Transaction t LEFT JOIN t.account a LEFT JOIN t.card c LEFT JOIN c.account ca "
+            + "WHERE a.user.id = :userId OR ca.user.id = :userId "
+            + "ORDER BY t.date DESC, t.hour DESC, t.id DESC")
+    List<TransactionDto> findAllTransactionDtosByUserId(@Param("userId") Long userId);
+
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "500"))
+    @Query("SELECT new com.quantum.trust.backend.model.dto.TransactionDto(t.id, t.date, t.hour, t.title, "
+            + "COALESCE(a.id, c.id), t.type, t.amount, t.currency, t.accountAmountAfter, t.category, "
+            + "t.accountCurrency, t.status) "
+            + "FROM Transaction t LEFT JOIN t.account a LEFT JOIN t.card c "
+            + "WHERE a.id = :accountNumber OR c.account.id = :accountNumber "
+            + "ORDER BY t.date, t.hour, t.id")
+    Stream<TransactionDto> streamTransactionDtosByAccountNumber(@Param("accountNumber") String accountNumber);
+
+    @Query("SELECT new com.quantum.trust.backend.model.CardSpending(t.card.id, t.category, t.amount, t.date, "
+            + "t.hour) FROM Transaction t WHERE t.card IS NOT NULL AND t.type = 'outgoing' "
+            + "AND t.date >= :fromDate AND t.category IN :categories")
+    List<CardSpending> findCardSpendingsSince(@Param("fromDate") String fromDate,
+            @Param("categories") Collection<String> categories);
+
+    @Query("SELECT t.id FROM Transaction t WHERE t.status = :status AND t.date < :beforeDate ORDER BY t.id")
+    List<Long> findDueTransactionIds(@Param("status") String status, @Param("beforeDate") String beforeDate,
+            Pageable pageable);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Transaction t SET t.status = :toStatus WHERE t.id IN :ids AND t.status = :fromStatus")
+    int updateStatuses(@Param("ids") List<Long> ids, @Param("fromStatus") String fromStatus,
+            @Param("toStatus") String toStatus);
 }
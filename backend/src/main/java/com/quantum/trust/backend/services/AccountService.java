@@ -11,7 +11,7 @@ import org.springframework.stereotype.Service;
 
 import com.quantum.trust.backend.mappers.AccountMapper;
 import com.quantum.trust.backend.model.dto.AccountDto;
-import com.quantum.trust.backend.model.dto.EncryptedDto;
+import com.quantum.trust.backend.model.dto.EncryptedPayload;
 import com.quantum.trust.backend.model.entities.Account;
 import com.quantum.trust.backend.model.entities.User;
 import com.quantum.trust.backend.repositories.AccountRepository;
@@ -28,16 +28,18 @@ import jakarta.servlet.http.HttpServletRequest;
  * @constructor
  * @param {TokenService}      tokenService - Service for handling tokens.
  * @param {CookieService}     cookieService - Service for handling cookies.
- * @param {CryptoService}     cryptoService - Service for handling encryption.
  * @param {AccountMapper}     accountMapper - Mapper for converting account
  *                            entities to DTOs.
  * @param {UserRepository}    userRepository - Repository for accessing user
  *                            data.
  * @param {AccountRepository} accountRepository - Repository for accessing
  *                            account data.
+ * @param {LedgerService}     ledgerService - Service keeping the journal of
+ *                            balances.
  *
  * @method getAllAccountsFromUserId - Retrieves all accounts associated with the
- *         user ID extracted from the request.
+ *         user ID extracted from the request with their balances from the
+ *         ledger.
  * @param {HttpServletRequest} httpServletRequest - The HTTP servlet request.
  * @returns {ResponseEntity<?>} - A ResponseEntity containing the encrypted list
  *          of accounts or an error status.
@@ -46,36 +48,40 @@ import jakarta.servlet.http.HttpServletRequest;
  *         associated with the user ID extracted from the request.
  * @param {HttpServletRequest} httpServletRequest - The HTTP servlet request.
  * @returns {List<Account>} - A list of accounts associated with the user ID.
+ *
+ * @method retrieveUserIdFromToken - Retrieves the user ID from the access token
+ *         of the request without loading the user.
+ * @param {HttpServletRequest} httpServletRequest - The HTTP servlet request.
+ * @returns {Long} - The user ID.
  */
 @Service
 public class AccountService {
     private final TokenService tokenService;
     private final CookieService cookieService;
-    private final CryptoService cryptoService;
     private final AccountMapper accountMapper;
     private final UserRepository userRepository;
     private final AccountRepository accountRepository;
+    private final LedgerService ledgerService;
 
     @Autowired
-    public AccountService(TokenService tokenService, CookieService cookieService, CryptoService cryptoService,
-            AccountMapper accountMapper,
-            UserRepository userRepository, AccountRepository accountRepository) {
+    public AccountService(TokenService tokenService, CookieService cookieService, AccountMapper accountMapper,
+            UserRepository userRepository, AccountRepository accountRepository, LedgerService ledgerService) {
         this.tokenService = tokenService;
         this.cookieService = cookieService;
-        this.cryptoService = cryptoService;
         this.accountMapper = accountMapper;
         this.userRepository = userRepository;
         this.accountRepository = accountRepository;
+        this.ledgerService = ledgerService;
     }
 
     public ResponseEntity<?> getAllAccountsFromUserId(HttpServletRequest httpServletRequest) {
         try {
-            List<AccountDto> accountsList = this.retrieveAccountsFromUserId(httpServletRequest).stream()
-                    .map(accountMapper::convertToAccountDto).collect(Collectors.toList());
-            String encryptedAccountsList = this.cryptoService.encryptData(accountsList);
-            EncryptedDto encryptedDto = new EncryptedDto(encryptedAccountsList);
+            List<Account> accounts = this.retrieveAccountsFromUserId(httpServletRequest);
+            this.ledgerService.loadBalances(accounts);
+            List<AccountDto> accountsList = accounts.stream().map(accountMapper::convertToAccountDto)
+                    .collect(Collectors.toList());
             return accountsList.isEmpty() ? ResponseEntity.status(HttpStatus.NOT_FOUND).build()
-                    : ResponseEntity.status(HttpStatus.OK).body(encryptedDto);
+                    : ResponseEntity.status(HttpStatus.OK).body(new EncryptedPayload(accountsList));
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -84,11 +90,15 @@ public class AccountService {
 
     public List<Account> retrieveAccountsFromUserId(HttpServletRequest httpServletRequest)
             throws IllegalArgumentException {
-        String accessToken = this.cookieService.getCookieValue(httpServletRequest, "ACCESS_TOKEN");
-        String identificatorFromToken = this.tokenService.getIdentificatorFromToken(accessToken);
-        Optional<User> retrievedUser = this.userRepository.findById(Long.valueOf(identificatorFromToken));
+        Optional<User> retrievedUser = this.userRepository.findById(this.retrieveUserIdFromToken(httpServletRequest));
         return retrievedUser.isPresent()
                 ? this.accountRepository.findAllAcountsByUser(retrievedUser.get())
                 : null;
     }
+
+    public Long retrieveUserIdFromToken(HttpServletRequest httpServletRequest) throws IllegalArgumentException {
+        String accessToken = this.cookieService.getCookieValue(httpServletRequest, "ACCESS_TOKEN");
+        String identificatorFromToken = this.tokenService.getIdentificatorFromToken(httpServletRequest, accessToken);
+        return Long.valueOf(identificatorFromToken);
+    }
 }
@@ -0,0 +1,321 @@
+package com.quantum.trust.backend.services;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.quantum.trust.backend.model.entities.Account;
+import com.quantum.trust.backend.model.entities.BillingRun;
+import com.quantum.trust.backend.model.entities.Card;
+import com.quantum.trust.backend.model.entities.CardCharge;
+import com.quantum.trust.backend.repositories.AccountRepository;
+import com.quantum.trust.backend.repositories.BillingRunRepository;
+import com.quantum.trust.backend.repositories.CardChargeRepository;
+import com.quantum.trust.backend.repositories.CardRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * @service BillingRunService
+ * @description Service class billing the monthly card fees once per day. A
+ *              card is due on the day of the month it was created, on the last
+ *              day of shorter months for cards created on a later day. The
+ *              due cards are grouped by account into chunks which are charged
+ *              in parallel, the cards of one account always in the same chunk
+ *              so they never wait for each other's account lock. Every card is
+ *              charged in its own transaction which also saves its charge of
+ *              the day, so a card is charged at most once per day. A charge
+ *              rejected by the key of the charges because another run has just
+ *              charged the card is counted as skipped, any other integrity
+ *              violation is counted as failed. The run of
+ *              the day records its progress and report: an interrupted or
+ *              failed run is resumed by the next hourly attempt, which skips
+ *              the charged cards, a completed run is not started again. Every
+ *              hourly attempt bills all days from the earliest unfinished run
+ *              or the day after the last completed run up to the current day,
+ *              so the days the service was down are billed once it is back.
+ *              The chunks of all runs are charged by one shared pool of
+ *              threads, shut down with the service. The number of parallel
+ *              chunks can be set with the billing.parallelism property.
+ *
+ * @class BillingRunService
+ *
+ * @constructor
+ *              Initializes the service and its shared pool of threads with
+ *              the parallelism of the environment.
+ * @param {CardService}                cardService - Service charging the fees.
+ * @param {CardRepository}             cardRepository - Repository for the
+ *                                     cards.
+ * @param {CardChargeRepository}       cardChargeRepository - Repository for
+ *                                     the charges of the cards.
+ * @param {BillingRunRepository}       billingRunRepository - Repository for
+ *                                     the runs.
+ * @param {AccountRepository}          accountRepository - Repository for the
+ *                                     accounts.
+ * @param {PlatformTransactionManager} transactionManager - The manager of the
+ *                                     charge transactions.
+ * @param {Environment}                environment - The environment holding
+ *                                     the parallelism.
+ *
+ * @method checkCardsFees - Scheduled method running or resuming the billing
+ *         of every unfinished day up to the current day.
+ *
+ * @method billUnfinishedDays - Runs or resumes the billing of every day from
+ *         the earliest unfinished one up to a day, in order.
+ * @param {LocalDate} today - The last day to bill.
+ * @returns {List<LocalDate>} - The billed days.
+ * @throws {InterruptedException} - If the thread is interrupted while waiting
+ *         for the chunks.
+ *
+ * @method runBilling - Runs or resumes the billing of a day.
+ * @param {LocalDate} billingDate - The billing day.
+ * @returns {BillingRun} - The run with the report of its last attempt.
+ * @throws {InterruptedException} - If the thread is interrupted while waiting
+ *         for the chunks.
+ *
+ * @method getChunks - Groups the due cards without a charge of the day by
+ *         account into chunks.
+ * @param {List<Card>}  dueCards - The due cards.
+ * @param {Set<String>} chargedCardIds - The identifiers of the charged cards.
+ * @returns {List<List<Card>>} - The chunks.
+ *
+ * @method chargeCard - Charges a card unless it was charged on the day.
+ * @param {Card}      card - The card.
+ * @param {LocalDate} billingDate - The billing day.
+ * @returns {String} - The outcome of the charge or null if the card was
+ *          already charged.
+ * @throws {Exception} - If the fees of the card cannot be read.
+ *
+ * @method shutdown - Shuts the pool of the chunks down and waits for the
+ *         running chunks.
+ * @throws {InterruptedException} - If the thread is interrupted while waiting.
+ *
+ * @method isChargedConcurrently - Checks whether an integrity violation is the
+ *         violation of the key of the charges of the cards.
+ * @param {DataIntegrityViolationException} exception - The violation.
+ * @returns {boolean} - True if the card was already charged on the day.
+ */
+@Service
+@EnableScheduling
+public class BillingRunService {
+    static final int CHUNK_SIZE = 100;
+    static final String CARD_CHARGES_KEY = "card_charges_pkey";
+    private static final int DEFAULT_PARALLELISM = 4;
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    private final CardService cardService;
+    private final CardRepository cardRepository;
+    private final CardChargeRepository cardChargeRepository;
+    private final BillingRunRepository billingRunRepository;
+    private final AccountRepository accountRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService executorService;
+
+    @Autowired
+    public BillingRunService(CardService cardService, CardRepository cardRepository,
+            CardChargeRepository cardChargeRepository, BillingRunRepository billingRunRepository,
+            AccountRepository accountRepository, PlatformTransactionManager transactionManager,
+            Environment environment) {
+        this(cardService, cardRepository, cardChargeRepository, billingRunRepository, accountRepository,
+                transactionManager, environment.getProperty("billing.parallelism", Integer.class, DEFAULT_PARALLELISM));
+    }
+
+    BillingRunService(CardService cardService, CardRepository cardRepository,
+            CardChargeRepository cardChargeRepository, BillingRunRepository billingRunRepository,
+            AccountRepository accountRepository, PlatformTransactionManager transactionManager, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Billing parallelism must be positive");
+        }
+        this.cardService = cardService;
+        this.cardRepository = cardRepository;
+        this.cardChargeRepository = cardChargeRepository;
+        this.billingRunRepository = billingRunRepository;
+        this.accountRepository = accountRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.executorService = Executors.newFixedThreadPool(parallelism);
+    }
+
+    @Scheduled(cron = "0 0 * * * *")
+    public void checkCardsFees() {
+        try {
+            this.billUnfinishedDays(LocalDate.now());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    List<LocalDate> billUnfinishedDays(LocalDate today) throws InterruptedException {
+        LocalDate lastCompletedDate = this.billingRunRepository.findLastCompletedBillingDate();
+        LocalDate firstUnfinishedDate = this.billingRunRepository.findFirstUnfinishedBillingDate();
+        LocalDate firstDate = lastCompletedDate == null ? today : lastCompletedDate.plusDays(1);
+        if (firstUnfinishedDate != null && firstUnfinishedDate.isBefore(firstDate)) {
+            firstDate = firstUnfinishedDate;
+        }
+        List<LocalDate> billedDates = new ArrayList<>();
+        for (LocalDate billingDate = firstDate; !billingDate.isAfter(today); billingDate = billingDate.plusDays(1)) {
+            try {
+                this.runBilling(billingDate);
+                billedDates.add(billingDate);
+            } catch (InterruptedException e) {
+                throw e;
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+        return billedDates;
+    }
+
+    public BillingRun runBilling(LocalDate billingDate) throws InterruptedException {
+        BillingRun billingRun = this.billingRunRepository.findById(billingDate)
+                .orElseGet(() -> BillingRun.builder().billingDate(billingDate).build());
+        if ("completed".equals(billingRun.getStatus())) {
+            return billingRun;
+        }
+        long startTime = System.nanoTime();
+        billingRun.setStatus("running");
+        billingRun.setAttempts(billingRun.getAttempts() + 1);
+        billingRun.setStartedAt(Instant.now());
+        billingRun.setFinishedAt(null);
+        billingRun = this.billingRunRepository.save(billingRun);
+        int fromDay = billingDate.getDayOfMonth();
+        int toDay = fromDay == billingDate.lengthOfMonth() ? 31 : fromDay;
+        List<Card> dueCards = this.cardRepository.findAllDueForBilling(billingDate, fromDay, toDay);
+        Set<String> chargedCardIds = this.cardChargeRepository.findCardIdsByBillingDate(billingDate);
+        List<List<Card>> chunks = getChunks(dueCards, chargedCardIds);
+        BillingTally tally = new BillingTally();
+        tally.skipped.addAndGet(dueCards.size() - chunks.stream().mapToInt(List::size).sum());
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (List<Card> chunk : chunks) {
+                results.add(this.executorService.submit(() -> this.chargeChunk(chunk, billingDate, tally)));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Billing chunk failed", e.getCause());
+        }
+        billingRun.setBilledCards(billingRun.getBilledCards() + tally.billed.get());
+        billingRun.setCancelledCards(billingRun.getCancelledCards() + tally.cancelled.get());
+        billingRun.setSkippedCards(tally.skipped.get());
+        billingRun.setFailedCards(tally.failed.get());
+        billingRun.setStatus(tally.failed.get() == 0 ? "completed" : "failed");
+        billingRun.setFinishedAt(Instant.now());
+        billingRun.setDurationMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+        return this.billingRunRepository.save(billingRun);
+    }
+
+    static List<List<Card>> getChunks(List<Card> dueCards, Set<String> chargedCardIds) {
+        Map<String, List<Card>> cardsByAccount = new LinkedHashMap<>();
+        for (Card card : dueCards) {
+            if (!chargedCardIds.contains(card.getId())) {
+                cardsByAccount.computeIfAbsent(card.getAccount().getId(), accountId -> new ArrayList<>()).add(card);
+            }
+        }
+        List<List<Card>> chunks = new ArrayList<>();
+        List<Card> chunk = new ArrayList<>();
+        for (List<Card> accountCards : cardsByAccount.values()) {
+            chunk.addAll(accountCards);
+            if (chunk.size() >= CHUNK_SIZE) {
+                chunks.add(chunk);
+                chunk = new ArrayList<>();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+
+    private void chargeChunk(List<Card> chunk, LocalDate billingDate, BillingTally tally) {
+        for (Card card : chunk) {
+            try {
+                String outcome = this.transactionTemplate.execute(status -> {
+                    try {
+                        return this.chargeCard(card, billingDate);
+                    } catch (RuntimeException e) {
+                        throw e;
+                    } catch (Exception e) {
+                        throw new IllegalStateException("Card " + card.getId() + " could not be charged", e);
+                    }
+                });
+                if (outcome == null) {
+                    tally.skipped.incrementAndGet();
+                } else if (outcome.equals("billed")) {
+                    tally.billed.incrementAndGet();
+                } else {
+                    tally.cancelled.incrementAndGet();
+                }
+            } catch (DataIntegrityViolationException e) {
+                if (isChargedConcurrently(e)) {
+                    tally.skipped.incrementAndGet();
+                } else {
+                    e.printStackTrace();
+                    tally.failed.incrementAndGet();
+                }
+            } catch (Exception e) {
+                e.printStackTrace();
+                tally.failed.incrementAndGet();
+            }
+        }
+    }
+
+    String chargeCard(Card card, LocalDate billingDate) throws Exception {
+        String chargeId = CardCharge.getChargeId(card.getId(), billingDate);
+        if (this.cardChargeRepository.existsById(chargeId)) {
+            return null;
+        }
+        List<Account> accounts = this.accountRepository.findAllForUpdateByIdIn(List.of(card.getAccount().getId()));
+        if (accounts.isEmpty()) {
+            throw new Exception("Account of card " + card.getId() + " not found");
+        }
+        String outcome = this.cardService.chargeMonthlyFee(card, accounts.get(0)) ? "billed" : "cancelled";
+        this.cardChargeRepository.save(CardCharge.builder().id(chargeId).cardId(card.getId())
+                .billingDate(billingDate).outcome(outcome).chargedAt(Instant.now()).build());
+        return outcome;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        this.executorService.shutdown();
+        this.executorService.awaitTermination(SHUTDOWN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    static boolean isChargedConcurrently(DataIntegrityViolationException exception) {
+        for (Throwable cause = exception.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException constraintViolationException) {
+                return CARD_CHARGES_KEY.equalsIgnoreCase(constraintViolationException.getConstraintName());
+            }
+        }
+        return false;
+    }
+
+    private static final class BillingTally {
+        private final AtomicInteger billed = new AtomicInteger();
+        private final AtomicInteger cancelled = new AtomicInteger();
+        private final AtomicInteger skipped = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+    }
+}
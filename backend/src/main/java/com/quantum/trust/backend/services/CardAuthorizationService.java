@@ -0,0 +1,600 @@
+package com.quantum.trust.backend.services;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.quantum.trust.backend.model.AuthorizationDecision;
+import com.quantum.trust.backend.model.CardSpending;
+import com.quantum.trust.backend.model.Money;
+import com.quantum.trust.backend.model.dto.CardAuthorizationDto;
+import com.quantum.trust.backend.model.dto.CardAuthorizationResultDto;
+import com.quantum.trust.backend.model.dto.EncryptedPayload;
+import com.quantum.trust.backend.model.entities.Account;
+import com.quantum.trust.backend.model.entities.Card;
+import com.quantum.trust.backend.model.entities.CardLimits;
+import com.quantum.trust.backend.model.entities.Transaction;
+import com.quantum.trust.backend.repositories.AccountRepository;
+import com.quantum.trust.backend.repositories.CardRepository;
+import com.quantum.trust.backend.repositories.TransactionRepository;
+import com.quantum.trust.backend.utils.SlidingWindowCounter;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * @service CardAuthorizationService
+ * @description Service class authorizing card payments against the daily
+ *              limits of the cards. Every card keeps the amount and the number
+ *              of its internet payments and cash withdrawals of the last 24
+ *              hours in lock free sliding window counters in memory, rebuilt
+ *              from the card transactions at startup, so an authorization
+ *              checks and reserves its amount without touching the database.
+ *              The terms of a card are loaded once and reloaded after the card
+ *              changes. A payment within the limits is handed to a single
+ *              writer thread, which drains a bounded queue in batches, one
+ *              database transaction per batch. The writer locks the account
+ *              rows of the batch for writing as TransferService does, checks
+ *              every payment against the balance from the ledger, posts the
+ *              covered ones to the ledger and records them as blockade
+ *              transactions, so card spending debits the account at once and
+ *              its settlement only changes the status of the transaction, as
+ *              for transfers. The authorization waits for the decision of the
+ *              writer and a declined payment releases its reservation of the
+ *              limits. A full queue releases the reservation and rejects the
+ *              payment at once. A batch failing as a whole is retried hold by
+ *              hold and a hold failing on its own is failed, so nothing has
+ *              been posted for it, its reservation of the limits is released
+ *              and its authorization ends with an error instead of waiting or
+ *              being approved without a record. A card only authorizes payments of the user
+ *              owning its account, the cards of other users are declined
+ *              before their security code is looked at, so nobody can use up
+ *              the attempts of a card of someone else and have it suspended.
+ *              Every authorization of the owner takes one of the security code
+ *              attempts of the card before the code is compared and a correct
+ *              code gives them back, so no number of parallel guesses gets
+ *              more than three wrong codes checked. The third wrong code
+ *              suspends the card, which its owner can unsuspend. The capacity
+ *              of the queue can be set with the
+ *              cards.authorization.queue-capacity property.
+ *
+ * @class CardAuthorizationService
+ *
+ * @constructor
+ *              Initializes the queue with the capacity of the environment. The
+ *              writer thread is started by the start method once the bean is
+ *              initialized, payments made before are rejected.
+ * @param {CardRepository}             cardRepository - Repository for
+ *                                     accessing card data.
+ * @param {AccountRepository}          accountRepository - Repository for
+ *                                     locking the accounts of the cards.
+ * @param {TransactionRepository}      transactionRepository - Repository for
+ *                                     accessing transaction data.
+ * @param {CryptoService}              cryptoService - Service for decrypting
+ *                                     the security codes.
+ * @param {LedgerService}              ledgerService - Service keeping the
+ *                                     journal of balances.
+ * @param {AccountService}             accountService - Service identifying
+ *                                     the user of the request.
+ * @param {PlatformTransactionManager} transactionManager - The manager of the
+ *                                     batch transactions.
+ * @param {Environment}                environment - The environment holding
+ *                                     the capacity.
+ *
+ * @method authorizeCardPayment - Authorizes a card payment of the user of the
+ *         request.
+ * @param {HttpServletRequest}   httpServletRequest - The HTTP servlet request.
+ * @param {CardAuthorizationDto} cardAuthorizationDto - The authorization DTO.
+ * @returns {ResponseEntity<?>} - A ResponseEntity containing the encrypted
+ *          decision, 400 if the payment is invalid or 503 if the queue of
+ *          holds is full.
+ *
+ * @method authorize - Checks a card payment against the limits of its card,
+ *         queues its hold and waits until the writer has checked it against
+ *         the balance and recorded it.
+ * @param {CardAuthorizationDto} cardAuthorizationDto - The authorization DTO.
+ * @param {Long}                 userId - The ID of the user paying with the
+ *                               card.
+ * @returns {CardAuthorizationResultDto} - The decision or null if the queue of
+ *          holds is full.
+ * @throws {IllegalArgumentException} - If the channel, the title or the
+ *         amount is invalid.
+ * @throws {Exception} - If the security code of the card cannot be
+ *         decrypted or the hold cannot be recorded.
+ *
+ * @method refreshCard - Drops the loaded terms of a card, so the next
+ *         authorization reads them again, and gives back its security code
+ *         attempts.
+ * @param {String} cardId - The number of the card.
+ *
+ * @method rebuildCounters - Method run at startup counting the card
+ *         transactions of the last 24 hours into the counters.
+ *
+ * @method evictIdleCards - Scheduled method removing the cards without
+ *         payments within the window.
+ *
+ * @method writeHolds - Locks the accounts of a batch of holds, posts the
+ *         holds covered by the balances to the ledger, records them as
+ *         blockade transactions and completes the decisions of all holds once
+ *         the batch is committed.
+ * @param {List<Hold>} batch - The holds.
+ *
+ * @method recordHolds - Posts and records the holds covered by the balances
+ *         of their locked accounts in the current transaction.
+ * @param {List<Hold>} batch - The holds.
+ * @returns {List<AuthorizationDecision>} - The decision of every hold.
+ *
+ * @method start - Starts the writer thread and the accepting of payments
+ *         after the bean is initialized.
+ *
+ * @method shutdown - Stops accepting payments and waits until the writer
+ *         thread has recorded the queued holds. A hold queued after the writer
+ *         has stopped is failed, so no authorization waits for it forever.
+ */
+@Service
+@EnableScheduling
+public class CardAuthorizationService {
+    static final String INTERNET_CHANNEL = "internet";
+    static final String CASH_CHANNEL = "cash";
+    static final String INTERNET_CATEGORY = "Płatność internetowa";
+    static final String CASH_CATEGORY = "Wypłata gotówki";
+    static final int WINDOW_BUCKETS = 24;
+    static final long BUCKET_MILLIS = TimeUnit.HOURS.toMillis(1);
+    static final int MAX_BATCH_SIZE = 256;
+    static final int MAX_SECURITY_CODE_FAILURES = 3;
+    private static final int DEFAULT_QUEUE_CAPACITY = 8192;
+    private static final int MAX_TITLE_LENGTH = 255;
+    private static final long POLL_TIMEOUT_MILLIS = 100L;
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(30);
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final DateTimeFormatter HOUR_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
+
+    private final CardRepository cardRepository;
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final CryptoService cryptoService;
+    private final LedgerService ledgerService;
+    private final AccountService accountService;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final Map<String, CardState> cardStates = new ConcurrentHashMap<>();
+    private final ArrayBlockingQueue<Hold> holds;
+    private Thread writer;
+    private volatile boolean isAccepting;
+
+    @Autowired
+    public CardAuthorizationService(CardRepository cardRepository, AccountRepository accountRepository,
+            TransactionRepository transactionRepository, CryptoService cryptoService, LedgerService ledgerService,
+            AccountService accountService, PlatformTransactionManager transactionManager, Environment environment) {
+        this(cardRepository, accountRepository, transactionRepository, cryptoService, ledgerService, accountService,
+                transactionManager,
+                environment.getProperty("cards.authorization.queue-capacity", Integer.class,
+                        DEFAULT_QUEUE_CAPACITY),
+                Clock.systemDefaultZone());
+    }
+
+    CardAuthorizationService(CardRepository cardRepository, AccountRepository accountRepository,
+            TransactionRepository transactionRepository, CryptoService cryptoService, LedgerService ledgerService,
+            AccountService accountService, PlatformTransactionManager transactionManager, int queueCapacity,
+            Clock clock) {
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("Authorization queue capacity must be positive");
+        }
+        this.cardRepository = cardRepository;
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+        this.cryptoService = cryptoService;
+        this.ledgerService = ledgerService;
+        this.accountService = accountService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.clock = clock;
+        this.holds = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    @PostConstruct
+    public synchronized void start() {
+        if (this.writer != null) {
+            return;
+        }
+        this.writer = new Thread(this::drain, "card-authorization-writer");
+        this.writer.setDaemon(true);
+        this.isAccepting = true;
+        this.writer.start();
+    }
+
+    public ResponseEntity<?> authorizeCardPayment(HttpServletRequest httpServletRequest,
+            CardAuthorizationDto cardAuthorizationDto) {
+        try {
+            CardAuthorizationResultDto result = this.authorize(cardAuthorizationDto,
+                    this.accountService.retrieveUserIdFromToken(httpServletRequest));
+            if (result == null) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1")
+                        .build();
+            }
+            return ResponseEntity.status(HttpStatus.OK).body(new EncryptedPayload(result));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    public CardAuthorizationResultDto authorize(CardAuthorizationDto cardAuthorizationDto, Long userId)
+            throws Exception {
+        boolean isInternet = this.isInternetChannel(cardAuthorizationDto.getChannel());
+        String title = cardAuthorizationDto.getTitle();
+        if (title == null || title.isBlank() || title.length() > MAX_TITLE_LENGTH
+                || cardAuthorizationDto.getAmount() == null) {
+            throw new IllegalArgumentException("Card authorization is invalid");
+        }
+        while (true) {
+            CardState cardState = this.getCardState(cardAuthorizationDto.getCardId());
+            CardTerms cardTerms = cardState == null ? null : cardState.terms;
+            if (cardTerms == null || !cardTerms.isUsable(LocalDate.now(this.clock)) || !cardTerms.isOwnedBy(userId)
+                    || !this.isSecurityCodeAccepted(cardAuthorizationDto.getCardId(), cardState,
+                            isInternet ? cardTerms.cvcCode : cardTerms.pin, cardAuthorizationDto.getSecurityCode())) {
+                return new CardAuthorizationResultDto(null, AuthorizationDecision.DECLINED_CARD);
+            }
+            long amount = getAmount(cardAuthorizationDto.getAmount(), cardTerms.currency);
+            SlidingWindowCounter counter = isInternet ? cardState.internetTransactions : cardState.cashTransactions;
+            int countLimit = isInternet ? cardTerms.internetTransactionsCount : cardTerms.cashTransactionsCount;
+            long nowMillis = this.clock.millis();
+            if (!counter.tryAdd(amount, isInternet ? cardTerms.internetTransactionsLimit
+                    : cardTerms.cashTransactionsLimit, countLimit, nowMillis)) {
+                return new CardAuthorizationResultDto(null, counter.getCount(nowMillis) >= countLimit
+                        ? AuthorizationDecision.DECLINED_COUNT_LIMIT
+                        : AuthorizationDecision.DECLINED_AMOUNT_LIMIT);
+            }
+            if (this.cardStates.get(cardAuthorizationDto.getCardId()) != cardState) {
+                counter.remove(amount, nowMillis, nowMillis);
+                continue;
+            }
+            Hold hold = new Hold(UUID.randomUUID().toString(), cardAuthorizationDto.getCardId(),
+                    isInternet ? INTERNET_CATEGORY : CASH_CATEGORY, amount, title, nowMillis);
+            if (!this.isAccepting || !this.holds.offer(hold)
+                    || !this.isAccepting && this.holds.remove(hold)) {
+                counter.remove(amount, nowMillis, this.clock.millis());
+                return null;
+            }
+            AuthorizationDecision decision;
+            try {
+                decision = hold.decision.get();
+            } catch (ExecutionException e) {
+                counter.remove(amount, nowMillis, this.clock.millis());
+                throw new IllegalStateException("Card authorization hold could not be recorded", e.getCause());
+            }
+            if (decision != AuthorizationDecision.APPROVED) {
+                counter.remove(amount, nowMillis, this.clock.millis());
+                return new CardAuthorizationResultDto(null, decision);
+            }
+            return new CardAuthorizationResultDto(hold.authorizationId, AuthorizationDecision.APPROVED);
+        }
+    }
+
+    public void refreshCard(String cardId) {
+        CardState cardState = this.cardStates.get(cardId);
+        if (cardState != null) {
+            cardState.terms = null;
+            cardState.securityCodeFailures.set(0);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildCounters() {
+        try {
+            long nowMillis = this.clock.millis();
+            String fromDate = LocalDate.now(this.clock).minusDays(1).format(DATE_FORMATTER);
+            List<CardSpending> cardSpendings = this.transactionRepository.findCardSpendingsSince(fromDate,
+                    List.of(INTERNET_CATEGORY, CASH_CATEGORY));
+            for (CardSpending cardSpending : cardSpendings) {
+                long timestampMillis = LocalDateTime
+                        .of(LocalDate.parse(cardSpending.getDate(), DATE_FORMATTER),
+                                LocalTime.parse(cardSpending.getHour(), HOUR_FORMATTER))
+                        .atZone(this.clock.getZone()).toInstant().toEpochMilli();
+                CardState cardState = this.cardStates.computeIfAbsent(cardSpending.getCardId(),
+                        cardId -> new CardState());
+                SlidingWindowCounter counter = cardSpending.getCategory().equals(INTERNET_CATEGORY)
+                        ? cardState.internetTransactions
+                        : cardState.cashTransactions;
+                counter.add(cardSpending.getAmount(), timestampMillis, nowMillis);
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Scheduled(fixedDelay = 600000)
+    public void evictIdleCards() {
+        long nowMillis = this.clock.millis();
+        for (String cardId : this.cardStates.keySet()) {
+            this.cardStates.computeIfPresent(cardId, (key, cardState) -> cardState.isIdle(nowMillis) ? null
+                    : cardState);
+        }
+    }
+
+    void writeHolds(List<Hold> batch) {
+        List<AuthorizationDecision> decisions;
+        try {
+            decisions = this.transactionTemplate.execute(status -> this.recordHolds(batch));
+        } catch (Exception e) {
+            e.printStackTrace();
+            if (batch.size() == 1) {
+                batch.get(0).decision.completeExceptionally(e);
+                return;
+            }
+            for (Hold hold : batch) {
+                this.writeHolds(List.of(hold));
+            }
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).decision.complete(decisions.get(i));
+        }
+    }
+
+    List<AuthorizationDecision> recordHolds(List<Hold> batch) {
+        Set<String> cardIds = batch.stream().map(hold -> hold.cardId).collect(Collectors.toSet());
+        Map<String, Card> cards = new HashMap<>();
+        for (Card card : this.cardRepository.findAllWithAccountByIdIn(cardIds)) {
+            cards.put(card.getId(), card);
+        }
+        Set<String> accountIds = cards.values().stream().map(card -> card.getAccount().getId())
+                .collect(Collectors.toSet());
+        Map<String, Account> accounts = new HashMap<>();
+        if (!accountIds.isEmpty()) {
+            for (Account account : this.accountRepository.findAllForUpdateByIdIn(accountIds)) {
+                accounts.put(account.getId(), account);
+            }
+            this.ledgerService.loadBalances(accounts.values());
+        }
+        List<AuthorizationDecision> decisions = new ArrayList<>(batch.size());
+        List<Transaction> transactions = new ArrayList<>(batch.size());
+        for (Hold hold : batch) {
+            Card card = cards.get(hold.cardId);
+            Account account = card == null ? null : accounts.get(card.getAccount().getId());
+            if (account == null) {
+                decisions.add(AuthorizationDecision.DECLINED_CARD);
+                continue;
+            }
+            if (account.getBalance() < hold.amount) {
+                decisions.add(AuthorizationDecision.DECLINED_INSUFFICIENT_FUNDS);
+                continue;
+            }
+            this.ledgerService.postCardPayment(account, hold.amount);
+            account.setBalance(Math.subtractExact(account.getBalance(), hold.amount));
+            transactions.add(this.getTransaction(card, account, hold));
+            decisions.add(AuthorizationDecision.APPROVED);
+        }
+        if (!transactions.isEmpty()) {
+            this.transactionRepository.saveAll(transactions);
+        }
+        return decisions;
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() throws InterruptedException {
+        this.isAccepting = false;
+        if (this.writer != null) {
+            this.writer.join(SHUTDOWN_TIMEOUT_MILLIS);
+        }
+        for (Hold hold = this.holds.poll(); hold != null; hold = this.holds.poll()) {
+            hold.decision.completeExceptionally(new IllegalStateException("Card authorization service is stopped"));
+        }
+    }
+
+    private CardState getCardState(String cardId) {
+        if (cardId == null) {
+            return null;
+        }
+        CardState cardState = this.cardStates.computeIfAbsent(cardId, key -> new CardState());
+        if (cardState.terms == null) {
+            List<Card> cards = this.cardRepository.findAllWithAccountByIdIn(List.of(cardId));
+            if (cards.isEmpty()) {
+                this.cardStates.computeIfPresent(cardId, (key, state) -> state.isIdle(this.clock.millis()) ? null
+                        : state);
+                return null;
+            }
+            cardState.terms = new CardTerms(cards.get(0));
+        }
+        return cardState;
+    }
+
+    private boolean isInternetChannel(String channel) {
+        if (INTERNET_CHANNEL.equals(channel)) {
+            return true;
+        }
+        if (CASH_CHANNEL.equals(channel)) {
+            return false;
+        }
+        throw new IllegalArgumentException("Card authorization channel is invalid");
+    }
+
+    private boolean isSecurityCodeAccepted(String cardId, CardState cardState, String encryptedCode,
+            String securityCode) throws Exception {
+        int failures;
+        do {
+            failures = cardState.securityCodeFailures.get();
+            if (failures >= MAX_SECURITY_CODE_FAILURES) {
+                return false;
+            }
+        } while (!cardState.securityCodeFailures.compareAndSet(failures, failures + 1));
+        if (this.isSecurityCodeValid(encryptedCode, securityCode)) {
+            cardState.securityCodeFailures.set(0);
+            return true;
+        }
+        if (cardState.securityCodeFailures.get() >= MAX_SECURITY_CODE_FAILURES) {
+            this.cardRepository.suspendById(cardId);
+            cardState.terms = null;
+        }
+        return false;
+    }
+
+    private boolean isSecurityCodeValid(String encryptedCode, String securityCode) throws Exception {
+        if (encryptedCode == null || securityCode == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(this.cryptoService.decryptData(encryptedCode).getBytes(StandardCharsets.UTF_8),
+                securityCode.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long getAmount(BigDecimal amount, String currency) {
+        try {
+            long minorUnits = Money.toMinorUnits(amount, currency, RoundingMode.UNNECESSARY);
+            if (minorUnits <= 0L) {
+                throw new IllegalArgumentException("Card authorization amount must be positive");
+            }
+            return minorUnits;
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Card authorization amount is invalid");
+        }
+    }
+
+    private Transaction getTransaction(Card card, Account account, Hold hold) {
+        LocalDateTime authorizedAt = LocalDateTime.ofInstant(Instant.ofEpochMilli(hold.authorizedAtMillis),
+                this.clock.getZone());
+        return Transaction
+                .builder()
+                .date(authorizedAt.format(DATE_FORMATTER))
+                .hour(authorizedAt.format(HOUR_FORMATTER))
+                .title(hold.title)
+                .card(card)
+                .type("outgoing")
+                .amount(hold.amount)
+                .currency(account.getCurrency())
+                .accountAmountAfter(account.getBalance())
+                .category(hold.category)
+                .accountCurrency(account.getCurrency())
+                .status("blockade")
+                .build();
+    }
+
+    private void drain() {
+        List<Hold> batch = new ArrayList<>(MAX_BATCH_SIZE);
+        while (true) {
+            try {
+                Hold hold = this.holds.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (hold == null) {
+                    if (!this.isAccepting) {
+                        return;
+                    }
+                    continue;
+                }
+                batch.add(hold);
+                this.holds.drainTo(batch, MAX_BATCH_SIZE - 1);
+                this.writeHolds(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                e.printStackTrace();
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    static final class Hold {
+        private final String authorizationId;
+        private final String cardId;
+        private final String category;
+        private final long amount;
+        private final String title;
+        private final long authorizedAtMillis;
+        private final CompletableFuture<AuthorizationDecision> decision = new CompletableFuture<>();
+
+        Hold(String authorizationId, String cardId, String category, long amount, String title,
+                long authorizedAtMillis) {
+            this.authorizationId = authorizationId;
+            this.cardId = cardId;
+            this.category = category;
+            this.amount = amount;
+            this.title = title;
+            this.authorizedAtMillis = authorizedAtMillis;
+        }
+    }
+
+    private static final class CardState {
+        private final SlidingWindowCounter internetTransactions = new SlidingWindowCounter(WINDOW_BUCKETS,
+                BUCKET_MILLIS);
+        private final SlidingWindowCounter cashTransactions = new SlidingWindowCounter(WINDOW_BUCKETS,
+                BUCKET_MILLIS);
+        private final AtomicInteger securityCodeFailures = new AtomicInteger();
+        private volatile CardTerms terms;
+
+        private boolean isIdle(long nowMillis) {
+            return this.internetTransactions.getCount(nowMillis) == 0
+                    && this.cashTransactions.getCount(nowMillis) == 0 && this.securityCodeFailures.get() == 0;
+        }
+    }
+
+    private static final class CardTerms {
+        private final Long ownerId;
+        private final String currency;
+        private final String status;
+        private final LocalDate expirationDate;
+        private final String cvcCode;
+        private final String pin;
+        private final long internetTransactionsLimit;
+        private final int internetTransactionsCount;
+        private final long cashTransactionsLimit;
+        private final int cashTransactionsCount;
+
+        private CardTerms(Card card) {
+            CardLimits cardLimits = card.getLimits();
+            this.ownerId = card.getAccount().getUser() == null ? null : card.getAccount().getUser().getId();
+            this.currency = card.getAccount().getCurrency();
+            this.status = card.getStatus();
+            this.expirationDate = card.getExpirationDate();
+            this.cvcCode = card.getCvcCode();
+            this.pin = card.getPin();
+            this.internetTransactionsLimit = cardLimits == null ? 0L : cardLimits.getInternetTransactionsLimit();
+            this.internetTransactionsCount = cardLimits == null ? 0 : cardLimits.getInternetTransactionsCount();
+            this.cashTransactionsLimit = cardLimits == null ? 0L : cardLimits.getCashTransactionsLimit();
+            this.cashTransactionsCount = cardLimits == null ? 0 : cardLimits.getCashTransactionsCount();
+        }
+
+        private boolean isOwnedBy(Long userId) {
+            return this.ownerId != null && this.ownerId.equals(userId);
+        }
+
+        private boolean isUsable(LocalDate today) {
+            return !"suspended".equals(this.status) && this.expirationDate != null
+                    && !this.expirationDate.isBefore(today);
+        }
+    }
+}
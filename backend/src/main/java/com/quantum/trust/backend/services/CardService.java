@@ -1,39 +1,58 @@
 package com.quantum.trust.backend.services;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.ThreadLocalRandom;
-import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.quantum.trust.backend.mappers.CardMapper;
 import com.quantum.trust.backend.model.Fees;
+import com.quantum.trust.backend.model.Limits;
+import com.quantum.trust.backend.model.Money;
 import com.quantum.trust.backend.model.TransactionCredentials;
 import com.quantum.trust.backend.model.dto.CardDto;
-import com.quantum.trust.backend.model.dto.EncryptedDto;
+import com.quantum.trust.backend.model.dto.EncryptedPayload;
 import com.quantum.trust.backend.model.dto.TransactionDto;
 import com.quantum.trust.backend.model.entities.Account;
 import com.quantum.trust.backend.model.entities.Card;
+import com.quantum.trust.backend.model.entities.CardFees;
+import com.quantum.trust.backend.model.entities.CardLimits;
 import com.quantum.trust.backend.repositories.AccountRepository;
 import com.quantum.trust.backend.repositories.CardRepository;
 
 import jakarta.servlet.http.HttpServletRequest;
-import jakarta.transaction.Transactional;
 
 /**
  * @service CardService
- * @description Service class for managing cards.
+ * @description Service class for managing cards. The earliest expiration
+ *              date of all cards is kept in memory, loaded at startup through
+ *              the expiration date index and after every removal of expired
+ *              cards, so the daily expiry check touches the database only on
+ *              days some card has actually expired and then removes all of
+ *              them in one statement. The encrypted fees and limits of the
+ *              DTOs are decoded once when a card is ordered or edited and
+ *              kept as minor units, so charging fees and validating limits
+ *              read plain numbers, and are encrypted again only for the
+ *              responses. A new card is saved and its release fee is posted in
+ *              one transaction holding the write lock of the row of its
+ *              account, as transfers do, and only if the balance read from the
+ *              ledger under that lock covers the fee.
  *
  * @class CardService
  *
@@ -52,20 +71,38 @@ import jakarta.transaction.Transactional;
  *                             data.
  * @param {AccountRepository}  accountRepository - Repository for accessing
  *                             account data.
+ * @param {LedgerService}      ledgerService - Service keeping the journal of
+ *                             balances.
+ * @param {CardAuthorizationService} cardAuthorizationService - Service
+ *                             authorizing card payments, told about changed
+ *                             cards.
+ * @param {PlatformTransactionManager} transactionManager - The manager of the
+ *                             transactions ordering new cards.
  *
- * @method checkCardsFees - Scheduled method to check and charge monthly fees
- *         for cards.
- * @method checkIsCardValid - Scheduled method to check and delete expired
- *         cards.
+ * @method chargeMonthlyFee - Charges the monthly fee of a card or removes the
+ *         card if the balance of its account does not cover the fee.
+ * @param {Card}    card - The card.
+ * @param {Account} account - The account of the card, locked by the caller.
+ * @returns {boolean} - True if the fee was charged, false if the card was
+ *          removed.
+ * @method checkIsCardValid - Scheduled method run at startup and every
+ *         midnight deleting the expired cards once the earliest expiration
+ *         date has passed.
  * @method getResponeWithAllUserCards - Retrieves all cards associated with the
  *         user ID extracted from the request.
  * @param {HttpServletRequest} httpServletRequest - The HTTP servlet request.
  * @returns {ResponseEntity<?>} - A ResponseEntity containing the encrypted list
  *          of cards or an error status.
- * @method orderNewCard - Orders a new card.
- * @param {String} encryptedCardDto - The encrypted card DTO.
+ * @method orderNewCard - Orders a new card and charges its release fee.
+ * @param {CardDto} cardDto - The card DTO.
  * @returns {ResponseEntity<?>} - A ResponseEntity indicating the result of the
  *          operation.
+ * @method saveNewCard - Locks the account of a new card, checks that its
+ *         balance covers the release fee, saves the card and charges the fee
+ *         in the current transaction.
+ * @param {Card} card - The validated card.
+ * @throws {IllegalArgumentException} - If the account is not found or its
+ *         balance does not cover the release fee.
  * @method getAllUserCards - Retrieves all cards associated with the user ID
  *         extracted from the request.
  * @param {HttpServletRequest} httpServletRequest - The HTTP servlet request.
@@ -79,7 +116,7 @@ import jakarta.transaction.Transactional;
  * @returns {ResponseEntity<?>} - A ResponseEntity indicating the result of the
  *          operation.
  * @method editCard - Edits a card.
- * @param {String} encryptedCardObject - The encrypted card object.
+ * @param {CardDto} cardDto - The card DTO with the updated card information.
  * @returns {ResponseEntity<?>} - A ResponseEntity indicating the result of the
  *          operation.
  */
@@ -94,12 +131,17 @@ public class CardService {
     private final ObjectMapper objectMapper;
     private final CardRepository cardRepository;
     private final AccountRepository accountRepository;
+    private final LedgerService ledgerService;
+    private final CardAuthorizationService cardAuthorizationService;
+    private final TransactionTemplate transactionTemplate;
+    private volatile LocalDate earliestExpirationDate;
 
     @Autowired
     public CardService(AccountService accountService, CryptoService cryptoService, ValidationService validationService,
             @Lazy TransactionService transactionService, CardMapper cardMapper,
             ObjectMapper objectMapper,
-            CardRepository cardRepository, AccountRepository accountRepository) {
+            CardRepository cardRepository, AccountRepository accountRepository, LedgerService ledgerService,
+            CardAuthorizationService cardAuthorizationService, PlatformTransactionManager transactionManager) {
         this.accountService = accountService;
         this.cryptoService = cryptoService;
         this.validationService = validationService;
@@ -108,38 +150,25 @@ public class CardService {
         this.objectMapper = objectMapper;
         this.cardRepository = cardRepository;
         this.accountRepository = accountRepository;
+        this.ledgerService = ledgerService;
+        this.cardAuthorizationService = cardAuthorizationService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
-    @Scheduled(cron = "0 0 * * * *")
-    @Transactional
-    public void checkCardsFees() {
-        try {
-            List<Card> cardList = this.cardRepository.findAll();
-            LocalDate today = LocalDate.now();
-            for (Card card : cardList) {
-                LocalDate creationDate = card.getCreationDate();
-                if (creationDate.getDayOfMonth() == today.getDayOfMonth() && today.isAfter(creationDate)) {
-                    this.chargeMonthlyFee(card);
-                }
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-    }
-
-    @Scheduled(cron = "0 * * * * *")
-    @Transactional
+    @Scheduled(cron = "0 0 0 * * *")
+    @EventListener(ApplicationReadyEvent.class)
     public void checkIsCardValid() {
         try {
-            List<Card> cardList = this.cardRepository.findAll();
             LocalDate today = LocalDate.now();
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd-MM-yyyy");
-            for (Card card : cardList) {
-                LocalDate cardExpirationDate = LocalDate.parse(card.getExpirationDate(), formatter);
-                if (cardExpirationDate.isBefore(today)) {
-                    this.cardRepository.delete(card);
-                }
+            LocalDate earliestDate = this.earliestExpirationDate;
+            if (earliestDate == null) {
+                earliestDate = this.cardRepository.findEarliestExpirationDate();
             }
+            if (earliestDate != null && earliestDate.isBefore(today)) {
+                this.cardRepository.deleteExpiredBefore(today);
+                earliestDate = this.cardRepository.findEarliestExpirationDate();
+            }
+            this.earliestExpirationDate = earliestDate;
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -156,15 +185,14 @@ public class CardService {
         }
     }
 
-    public ResponseEntity<?> orderNewCard(String encryptedCardDto) {
+    public ResponseEntity<?> orderNewCard(CardDto cardDto) {
         try {
-            CardDto cardDto = this.getDecryptedCardDto(encryptedCardDto);
             Account account = this.getAccountFromCardDto(cardDto);
             Card card = this.cardMapper.convertToCard(cardDto);
-            this.setCardCredentials(card, account);
+            this.setCardCredentials(card, cardDto, account);
             this.validationService.validateCard(card);
-            this.cardRepository.save(card);
-            this.chargeReleaseCardFee(account, card);
+            this.transactionTemplate.executeWithoutResult(status -> this.saveNewCard(card));
+            this.updateEarliestExpirationDate(card.getExpirationDate());
             return ResponseEntity.status(HttpStatus.OK).build();
         } catch (Exception e) {
             e.printStackTrace();
@@ -192,6 +220,7 @@ public class CardService {
             Card card = foundedCard.get();
             card.setStatus("suspended");
             this.cardRepository.save(card);
+            this.cardAuthorizationService.refreshCard(card.getId());
             return ResponseEntity.status(HttpStatus.OK).build();
         } catch (Exception e) {
             e.printStackTrace();
@@ -209,6 +238,7 @@ public class CardService {
             Card card = foundedCard.get();
             card.setStatus("unsuspended");
             this.cardRepository.save(card);
+            this.cardAuthorizationService.refreshCard(card.getId());
             return ResponseEntity.status(HttpStatus.OK).build();
         } catch (Exception e) {
             e.printStackTrace();
@@ -216,9 +246,8 @@ public class CardService {
         }
     }
 
-    public ResponseEntity<?> editCard(String encryptedCardObject) {
+    public ResponseEntity<?> editCard(CardDto cardDto) {
         try {
-            CardDto cardDto = this.getDecryptedCardDto(encryptedCardObject);
             Optional<Card> retrievedCard = this.cardRepository.findById(Long.valueOf(cardDto.getId()));
             if (retrievedCard.isEmpty()) {
                 throw new Exception("Card was not founded.");
@@ -227,6 +256,7 @@ public class CardService {
             this.setEditingCardCredentials(card, cardDto);
             this.validationService.validateCard(card);
             this.cardRepository.save(card);
+            this.cardAuthorizationService.refreshCard(card.getId());
             return ResponseEntity.status(HttpStatus.OK).build();
         } catch (Exception e) {
             e.printStackTrace();
@@ -234,29 +264,48 @@ public class CardService {
         }
     }
 
-    private void chargeMonthlyFee(Card card) throws Exception {
-        Account account = card.getAccount();
-        Fees fees = this.getFeesFromCard(card);
-        if (account.getBalance() >= fees.getMonthly()) {
-            this.saveMonthlyChargeTransaction(account, card);
-            this.accountRepository.save(account);
-        } else {
+    void saveNewCard(Card card) throws IllegalArgumentException {
+        List<Account> accounts = this.accountRepository.findAllForUpdateByIdIn(List.of(card.getAccount().getId()));
+        if (accounts.isEmpty()) {
+            throw new IllegalArgumentException("Account not found");
+        }
+        Account account = accounts.get(0);
+        this.ledgerService.loadBalances(accounts);
+        if (account.getBalance() < card.getFees().getReleaseFee()) {
+            throw new IllegalArgumentException("Balance does not cover the release fee of the card");
+        }
+        card.setAccount(account);
+        this.cardRepository.save(card);
+        this.chargeReleaseCardFee(account, card);
+    }
+
+    private synchronized void updateEarliestExpirationDate(LocalDate expirationDate) {
+        LocalDate earliestDate = this.earliestExpirationDate;
+        if (earliestDate != null && expirationDate != null && expirationDate.isBefore(earliestDate)) {
+            this.earliestExpirationDate = expirationDate;
+        }
+    }
+
+    public boolean chargeMonthlyFee(Card card, Account account) throws Exception {
+        account.setBalance(this.ledgerService.getBalance(account.getId()));
+        if (account.getBalance() < card.getFees().getMonthlyFee()) {
             this.cardRepository.delete(card);
+            this.cardAuthorizationService.refreshCard(card.getId());
+            return false;
         }
+        this.saveMonthlyChargeTransaction(account, card);
+        return true;
     }
 
     private void saveMonthlyChargeTransaction(Account account, Card card) throws Exception {
         TransactionCredentials transactionCredentials = this.getTransactionCredentials(account, card, "monthlyFee");
+        if (transactionCredentials.getAmount() > 0L) {
+            this.ledgerService.postCardFee(account, transactionCredentials.getAmount());
+        }
         TransactionDto transactionDto = this.transactionService.getTransactionDto(account, transactionCredentials);
         this.transactionService.saveNewTransaction(transactionDto);
     }
 
-    private CardDto getDecryptedCardDto(String encryptedCardDto) throws Exception {
-        String decryptedCardDto = this.cryptoService.decryptData(encryptedCardDto);
-        decryptedCardDto = decryptedCardDto.replace("\\", "\"");
-        return objectMapper.readValue(decryptedCardDto, CardDto.class);
-    }
-
     private Account getAccountFromCardDto(CardDto cardDto) throws Exception {
         Optional<Account> account = this.accountRepository.findById(cardDto.getAssignedAccountNumber());
         if (account.isEmpty()) {
@@ -265,51 +314,97 @@ public class CardService {
         return account.get();
     }
 
-    private void setCardCredentials(Card card, Account account) throws Exception {
+    private void setCardCredentials(Card card, CardDto cardDto, Account account) throws Exception {
         card.setAccount(account);
+        card.setFees(this.getCardFees(cardDto.getFees(), account.getCurrency()));
+        card.setLimits(this.getCardLimits(cardDto.getLimits(), account.getCurrency()));
         card.setCvcCode(this.getCvcCode());
         card.setCreationDate(LocalDate.now());
     }
 
-    private void chargeReleaseCardFee(Account account, Card card) throws Exception {
+    private void chargeReleaseCardFee(Account account, Card card) {
         TransactionCredentials transactionCredentials = this.getTransactionCredentials(account, card, "releaseFee");
-        if (transactionCredentials.getAmount() > 0) {
+        if (transactionCredentials.getAmount() > 0L) {
+            this.ledgerService.postCardFee(account, transactionCredentials.getAmount());
             TransactionDto transactionDto = this.transactionService.getTransactionDto(account, transactionCredentials);
             this.transactionService.saveNewTransaction(transactionDto);
-            this.accountRepository.save(account);
         }
     }
 
-    private Fees getFeesFromCard(Card card) throws Exception {
-        String decryptedFeesObject = this.cryptoService.decryptData(card.getFees());
-        decryptedFeesObject = decryptedFeesObject.replace("\\", "\"");
-        return this.objectMapper.readValue(decryptedFeesObject, Fees.class);
+    private CardFees getCardFees(String encryptedFees, String currency) throws Exception {
+        String decryptedFees = this.cryptoService.decryptData(encryptedFees).replace("\\", "\"");
+        Fees fees = this.objectMapper.readValue(decryptedFees, Fees.class);
+        return new CardFees(this.getMinorUnits(fees.getRelease(), currency),
+                this.getMinorUnits(fees.getMonthly(), currency));
+    }
+
+    private CardLimits getCardLimits(String encryptedLimits, String currency) throws Exception {
+        String decryptedLimits = this.cryptoService.decryptData(encryptedLimits)
+                .replace("internetTransactions", "\"internetTransactions\"")
+                .replace("cashTransactions", "\"cashTransactions\"");
+        Limits limits = this.objectMapper.readValue(decryptedLimits, Limits[].class)[0];
+        Float[] internetTransactions = limits.getInternetTransactions();
+        Float[] cashTransactions = limits.getCashTransactions();
+        return new CardLimits(this.getMinorUnits(internetTransactions[0], currency),
+                Math.round(internetTransactions[1]), this.getMinorUnits(internetTransactions[2], "PLN"),
+                this.getMinorUnits(cashTransactions[0], currency), Math.round(cashTransactions[1]),
+                this.getMinorUnits(cashTransactions[2], "PLN"));
+    }
+
+    private String getEncryptedFees(CardFees cardFees, String currency) throws Exception {
+        Fees fees = new Fees(this.getMajorUnits(cardFees.getReleaseFee(), currency),
+                this.getMajorUnits(cardFees.getMonthlyFee(), currency));
+        return this.cryptoService.encryptData(this.objectMapper.writeValueAsString(fees));
+    }
+
+    private String getEncryptedLimits(CardLimits cardLimits, String currency) throws Exception {
+        Float[] internetTransactions = { this.getMajorUnits(cardLimits.getInternetTransactionsLimit(), currency),
+                (float) cardLimits.getInternetTransactionsCount(),
+                this.getMajorUnits(cardLimits.getInternetTransactionsMaxLimit(), "PLN") };
+        Float[] cashTransactions = { this.getMajorUnits(cardLimits.getCashTransactionsLimit(), currency),
+                (float) cardLimits.getCashTransactionsCount(),
+                this.getMajorUnits(cardLimits.getCashTransactionsMaxLimit(), "PLN") };
+        return this.cryptoService.encryptData(List.of(new Limits(internetTransactions, cashTransactions)));
     }
 
-    private TransactionCredentials getTransactionCredentials(Account account, Card card, String transactionType)
-            throws Exception {
-        Fees fees = this.getFeesFromCard(card);
+    private TransactionCredentials getTransactionCredentials(Account account, Card card, String transactionType) {
         boolean isMonthlyFee = transactionType.equals("monthlyFee");
         String transactionTitle = isMonthlyFee ? "Opłata miesięczna za kartę " : "Opłata za założenie karty ";
         transactionTitle += this.formatCardId(card.getId());
-        Float fee = isMonthlyFee ? Float.valueOf(fees.getMonthly()) : Float.valueOf(fees.getRelease());
-        Float newAccountBalance = account.getBalance() - fee;
-        if (fee > 0) {
+        long fee = isMonthlyFee ? card.getFees().getMonthlyFee() : card.getFees().getReleaseFee();
+        long newAccountBalance = Math.subtractExact(account.getBalance(), fee);
+        if (fee > 0L) {
             account.setBalance(newAccountBalance);
         }
         return new TransactionCredentials(newAccountBalance,
                 fee, "Inne", "settled", transactionTitle, "outgoing");
     }
 
+    private long getMinorUnits(Float amount, String currency) {
+        return Money.toMinorUnits(new BigDecimal(Float.toString(amount)), currency, RoundingMode.HALF_EVEN);
+    }
+
+    private float getMajorUnits(long minorUnits, String currency) {
+        return Money.ofMinor(minorUnits, currency).toDecimal().floatValue();
+    }
+
     private ResponseEntity<?> getResponse(List<Account> accountsList) throws Exception {
         List<Card> cardsList = new ArrayList<>();
         this.addAllCards(accountsList, cardsList);
-        List<CardDto> cardsListDto = cardsList.stream().map(this.cardMapper::convertToCardDto)
-                .collect(Collectors.toList());
-        String encryptedCardsList = this.cryptoService.encryptData(cardsListDto);
-        EncryptedDto encryptedDto = new EncryptedDto(encryptedCardsList);
+        List<CardDto> cardsListDto = new ArrayList<>(cardsList.size());
+        for (Card card : cardsList) {
+            cardsListDto.add(this.getCardDto(card));
+        }
         return cardsList.isEmpty() ? ResponseEntity.status(HttpStatus.NOT_FOUND).build()
-                : ResponseEntity.status(HttpStatus.OK).body(encryptedDto);
+                : ResponseEntity.status(HttpStatus.OK).body(new EncryptedPayload(cardsListDto));
+    }
+
+    private CardDto getCardDto(Card card) throws Exception {
+        CardDto cardDto = this.cardMapper.convertToCardDto(card);
+        String currency = card.getAccount().getCurrency();
+        cardDto.setFees(this.getEncryptedFees(card.getFees(), currency));
+        cardDto.setLimits(this.getEncryptedLimits(card.getLimits(), currency));
+        return cardDto;
     }
 
     private void addAllCards(List<Account> accountsList, List<Card> cardsList) {
@@ -334,21 +429,9 @@ public class CardService {
 
     private void setEditingCardCredentials(Card card, CardDto cardDto) throws Exception {
         Account account = this.getAccountFromCardDto(cardDto);
-        card.setLimits(cardDto.getLimits());
+        card.setLimits(this.getCardLimits(cardDto.getLimits(), account.getCurrency()));
         card.setPin(cardDto.getPin());
         card.setAccount(account);
-        this.setCorrectCardFees(card);
-    }
-
-    private void setCorrectCardFees(Card card) throws Exception {
-        Fees validCardFees = this.validationService.validFees.get(card.getType());
-        float validRecalculatedReleaseFee = this.validationService.getRecalculatedReleaseFee(card,
-                validCardFees, "PLN");
-        float validRecalculatedMonthlyFee = this.validationService
-                .getRecalculatedMonthlyFee(card, validCardFees, "PLN");
-        Fees cardFees = new Fees(validRecalculatedReleaseFee, validRecalculatedMonthlyFee);
-        String cardFeesJson = this.objectMapper.writeValueAsString(cardFees);
-        String encryptedCardFees = this.cryptoService.encryptData(cardFeesJson);
-        card.setFees(encryptedCardFees);
+        card.setFees(this.validationService.getValidCardFees(card));
     }
 }
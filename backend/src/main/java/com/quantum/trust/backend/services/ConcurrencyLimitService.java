@@ -0,0 +1,244 @@
+package com.quantum.trust.backend.services;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+import com.quantum.trust.backend.services.TokenBucketService.EndpointGroup;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * @service ConcurrencyLimitService
+ * @description Service class for adaptive concurrency limiting. Every endpoint
+ *              group has its own limit of requests in flight which follows
+ *              the measured latency: while the recent latency stays close to
+ *              the long term baseline the limit grows, once requests queue up
+ *              behind a slow database or password hashing the recent latency
+ *              rises and the limit shrinks by the same gradient. Requests
+ *              which fail with a server error cut the limit multiplicatively.
+ *              Requests above the limit are not queued, they are shed at
+ *              once. The maximum limit of every group can be set with the
+ *              concurrency-limit.&lt;group&gt;.max-limit property. The limit,
+ *              the requests in flight and the shed requests of every group
+ *              are published as concurrency.limit, concurrency.in-flight and
+ *              concurrency.shed-requests meters tagged with the group.
+ *
+ * @class ConcurrencyLimitService
+ *
+ * @constructor
+ *              Initializes the limiters with the limits of the environment.
+ * @param {Environment} environment - The environment holding the limits.
+ *
+ * @method tryAcquire - Attempts to admit the request into its endpoint group.
+ * @param {HttpServletRequest} request - The HTTP servlet request.
+ * @returns {Permit} - The permit which has to be released once the request
+ *          completes or null if the request has to be shed.
+ *
+ * @method getRetryAfterSeconds - Retrieves the delay a shed client should wait
+ *         before retrying, derived from the recent latency of the endpoint
+ *         group of the request.
+ * @param {HttpServletRequest} request - The HTTP servlet request.
+ * @returns {long} - The delay in seconds.
+ *
+ * @method getLimit - Retrieves the current concurrency limit.
+ * @param {EndpointGroup} endpointGroup - The endpoint group.
+ * @returns {int} - The current limit.
+ *
+ * @method getInFlight - Retrieves the number of requests in flight.
+ * @param {EndpointGroup} endpointGroup - The endpoint group.
+ * @returns {int} - The number of admitted, not yet completed requests.
+ *
+ * @method getShedRequests - Retrieves the number of shed requests.
+ * @param {EndpointGroup} endpointGroup - The endpoint group.
+ * @returns {long} - The number of shed requests.
+ *
+ * @method bindTo - Registers the meters of every endpoint group.
+ * @param {MeterRegistry} registry - The meter registry.
+ */
+@Service
+public class ConcurrencyLimitService implements MeterBinder {
+    private final LongSupplier nanoClock;
+    private final Map<EndpointGroup, Limiter> limiters = new EnumMap<>(EndpointGroup.class);
+
+    @Autowired
+    public ConcurrencyLimitService(Environment environment) {
+        this(getConfiguredMaxLimits(environment), System::nanoTime);
+    }
+
+    ConcurrencyLimitService(Map<EndpointGroup, Integer> maxLimits, LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        for (EndpointGroup endpointGroup : EndpointGroup.values()) {
+            int maxLimit = maxLimits.getOrDefault(endpointGroup, getDefaultMaxLimit(endpointGroup));
+            if (maxLimit < Limiter.MIN_LIMIT) {
+                throw new IllegalArgumentException("Concurrency limit must be positive");
+            }
+            this.limiters.put(endpointGroup, new Limiter(maxLimit));
+        }
+    }
+
+    public Permit tryAcquire(HttpServletRequest request) {
+        EndpointGroup endpointGroup = TokenBucketService.getEndpointGroup(request);
+        Limiter limiter = this.limiters.get(endpointGroup);
+        if (!limiter.tryAcquire()) {
+            limiter.shedRequests.increment();
+            return null;
+        }
+        return new Permit(endpointGroup, limiter, this.nanoClock.getAsLong());
+    }
+
+    public long getRetryAfterSeconds(HttpServletRequest request) {
+        double shortRttNanos = this.limiters.get(TokenBucketService.getEndpointGroup(request)).shortRttNanos;
+        return Math.max(1L, (long) Math.ceil(shortRttNanos / TimeUnit.SECONDS.toNanos(1)));
+    }
+
+    public int getLimit(EndpointGroup endpointGroup) {
+        return (int) this.limiters.get(endpointGroup).limit;
+    }
+
+    public int getInFlight(EndpointGroup endpointGroup) {
+        return this.limiters.get(endpointGroup).inFlight.get();
+    }
+
+    public long getShedRequests(EndpointGroup endpointGroup) {
+        return this.limiters.get(endpointGroup).shedRequests.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (EndpointGroup endpointGroup : EndpointGroup.values()) {
+            String group = endpointGroup.name().toLowerCase();
+            Gauge.builder("concurrency.limit", this, service -> service.getLimit(endpointGroup))
+                    .description("Current adaptive concurrency limit").tag("group", group).register(registry);
+            Gauge.builder("concurrency.in-flight", this, service -> service.getInFlight(endpointGroup))
+                    .description("Admitted requests not yet completed").tag("group", group).register(registry);
+            FunctionCounter.builder("concurrency.shed-requests", this,
+                    service -> service.getShedRequests(endpointGroup))
+                    .description("Requests shed above the concurrency limit").tag("group", group)
+                    .register(registry);
+        }
+    }
+
+    private static Map<EndpointGroup, Integer> getConfiguredMaxLimits(Environment environment) {
+        Map<EndpointGroup, Integer> configuredMaxLimits = new EnumMap<>(EndpointGroup.class);
+        for (EndpointGroup endpointGroup : EndpointGroup.values()) {
+            String property = "concurrency-limit." + endpointGroup.name().toLowerCase() + ".max-limit";
+            configuredMaxLimits.put(endpointGroup,
+                    environment.getProperty(property, Integer.class, getDefaultMaxLimit(endpointGroup)));
+        }
+        return configuredMaxLimits;
+    }
+
+    private static int getDefaultMaxLimit(EndpointGroup endpointGroup) {
+        switch (endpointGroup) {
+            case AUTH:
+                return 16;
+            case TRANSFERS:
+                return 32;
+            case READS:
+                return 200;
+            default:
+                return 64;
+        }
+    }
+
+    public final class Permit {
+        private final EndpointGroup endpointGroup;
+        private final Limiter limiter;
+        private final long startTime;
+        private boolean released;
+
+        private Permit(EndpointGroup endpointGroup, Limiter limiter, long startTime) {
+            this.endpointGroup = endpointGroup;
+            this.limiter = limiter;
+            this.startTime = startTime;
+        }
+
+        public EndpointGroup getEndpointGroup() {
+            return this.endpointGroup;
+        }
+
+        public void release(boolean isFailed) {
+            if (this.released) {
+                return;
+            }
+            this.released = true;
+            this.limiter.release(nanoClock.getAsLong() - this.startTime, isFailed);
+        }
+    }
+
+    private static final class Limiter {
+        private static final int MIN_LIMIT = 1;
+        private static final double SMOOTHING = 0.2;
+        private static final double BACKOFF_RATIO = 0.9;
+        private static final double SHORT_RTT_WEIGHT = 2.0 / (10 + 1);
+        private static final double LONG_RTT_WEIGHT = 2.0 / (600 + 1);
+
+        private final int maxLimit;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final LongAdder shedRequests = new LongAdder();
+        private volatile double limit;
+        private volatile double shortRttNanos;
+        private double longRttNanos;
+
+        private Limiter(int maxLimit) {
+            this.maxLimit = maxLimit;
+            this.limit = Math.max(MIN_LIMIT, Math.min(maxLimit, 20));
+        }
+
+        private boolean tryAcquire() {
+            while (true) {
+                int current = this.inFlight.get();
+                if (current >= (int) this.limit) {
+                    return false;
+                }
+                if (this.inFlight.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        private synchronized void release(long rttNanos, boolean isFailed) {
+            int inFlightBefore = this.inFlight.getAndDecrement();
+            double currentLimit = this.limit;
+            double newLimit;
+            if (isFailed) {
+                newLimit = currentLimit * BACKOFF_RATIO;
+            } else {
+                this.updateRtt(Math.max(1L, rttNanos));
+                if (inFlightBefore < currentLimit / 2) {
+                    return;
+                }
+                double gradient = Math.max(0.5, Math.min(1.0, this.longRttNanos / this.shortRttNanos));
+                double queueSize = Math.sqrt(currentLimit);
+                newLimit = currentLimit * (1 - SMOOTHING) + (currentLimit * gradient + queueSize) * SMOOTHING;
+            }
+            this.limit = Math.max(MIN_LIMIT, Math.min(this.maxLimit, newLimit));
+        }
+
+        private void updateRtt(long rttNanos) {
+            if (this.longRttNanos == 0) {
+                this.shortRttNanos = rttNanos;
+                this.longRttNanos = rttNanos;
+                return;
+            }
+            this.shortRttNanos = this.shortRttNanos + (rttNanos - this.shortRttNanos) * SHORT_RTT_WEIGHT;
+            this.longRttNanos = this.longRttNanos + (rttNanos - this.longRttNanos) * LONG_RTT_WEIGHT;
+            if (this.longRttNanos / this.shortRttNanos > 2) {
+                this.longRttNanos *= 0.95;
+            }
+        }
+    }
+}
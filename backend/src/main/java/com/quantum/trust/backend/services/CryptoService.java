@@ -1,85 +1,245 @@
 package com.quantum.trust.backend.services;
 
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
-import java.security.SecureRandom;
 import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
-import javax.crypto.Cipher;
-import javax.crypto.spec.IvParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StreamUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.quantum.trust.backend.crypto.CbcPayloadCodec;
+import com.quantum.trust.backend.crypto.GcmPayloadCodec;
+import com.quantum.trust.backend.crypto.PayloadCodec;
+import com.quantum.trust.backend.crypto.PayloadCompression;
+import com.quantum.trust.backend.crypto.PayloadEnvelope;
 
 /**
  * @service CryptoService
- * @description Service class for handling encryption and decryption.
+ * @description Service class for handling encryption and decryption. The
+ *              cipher and the compression are chosen by the payload envelope,
+ *              data without an envelope header uses the legacy uncompressed
+ *              CBC format. The AES key is
+ *              decoded once and every thread reuses its own serialization
+ *              buffer.
  *
  * @class CryptoService
  *
  * @constructor
- * @param {PasswordEncoder} passwordEncoder - Encoder for hashing passwords.
+ * @param {PasswordEncoder}    passwordEncoder - Encoder for hashing passwords.
+ * @param {List<PayloadCodec>} payloadCodecs - The available payload codecs.
  *
- * @method encryptData - Encrypts the given data using AES encryption.
+ * @method encryptData - Encrypts the given data using the legacy envelope.
  * @param {Object} data - The data to be encrypted.
  * @returns {String} - The encrypted data as a Base64 encoded string.
  *
- * @method decryptData - Decrypts the given encrypted data using AES decryption.
- * @param {String} encryptedData - The encrypted data as a Base64 encoded
- *                 string.
+ * @method encryptData - Encrypts the given data using the given envelope.
+ * @param {Object}          data - The data to be encrypted.
+ * @param {PayloadEnvelope} envelope - The envelope of the encrypted data.
+ * @returns {String} - The envelope header followed by the Base64 encoded
+ *          encrypted data.
+ *
+ * @method writeEncryptedData - Serializes the given data to JSON and streams it
+ *         through the compression and the codec of the envelope and the Base64
+ *         encoder into the given output stream without building the JSON or
+ *         the ciphertext in memory. The output stream is left open.
+ * @param {Object}          data - The data to be encrypted.
+ * @param {PayloadEnvelope} envelope - The envelope of the encrypted data.
+ * @param {OutputStream}    outputStream - The stream receiving the envelope
+ *                          header and the Base64 encoded encrypted data.
+ *
+ * @method getEncryptingStream - Writes the envelope header to the given output
+ *         stream and returns a stream compressing, encrypting and Base64
+ *         encoding everything written to it on the fly. Closing the returned
+ *         stream finishes the encrypted data and leaves the output stream
+ *         open.
+ * @param {PayloadEnvelope} envelope - The envelope of the encrypted data.
+ * @param {OutputStream}    outputStream - The stream receiving the envelope
+ *                          header and the Base64 encoded encrypted data.
+ * @returns {OutputStream} - The stream of plain data to be encrypted.
+ *
+ * @method decryptData - Decrypts and decompresses the given encrypted data as
+ *         named in its envelope header.
+ * @param {String} encryptedData - The encrypted data.
  * @returns {String} - The decrypted data as a string.
  *
+ * @method getDecryptingStream - Reads the envelope header from the given stream
+ *         and returns a stream decoding, decrypting and decompressing the
+ *         remaining data on the fly.
+ * @param {InputStream} encryptedStream - The stream with the envelope header
+ *                      and the Base64 encoded encrypted data.
+ * @returns {InputStream} - The stream of decrypted data.
+ *
+ * @method isCodecSupported - Checks whether a codec with the given name is
+ *         available.
+ * @param {String} codecName - The name of the codec.
+ * @returns {boolean} - True if the codec is available.
+ *
  * @method getEncryptedPassword - Encrypts the given password using the password
  *         encoder.
  * @param {String} password - The password to be encrypted.
  * @returns {String} - The encrypted password.
+ *
+ * @method getKeySpec - Retrieves the decoded AES key, decoding it only when the
+ *         configured key changes.
+ * @returns {SecretKeySpec} - The AES key.
  */
 @Service
 public class CryptoService {
+    private static final int MAX_RETAINED_BUFFER_SIZE = 64 * 1024;
+
+    private static final ObjectWriter objectWriter = new ObjectMapper().writer();
+    private static final ThreadLocal<SerializationBuffer> serializationBuffer = ThreadLocal
+            .withInitial(SerializationBuffer::new);
+
     @Value("${encrypt.key}")
     String encryptKey;
 
+    private volatile DecodedKey decodedKey;
+
     private final PasswordEncoder passwordEncoder;
+    private final Map<String, PayloadCodec> payloadCodecs = new HashMap<>();
 
     @Autowired
-    public CryptoService(PasswordEncoder passwordEncoder) {
+    public CryptoService(PasswordEncoder passwordEncoder, List<PayloadCodec> payloadCodecs) {
         this.passwordEncoder = passwordEncoder;
+        for (PayloadCodec payloadCodec : payloadCodecs) {
+            this.payloadCodecs.put(payloadCodec.getName(), payloadCodec);
+        }
+        if (!this.payloadCodecs.containsKey(PayloadEnvelope.LEGACY.getCodecName())) {
+            throw new IllegalStateException("Codec of the legacy envelope is not available");
+        }
+    }
+
+    public CryptoService(PasswordEncoder passwordEncoder) {
+        this(passwordEncoder, List.of(new CbcPayloadCodec(), new GcmPayloadCodec()));
     }
 
     public String encryptData(Object data) throws Exception {
-        byte[] iv = new byte[16];
-        SecureRandom random = new SecureRandom();
-        random.nextBytes(iv);
-        IvParameterSpec ivParameterSpec = new IvParameterSpec(iv);
-        Cipher cipher = Cipher.getInstance("AES/CBC/PKCS5Padding");
-        byte[] decodedKey = Base64.getDecoder().decode(this.encryptKey);
-        SecretKeySpec keySpec = new SecretKeySpec(decodedKey, "AES");
-        cipher.init(Cipher.ENCRYPT_MODE, keySpec, ivParameterSpec);
-        String jsonData = new com.fasterxml.jackson.databind.ObjectMapper().writeValueAsString(data);
-        byte[] encryptedBytes = cipher.doFinal(jsonData.getBytes(StandardCharsets.UTF_8));
-        byte[] encryptedDataWithIv = new byte[iv.length + encryptedBytes.length];
-        System.arraycopy(iv, 0, encryptedDataWithIv, 0, iv.length);
-        System.arraycopy(encryptedBytes, 0, encryptedDataWithIv, iv.length, encryptedBytes.length);
-        return Base64.getEncoder().encodeToString(encryptedDataWithIv);
+        return this.encryptData(data, PayloadEnvelope.LEGACY);
+    }
+
+    public String encryptData(Object data, PayloadEnvelope envelope) throws Exception {
+        PayloadCodec payloadCodec = this.getPayloadCodec(envelope);
+        SerializationBuffer buffer = serializationBuffer.get();
+        try {
+            objectWriter.writeValue(envelope.getCompression().compress(buffer), data);
+            byte[] encryptedData = payloadCodec.encrypt(this.getKeySpec(), buffer.getBuffer(), 0, buffer.size());
+            return envelope.getHeader() + Base64.getEncoder().encodeToString(encryptedData);
+        } finally {
+            this.releaseBuffer(buffer);
+        }
+    }
+
+    public void writeEncryptedData(Object data, PayloadEnvelope envelope, OutputStream outputStream)
+            throws IOException {
+        try (OutputStream encryptingStream = this.getEncryptingStream(envelope, outputStream)) {
+            objectWriter.writeValue(encryptingStream, data);
+        }
+    }
+
+    public OutputStream getEncryptingStream(PayloadEnvelope envelope, OutputStream outputStream) throws IOException {
+        PayloadCodec payloadCodec = this.getPayloadCodec(envelope);
+        outputStream.write(envelope.getHeader().getBytes(StandardCharsets.US_ASCII));
+        OutputStream base64Stream = Base64.getEncoder().wrap(StreamUtils.nonClosing(outputStream));
+        OutputStream encryptingStream = payloadCodec.getEncryptingStream(this.getKeySpec(), base64Stream);
+        return envelope.getCompression().compress(encryptingStream);
     }
 
     public String decryptData(String encryptedData) throws Exception {
-        byte[] decodedKey = Base64.getDecoder().decode(this.encryptKey);
-        SecretKeySpec keySpec = new SecretKeySpec(decodedKey, "AES");
-        byte[] decodedValue = Base64.getDecoder().decode(encryptedData);
-        byte[] iv = new byte[16];
-        byte[] ciphertext = new byte[decodedValue.length - 16];
-        System.arraycopy(decodedValue, 0, iv, 0, 16);
-        System.arraycopy(decodedValue, 16, ciphertext, 0, ciphertext.length);
-        Cipher cipher = Cipher.getInstance("AES/CBC/PKCS5Padding");
-        cipher.init(Cipher.DECRYPT_MODE, keySpec, new IvParameterSpec(iv));
-        byte[] decryptedValue = cipher.doFinal(ciphertext);
-        return new String(decryptedValue, "UTF-8").replace("\"", "");
+        PayloadEnvelope envelope = PayloadEnvelope.parse(encryptedData);
+        String encodedData = envelope.isLegacy() ? encryptedData
+                : encryptedData.substring(envelope.getHeader().length());
+        byte[] decodedValue = Base64.getDecoder().decode(encodedData);
+        byte[] decryptedValue = this.getPayloadCodec(envelope).decrypt(this.getKeySpec(), decodedValue, 0,
+                decodedValue.length);
+        if (envelope.getCompression() != PayloadCompression.NONE) {
+            try (InputStream decompressingStream = envelope.getCompression()
+                    .decompress(new ByteArrayInputStream(decryptedValue))) {
+                decryptedValue = decompressingStream.readAllBytes();
+            }
+        }
+        return new String(decryptedValue, StandardCharsets.UTF_8).replace("\"", "");
+    }
+
+    public InputStream getDecryptingStream(InputStream encryptedStream) throws IOException {
+        InputStream markableStream = encryptedStream.markSupported() ? encryptedStream
+                : new BufferedInputStream(encryptedStream);
+        PayloadEnvelope envelope = PayloadEnvelope.read(markableStream);
+        InputStream decryptingStream = this.getPayloadCodec(envelope).getDecryptingStream(this.getKeySpec(),
+                Base64.getDecoder().wrap(markableStream));
+        return envelope.getCompression().decompress(decryptingStream);
+    }
+
+    public boolean isCodecSupported(String codecName) {
+        return this.payloadCodecs.containsKey(codecName);
     }
 
     public String getEncryptedPassword(String password) {
         return this.passwordEncoder.encode(password);
     }
+
+    SecretKeySpec getKeySpec() {
+        DecodedKey currentKey = this.decodedKey;
+        if (currentKey == null || !this.encryptKey.equals(currentKey.source)) {
+            byte[] keyBytes = Base64.getDecoder().decode(this.encryptKey);
+            currentKey = new DecodedKey(this.encryptKey, new SecretKeySpec(keyBytes, "AES"));
+            this.decodedKey = currentKey;
+        }
+        return currentKey.keySpec;
+    }
+
+    private PayloadCodec getPayloadCodec(PayloadEnvelope envelope) throws IOException {
+        PayloadCodec payloadCodec = this.payloadCodecs.get(envelope.getCodecName());
+        if (payloadCodec == null) {
+            throw new IOException("Unsupported payload codec " + envelope.getCodecName());
+        }
+        return payloadCodec;
+    }
+
+    private void releaseBuffer(SerializationBuffer buffer) {
+        if (buffer.capacity() > MAX_RETAINED_BUFFER_SIZE) {
+            serializationBuffer.remove();
+        } else {
+            buffer.reset();
+        }
+    }
+
+    private static final class DecodedKey {
+        private final String source;
+        private final SecretKeySpec keySpec;
+
+        private DecodedKey(String source, SecretKeySpec keySpec) {
+            this.source = source;
+            this.keySpec = keySpec;
+        }
+    }
+
+    private static final class SerializationBuffer extends ByteArrayOutputStream {
+        private SerializationBuffer() {
+            super(1024);
+        }
+
+        private byte[] getBuffer() {
+            return this.buf;
+        }
+
+        private int capacity() {
+            return this.buf.length;
+        }
+    }
 }
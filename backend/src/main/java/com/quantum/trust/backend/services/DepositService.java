@@ -1,9 +1,10 @@
 package com.quantum.trust.backend.services;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -11,12 +12,14 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.quantum.trust.backend.mappers.DepositMapper;
+import com.quantum.trust.backend.model.Money;
 import com.quantum.trust.backend.model.TransactionCredentials;
 import com.quantum.trust.backend.model.dto.DepositDto;
-import com.quantum.trust.backend.model.dto.EncryptedDto;
+import com.quantum.trust.backend.model.dto.EncryptedPayload;
 import com.quantum.trust.backend.model.dto.TransactionDto;
 import com.quantum.trust.backend.model.entities.Account;
 import com.quantum.trust.backend.model.entities.Deposit;
@@ -24,34 +27,40 @@ import com.quantum.trust.backend.repositories.AccountRepository;
 import com.quantum.trust.backend.repositories.DepositRepository;
 
 import jakarta.servlet.http.HttpServletRequest;
-import jakarta.transaction.Transactional;
 
 /**
  * @service DepositService
- * @description Service class for managing deposits.
+ * @description Service class for managing deposits. A deposit is validated
+ *              before any money moves. Opening and closing a deposit each run
+ *              in one transaction holding the write lock of the row of its
+ *              account, as transfers do, so the balance read from the ledger
+ *              cannot change before the posting, and a deposit is only opened
+ *              when that balance covers it.
  *
  * @class DepositService
  *
  * @constructor
  * @param {AccountService}     accountService - Service for managing accounts.
- * @param {CryptoService}      cryptoService - Service for handling encryption.
  * @param {ValidationService}  validationService - Service for validating
  *                             entities.
  * @param {DepositMapper}      depositMapper - Mapper for converting deposit
  *                             entities to DTOs.
- * @param {ObjectMapper}       objectMapper - Mapper for converting JSON to
- *                             objects.
  * @param {TransactionService} transactionService - Service for managing
  *                             transactions.
  * @param {DepositRepository}  depositRepository - Repository for accessing
  *                             deposit data.
  * @param {AccountRepository}  accountRepository - Repository for accessing
  *                             account data.
+ * @param {LedgerService}      ledgerService - Service keeping the journal of
+ *                             balances.
+ * @param {PlatformTransactionManager} transactionManager - The manager of the
+ *                             transactions opening and closing deposits.
  *
- * @method checkDeposits - Scheduled method to check and close expired deposits.
- * @method saveNewDeposit - Saves a new deposit.
+ * @method checkDeposits - Scheduled method to check and close expired
+ *         deposits, each in its own transaction.
+ * @method saveNewDeposit - Validates a new deposit and opens it.
  * @param {HttpServletRequest} httpServletRequest - The HTTP servlet request.
- * @param {String}             encryptedDepositDto - The encrypted deposit DTO.
+ * @param {DepositDto}         depositDto - The deposit DTO.
  * @returns {ResponseEntity<?>} - A ResponseEntity indicating the result of the
  *          operation.
  * @method getAllUserDeposits - Retrieves all deposits associated with the user
@@ -59,49 +68,54 @@ import jakarta.transaction.Transactional;
  * @param {HttpServletRequest} httpServletRequest - The HTTP servlet request.
  * @returns {ResponseEntity<?>} - A ResponseEntity containing the encrypted list
  *          of deposits or an error status.
- * @method closeDeposit - Closes a deposit.
+ * @method closeDeposit - Closes a deposit, crediting its capital and interest
+ *         to its locked account in the current transaction.
  * @param {Deposit} deposit - The deposit to be closed.
- * @throws {Exception} - If an error occurs while closing the deposit.
- * @method calculateInterest - Calculates the interest for a deposit.
+ * @throws {IllegalArgumentException} - If the account is not found.
+ * @method calculateInterest - Calculates the interest for a deposit after
+ *         tax, exactly in decimal and rounded half up to whole major units.
  * @param {Deposit} deposit - The deposit for which to calculate interest.
- * @returns {float} - The calculated interest.
- * @method assignAccountToDeposit - Assigns an account to a deposit.
- * @param {Deposit}    deposit - The deposit to which the account will be
- *                     assigned.
- * @param {DepositDto} depositDto - The deposit DTO containing account
- *                     information.
- * @throws {Exception} - If the account is not found.
+ * @returns {long} - The calculated interest in minor units.
+ * @method openDeposit - Locks the assigned account of a validated deposit,
+ *         checks that its balance covers the deposit, posts the opening and
+ *         saves the deposit in the current transaction.
+ * @param {Deposit} deposit - The validated deposit.
+ * @param {String}  accountId - The number of the assigned account.
+ * @throws {IllegalArgumentException} - If the account is not found or its
+ *         balance does not cover the deposit.
  */
 @Service
 @EnableScheduling
 public class DepositService {
+    private static final BigDecimal MONTHS_PERCENT_DIVISOR = BigDecimal.valueOf(1200);
+    private static final BigDecimal INTEREST_AFTER_TAX = new BigDecimal("0.83");
+
     private final AccountService accountService;
-    private final CryptoService cryptoService;
     private final ValidationService validationService;
     private final DepositMapper depositMapper;
-    private final ObjectMapper objectMapper;
     private final TransactionService transactionService;
     private final DepositRepository depositRepository;
     private final AccountRepository accountRepository;
+    private final LedgerService ledgerService;
+    private final TransactionTemplate transactionTemplate;
 
     @Autowired
-    public DepositService(AccountService accountService, CryptoService cryptoService,
+    public DepositService(AccountService accountService,
             ValidationService validationService, DepositMapper depositMapper,
-            ObjectMapper objectMapper,
             DepositRepository depositRepository, AccountRepository accountRepository,
-            TransactionService transactionService) {
+            TransactionService transactionService, LedgerService ledgerService,
+            PlatformTransactionManager transactionManager) {
         this.accountService = accountService;
-        this.cryptoService = cryptoService;
         this.validationService = validationService;
         this.depositMapper = depositMapper;
-        this.objectMapper = objectMapper;
         this.depositRepository = depositRepository;
         this.accountRepository = accountRepository;
         this.transactionService = transactionService;
+        this.ledgerService = ledgerService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     @Scheduled(cron = "0 * * * * *")
-    @Transactional
     public void checkDeposits() {
         try {
             List<Deposit> deposits = depositRepository.findAll();
@@ -110,7 +124,7 @@ public class DepositService {
                 for (Deposit deposit : deposits) {
                     LocalDate endDate = LocalDate.parse(deposit.getEndDate());
                     if (endDate.isBefore(today) || endDate.isEqual(today)) {
-                        this.closeDeposit(deposit);
+                        this.transactionTemplate.executeWithoutResult(status -> this.closeDeposit(deposit));
                     }
                 }
             }
@@ -119,13 +133,15 @@ public class DepositService {
         }
     }
 
-    public ResponseEntity<?> saveNewDeposit(HttpServletRequest httpServletRequest, String encryptedDepositDto) {
+    public ResponseEntity<?> saveNewDeposit(HttpServletRequest httpServletRequest, DepositDto depositDto) {
         try {
-            Deposit deposit = this.getDepositFromEncryptedDto(encryptedDepositDto);
+            Deposit deposit = this.depositMapper.convertToDeposit(depositDto);
             if (deposit == null) {
                 throw new Exception("Deposit is null");
             }
-            this.depositRepository.save(deposit);
+            this.validationService.validateDeposit(deposit);
+            this.transactionTemplate.executeWithoutResult(
+                    status -> this.openDeposit(deposit, depositDto.getAssignedAccountNumber()));
             return ResponseEntity.status(HttpStatus.OK).build();
         } catch (Exception e) {
             e.printStackTrace();
@@ -144,40 +160,43 @@ public class DepositService {
         }
     }
 
-    void closeDeposit(Deposit deposit) throws Exception {
-        Account account = deposit.getAccount();
-        Float interest = this.calculateInterest(deposit);
-        Float finalDepositBalance = interest + deposit.getBalance();
-        account.setBalance(account.getBalance() + finalDepositBalance);
+    void closeDeposit(Deposit deposit) throws IllegalArgumentException {
+        Account account = this.getLockedAccount(deposit.getAccount().getId());
+        long interest = this.calculateInterest(deposit);
+        long finalDepositBalance = Math.addExact(interest, deposit.getBalance());
+        this.ledgerService.postDepositClosing(account, deposit.getBalance(), interest);
+        account.setBalance(Math.addExact(account.getBalance(), finalDepositBalance));
         this.saveClosingDepositTransaction(account, deposit, finalDepositBalance);
-        accountRepository.save(account);
         depositRepository.delete(deposit);
     }
 
-    float calculateInterest(Deposit deposit) {
-        float initialCapital = deposit.getBalance();
-        float percent = deposit.getPercent();
+    long calculateInterest(Deposit deposit) {
+        BigDecimal initialCapital = Money.ofMinor(deposit.getBalance(), deposit.getCurrency()).toDecimal();
+        BigDecimal percent = new BigDecimal(deposit.getPercent().toString());
         int monthsCount = deposit.getDuration();
         String depositType = deposit.getType();
-        float profit = depositType.equals("progressive")
-                ? Math.round(((initialCapital * percent) / 100) * (monthsCount / 12.0f))
-                : this.getNonProgressiveDepositProfit(percent, monthsCount, initialCapital);
-        return Math.round(profit * 0.83f);
+        BigDecimal percentMonths = depositType.equals("progressive")
+                ? percent.multiply(BigDecimal.valueOf(monthsCount))
+                : this.getNonProgressivePercentMonths(percent, monthsCount);
+        BigDecimal profit = initialCapital.multiply(percentMonths).divide(MONTHS_PERCENT_DIVISOR, 0,
+                RoundingMode.HALF_UP);
+        BigDecimal interest = profit.multiply(INTEREST_AFTER_TAX).setScale(0, RoundingMode.HALF_UP);
+        return Money.toMinorUnits(interest, deposit.getCurrency(), RoundingMode.UNNECESSARY);
     }
 
-    private float getNonProgressiveDepositProfit(float percent, float monthsCount, float initialCapital) {
-        float rate = percent;
-        float totalProfit = 0;
+    private BigDecimal getNonProgressivePercentMonths(BigDecimal percent, int monthsCount) {
+        BigDecimal rate = percent;
+        BigDecimal percentMonths = BigDecimal.ZERO;
         for (int i = 1; i <= monthsCount; i++) {
             if (i > 3) {
-                rate += 1;
+                rate = rate.add(BigDecimal.ONE);
             }
-            totalProfit += (initialCapital * rate) / 100 / 12;
+            percentMonths = percentMonths.add(rate);
         }
-        return Math.round(totalProfit);
+        return percentMonths;
     }
 
-    private void saveClosingDepositTransaction(Account account, Deposit deposit, Float finalDepositBalance) {
+    private void saveClosingDepositTransaction(Account account, Deposit deposit, long finalDepositBalance) {
         String title = "Zamknięcie lokaty " + deposit.getId();
         TransactionCredentials transactionCredentials = new TransactionCredentials(account.getBalance(),
                 finalDepositBalance, "Inne", "settled", title, "incoming");
@@ -185,35 +204,30 @@ public class DepositService {
         this.transactionService.saveNewTransaction(transactionDto);
     }
 
-    private Deposit getDepositFromEncryptedDto(String encryptedDepositDto) throws Exception {
-        String decryptedDepositDto = this.cryptoService.decryptData(encryptedDepositDto);
-        decryptedDepositDto = decryptedDepositDto.replace("\\", "\"");
-        DepositDto depositDto = objectMapper.readValue(decryptedDepositDto, DepositDto.class);
-        Deposit deposit = this.depositMapper.convertToDeposit(depositDto);
-        this.assignAccountToDeposit(deposit, depositDto);
-        this.validationService.validateDeposit(deposit);
-        return deposit;
-    }
-
-    void assignAccountToDeposit(Deposit deposit, DepositDto depositDto) throws Exception {
-        Optional<Account> account = this.accountRepository.findById(depositDto.getAssignedAccountNumber());
-        if (account.isEmpty()) {
-            throw new Exception("Account not founded");
+    void openDeposit(Deposit deposit, String accountId) throws IllegalArgumentException {
+        Account account = this.getLockedAccount(accountId);
+        long depositBalance = deposit.getBalance();
+        if (account.getBalance() < depositBalance) {
+            throw new IllegalArgumentException("Balance does not cover the deposit");
         }
-        this.updateAccountBalance(deposit, account.get());
-        deposit.setAccount(account.get());
+        this.ledgerService.postDepositOpening(account, depositBalance);
+        account.setBalance(Math.subtractExact(account.getBalance(), depositBalance));
+        this.saveNewTransaction(account, depositBalance);
+        deposit.setAccount(account);
+        this.depositRepository.save(deposit);
     }
 
-    private void updateAccountBalance(Deposit deposit, Account account) throws Exception {
-        Float accountBalance = account.getBalance();
-        Float depositBalance = deposit.getBalance();
-        Float newAccountBalance = accountBalance - depositBalance;
-        account.setBalance(newAccountBalance);
-        this.accountRepository.save(account);
-        this.saveNewTransaction(account, depositBalance);
+    private Account getLockedAccount(String accountId) throws IllegalArgumentException {
+        List<Account> accounts = accountId == null ? List.of()
+                : this.accountRepository.findAllForUpdateByIdIn(List.of(accountId));
+        if (accounts.isEmpty()) {
+            throw new IllegalArgumentException("Account not found");
+        }
+        this.ledgerService.loadBalances(accounts);
+        return accounts.get(0);
     }
 
-    private void saveNewTransaction(Account account, Float depositBalance) throws Exception {
+    private void saveNewTransaction(Account account, long depositBalance) {
         TransactionCredentials transactionCredentials = new TransactionCredentials(account.getBalance(), depositBalance,
                 "Inne", "settled", "Założenie nowej lokaty.", "outgoing");
         TransactionDto transactionDto = this.transactionService.getTransactionDto(account, transactionCredentials);
@@ -223,10 +237,8 @@ public class DepositService {
     private ResponseEntity<?> getResponse(List<Account> accountsList) throws Exception {
         List<DepositDto> depositsList = new ArrayList<>();
         this.addAllDeposits(accountsList, depositsList);
-        String encryptedDepositsList = this.cryptoService.encryptData(depositsList);
-        EncryptedDto encryptedDto = new EncryptedDto(encryptedDepositsList);
         return depositsList.isEmpty() ? ResponseEntity.status(HttpStatus.NOT_FOUND).build()
-                : ResponseEntity.status(HttpStatus.OK).body(encryptedDto);
+                : ResponseEntity.status(HttpStatus.OK).body(new EncryptedPayload(depositsList));
     }
 
     private void addAllDeposits(List<Account> accountsList, List<DepositDto> depositsList) {
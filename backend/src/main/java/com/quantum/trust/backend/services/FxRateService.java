@@ -0,0 +1,123 @@
+package com.quantum.trust.backend.services;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.quantum.trust.backend.fx.DefaultFxRateProvider;
+import com.quantum.trust.backend.fx.FxRateProvider;
+import com.quantum.trust.backend.fx.FxRateSnapshot;
+
+/**
+ * @service FxRateService
+ * @description Service class publishing the exchange rate table. Every table
+ *              is built into an immutable snapshot with precomputed cross rates
+ *              and published by replacing a volatile reference, so readers
+ *              never lock and always see a whole table. The last snapshots are
+ *              retained, a caller can pin the version it started an operation
+ *              with and finish it at the same rates after a newer table was
+ *              published.
+ *
+ * @class FxRateService
+ *
+ * @constructor
+ * @param {List<FxRateProvider>} fxRateProviders - The available rate
+ *                               providers.
+ *
+ * @method refreshRates - Scheduled method loading the rates from the
+ *         configured provider and publishing them. A failed load keeps the
+ *         current snapshot.
+ *
+ * @method publishRates - Publishes a new snapshot of the given rates unless
+ *         they equal the rates of the current snapshot.
+ * @param {Map<String, BigDecimal>} rates - The rates of the currencies in the
+ *                                  złoty.
+ * @returns {FxRateSnapshot} - The current snapshot after publishing.
+ * @throws {IllegalArgumentException} - If a currency is unknown or a rate is
+ *         not positive.
+ *
+ * @method getSnapshot - Retrieves the current snapshot.
+ * @returns {FxRateSnapshot} - The current snapshot.
+ *
+ * @method getSnapshot - Retrieves a retained snapshot by its version.
+ * @param {long} version - The version of the snapshot.
+ * @returns {FxRateSnapshot} - The snapshot or null if it is no longer
+ *          retained.
+ */
+@Service
+@EnableScheduling
+public class FxRateService {
+    static final int RETAINED_SNAPSHOTS = 16;
+
+    @Value("${fx.rates.provider:" + DefaultFxRateProvider.NAME + "}")
+    String providerName = DefaultFxRateProvider.NAME;
+
+    private final Map<String, FxRateProvider> fxRateProviders = new HashMap<>();
+    private volatile FxRateSnapshot[] snapshots;
+
+    @Autowired
+    public FxRateService(List<FxRateProvider> fxRateProviders) {
+        for (FxRateProvider fxRateProvider : fxRateProviders) {
+            this.fxRateProviders.put(fxRateProvider.getName(), fxRateProvider);
+        }
+        FxRateProvider defaultProvider = this.fxRateProviders.get(DefaultFxRateProvider.NAME);
+        if (defaultProvider == null) {
+            throw new IllegalStateException("Default exchange rate provider is not available");
+        }
+        try {
+            this.snapshots = new FxRateSnapshot[] { FxRateSnapshot.of(1L, defaultProvider.loadRates()) };
+        } catch (IOException e) {
+            throw new IllegalStateException("Default exchange rates cannot be loaded", e);
+        }
+    }
+
+    public FxRateService() {
+        this(List.of(new DefaultFxRateProvider()));
+    }
+
+    @Scheduled(fixedDelayString = "${fx.rates.refresh-interval:3600000}")
+    public void refreshRates() {
+        try {
+            FxRateProvider fxRateProvider = this.fxRateProviders.get(this.providerName);
+            if (fxRateProvider == null) {
+                throw new IllegalStateException("Unknown exchange rate provider " + this.providerName);
+            }
+            this.publishRates(fxRateProvider.loadRates());
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    public synchronized FxRateSnapshot publishRates(Map<String, BigDecimal> rates) throws IllegalArgumentException {
+        FxRateSnapshot[] currentSnapshots = this.snapshots;
+        FxRateSnapshot currentSnapshot = currentSnapshots[0];
+        if (currentSnapshot.getRates().equals(rates)) {
+            return currentSnapshot;
+        }
+        FxRateSnapshot snapshot = FxRateSnapshot.of(currentSnapshot.getVersion() + 1, rates);
+        FxRateSnapshot[] newSnapshots = new FxRateSnapshot[Math.min(currentSnapshots.length + 1,
+                RETAINED_SNAPSHOTS)];
+        newSnapshots[0] = snapshot;
+        System.arraycopy(currentSnapshots, 0, newSnapshots, 1, newSnapshots.length - 1);
+        this.snapshots = newSnapshots;
+        return snapshot;
+    }
+
+    public FxRateSnapshot getSnapshot() {
+        return this.snapshots[0];
+    }
+
+    public FxRateSnapshot getSnapshot(long version) {
+        return Arrays.stream(this.snapshots).filter(snapshot -> snapshot.getVersion() == version).findFirst()
+                .orElse(null);
+    }
+}
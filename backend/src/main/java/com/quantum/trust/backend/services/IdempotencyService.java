@@ -0,0 +1,155 @@
+package com.quantum.trust.backend.services;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.quantum.trust.backend.model.entities.IdempotencyRecord;
+import com.quantum.trust.backend.repositories.IdempotencyRecordRepository;
+import com.quantum.trust.backend.utils.ExpiringLruCache;
+
+/**
+ * @service IdempotencyService
+ * @description Service class keeping the responses of requests made with an
+ *              idempotency key for a day. Recent responses are served from a
+ *              bounded in-memory cache, older ones and those of other
+ *              instances from the database. Only one request per key runs at a
+ *              time on an instance, a duplicate arriving while the first one
+ *              is still running waits for its response instead of running
+ *              again. The size of the cache can be set with the
+ *              idempotency.max-cached-responses property.
+ *
+ * @class IdempotencyService
+ *
+ * @constructor
+ *              Initializes the cache with the size of the environment.
+ * @param {IdempotencyRecordRepository} idempotencyRecordRepository -
+ *                                      Repository for the stored responses.
+ * @param {Environment}                 environment - The environment holding
+ *                                      the size.
+ *
+ * @method acquire - Retrieves the stored response of a key or reserves the key
+ *         for the calling request, waiting while another request holds it.
+ * @param {String} key - The scoped idempotency key.
+ * @returns {IdempotencyRecord} - The stored response or null if the caller
+ *          holds the key and has to complete or release it.
+ * @throws {IllegalStateException} - If another request still holds the key
+ *         after the wait timeout.
+ * @throws {InterruptedException}  - If the thread is interrupted while waiting.
+ *
+ * @method complete - Stores the response of a held key and wakes up the
+ *         requests waiting for it.
+ * @param {String} key - The scoped idempotency key.
+ * @param {int}    status - The HTTP status of the response.
+ * @param {String} contentType - The content type of the response.
+ * @param {byte[]} body - The body of the response.
+ *
+ * @method release - Releases a held key without storing a response, so the
+ *         next request with the key runs again.
+ * @param {String} key - The scoped idempotency key.
+ *
+ * @method deleteExpiredRecords - Scheduled method deleting the stored
+ *         responses older than the retention.
+ */
+@Service
+@EnableScheduling
+public class IdempotencyService {
+    static final Duration RETENTION = Duration.ofHours(24);
+    static final long WAIT_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(30);
+    private static final int DEFAULT_MAX_CACHED_RESPONSES = 10_000;
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final Clock clock;
+    private final ExpiringLruCache<String, IdempotencyRecord> cachedRecords;
+    private final Map<String, CountDownLatch> heldKeys = new ConcurrentHashMap<>();
+
+    @Autowired
+    public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository, Environment environment) {
+        this(idempotencyRecordRepository, environment.getProperty("idempotency.max-cached-responses",
+                Integer.class, DEFAULT_MAX_CACHED_RESPONSES), Clock.systemUTC());
+    }
+
+    IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository, int maxCachedResponses,
+            Clock clock) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.clock = clock;
+        this.cachedRecords = new ExpiringLruCache<>(maxCachedResponses, clock);
+    }
+
+    public IdempotencyRecord acquire(String key) throws IllegalStateException, InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(WAIT_TIMEOUT_MILLIS);
+        while (true) {
+            IdempotencyRecord record = this.cachedRecords.get(key);
+            if (record != null) {
+                return record;
+            }
+            CountDownLatch latch = new CountDownLatch(1);
+            CountDownLatch heldLatch = this.heldKeys.putIfAbsent(key, latch);
+            if (heldLatch == null) {
+                record = this.getRecord(key);
+                if (record != null) {
+                    this.cachedRecords.put(key, record, this.getExpiresAtMillis(record));
+                    this.release(key);
+                }
+                return record;
+            }
+            long remainingNanos = deadline - System.nanoTime();
+            if (remainingNanos <= 0 || !heldLatch.await(remainingNanos, TimeUnit.NANOSECONDS)) {
+                throw new IllegalStateException("Request with the idempotency key is still in progress");
+            }
+        }
+    }
+
+    public void complete(String key, int status, String contentType, byte[] body) {
+        IdempotencyRecord record = IdempotencyRecord.builder().key(key).status(status).contentType(contentType)
+                .body(body).createdAt(this.clock.instant()).build();
+        try {
+            this.idempotencyRecordRepository.save(record);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        this.cachedRecords.put(key, record, this.getExpiresAtMillis(record));
+        this.release(key);
+    }
+
+    public void release(String key) {
+        CountDownLatch latch = this.heldKeys.remove(key);
+        if (latch != null) {
+            latch.countDown();
+        }
+    }
+
+    @Scheduled(fixedDelay = 3600000)
+    public void deleteExpiredRecords() {
+        try {
+            this.idempotencyRecordRepository.deleteCreatedBefore(this.clock.instant().minus(RETENTION));
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    private IdempotencyRecord getRecord(String key) {
+        Instant cutoff = this.clock.instant().minus(RETENTION);
+        try {
+            return this.idempotencyRecordRepository.findById(key)
+                    .filter(record -> record.getCreatedAt().isAfter(cutoff)).orElse(null);
+        } catch (Exception e) {
+            this.release(key);
+            throw e;
+        }
+    }
+
+    private long getExpiresAtMillis(IdempotencyRecord record) {
+        return record.getCreatedAt().plus(RETENTION).toEpochMilli();
+    }
+}
@@ -0,0 +1,264 @@
+package com.quantum.trust.backend.services;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.quantum.trust.backend.model.AccountBalance;
+import com.quantum.trust.backend.model.entities.Account;
+import com.quantum.trust.backend.model.entities.BalanceCheckpoint;
+import com.quantum.trust.backend.model.entities.JournalEntry;
+import com.quantum.trust.backend.repositories.BalanceCheckpointRepository;
+import com.quantum.trust.backend.repositories.JournalEntryRepository;
+
+/**
+ * @service LedgerService
+ * @description Service class keeping the double-entry journal, the book of
+ *              record of all balances. Every movement of money posts lines
+ *              which sum to zero in every currency, the other side being a
+ *              system account for fees, deposits, bonuses, card payments or
+ *              currency exchange, kept per currency. The journal is append-only, so a
+ *              posting takes no lock. The balance of an account is its
+ *              checkpoint plus the lines after it, which the background
+ *              compaction keeps short by folding older lines into the
+ *              checkpoints in chunks. Lines newer than the compaction lag are
+ *              never folded, so a line whose transaction commits after a newer
+ *              line was posted is not skipped.
+ *
+ * @class LedgerService
+ *
+ * @constructor
+ * @param {JournalEntryRepository}      journalEntryRepository - Repository for
+ *                                      the journal lines.
+ * @param {BalanceCheckpointRepository} balanceCheckpointRepository -
+ *                                      Repository for the checkpoints.
+ * @param {PlatformTransactionManager}  transactionManager - The manager of the
+ *                                      compaction transactions.
+ *
+ * @method post - Posts balanced journal lines as one posting.
+ * @param {String}             type - The type of the posting.
+ * @param {List<JournalEntry>} lines - The lines with their accounts, amounts
+ *                             and currencies.
+ * @returns {String} - The identifier of the posting.
+ * @throws {IllegalArgumentException} - If the lines do not sum to zero in
+ *         every currency.
+ *
+ * @method postTransfer - Posts a transfer, through the exchange account when
+ *         the currencies differ.
+ * @param {Account} senderAccount - The sender's account.
+ * @param {long}    sentAmount - The amount debited in minor units.
+ * @param {Account} receiverAccount - The receiver's account.
+ * @param {long}    receivedAmount - The amount credited in minor units.
+ *
+ * @method postCardFee - Posts a card fee.
+ * @param {Account} account - The charged account.
+ * @param {long}    fee - The fee in minor units.
+ *
+ * @method postCardPayment - Posts a card payment, owed to the card scheme
+ *         until it settles.
+ * @param {Account} account - The account of the card.
+ * @param {long}    amount - The payment in minor units.
+ *
+ * @method postDepositOpening - Posts the money moved into a new deposit.
+ * @param {Account} account - The account funding the deposit.
+ * @param {long}    amount - The deposit balance in minor units.
+ *
+ * @method postDepositClosing - Posts the capital and the interest paid out of
+ *         a closed deposit.
+ * @param {Account} account - The account receiving the money.
+ * @param {long}    capital - The deposit balance in minor units.
+ * @param {long}    interest - The interest in minor units.
+ *
+ * @method postOpeningBonus - Posts the bonus of a new account.
+ * @param {Account} account - The new account.
+ * @param {long}    amount - The bonus in minor units.
+ *
+ * @method getBalance - Retrieves the balance of an account.
+ * @param {String} accountId - The number of the account.
+ * @returns {long} - The balance in minor units.
+ *
+ * @method loadBalances - Sets the balances of the given accounts from the
+ *         journal with at most two queries for all of them. Each checkpoint
+ *         is read together with its tail, and the accounts without one sum
+ *         all their lines, which a later compaction does not change.
+ * @param {Collection<Account>} accounts - The accounts.
+ *
+ * @method compactCheckpoints - Scheduled method folding the lines older than
+ *         the compaction lag into the checkpoints, each chunk in its own
+ *         transaction.
+ *
+ * @method compactRange - Folds the lines of a range of the journal into the
+ *         checkpoints of their accounts.
+ * @param {long} afterId - The identifier of the last folded line.
+ * @param {long} uptoId - The identifier of the last line of the range.
+ */
+@Service
+@EnableScheduling
+public class LedgerService {
+    public static final String FX_ACCOUNT = "SYSTEM:FX";
+    public static final String FEES_ACCOUNT = "SYSTEM:FEES";
+    public static final String DEPOSITS_ACCOUNT = "SYSTEM:DEPOSITS";
+    public static final String INTEREST_ACCOUNT = "SYSTEM:INTEREST";
+    public static final String BONUSES_ACCOUNT = "SYSTEM:BONUSES";
+    public static final String CARD_PAYMENTS_ACCOUNT = "SYSTEM:CARD_PAYMENTS";
+
+    static final long COMPACTION_CHUNK_SIZE = 10_000L;
+    static final Duration COMPACTION_LAG = Duration.ofMinutes(5);
+
+    private final JournalEntryRepository journalEntryRepository;
+    private final BalanceCheckpointRepository balanceCheckpointRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public LedgerService(JournalEntryRepository journalEntryRepository,
+            BalanceCheckpointRepository balanceCheckpointRepository, PlatformTransactionManager transactionManager) {
+        this.journalEntryRepository = journalEntryRepository;
+        this.balanceCheckpointRepository = balanceCheckpointRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public String post(String type, List<JournalEntry> lines) throws IllegalArgumentException {
+        Map<String, Long> currencySums = new HashMap<>();
+        for (JournalEntry line : lines) {
+            currencySums.merge(line.getCurrency(), line.getAmount(), Math::addExact);
+        }
+        if (lines.size() < 2 || currencySums.values().stream().anyMatch(sum -> sum != 0L)) {
+            throw new IllegalArgumentException("Posting " + type + " is not balanced");
+        }
+        String postingId = UUID.randomUUID().toString();
+        Instant postedAt = Instant.now();
+        for (JournalEntry line : lines) {
+            line.setPostingId(postingId);
+            line.setType(type);
+            line.setPostedAt(postedAt);
+        }
+        this.journalEntryRepository.saveAll(lines);
+        return postingId;
+    }
+
+    public void postTransfer(Account senderAccount, long sentAmount, Account receiverAccount, long receivedAmount) {
+        String senderCurrency = senderAccount.getCurrency();
+        String receiverCurrency = receiverAccount.getCurrency();
+        List<JournalEntry> lines = new ArrayList<>(4);
+        lines.add(getLine(senderAccount.getId(), -sentAmount, senderCurrency));
+        if (!senderCurrency.equals(receiverCurrency)) {
+            lines.add(getSystemLine(FX_ACCOUNT, sentAmount, senderCurrency));
+            lines.add(getSystemLine(FX_ACCOUNT, -receivedAmount, receiverCurrency));
+        }
+        lines.add(getLine(receiverAccount.getId(), receivedAmount, receiverCurrency));
+        this.post("transfer", lines);
+    }
+
+    public void postCardFee(Account account, long fee) {
+        this.post("card_fee", List.of(getLine(account.getId(), -fee, account.getCurrency()),
+                getSystemLine(FEES_ACCOUNT, fee, account.getCurrency())));
+    }
+
+    public void postCardPayment(Account account, long amount) {
+        this.post("card_payment", List.of(getLine(account.getId(), -amount, account.getCurrency()),
+                getSystemLine(CARD_PAYMENTS_ACCOUNT, amount, account.getCurrency())));
+    }
+
+    public void postDepositOpening(Account account, long amount) {
+        this.post("deposit_opening", List.of(getLine(account.getId(), -amount, account.getCurrency()),
+                getSystemLine(DEPOSITS_ACCOUNT, amount, account.getCurrency())));
+    }
+
+    public void postDepositClosing(Account account, long capital, long interest) {
+        this.post("deposit_closing", List.of(getSystemLine(DEPOSITS_ACCOUNT, -capital, account.getCurrency()),
+                getSystemLine(INTEREST_ACCOUNT, -interest, account.getCurrency()),
+                getLine(account.getId(), Math.addExact(capital, interest), account.getCurrency())));
+    }
+
+    public void postOpeningBonus(Account account, long amount) {
+        this.post("opening_bonus", List.of(getSystemLine(BONUSES_ACCOUNT, -amount, account.getCurrency()),
+                getLine(account.getId(), amount, account.getCurrency())));
+    }
+
+    public long getBalance(String accountId) {
+        Optional<BalanceCheckpoint> checkpoint = this.balanceCheckpointRepository.findById(accountId);
+        long checkpointBalance = checkpoint.map(BalanceCheckpoint::getBalance).orElse(0L);
+        long lastEntryId = checkpoint.map(BalanceCheckpoint::getLastEntryId).orElse(0L);
+        return Math.addExact(checkpointBalance, this.journalEntryRepository.sumAmountsAfter(accountId, lastEntryId));
+    }
+
+    public void loadBalances(Collection<Account> accounts) {
+        if (accounts.isEmpty()) {
+            return;
+        }
+        List<String> accountIds = accounts.stream().map(Account::getId).distinct().toList();
+        Map<String, Long> balances = new HashMap<>();
+        for (AccountBalance balance : this.balanceCheckpointRepository.findBalancesByAccountIdIn(accountIds)) {
+            balances.put(balance.getAccountId(), balance.getAmount());
+        }
+        List<String> uncompactedAccountIds = accountIds.stream()
+                .filter(accountId -> !balances.containsKey(accountId)).toList();
+        if (!uncompactedAccountIds.isEmpty()) {
+            for (AccountBalance balance : this.journalEntryRepository.sumAmounts(uncompactedAccountIds)) {
+                balances.put(balance.getAccountId(), balance.getAmount());
+            }
+        }
+        for (Account account : accounts) {
+            account.setBalance(balances.getOrDefault(account.getId(), 0L));
+        }
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void compactCheckpoints() {
+        try {
+            Long maxEntryId = this.journalEntryRepository.findMaxIdPostedBefore(Instant.now().minus(COMPACTION_LAG));
+            if (maxEntryId == null) {
+                return;
+            }
+            long lastCompactedEntryId = this.balanceCheckpointRepository.findLastCompactedEntryId();
+            while (lastCompactedEntryId < maxEntryId) {
+                long afterId = lastCompactedEntryId;
+                long uptoId = Math.min(maxEntryId, afterId + COMPACTION_CHUNK_SIZE);
+                this.transactionTemplate.executeWithoutResult(status -> this.compactRange(afterId, uptoId));
+                lastCompactedEntryId = uptoId;
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    void compactRange(long afterId, long uptoId) {
+        List<AccountBalance> amounts = this.journalEntryRepository.sumAmountsBetween(afterId, uptoId);
+        if (amounts.isEmpty()) {
+            return;
+        }
+        Map<String, BalanceCheckpoint> checkpoints = new HashMap<>();
+        for (BalanceCheckpoint checkpoint : this.balanceCheckpointRepository
+                .findAllById(amounts.stream().map(AccountBalance::getAccountId).toList())) {
+            checkpoints.put(checkpoint.getAccountId(), checkpoint);
+        }
+        for (AccountBalance amount : amounts) {
+            BalanceCheckpoint checkpoint = checkpoints.computeIfAbsent(amount.getAccountId(),
+                    accountId -> BalanceCheckpoint.builder().accountId(accountId).build());
+            checkpoint.setBalance(Math.addExact(checkpoint.getBalance(), amount.getAmount()));
+            checkpoint.setLastEntryId(uptoId);
+        }
+        this.balanceCheckpointRepository.saveAll(checkpoints.values());
+    }
+
+    private static JournalEntry getSystemLine(String systemAccount, long amount, String currency) {
+        return getLine(systemAccount + ":" + currency, amount, currency);
+    }
+
+    private static JournalEntry getLine(String accountId, long amount, String currency) {
+        return JournalEntry.builder().accountId(accountId).amount(amount).currency(currency).build();
+    }
+}
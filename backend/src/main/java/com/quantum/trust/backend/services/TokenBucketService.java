@@ -1,58 +1,231 @@
 package com.quantum.trust.backend.services;
 
-import java.time.Instant;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import jakarta.servlet.http.HttpServletRequest;
+
 /**
  * @service TokenBucketService
  * @description Service class for implementing a token bucket rate limiting
- *              algorithm.
+ *              algorithm. Every authenticated user and every anonymous client
+ *              IP gets its own bucket per endpoint group. The IP is the client
+ *              address resolved by the remote IP filter of WebConfig, not the
+ *              address of the proxy in front of the backend. A bucket is a single
+ *              atomic theoretical arrival time (GCRA), so it is refilled
+ *              lazily on use and updated with compare-and-set without any
+ *              lock. Full buckets carry no state and are evicted while idle.
+ *              The capacity and the refill rate of every group can be set
+ *              with the rate-limit.&lt;group&gt;.capacity and
+ *              rate-limit.&lt;group&gt;.refill-per-second properties. The
+ *              rejected requests per key class and the number of held buckets
+ *              are published as rate-limit.rejected-requests and
+ *              rate-limit.buckets meters.
  *
  * @class TokenBucketService
  *
  * @constructor
- *              Initializes the token bucket with a specified capacity and
- *              refill rate.
+ *              Initializes the buckets with the limits of the environment.
+ * @param {Environment} environment - The environment holding the limits.
  *
- * @method tryConsume - Attempts to consume a token from the bucket.
+ * @method tryConsume - Attempts to consume a token from the bucket of the
+ *         caller for the endpoint group of the request.
+ * @param {HttpServletRequest} request - The HTTP servlet request.
+ * @param {String}             identificator - The identificator of the
+ *                             authenticated user or null for anonymous
+ *                             requests, which are limited by IP.
  * @returns {boolean} - True if a token was successfully consumed, false
  *          otherwise.
  *
- * @method refill - Refills the token bucket based on the elapsed time since the
- *         last refill.
+ * @method evictIdleBuckets - Scheduled method removing buckets which have
+ *         refilled completely.
+ *
+ * @method getRejectedRequests - Retrieves the number of rejected requests.
+ * @param {KeyClass} keyClass - The kind of key the requests were limited by.
+ * @returns {long} - The number of rejected requests.
+ *
+ * @method getBucketCount - Retrieves the number of held buckets.
+ * @returns {int} - The number of buckets.
+ *
+ * @method bindTo - Registers the rejection and bucket meters.
+ * @param {MeterRegistry} registry - The meter registry.
+ *
+ * @method getEndpointGroup - Classifies the request into an endpoint group.
+ * @param {HttpServletRequest} request - The HTTP servlet request.
+ * @returns {EndpointGroup} - The endpoint group.
  */
 @Service
-public class TokenBucketService {
-    private AtomicInteger tokens;
-    private Instant lastRefillTime;
+@EnableScheduling
+public class TokenBucketService implements MeterBinder {
+    private final LongSupplier nanoClock;
+    private final Map<EndpointGroup, Limit> limits = new EnumMap<>(EndpointGroup.class);
+    private final Map<EndpointGroup, Map<String, Bucket>> buckets = new EnumMap<>(EndpointGroup.class);
+    private final Map<KeyClass, LongAdder> rejectedRequests = new EnumMap<>(KeyClass.class);
 
-    private final int capacity = 1000;
-    private final int refillTokens = 1;
-    private final long refillIntervalMillis = 2000;
+    @Autowired
+    public TokenBucketService(Environment environment) {
+        this(getConfiguredLimits(environment), System::nanoTime);
+    }
 
-    public TokenBucketService() {
-        this.tokens = new AtomicInteger(this.capacity);
-        this.lastRefillTime = Instant.now();
+    TokenBucketService(Map<EndpointGroup, Limit> limits, LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        for (EndpointGroup endpointGroup : EndpointGroup.values()) {
+            this.limits.put(endpointGroup, limits.getOrDefault(endpointGroup, endpointGroup.defaultLimit));
+            this.buckets.put(endpointGroup, new ConcurrentHashMap<>());
+        }
+        for (KeyClass keyClass : KeyClass.values()) {
+            this.rejectedRequests.put(keyClass, new LongAdder());
+        }
     }
 
-    public synchronized boolean tryConsume() {
-        refill();
-        if (tokens.get() > 0) {
-            tokens.decrementAndGet();
+    public boolean tryConsume(HttpServletRequest request, String identificator) {
+        KeyClass keyClass = identificator == null ? KeyClass.IP : KeyClass.USER;
+        String key = keyClass == KeyClass.USER ? "user:" + identificator : "ip:" + request.getRemoteAddr();
+        EndpointGroup endpointGroup = getEndpointGroup(request);
+        long now = this.nanoClock.getAsLong();
+        Bucket bucket = this.buckets.get(endpointGroup).computeIfAbsent(key, k -> new Bucket(now));
+        if (bucket.tryConsume(this.limits.get(endpointGroup), now)) {
             return true;
         }
+        this.rejectedRequests.get(keyClass).increment();
         return false;
     }
 
-    private void refill() {
-        Instant now = Instant.now();
-        long millisSinceLastRefill = now.toEpochMilli() - lastRefillTime.toEpochMilli();
-        if (millisSinceLastRefill > refillIntervalMillis) {
-            int newTokens = (int) (millisSinceLastRefill / refillIntervalMillis) * refillTokens;
-            tokens.set(Math.min(capacity, tokens.get() + newTokens));
-            lastRefillTime = now;
+    @Scheduled(fixedDelay = 60000)
+    public void evictIdleBuckets() {
+        long now = this.nanoClock.getAsLong();
+        for (Map<String, Bucket> groupBuckets : this.buckets.values()) {
+            groupBuckets.values().removeIf(bucket -> bucket.isFull(now));
+        }
+    }
+
+    public long getRejectedRequests(KeyClass keyClass) {
+        return this.rejectedRequests.get(keyClass).sum();
+    }
+
+    public int getBucketCount() {
+        int bucketCount = 0;
+        for (Map<String, Bucket> groupBuckets : this.buckets.values()) {
+            bucketCount += groupBuckets.size();
+        }
+        return bucketCount;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (KeyClass keyClass : KeyClass.values()) {
+            FunctionCounter.builder("rate-limit.rejected-requests", this,
+                    service -> service.getRejectedRequests(keyClass))
+                    .description("Requests rejected by the rate limiter")
+                    .tag("key-class", keyClass.name().toLowerCase()).register(registry);
+        }
+        Gauge.builder("rate-limit.buckets", this, TokenBucketService::getBucketCount)
+                .description("Token buckets held by the rate limiter").register(registry);
+    }
+
+    static EndpointGroup getEndpointGroup(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        String contextPath = request.getContextPath();
+        if (contextPath != null && !contextPath.isEmpty() && path.startsWith(contextPath)) {
+            path = path.substring(contextPath.length());
+        }
+        if (path.startsWith("/api/auth/")) {
+            return EndpointGroup.AUTH;
+        }
+        if (path.equals("/api/user/new-transfer")) {
+            return EndpointGroup.TRANSFERS;
+        }
+        String method = request.getMethod();
+        return "GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method) ? EndpointGroup.READS
+                : EndpointGroup.WRITES;
+    }
+
+    private static Map<EndpointGroup, Limit> getConfiguredLimits(Environment environment) {
+        Map<EndpointGroup, Limit> configuredLimits = new EnumMap<>(EndpointGroup.class);
+        for (EndpointGroup endpointGroup : EndpointGroup.values()) {
+            String prefix = "rate-limit." + endpointGroup.name().toLowerCase() + ".";
+            int capacity = environment.getProperty(prefix + "capacity", Integer.class,
+                    endpointGroup.defaultLimit.capacity);
+            double refillPerSecond = environment.getProperty(prefix + "refill-per-second", Double.class,
+                    endpointGroup.defaultLimit.refillPerSecond);
+            configuredLimits.put(endpointGroup, new Limit(capacity, refillPerSecond));
+        }
+        return configuredLimits;
+    }
+
+    public enum EndpointGroup {
+        AUTH(new Limit(30, 0.5)),
+        TRANSFERS(new Limit(10, 0.2)),
+        READS(new Limit(200, 20)),
+        WRITES(new Limit(50, 2));
+
+        private final Limit defaultLimit;
+
+        EndpointGroup(Limit defaultLimit) {
+            this.defaultLimit = defaultLimit;
+        }
+    }
+
+    public enum KeyClass {
+        USER,
+        IP
+    }
+
+    static final class Limit {
+        private final int capacity;
+        private final double refillPerSecond;
+        private final long emissionIntervalNanos;
+        private final long burstNanos;
+
+        Limit(int capacity, double refillPerSecond) {
+            if (capacity < 1 || refillPerSecond <= 0) {
+                throw new IllegalArgumentException("Rate limit capacity and refill rate must be positive");
+            }
+            this.capacity = capacity;
+            this.refillPerSecond = refillPerSecond;
+            this.emissionIntervalNanos = Math.max(1L, (long) (TimeUnit.SECONDS.toNanos(1) / refillPerSecond));
+            this.burstNanos = this.emissionIntervalNanos * capacity;
+        }
+    }
+
+    private static final class Bucket {
+        private final AtomicLong theoreticalArrivalTime;
+
+        private Bucket(long now) {
+            this.theoreticalArrivalTime = new AtomicLong(now);
+        }
+
+        private boolean tryConsume(Limit limit, long now) {
+            while (true) {
+                long arrivalTime = this.theoreticalArrivalTime.get();
+                long nextArrivalTime = Math.max(arrivalTime - now, 0L) + now + limit.emissionIntervalNanos;
+                if (nextArrivalTime - now > limit.burstNanos) {
+                    return false;
+                }
+                if (this.theoreticalArrivalTime.compareAndSet(arrivalTime, nextArrivalTime)) {
+                    return true;
+                }
+            }
+        }
+
+        private boolean isFull(long now) {
+            return this.theoreticalArrivalTime.get() - now <= 0L;
         }
     }
 }
@@ -2,24 +2,37 @@ package com.quantum.trust.backend.services;
 
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
-import java.util.function.Function;
 
 import javax.crypto.spec.SecretKeySpec;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.quantum.trust.backend.utils.ExpiringLruCache;
+
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.SignatureAlgorithm;
 
+import jakarta.servlet.http.HttpServletRequest;
+
 /**
  * @service TokenService
  * 
  * @description Service class for handling JWT token generation and validation.
+ *              The signing key and the parser are built once per secret.
+ *              Verified tokens are remembered by their SHA-256 digest in a
+ *              bounded cache until they expire. The cache takes no lock on
+ *              reads, so concurrent requests do not queue on it. The claims of
+ *              the token of the current request are stored as a request
+ *              attribute, so a request verifies its token only once.
  *
  * @class TokenService
  *
@@ -27,6 +40,20 @@ import io.jsonwebtoken.SignatureAlgorithm;
  *              Initializes the TokenService with the specified JWT secret and
  *              expiration times.
  *
+ * @method verifyToken - Verifies a JWT token, reusing an earlier verification
+ *         while the token has not expired. The returned claims are shared and
+ *         must not be modified.
+ * @param {String} token - The JWT token to verify.
+ * @returns {Claims} - The claims of the token.
+ * @throws {JwtException} - If the token is invalid or has expired.
+ *
+ * @method verifyToken - Verifies the token of the given request, reusing the
+ *         claims stored in the request attributes.
+ * @param {HttpServletRequest} request - The HTTP servlet request.
+ * @param {String}             token - The JWT token to verify.
+ * @returns {Claims} - The claims of the token.
+ * @throws {JwtException} - If the token is invalid or has expired.
+ *
  * @method validateToken - Validates a JWT token.
  * @param {String} token - The JWT token to validate.
  * @param {String} identificator - The identificator to validate against.
@@ -43,20 +70,15 @@ import io.jsonwebtoken.SignatureAlgorithm;
  * @param {String} token - The JWT token.
  * @returns {String} - The identificator extracted from the token.
  *
- * @method getExpirationFromToken - Retrieves the expiration date from a JWT
- *         token.
- * @param {String} token - The JWT token.
- * @returns {Date} - The expiration date extracted from the token.
- *
- * @method getClaim - Retrieves a specific claim from a JWT token.
- * @param {String}          token - The JWT token.
- * @param {Function<Claims, T>} claimsResolver - A function to extract the claim
- *                          from the token.
- * @returns {T} - The extracted claim.
+ * @method getIdentificatorFromToken - Retrieves the identificator from the JWT
+ *         token of the given request.
+ * @param {HttpServletRequest} request - The HTTP servlet request.
+ * @param {String}             token - The JWT token.
+ * @returns {String} - The identificator extracted from the token.
  *
- * @method getAllClaimsFromToken - Retrieves all claims from a JWT token.
+ * @method getTokenDigest - Computes the cache key of a JWT token.
  * @param {String} token - The JWT token.
- * @returns {Claims} - The claims extracted from the token.
+ * @returns {String} - The Base64 encoded SHA-256 digest of the token.
  *
  * @method getRefreshTokenExpirationDate - Retrieves the expiration date for a
  *         refresh token.
@@ -68,9 +90,29 @@ import io.jsonwebtoken.SignatureAlgorithm;
  *
  * @method getKey - Retrieves the signing key for JWT tokens.
  * @returns {Key} - The signing key.
+ *
+ * @method getSigningContext - Retrieves the signing key, the parser and the
+ *         verified tokens of the configured secret, starting over only when
+ *         the secret changes.
+ * @returns {SigningContext} - The signing context of the secret.
  */
 @Service
 public class TokenService {
+    public static final String CLAIMS_ATTRIBUTE = TokenService.class.getName() + ".CLAIMS";
+
+    private static final int VERIFIED_TOKEN_CACHE_SIZE = 10_000;
+
+    private static final String TOKEN_ATTRIBUTE = TokenService.class.getName() + ".TOKEN";
+    private static final ThreadLocal<MessageDigest> tokenDigest = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    });
+
+    private volatile SigningContext signingContext;
+
     @Value("${jwt.secret}")
     private String jwtSecret;
     @Value("${jwt.expiration}")
@@ -78,11 +120,37 @@ public class TokenService {
     @Value("${jwt.refresh.expiration}")
     private Long refreshExpiration;
 
+    public Claims verifyToken(String token) {
+        SigningContext context = this.getSigningContext();
+        String digest = this.getTokenDigest(token);
+        Claims claims = context.verifiedTokens.get(digest);
+        if (claims == null) {
+            claims = context.parser.parseClaimsJws(token).getBody();
+            if (claims.getExpiration() != null) {
+                context.verifiedTokens.put(digest, claims, claims.getExpiration().getTime());
+            }
+        }
+        return claims;
+    }
+
+    public Claims verifyToken(HttpServletRequest request, String token) {
+        Object claims = request.getAttribute(CLAIMS_ATTRIBUTE);
+        if (claims instanceof Claims requestClaims && token != null
+                && token.equals(request.getAttribute(TOKEN_ATTRIBUTE)) && requestClaims.getExpiration() != null
+                && requestClaims.getExpiration().after(new Date())) {
+            return requestClaims;
+        }
+        Claims verifiedClaims = this.verifyToken(token);
+        request.setAttribute(TOKEN_ATTRIBUTE, token);
+        request.setAttribute(CLAIMS_ATTRIBUTE, verifiedClaims);
+        return verifiedClaims;
+    }
+
     public Boolean validateToken(String token, String identificator) {
         try {
-            final String tokenIdentificator = this.getIdentificatorFromToken(token);
-            final Date tokenExpiration = this.getExpirationFromToken(token);
-            return tokenIdentificator.equals(identificator) && !tokenExpiration.before(new Date());
+            final Claims claims = this.verifyToken(token);
+            final Date tokenExpiration = claims.getExpiration();
+            return claims.getSubject().equals(identificator) && !tokenExpiration.before(new Date());
         } catch (MalformedJwtException e) {
             return false;
         }
@@ -102,25 +170,19 @@ public class TokenService {
     }
 
     public String getIdentificatorFromToken(String token) {
-        return this.getClaim(token, Claims::getSubject);
-    }
-
-    private Date getExpirationFromToken(String token) {
-        return this.getClaim(token, Claims::getExpiration);
+        return this.verifyToken(token).getSubject();
     }
 
-    private <T> T getClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = getAllClaimsFromToken(token);
-        return claimsResolver.apply(claims);
+    public String getIdentificatorFromToken(HttpServletRequest request, String token) {
+        return this.verifyToken(request, token).getSubject();
     }
 
-    private Claims getAllClaimsFromToken(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    private String getTokenDigest(String token) {
+        if (token == null) {
+            throw new IllegalArgumentException("JWT String argument cannot be null or empty.");
+        }
+        MessageDigest digest = tokenDigest.get();
+        return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
     }
 
     private Date getRefreshTokenExpirationDate() {
@@ -132,6 +194,34 @@ public class TokenService {
     }
 
     private Key getKey() {
-        return new SecretKeySpec(jwtSecret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+        return this.getSigningContext().key;
+    }
+
+    private SigningContext getSigningContext() {
+        SigningContext currentContext = this.signingContext;
+        if (currentContext == null || !this.jwtSecret.equals(currentContext.secret)) {
+            synchronized (this) {
+                currentContext = this.signingContext;
+                if (currentContext == null || !this.jwtSecret.equals(currentContext.secret)) {
+                    currentContext = new SigningContext(this.jwtSecret);
+                    this.signingContext = currentContext;
+                }
+            }
+        }
+        return currentContext;
+    }
+
+    private static final class SigningContext {
+        private final String secret;
+        private final Key key;
+        private final JwtParser parser;
+        private final ExpiringLruCache<String, Claims> verifiedTokens = new ExpiringLruCache<>(
+                VERIFIED_TOKEN_CACHE_SIZE);
+
+        private SigningContext(String secret) {
+            this.secret = secret;
+            this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+            this.parser = Jwts.parserBuilder().setSigningKey(this.key).build();
+        }
     }
 }
\ No newline at end of file
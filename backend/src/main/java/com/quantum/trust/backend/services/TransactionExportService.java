@@ -0,0 +1,241 @@
+package com.quantum.trust.backend.services;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.quantum.trust.backend.crypto.PayloadCompression;
+import com.quantum.trust.backend.crypto.PayloadEnvelope;
+import com.quantum.trust.backend.model.Money;
+import com.quantum.trust.backend.model.TransactionExportFormat;
+import com.quantum.trust.backend.model.dto.TransactionDto;
+import com.quantum.trust.backend.repositories.AccountRepository;
+import com.quantum.trust.backend.repositories.TransactionRepository;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * @service TransactionExportService
+ * @description Service class for exporting the full transaction history of an
+ *              account. The rows are streamed from a database cursor straight
+ *              into the response, optionally through the encrypting stream of
+ *              the payload envelope, so the memory used is the same for a
+ *              hundred or for millions of transactions.
+ *
+ * @class TransactionExportService
+ *
+ * @constructor
+ * @param {AccountService}             accountService - Service for managing
+ *                                     accounts.
+ * @param {CryptoService}              cryptoService - Service for encryption.
+ * @param {AccountRepository}          accountRepository - Repository for
+ *                                     accessing account data.
+ * @param {TransactionRepository}      transactionRepository - Repository for
+ *                                     accessing transaction data.
+ * @param {PlatformTransactionManager} transactionManager - The manager of the
+ *                                     read only transaction the cursor lives
+ *                                     in.
+ *
+ * @method exportAccountTransactions - Checks that the account belongs to the
+ *         user and returns the export as a streaming response body.
+ * @param {HttpServletRequest} httpServletRequest - The HTTP servlet request.
+ * @param {String}             accountNumber - The number of the account.
+ * @param {String}             formatName - The name of the export format.
+ * @param {boolean}            isEncrypted - Whether the export is encrypted.
+ * @param {String}             codecName - The name of the payload codec or
+ *                             null for the legacy codec.
+ * @param {String}             compressionName - The name of the payload
+ *                             compression or null for no compression.
+ * @returns {ResponseEntity<?>} - A ResponseEntity streaming the export or an
+ *          error status.
+ *
+ * @method writeAccountTransactions - Writes the export of the account to the
+ *         given stream inside a read only transaction.
+ * @param {String}                  accountNumber - The number of the account.
+ * @param {TransactionExportFormat} format - The export format.
+ * @param {PayloadEnvelope}         envelope - The envelope of the encrypted
+ *                                  export or null for a plain export.
+ * @param {OutputStream}            outputStream - The stream receiving the
+ *                                  export, left open.
+ * @throws {IOException} - If writing the export fails.
+ */
+@Service
+public class TransactionExportService {
+    private static final int WRITE_BUFFER_SIZE = 16 * 1024;
+    private static final String CSV_HEADER = "id,date,hour,title,assignedAccountNumber,type,amount,currency,"
+            + "accountAmountAfter,category,accountCurrency,status";
+
+    private static final ObjectWriter ndjsonWriter = new ObjectMapper()
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL).writerFor(TransactionDto.class)
+            .withRootValueSeparator("\n").without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+    private final AccountService accountService;
+    private final CryptoService cryptoService;
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public TransactionExportService(AccountService accountService, CryptoService cryptoService,
+            AccountRepository accountRepository, TransactionRepository transactionRepository,
+            PlatformTransactionManager transactionManager) {
+        this.accountService = accountService;
+        this.cryptoService = cryptoService;
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    public ResponseEntity<?> exportAccountTransactions(HttpServletRequest httpServletRequest, String accountNumber,
+            String formatName, boolean isEncrypted, String codecName, String compressionName) {
+        TransactionExportFormat format = TransactionExportFormat.fromName(formatName);
+        PayloadEnvelope envelope = isEncrypted ? this.getEnvelope(codecName, compressionName) : null;
+        if (format == null || (isEncrypted && envelope == null)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+        try {
+            Long userId = this.accountService.retrieveUserIdFromToken(httpServletRequest);
+            if (!this.accountRepository.existsByIdAndUserId(accountNumber, userId)) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+            }
+            String fileName = "transactions-" + accountNumber + "." + format.getExtension()
+                    + (isEncrypted ? ".enc" : "");
+            StreamingResponseBody body = outputStream -> this.writeAccountTransactions(accountNumber, format,
+                    envelope, outputStream);
+            return ResponseEntity.status(HttpStatus.OK)
+                    .contentType(isEncrypted ? MediaType.TEXT_PLAIN : MediaType.parseMediaType(format.getMediaType()))
+                    .header(HttpHeaders.CONTENT_DISPOSITION,
+                            ContentDisposition.attachment().filename(fileName).build().toString())
+                    .body(body);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    void writeAccountTransactions(String accountNumber, TransactionExportFormat format, PayloadEnvelope envelope,
+            OutputStream outputStream) throws IOException {
+        try {
+            this.transactionTemplate.executeWithoutResult(status -> {
+                try {
+                    this.writeTransactions(accountNumber, format, envelope, outputStream);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void writeTransactions(String accountNumber, TransactionExportFormat format, PayloadEnvelope envelope,
+            OutputStream outputStream) throws IOException {
+        OutputStream targetStream = envelope == null ? StreamUtils.nonClosing(outputStream)
+                : this.cryptoService.getEncryptingStream(envelope, outputStream);
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(targetStream, StandardCharsets.UTF_8),
+                WRITE_BUFFER_SIZE);
+                Stream<TransactionDto> transactions = this.transactionRepository
+                        .streamTransactionDtosByAccountNumber(accountNumber)) {
+            Iterator<TransactionDto> iterator = transactions.iterator();
+            if (format == TransactionExportFormat.CSV) {
+                writeCsv(writer, iterator);
+            } else {
+                writeNdjson(writer, iterator);
+            }
+        }
+    }
+
+    private PayloadEnvelope getEnvelope(String codecName, String compressionName) {
+        String envelopeCodecName = codecName != null ? codecName.trim() : PayloadEnvelope.LEGACY.getCodecName();
+        PayloadCompression compression = compressionName != null
+                ? PayloadCompression.fromName(compressionName.trim().toLowerCase())
+                : PayloadCompression.NONE;
+        if (!this.cryptoService.isCodecSupported(envelopeCodecName) || compression == null) {
+            return null;
+        }
+        return PayloadEnvelope.of(envelopeCodecName, compression);
+    }
+
+    private static void writeCsv(Writer writer, Iterator<TransactionDto> iterator) throws IOException {
+        writer.write(CSV_HEADER);
+        writer.write("\r\n");
+        while (iterator.hasNext()) {
+            TransactionDto transaction = iterator.next();
+            writer.write(String.valueOf(transaction.getId()));
+            writeCsvText(writer, transaction.getDate());
+            writeCsvText(writer, transaction.getHour());
+            writeCsvText(writer, transaction.getTitle());
+            writeCsvText(writer, transaction.getAssignedAccountNumber());
+            writeCsvText(writer, transaction.getType());
+            writeCsvMoney(writer, transaction.getAmount());
+            writeCsvText(writer, transaction.getCurrency());
+            writeCsvMoney(writer, transaction.getAccountAmountAfter());
+            writeCsvText(writer, transaction.getCategory());
+            writeCsvText(writer, transaction.getAccountCurrency());
+            writeCsvText(writer, transaction.getStatus());
+            writer.write("\r\n");
+        }
+    }
+
+    private static void writeNdjson(Writer writer, Iterator<TransactionDto> iterator) throws IOException {
+        if (!iterator.hasNext()) {
+            return;
+        }
+        try (SequenceWriter sequenceWriter = ndjsonWriter.writeValues(writer)) {
+            while (iterator.hasNext()) {
+                sequenceWriter.write(iterator.next());
+            }
+        }
+        writer.write("\n");
+    }
+
+    private static void writeCsvMoney(Writer writer, Money value) throws IOException {
+        writer.write(',');
+        if (value != null) {
+            writer.write(value.toDecimal().toPlainString());
+        }
+    }
+
+    private static void writeCsvText(Writer writer, String value) throws IOException {
+        writer.write(',');
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        String text = "=+-@\t\r".indexOf(value.charAt(0)) >= 0 ? "'" + value : value;
+        boolean isQuotingRequired = text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0
+                || text.indexOf('\r') >= 0;
+        if (!isQuotingRequired) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        writer.write(text.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
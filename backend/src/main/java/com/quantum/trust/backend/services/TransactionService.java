@@ -3,14 +3,13 @@ package com.quantum.trust.backend.services;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.time.format.DateTimeParseException;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.scheduling.annotation.EnableScheduling;
@@ -18,16 +17,18 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import com.quantum.trust.backend.mappers.TransactionMapper;
+import com.quantum.trust.backend.model.Money;
 import com.quantum.trust.backend.model.TransactionCredentials;
-import com.quantum.trust.backend.model.dto.EncryptedDto;
+import com.quantum.trust.backend.model.TransactionCursor;
+import com.quantum.trust.backend.model.TransactionFilter;
+import com.quantum.trust.backend.model.dto.EncryptedPayload;
 import com.quantum.trust.backend.model.dto.TransactionDto;
+import com.quantum.trust.backend.model.dto.TransactionPageDto;
 import com.quantum.trust.backend.model.entities.Account;
-import com.quantum.trust.backend.model.entities.Card;
 import com.quantum.trust.backend.model.entities.Transaction;
 import com.quantum.trust.backend.repositories.TransactionRepository;
 
 import jakarta.servlet.http.HttpServletRequest;
-import jakarta.transaction.Transactional;
 
 /**
  * @service TransactionService
@@ -40,15 +41,42 @@ import jakarta.transaction.Transactional;
  *              Initializes the TransactionService with the specified services
  *              and repositories.
  *
- * @method checkTransactionStatuses - Scheduled method to check and update
- *         transaction statuses.
+ * @method checkTransactionStatuses - Scheduled method settling the blockade
+ *         transactions older than two days. Only the identifiers of due
+ *         transactions are read through the status and date index and they
+ *         are settled with bulk updates in chunks, each in its own
+ *         transaction, so the memory used does not depend on the size of the
+ *         history.
  *
- * @method getAllUserTransactions - Retrieves all transactions for a user.
+ * @method getLastSettledCount - Retrieves the number of transactions settled
+ *         by the last settlement run.
+ * @returns {int} - The number of settled transactions.
+ *
+ * @method getTotalSettledCount - Retrieves the number of transactions settled
+ *         since the start of the application.
+ * @returns {long} - The number of settled transactions.
+ *
+ * @method getAllUserTransactions - Retrieves all transactions for a user with
+ *         a single query, sorted from the newest.
  * @param {HttpServletRequest} httpServletRequest - The HTTP request containing
  *                             user information.
  * @returns {ResponseEntity<?>} - A ResponseEntity containing the user's
  *          transactions or an error status.
  *
+ * @method getUserTransactionsPage - Retrieves one page of the transactions of
+ *         a user matching the filter, newest first. The page carries the
+ *         cursor of the next page, which is absent on the last page.
+ * @param {HttpServletRequest} httpServletRequest - The HTTP request containing
+ *                             user information.
+ * @param {TransactionFilter}  transactionFilter - The filter of the
+ *                             transactions.
+ * @param {String}             cursor - The cursor of the page or null for the
+ *                             first page.
+ * @param {Integer}            limit - The size of the page or null for the
+ *                             default size.
+ * @returns {ResponseEntity<?>} - A ResponseEntity containing the page or an
+ *          error status.
+ *
  * @method saveNewTransaction - Saves a new transaction.
  * @param {TransactionDto} transactionDto - The transaction data transfer
  *                         object.
@@ -63,98 +91,125 @@ import jakarta.transaction.Transactional;
  *                                 credentials.
  * @returns {TransactionDto} - The transaction data transfer object.
  *
- * @method getRecalculatedAmount - Recalculates the amount based on currency
- *         exchange rates.
+ * @method getRecalculatedAmount - Recalculates the amount with the current
+ *         exchange rate snapshot.
  * @param {String} fromCurrency - The original currency.
  * @param {String} toCurrency - The target currency.
  * @param {float}  amount - The amount to be recalculated.
  * @returns {float} - The recalculated amount.
  *
- * @method getTransactionsListResponse - Retrieves a list of transactions for
- *         the specified accounts and cards.
- * @param {List<Account>} accountList - The list of accounts.
- * @param {List<Card>}    cardList - The list of cards.
- * @returns {ResponseEntity<?>} - A ResponseEntity containing the transactions
- *          or an error status.
- *
- *          * @method getAllAccountTransactions - Retrieves all transactions for
- *          the specified accounts.
- * @param {List<Account>} accountList - The list of accounts.
- * @returns {List<Transaction>} - The list of transactions.
+ * @method getRecalculatedAmount - Converts money into another currency with
+ *         the current exchange rate snapshot.
+ * @param {Money}  amount - The money to be converted.
+ * @param {String} toCurrency - The target currency.
+ * @returns {Money} - The converted money.
  *
- * @method getAllCardTransactions - Retrieves all transactions for the specified
- *         cards.
- * @param {List<Card>} cardList - The list of cards.
- * @returns {List<Transaction>} - The list of transactions.
+ * @method getRecalculatedMinorUnits - Converts minor units into another
+ *         currency with the current exchange rate snapshot.
+ * @param {String} fromCurrency - The original currency.
+ * @param {String} toCurrency - The target currency.
+ * @param {long}   minorUnits - The amount in minor units of the original
+ *                 currency.
+ * @returns {long} - The amount in minor units of the target currency.
  *
  * @method deleteTransaction - Deletes the saved transaction.
- *
- * @method getExchangeRate - Retrieves the exchange rate for the specified
- *         currency.
- * @param {String} currency - The currency code.
- * @returns {float} - The exchange rate.
  */
 @Service
 @EnableScheduling
 public class TransactionService {
+    static final int SETTLEMENT_CHUNK_SIZE = 500;
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 200;
+    private static final long BLOCKADE_DAYS = 2L;
+
     private Transaction savedTransaction;
+    private volatile int lastSettledCount;
+    private final LongAdder totalSettledCount = new LongAdder();
 
-    private final CardService cardService;
-    private final CryptoService cryptoService;
     private final AccountService accountService;
     private final TransactionMapper transactionMapper;
     private final TransactionRepository transactionRepository;
-
-    private static final Map<String, Float> exchangeRates = new HashMap<>();
-
-    static {
-        exchangeRates.put("PLN", 1.0f);
-        exchangeRates.put("EUR", 4.2883f);
-        exchangeRates.put("USD", 3.8659f);
-        exchangeRates.put("GBP", 5.0812f);
-        exchangeRates.put("CHF", 4.5574f);
-        exchangeRates.put("JPY", 0.027475f);
-        exchangeRates.put("AUD", 2.596f);
-        exchangeRates.put("CAD", 2.8475f);
-    }
+    private final FxRateService fxRateService;
 
     @Autowired
-    public TransactionService(@Lazy CardService cardService, AccountService accountService,
-            CryptoService cryptoService,
-            TransactionMapper transactionMapper,
-            TransactionRepository transactionRepository) {
-        this.cardService = cardService;
+    public TransactionService(AccountService accountService, TransactionMapper transactionMapper,
+            TransactionRepository transactionRepository, FxRateService fxRateService) {
         this.accountService = accountService;
-        this.cryptoService = cryptoService;
         this.transactionMapper = transactionMapper;
         this.transactionRepository = transactionRepository;
+        this.fxRateService = fxRateService;
     }
 
     @Scheduled(cron = "0 * * * * *")
-    @Transactional
     public void checkTransactionStatuses() {
         try {
-            List<Transaction> transactions = this.transactionRepository.findAll();
-            LocalDate today = LocalDate.now();
-            for (Transaction transaction : transactions) {
-                LocalDate transactionDate = LocalDate.parse(transaction.getDate());
-                String transactionStatus = transaction.getStatus();
-                if (transactionDate.isAfter(today.plusDays(2L)) && transactionStatus.equals("blockade")) {
-                    transaction.setStatus("settled");
-                    this.transactionRepository.save(transaction);
+            String beforeDate = LocalDate.now().minusDays(BLOCKADE_DAYS).format(DateTimeFormatter.ISO_LOCAL_DATE);
+            Pageable chunk = PageRequest.ofSize(SETTLEMENT_CHUNK_SIZE);
+            int settledCount = 0;
+            List<Long> dueTransactionIds;
+            do {
+                dueTransactionIds = this.transactionRepository.findDueTransactionIds("blockade", beforeDate, chunk);
+                if (dueTransactionIds.isEmpty()) {
+                    break;
                 }
-            }
+                int updatedCount = this.transactionRepository.updateStatuses(dueTransactionIds, "blockade",
+                        "settled");
+                settledCount += updatedCount;
+                if (updatedCount == 0) {
+                    break;
+                }
+            } while (dueTransactionIds.size() == SETTLEMENT_CHUNK_SIZE);
+            this.lastSettledCount = settledCount;
+            this.totalSettledCount.add(settledCount);
         } catch (Exception e) {
             e.printStackTrace();
         }
     }
 
+    public int getLastSettledCount() {
+        return this.lastSettledCount;
+    }
+
+    public long getTotalSettledCount() {
+        return this.totalSettledCount.sum();
+    }
+
     public ResponseEntity<?> getAllUserTransactions(HttpServletRequest httpServletRequest) {
         try {
-            List<Account> userAccounts = this.accountService.retrieveAccountsFromUserId(httpServletRequest);
-            List<Card> userCards = this.cardService.getAllUserCards(httpServletRequest);
-            return userAccounts.isEmpty() && userCards.isEmpty() ? ResponseEntity.status(HttpStatus.NOT_FOUND).build()
-                    : this.getTransactionsListResponse(userAccounts, userCards);
+            Long userId = this.accountService.retrieveUserIdFromToken(httpServletRequest);
+            List<TransactionDto> userTransactions = this.transactionRepository.findAllTransactionDtosByUserId(userId);
+            return userTransactions.isEmpty() ? ResponseEntity.status(HttpStatus.NOT_FOUND).build()
+                    : ResponseEntity.status(HttpStatus.OK).body(new EncryptedPayload(userTransactions));
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    public ResponseEntity<?> getUserTransactionsPage(HttpServletRequest httpServletRequest,
+            TransactionFilter transactionFilter, String cursor, Integer limit) {
+        int pageSize = limit != null ? limit : DEFAULT_PAGE_SIZE;
+        TransactionCursor transactionCursor;
+        try {
+            if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+                throw new IllegalArgumentException("Page size out of range");
+            }
+            transactionFilter.validate();
+            transactionCursor = cursor != null ? TransactionCursor.decode(cursor) : null;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+        try {
+            Long userId = this.accountService.retrieveUserIdFromToken(httpServletRequest);
+            List<TransactionDto> transactions = this.transactionRepository.findTransactionHistoryPage(userId,
+                    transactionFilter, transactionCursor, pageSize + 1);
+            String nextCursor = null;
+            if (transactions.size() > pageSize) {
+                transactions = transactions.subList(0, pageSize);
+                nextCursor = TransactionCursor.of(transactions.get(pageSize - 1)).encode();
+            }
+            return ResponseEntity.status(HttpStatus.OK)
+                    .body(new EncryptedPayload(new TransactionPageDto(transactions, nextCursor)));
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -177,9 +232,10 @@ public class TransactionService {
         return TransactionDto
                 .builder()
                 .account(account)
-                .accountAmountAfter(transactionCredentials.getAccountAmountAfter())
+                .accountAmountAfter(Money.ofMinor(transactionCredentials.getAccountAmountAfter(),
+                        account.getCurrency()))
                 .accountCurrency(account.getCurrency())
-                .amount(transactionCredentials.getAmount())
+                .amount(Money.ofMinor(transactionCredentials.getAmount(), account.getCurrency()))
                 .category(transactionCredentials.getCategory())
                 .currency(account.getCurrency())
                 .date(LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd")))
@@ -191,50 +247,15 @@ public class TransactionService {
     }
 
     public float getRecalculatedAmount(String fromCurrency, String toCurrency, float amount) {
-        float fromRate = this.getExchangeRate(fromCurrency);
-        float toRate = this.getExchangeRate(toCurrency);
-        float rate = fromRate / toRate;
-        return amount * rate;
+        return this.fxRateService.getSnapshot().convert(amount, fromCurrency, toCurrency);
     }
 
-    private ResponseEntity<?> getTransactionsListResponse(List<Account> accountList, List<Card> cardList)
-            throws Exception {
-        List<TransactionDto> accountTransactions = this.getAllAccountTransactions(accountList).stream()
-                .map(transactionMapper::convertToTransactionDto).collect(Collectors.toList());
-        List<TransactionDto> cardTransactions = this.getAllCardTransactions(cardList).stream()
-                .map(transactionMapper::convertToTransactionDto).collect(Collectors.toList());
-        List<TransactionDto> userTransactions = new ArrayList<>();
-        if (!accountTransactions.isEmpty()) {
-            userTransactions.addAll(accountTransactions);
-        }
-        if (!cardTransactions.isEmpty()) {
-            userTransactions.addAll(cardTransactions);
-        }
-        String encryptedUserTransactions = this.cryptoService.encryptData(userTransactions);
-        EncryptedDto encryptedDto = new EncryptedDto(encryptedUserTransactions);
-        return userTransactions.isEmpty()
-                ? ResponseEntity.status(HttpStatus.NOT_FOUND).build()
-                : ResponseEntity.status(HttpStatus.OK).body(encryptedDto);
+    public Money getRecalculatedAmount(Money amount, String toCurrency) {
+        return this.fxRateService.getSnapshot().convert(amount, toCurrency);
     }
 
-    private List<Transaction> getAllAccountTransactions(List<Account> accountList) throws Exception {
-        List<Transaction> accountTransactions = new ArrayList<>();
-        for (Account account : accountList) {
-            accountTransactions
-                    .addAll(this.transactionRepository
-                            .findAllTransactionsByAccount(account));
-        }
-        return accountTransactions;
-    }
-
-    private List<Transaction> getAllCardTransactions(List<Card> cardList) throws Exception {
-        List<Transaction> cardTransactions = new ArrayList<>();
-        for (Card card : cardList) {
-            cardTransactions
-                    .addAll(this.transactionRepository
-                            .findAllTransactionsByCard(card));
-        }
-        return cardTransactions;
+    public long getRecalculatedMinorUnits(String fromCurrency, String toCurrency, long minorUnits) {
+        return this.fxRateService.getSnapshot().convertMinorUnits(minorUnits, fromCurrency, toCurrency);
     }
 
     private void deleteTransaction() {
@@ -244,8 +265,4 @@ public class TransactionService {
             e.printStackTrace();
         }
     }
-
-    private float getExchangeRate(String currency) {
-        return exchangeRates.getOrDefault(currency, 1.0f);
-    }
 }
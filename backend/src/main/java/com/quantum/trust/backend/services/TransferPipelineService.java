@@ -0,0 +1,239 @@
+package com.quantum.trust.backend.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.quantum.trust.backend.fx.FxRateSnapshot;
+import com.quantum.trust.backend.model.TransferStatus;
+import com.quantum.trust.backend.model.dto.TransferDto;
+import com.quantum.trust.backend.utils.ExpiringLruCache;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * @service TransferPipelineService
+ * @description Service class applying transfers asynchronously. A transfer is
+ *              validated, its sender account is checked to belong to the
+ *              submitting user, it is acknowledged with an identifier and put on the
+ *              bounded ring buffer of the shard of its sender account. Every
+ *              shard has a single writer thread which drains its buffer in
+ *              batches and applies each batch in one database transaction,
+ *              locking only the sender rows, so transfers to popular receiver
+ *              accounts no longer queue on row locks and bursts cost one commit
+ *              per batch instead of one per transfer. A full buffer rejects
+ *              the transfer at once. A batch failing as a whole is applied
+ *              again one transfer at a time, so one broken transfer fails
+ *              alone. The states of the transfers are kept in memory for an
+ *              hour together with the user who submitted them, and only that
+ *              user can read them. Transfers still queued when the instance stops are
+ *              applied before it exits. The number of shards and the capacity
+ *              of every buffer can be set with the transfers.async.shards and
+ *              transfers.async.queue-capacity properties.
+ *
+ * @class TransferPipelineService
+ *
+ * @constructor
+ *              Initializes the shards with the sizes of the environment and
+ *              starts their writer threads.
+ * @param {TransferService}            transferService - Service executing
+ *                                     transfers.
+ * @param {FxRateService}              fxRateService - Service publishing the
+ *                                     exchange rates.
+ * @param {PlatformTransactionManager} transactionManager - The manager of the
+ *                                     batch transactions.
+ * @param {Environment}                environment - The environment holding
+ *                                     the sizes.
+ *
+ * @method submitTransfer - Validates a transfer, checks that its sender
+ *         account belongs to the submitting user and queues it on its shard.
+ * @param {TransferDto} transferDto - The transfer DTO.
+ * @param {String}      ownerId - The identificator of the submitting user.
+ * @returns {String} - The identifier of the queued transfer or null if the
+ *          buffer of the shard is full.
+ * @throws {IllegalArgumentException} - If the transfer credentials are
+ *         invalid or the sender account belongs to another user.
+ *
+ * @method getTransferStatus - Retrieves the state of a queued transfer of a
+ *         user.
+ * @param {String} transferId - The identifier of the transfer.
+ * @param {String} ownerId - The identificator of the asking user.
+ * @returns {TransferStatus} - The state or null if the transfer is unknown,
+ *          expired or was submitted by another user.
+ *
+ * @method applyBatch - Applies a batch of queued transfers and records their
+ *         states.
+ * @param {List<QueuedTransfer>} batch - The queued transfers.
+ *
+ * @method shutdown - Stops accepting transfers and waits until the writer
+ *         threads have applied the queued ones.
+ */
+@Service
+public class TransferPipelineService {
+    static final int MAX_BATCH_SIZE = 256;
+    private static final int DEFAULT_SHARDS = 4;
+    private static final int DEFAULT_QUEUE_CAPACITY = 4096;
+    private static final int MAX_RETAINED_STATUSES = 100_000;
+    private static final long STATUS_RETENTION_MILLIS = TimeUnit.HOURS.toMillis(1);
+    private static final long POLL_TIMEOUT_MILLIS = 100L;
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    private final TransferService transferService;
+    private final FxRateService fxRateService;
+    private final TransactionTemplate transactionTemplate;
+    private final Shard[] shards;
+    private final ExpiringLruCache<String, TrackedTransfer> transferStatuses = new ExpiringLruCache<>(
+            MAX_RETAINED_STATUSES);
+    private volatile boolean isAccepting = true;
+
+    @Autowired
+    public TransferPipelineService(TransferService transferService, FxRateService fxRateService,
+            PlatformTransactionManager transactionManager, Environment environment) {
+        this(transferService, fxRateService, transactionManager,
+                environment.getProperty("transfers.async.shards", Integer.class, DEFAULT_SHARDS),
+                environment.getProperty("transfers.async.queue-capacity", Integer.class, DEFAULT_QUEUE_CAPACITY));
+    }
+
+    TransferPipelineService(TransferService transferService, FxRateService fxRateService,
+            PlatformTransactionManager transactionManager, int shardCount, int queueCapacity) {
+        if (shardCount < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("Transfer pipeline sizes must be positive");
+        }
+        this.transferService = transferService;
+        this.fxRateService = fxRateService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            this.shards[i] = new Shard(i, queueCapacity);
+        }
+        for (Shard shard : this.shards) {
+            shard.writer.start();
+        }
+    }
+
+    public String submitTransfer(TransferDto transferDto, String ownerId) throws IllegalArgumentException {
+        this.transferService.validateTransferCredentials(transferDto);
+        this.transferService.validateSenderOwner(transferDto, ownerId);
+        if (!this.isAccepting) {
+            return null;
+        }
+        String transferId = UUID.randomUUID().toString();
+        Shard shard = this.shards[TransferService.getLockStripe(transferDto.getSenderAccountNumber())
+                % this.shards.length];
+        this.putTransferStatus(transferId, ownerId, TransferStatus.PENDING);
+        if (!shard.queue.offer(new QueuedTransfer(transferId, ownerId, transferDto))) {
+            this.transferStatuses.invalidate(transferId);
+            return null;
+        }
+        return transferId;
+    }
+
+    public TransferStatus getTransferStatus(String transferId, String ownerId) {
+        TrackedTransfer trackedTransfer = this.transferStatuses.get(transferId);
+        return trackedTransfer != null && trackedTransfer.ownerId.equals(ownerId) ? trackedTransfer.status : null;
+    }
+
+    void applyBatch(List<QueuedTransfer> batch) {
+        FxRateSnapshot fxRateSnapshot = this.fxRateService.getSnapshot();
+        List<TransferDto> transferDtos = batch.stream().map(queuedTransfer -> queuedTransfer.transferDto).toList();
+        try {
+            List<TransferStatus> batchStatuses = this.transactionTemplate
+                    .execute(status -> this.transferService.executeTransferBatch(transferDtos, fxRateSnapshot));
+            for (int i = 0; i < batch.size(); i++) {
+                this.putTransferStatus(batch.get(i), batchStatuses.get(i));
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            if (batch.size() == 1) {
+                this.putTransferStatus(batch.get(0), TransferStatus.FAILED);
+                return;
+            }
+            for (QueuedTransfer queuedTransfer : batch) {
+                this.applyBatch(List.of(queuedTransfer));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        this.isAccepting = false;
+        for (Shard shard : this.shards) {
+            shard.writer.join(SHUTDOWN_TIMEOUT_MILLIS);
+        }
+    }
+
+    private void putTransferStatus(QueuedTransfer queuedTransfer, TransferStatus transferStatus) {
+        this.putTransferStatus(queuedTransfer.transferId, queuedTransfer.ownerId, transferStatus);
+    }
+
+    private void putTransferStatus(String transferId, String ownerId, TransferStatus transferStatus) {
+        this.transferStatuses.put(transferId, new TrackedTransfer(ownerId, transferStatus),
+                System.currentTimeMillis() + STATUS_RETENTION_MILLIS);
+    }
+
+    static final class QueuedTransfer {
+        private final String transferId;
+        private final String ownerId;
+        private final TransferDto transferDto;
+
+        QueuedTransfer(String transferId, String ownerId, TransferDto transferDto) {
+            this.transferId = transferId;
+            this.ownerId = ownerId;
+            this.transferDto = transferDto;
+        }
+    }
+
+    private static final class TrackedTransfer {
+        private final String ownerId;
+        private final TransferStatus status;
+
+        private TrackedTransfer(String ownerId, TransferStatus status) {
+            this.ownerId = ownerId;
+            this.status = status;
+        }
+    }
+
+    private final class Shard {
+        private final ArrayBlockingQueue<QueuedTransfer> queue;
+        private final Thread writer;
+
+        private Shard(int index, int queueCapacity) {
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+            this.writer = new Thread(this::drain, "transfer-shard-" + index);
+            this.writer.setDaemon(true);
+        }
+
+        private void drain() {
+            List<QueuedTransfer> batch = new ArrayList<>(MAX_BATCH_SIZE);
+            while (true) {
+                try {
+                    QueuedTransfer queuedTransfer = this.queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                    if (queuedTransfer == null) {
+                        if (!isAccepting) {
+                            return;
+                        }
+                        continue;
+                    }
+                    batch.add(queuedTransfer);
+                    this.queue.drainTo(batch, MAX_BATCH_SIZE - 1);
+                    applyBatch(batch);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (Exception e) {
+                    e.printStackTrace();
+                } finally {
+                    batch.clear();
+                }
+            }
+        }
+    }
+}
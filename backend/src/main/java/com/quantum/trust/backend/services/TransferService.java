@@ -0,0 +1,294 @@
+package com.quantum.trust.backend.services;
+
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.quantum.trust.backend.fx.FxRateSnapshot;
+import com.quantum.trust.backend.mappers.TransactionMapper;
+import com.quantum.trust.backend.model.Money;
+import com.quantum.trust.backend.model.TransactionCredentials;
+import com.quantum.trust.backend.model.TransferStatus;
+import com.quantum.trust.backend.model.dto.TransferDto;
+import com.quantum.trust.backend.model.entities.Account;
+import com.quantum.trust.backend.model.entities.Transaction;
+import com.quantum.trust.backend.repositories.AccountRepository;
+import com.quantum.trust.backend.repositories.TransactionRepository;
+
+/**
+ * @service TransferService
+ * @description Service class executing transfers between accounts. Every
+ *              transfer posts its journal lines and records both transactions
+ *              in one database transaction, so it is applied whole or not at
+ *              all. Both account rows are locked for writing in the order of
+ *              their numbers before the balances are read from the ledger,
+ *              which keeps two transfers from spending the same money without
+ *              deadlocks between instances. The sender account is checked to
+ *              belong to the user sending the transfer under the same lock,
+ *              before anything is posted.
+ *              Inside one instance transfers first take striped account locks
+ *              in stripe order, so transfers of hot accounts queue in memory
+ *              instead of holding database connections while waiting for row
+ *              locks. A transfer failing on a lock conflict is retried with a
+ *              growing, jittered delay at the exchange rates it started with.
+ *
+ * @class TransferService
+ *
+ * @constructor
+ * @param {AccountRepository}          accountRepository - Repository for
+ *                                     accessing account data.
+ * @param {TransactionRepository}      transactionRepository - Repository for
+ *                                     accessing transaction data.
+ * @param {TransactionService}         transactionService - Service for
+ *                                     building transactions.
+ * @param {TransactionMapper}          transactionMapper - Mapper for
+ *                                     converting transactions.
+ * @param {ValidationService}          validationService - Service for
+ *                                     validating transfers.
+ * @param {FxRateService}              fxRateService - Service publishing the
+ *                                     exchange rates.
+ * @param {LedgerService}              ledgerService - Service keeping the
+ *                                     journal of balances.
+ * @param {PlatformTransactionManager} transactionManager - The manager of the
+ *                                     transfer transactions.
+ *
+ * @method sendTransfer - Validates and executes a transfer of a user,
+ *         retrying it on lock conflicts.
+ * @param {TransferDto} transferDto - The transfer DTO.
+ * @param {String}      ownerId - The identificator of the sending user.
+ * @throws {IllegalArgumentException} - If an account does not exist, the
+ *         sender account belongs to another user or the transfer credentials
+ *         are invalid.
+ * @throws {ConcurrencyFailureException} - If the transfer still conflicts
+ *         after the last attempt.
+ * @throws {InterruptedException} - If the thread is interrupted while waiting
+ *         for a retry.
+ *
+ * @method validateTransferCredentials - Checks the parts of a transfer which
+ *         do not depend on the accounts.
+ * @param {TransferDto} transferDto - The transfer DTO.
+ * @throws {IllegalArgumentException} - If the transfer credentials are
+ *         invalid.
+ *
+ * @method validateSenderOwner - Checks that the sender account of a transfer
+ *         belongs to the submitting user.
+ * @param {TransferDto} transferDto - The transfer DTO.
+ * @param {String}      ownerId - The identificator of the submitting user.
+ * @throws {IllegalArgumentException} - If the sender account belongs to
+ *         another user or does not exist.
+ *
+ * @method executeTransfer - Locks the accounts, checks the owner of the sender
+ *         account and applies the transfer in the current transaction.
+ * @param {TransferDto}    transferDto - The transfer DTO.
+ * @param {String}         ownerId - The identificator of the sending user.
+ * @param {FxRateSnapshot} fxRateSnapshot - The exchange rates of the transfer.
+ * @throws {IllegalArgumentException} - If the sender account belongs to
+ *         another user or the transfer credentials are invalid.
+ *
+ * @method executeTransferBatch - Applies a batch of transfers in order in the
+ *         current transaction, locking only the sender accounts. Credits are
+ *         appended to the ledger, so receivers are read without a lock.
+ * @param {List<TransferDto>} transferDtos - The transfers.
+ * @param {FxRateSnapshot}    fxRateSnapshot - The exchange rates of the
+ *                            transfers.
+ * @returns {List<TransferStatus>} - The outcome of every transfer, completed
+ *          or rejected.
+ *
+ * @method getLockStripe - Retrieves the index of the lock stripe of an
+ *         account.
+ * @param {String} accountNumber - The number of the account.
+ * @returns {int} - The index of the stripe.
+ */
+@Service
+public class TransferService {
+    static final int LOCK_STRIPES = 256;
+    static final int MAX_ATTEMPTS = 4;
+    private static final long RETRY_BACKOFF_MILLIS = 10L;
+
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionService transactionService;
+    private final TransactionMapper transactionMapper;
+    private final ValidationService validationService;
+    private final FxRateService fxRateService;
+    private final LedgerService ledgerService;
+    private final TransactionTemplate transactionTemplate;
+    private final ReentrantLock[] accountLocks = new ReentrantLock[LOCK_STRIPES];
+
+    @Autowired
+    public TransferService(AccountRepository accountRepository, TransactionRepository transactionRepository,
+            TransactionService transactionService, TransactionMapper transactionMapper,
+            ValidationService validationService, FxRateService fxRateService, LedgerService ledgerService,
+            PlatformTransactionManager transactionManager) {
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+        this.transactionService = transactionService;
+        this.transactionMapper = transactionMapper;
+        this.validationService = validationService;
+        this.fxRateService = fxRateService;
+        this.ledgerService = ledgerService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            this.accountLocks[i] = new ReentrantLock();
+        }
+    }
+
+    public void sendTransfer(TransferDto transferDto, String ownerId) throws InterruptedException {
+        this.validateTransferCredentials(transferDto);
+        String senderAccountNumber = transferDto.getSenderAccountNumber();
+        String receiverAccountNumber = transferDto.getReceiverAccountNumber();
+        FxRateSnapshot fxRateSnapshot = this.fxRateService.getSnapshot();
+        int senderStripe = getLockStripe(senderAccountNumber);
+        int receiverStripe = getLockStripe(receiverAccountNumber);
+        ReentrantLock firstLock = this.accountLocks[Math.min(senderStripe, receiverStripe)];
+        ReentrantLock secondLock = this.accountLocks[Math.max(senderStripe, receiverStripe)];
+        for (int attempt = 1;; attempt++) {
+            firstLock.lockInterruptibly();
+            try {
+                secondLock.lockInterruptibly();
+                try {
+                    this.transactionTemplate.executeWithoutResult(
+                            status -> this.executeTransfer(transferDto, ownerId, fxRateSnapshot));
+                    return;
+                } finally {
+                    secondLock.unlock();
+                }
+            } catch (ConcurrencyFailureException e) {
+                if (attempt == MAX_ATTEMPTS) {
+                    throw e;
+                }
+            } finally {
+                firstLock.unlock();
+            }
+            Thread.sleep(RETRY_BACKOFF_MILLIS * attempt + ThreadLocalRandom.current().nextLong(RETRY_BACKOFF_MILLIS));
+        }
+    }
+
+    void validateTransferCredentials(TransferDto transferDto) throws IllegalArgumentException {
+        String senderAccountNumber = transferDto.getSenderAccountNumber();
+        String receiverAccountNumber = transferDto.getReceiverAccountNumber();
+        if (senderAccountNumber == null || receiverAccountNumber == null
+                || senderAccountNumber.equals(receiverAccountNumber)
+                || transferDto.getTransferAmount() == null
+                || !this.validationService.validateTransferTitle(transferDto.getTransferTitle())) {
+            throw new IllegalArgumentException("Transfer credentials are invalid");
+        }
+    }
+
+    void validateSenderOwner(TransferDto transferDto, String ownerId) throws IllegalArgumentException {
+        if (ownerId == null || !this.accountRepository.existsByIdAndUserId(transferDto.getSenderAccountNumber(),
+                Long.valueOf(ownerId))) {
+            throw new IllegalArgumentException("Transfer credentials are invalid");
+        }
+    }
+
+    void executeTransfer(TransferDto transferDto, String ownerId, FxRateSnapshot fxRateSnapshot) {
+        List<Account> accounts = this.accountRepository.findAllForUpdateByIdIn(
+                List.of(transferDto.getSenderAccountNumber(), transferDto.getReceiverAccountNumber()));
+        Account senderAccount = getAccount(accounts, transferDto.getSenderAccountNumber());
+        Account receiverAccount = getAccount(accounts, transferDto.getReceiverAccountNumber());
+        if (senderAccount.getUser() == null || ownerId == null
+                || !ownerId.equals(String.valueOf(senderAccount.getUser().getId()))) {
+            throw new IllegalArgumentException("Transfer credentials are invalid");
+        }
+        this.ledgerService.loadBalances(accounts);
+        long transferAmount = Money.toMinorUnits(transferDto.getTransferAmount(), senderAccount.getCurrency(),
+                RoundingMode.UNNECESSARY);
+        if (!this.validationService.validateTransferAmount(transferAmount, senderAccount)) {
+            throw new IllegalArgumentException("Transfer credentials are invalid");
+        }
+        long receivedAmount = fxRateSnapshot.convertMinorUnits(transferAmount, senderAccount.getCurrency(),
+                receiverAccount.getCurrency());
+        this.ledgerService.postTransfer(senderAccount, transferAmount, receiverAccount, receivedAmount);
+        senderAccount.setBalance(Math.subtractExact(senderAccount.getBalance(), transferAmount));
+        receiverAccount.setBalance(Math.addExact(receiverAccount.getBalance(), receivedAmount));
+        this.transactionRepository.saveAll(List.of(
+                this.getTransaction(senderAccount, transferDto.getTransferTitle(), "outgoing", transferAmount),
+                this.getTransaction(receiverAccount, transferDto.getTransferTitle(), "incoming", receivedAmount)));
+    }
+
+    List<TransferStatus> executeTransferBatch(List<TransferDto> transferDtos, FxRateSnapshot fxRateSnapshot) {
+        Set<String> senderAccountNumbers = new TreeSet<>();
+        Set<String> receiverAccountNumbers = new TreeSet<>();
+        for (TransferDto transferDto : transferDtos) {
+            senderAccountNumbers.add(transferDto.getSenderAccountNumber());
+            receiverAccountNumbers.add(transferDto.getReceiverAccountNumber());
+        }
+        receiverAccountNumbers.removeAll(senderAccountNumbers);
+        Map<String, Account> accounts = new HashMap<>();
+        for (Account account : this.accountRepository.findAllForUpdateByIdIn(senderAccountNumbers)) {
+            accounts.put(account.getId(), account);
+        }
+        for (Account account : this.accountRepository.findAllById(receiverAccountNumbers)) {
+            accounts.put(account.getId(), account);
+        }
+        this.ledgerService.loadBalances(accounts.values());
+        List<TransferStatus> transferStatuses = new ArrayList<>(transferDtos.size());
+        List<Transaction> transactions = new ArrayList<>(2 * transferDtos.size());
+        for (TransferDto transferDto : transferDtos) {
+            Account senderAccount = accounts.get(transferDto.getSenderAccountNumber());
+            Account receiverAccount = accounts.get(transferDto.getReceiverAccountNumber());
+            Long transferAmount = senderAccount != null && receiverAccount != null
+                    ? getTransferAmount(transferDto, senderAccount)
+                    : null;
+            if (transferAmount == null
+                    || !this.validationService.validateTransferAmount(transferAmount, senderAccount)) {
+                transferStatuses.add(TransferStatus.REJECTED);
+                continue;
+            }
+            long receivedAmount = fxRateSnapshot.convertMinorUnits(transferAmount, senderAccount.getCurrency(),
+                    receiverAccount.getCurrency());
+            this.ledgerService.postTransfer(senderAccount, transferAmount, receiverAccount, receivedAmount);
+            senderAccount.setBalance(Math.subtractExact(senderAccount.getBalance(), transferAmount));
+            receiverAccount.setBalance(Math.addExact(receiverAccount.getBalance(), receivedAmount));
+            transactions.add(this.getTransaction(senderAccount, transferDto.getTransferTitle(), "outgoing",
+                    transferAmount));
+            transactions.add(this.getTransaction(receiverAccount, transferDto.getTransferTitle(), "incoming",
+                    receivedAmount));
+            transferStatuses.add(TransferStatus.COMPLETED);
+        }
+        if (!transactions.isEmpty()) {
+            this.transactionRepository.saveAll(transactions);
+        }
+        return transferStatuses;
+    }
+
+    static int getLockStripe(String accountNumber) {
+        int hash = accountNumber.hashCode();
+        return (hash ^ (hash >>> 16)) & (LOCK_STRIPES - 1);
+    }
+
+    private Transaction getTransaction(Account account, String transferTitle, String transactionType,
+            long transactionAmount) {
+        TransactionCredentials transactionCredentials = new TransactionCredentials(account.getBalance(),
+                transactionAmount, "Inne", "blockade", transferTitle, transactionType);
+        return this.transactionMapper
+                .convertToTransaction(this.transactionService.getTransactionDto(account, transactionCredentials));
+    }
+
+    private static Long getTransferAmount(TransferDto transferDto, Account senderAccount) {
+        try {
+            return Money.toMinorUnits(transferDto.getTransferAmount(), senderAccount.getCurrency(),
+                    RoundingMode.UNNECESSARY);
+        } catch (ArithmeticException e) {
+            return null;
+        }
+    }
+
+    private static Account getAccount(List<Account> accounts, String accountNumber) {
+        return accounts.stream().filter(account -> account.getId().equals(accountNumber)).findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Account not exists"));
+    }
+}
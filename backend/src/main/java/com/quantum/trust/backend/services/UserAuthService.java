@@ -1,5 +1,6 @@
 package com.quantum.trust.backend.services;
 
+import java.time.Clock;
 import java.util.ArrayList;
 import java.util.Optional;
 
@@ -11,27 +12,57 @@ import org.springframework.stereotype.Service;
 
 import com.quantum.trust.backend.model.entities.User;
 import com.quantum.trust.backend.repositories.UserRepository;
+import com.quantum.trust.backend.utils.ExpiringLruCache;
 
 /**
  * Service class for user authentication.
  * Implements the UserDetailsService interface to provide user details for authentication.
+ * Loaded user details are kept in a bounded cache for a few minutes, so the
+ * authentication of every request does not read the user row again. Callers
+ * always receive a copy, as Spring Security erases the credentials of the
+ * returned instance after a login. The cached entry of a user has to be
+ * evicted when the password of the user changes. The cache takes no lock on
+ * reads, so the authentication of concurrent requests, logins and refreshes do
+ * not queue behind each other, and its entries expire by the same clock that
+ * stamps them.
  */
 @Service
 public class UserAuthService implements UserDetailsService {
+    private static final int USER_DETAILS_CACHE_SIZE = 10_000;
+    private static final long USER_DETAILS_TTL_MILLIS = 5 * 60 * 1000L;
+
     private final UserRepository userRepository;
+    private final Clock clock;
+    private final ExpiringLruCache<String, UserDetails> userDetailsCache;
 
     @Autowired
     public UserAuthService(UserRepository userRepository) {
+        this(userRepository, Clock.systemUTC());
+    }
+
+    UserAuthService(UserRepository userRepository, Clock clock) {
         this.userRepository = userRepository;
+        this.clock = clock;
+        this.userDetailsCache = new ExpiringLruCache<>(USER_DETAILS_CACHE_SIZE, clock);
     }
 
     @Override
     public UserDetails loadUserByUsername(String identificator) throws UsernameNotFoundException {
-        Optional<User> user = userRepository.findById(Long.valueOf(identificator));
-        if (user.isEmpty()) {
-            throw new UsernameNotFoundException("User not found");
+        UserDetails cachedUserDetails = this.userDetailsCache.get(identificator);
+        if (cachedUserDetails == null) {
+            Optional<User> user = userRepository.findById(Long.valueOf(identificator));
+            if (user.isEmpty()) {
+                throw new UsernameNotFoundException("User not found");
+            }
+            cachedUserDetails = new org.springframework.security.core.userdetails.User(user.get().getId().toString(),
+                    user.get().getPassword(), new ArrayList<>());
+            this.userDetailsCache.put(identificator, cachedUserDetails,
+                    this.clock.millis() + USER_DETAILS_TTL_MILLIS);
         }
-        return new org.springframework.security.core.userdetails.User(user.get().getId().toString(),
-                user.get().getPassword(), new ArrayList<>());
+        return org.springframework.security.core.userdetails.User.withUserDetails(cachedUserDetails).build();
+    }
+
+    public void evictUser(String identificator) {
+        this.userDetailsCache.invalidate(identificator);
     }
 }
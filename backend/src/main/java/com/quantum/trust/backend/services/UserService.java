@@ -1,9 +1,12 @@
 package com.quantum.trust.backend.services;
 
+import java.math.BigDecimal;
 import java.util.Objects;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -15,10 +18,14 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.quantum.trust.backend.mappers.AccountMapper;
 import com.quantum.trust.backend.mappers.UserMapper;
+import com.quantum.trust.backend.model.Money;
 import com.quantum.trust.backend.model.TransactionCredentials;
+import com.quantum.trust.backend.model.TransferStatus;
 import com.quantum.trust.backend.model.dto.AccountDto;
-import com.quantum.trust.backend.model.dto.EncryptedDto;
+import com.quantum.trust.backend.model.dto.EncryptedPayload;
 import com.quantum.trust.backend.model.dto.TransactionDto;
+import com.quantum.trust.backend.model.dto.TransferDto;
+import com.quantum.trust.backend.model.dto.TransferStatusDto;
 import com.quantum.trust.backend.model.dto.UserDto;
 import com.quantum.trust.backend.model.entities.Account;
 import com.quantum.trust.backend.model.entities.User;
@@ -55,6 +62,12 @@ import jakarta.servlet.http.HttpServletResponse;
  *                                entities.
  * @param {TransactionService}    transactionService - The service for handling
  *                                transactions.
+ * @param {TransferService}       transferService - The engine executing
+ *                                transfers.
+ * @param {LedgerService}         ledgerService - The service keeping the
+ *                                journal of balances.
+ * @param {TransferPipelineService} transferPipelineService - The pipeline
+ *                                applying queued transfers.
  * @param {ObjectMapper}          objectMapper - The object mapper for JSON
  *                                processing.
  * @param {UserRepository}        userRepository - The repository for accessing
@@ -63,6 +76,8 @@ import jakarta.servlet.http.HttpServletResponse;
  *                                accessing account data.
  * @param {AuthenticationManager} authenticationManager - The manager for
  *                                handling authentication.
+ * @param {UserAuthService}       userAuthService - The service caching user
+ *                                details for authentication.
  *
  * @method registerNewAccount - Registers a new user account and bank account.
  * @param {String} encryptedUserDto - The encrypted user DTO.
@@ -82,7 +97,7 @@ import jakarta.servlet.http.HttpServletResponse;
  *
  * @method saveNewBankAccount - Saves a new bank account for a logged-in user.
  * @param {HttpServletRequest} httpServletRequest - The HTTP servlet request.
- * @param {String}             encryptedAccountDto - The encrypted account DTO.
+ * @param {AccountDto}         accountDto - The account DTO.
  * @returns {ResponseEntity<?>} - The response entity with the status of the
  *          operation.
  *
@@ -123,13 +138,35 @@ import jakarta.servlet.http.HttpServletResponse;
  * @returns {ResponseEntity<?>} - The response entity with the status of the
  *          operation.
  *
- * @method sendNewTransfer - Sends a new transfer.
- * @param {String} encryptedTransferDto - The encrypted transfer DTO.
+ * @method sendNewTransfer - Sends a new transfer of the user of the token
+ *         through the transfer engine, which applies it atomically. A transfer
+ *         still conflicting with concurrent transfers after its retries is
+ *         answered with 409.
+ * @param {HttpServletRequest} httpServletRequest - The HTTP servlet request.
+ * @param {TransferDto}        transferDto - The transfer DTO.
  * @returns {ResponseEntity<?>} - The response entity with the status of the
  *          operation.
  *
- * @method editUserAccount - Edits a user account.
- * @param {String}             encryptedUserObject - The encrypted user object.
+ * @method queueNewTransfer - Queues a new transfer of the user of the token
+ *         on the transfer pipeline and answers with 202 and its identifier, or
+ *         with 503 while the queue of its shard is full.
+ * @param {HttpServletRequest} httpServletRequest - The HTTP servlet request.
+ * @param {TransferDto}        transferDto - The transfer DTO.
+ * @returns {ResponseEntity<?>} - The response entity with the encrypted state
+ *          of the queued transfer or an error status.
+ *
+ * @method getTransferStatus - Retrieves the state of a queued transfer of the
+ *         user of the token.
+ * @param {HttpServletRequest} httpServletRequest - The HTTP servlet request.
+ * @param {String}             transferId - The identifier of the transfer.
+ * @returns {ResponseEntity<?>} - The response entity with the encrypted state
+ *          of the transfer or 404 if it is unknown or belongs to another
+ *          user.
+ *
+ * @method editUserAccount - Edits a user account and evicts the cached user
+ *         details when the password changes.
+ * @param {UserDto}            userDto - The user DTO with the updated user
+ *                             information.
  * @param {HttpServletRequest} httpServletRequest - The HTTP servlet request.
  * @returns {ResponseEntity<?>} - The response entity with the status of the
  *          operation.
@@ -149,44 +186,17 @@ import jakarta.servlet.http.HttpServletResponse;
  * @throws {Exception} - If the avatar path is invalid.
  *
  * @method getUserAccountObject - Retrieves the user account object.
- * @param {String} accountNumber - The account number.
- * @returns {Account} - The account entity.
- * @throws {Exception} - If the account does not exist.
- *
- * @method validateTransferCredentials - Validates the transfer credentials.
- * @param {String}  transferTitle - The transfer title.
- * @param {Float}   transferAmount - The transfer amount.
- * @param {Account} senderAccount - The sender's account.
- * @throws {Exception} - If the transfer credentials are invalid.
- *
- * @method updateSenderAccountBalance - Updates the sender's account balance.
- * @param {Account} account - The account entity.
- * @param {String}  transferTitle - The transfer title.
- * @param {Float}   transferAmount - The transfer amount.
- * @throws {Exception} - If the update fails.
- *
- * @method updateReceiverAccountBalance - Updates the receiver's account
- *         balance.
- * @param {Account} receiverAccount - The receiver's account.
- * @param {Account} senderAccount - The sender's account.
- * @param {String}  transferTitle - The transfer title.
- * @param {Float}   transferAmount - The transfer amount.
- * @throws {Exception} - If the update fails.
- * 
- * @method saveTransaction - Saves a transaction.
- * @param {Account} account - The account entity.
- * @param {String}  transactionType - The transaction type.
- * @param {String}  transactionTitle - The transaction title.
- * @param {Float}   transactionAmount - The transaction amount.
- * @throws {Exception} - If the transaction save fails.
- *
- * @method getUserAccountObject - Retrieves the user account object.
- * @param {String}  encryptedAccountDto - The encrypted account DTO.
+ * @param {AccountDto} accountDto - The account DTO.
  * @param {boolean} isForLoggedUser - Flag indicating if the account is for a
  *                  logged-in user.
  * @returns {Account} - The account entity.
  * @throws {Exception} - If the account retrieval fails.
  *
+ * @method getAccountDto - Retrieves the account DTO.
+ * @param {String} encryptedAccountDto - The encrypted account DTO.
+ * @returns {AccountDto} - The account DTO.
+ * @throws {Exception} - If the decryption fails.
+ *
  * @method getUserDto - Retrieves the user DTO.
  * @param {String} encryptedUserDto - The encrypted user DTO.
  * @returns {UserDto} - The user DTO.
@@ -217,6 +227,8 @@ import jakarta.servlet.http.HttpServletResponse;
  */
 @Service
 public class UserService {
+    private static final Money OPENING_BALANCE = Money.of(BigDecimal.valueOf(1000), "PLN");
+
     private User savedUserAccount;
     private Account savedUserBankAccount;
 
@@ -229,10 +241,14 @@ public class UserService {
     private final MediaService mediaService;
     private final ValidationService validationService;
     private final TransactionService transactionService;
+    private final TransferService transferService;
+    private final LedgerService ledgerService;
+    private final TransferPipelineService transferPipelineService;
     private final ObjectMapper objectMapper;
     private final UserRepository userRepository;
     private final AccountRepository accountRepository;
     private final AuthenticationManager authenticationManager;
+    private final UserAuthService userAuthService;
 
     @Autowired
     public UserService(UserMapper userMapper,
@@ -241,13 +257,15 @@ public class UserService {
             EmailService emailService,
             MediaService mediaService,
             ValidationService validationService, TransactionService transactionService,
-            ObjectMapper objectMapper,
+            TransferService transferService, LedgerService ledgerService,
+            TransferPipelineService transferPipelineService, ObjectMapper objectMapper,
             UserRepository userRepository, AccountRepository accountRepository,
-            AuthenticationManager authenticationManager) {
+            AuthenticationManager authenticationManager, UserAuthService userAuthService) {
         this.userRepository = userRepository;
         this.accountRepository = accountRepository;
         this.tokenService = tokenService;
         this.authenticationManager = authenticationManager;
+        this.userAuthService = userAuthService;
         this.userMapper = userMapper;
         this.accountMapper = accountMapper;
         this.cryptoService = cryptoService;
@@ -256,6 +274,9 @@ public class UserService {
         this.mediaService = mediaService;
         this.validationService = validationService;
         this.transactionService = transactionService;
+        this.transferService = transferService;
+        this.ledgerService = ledgerService;
+        this.transferPipelineService = transferPipelineService;
         this.cookieService = cookieService;
     }
 
@@ -283,10 +304,11 @@ public class UserService {
 
     public ResponseEntity<?> saveNewBankAccount(String encryptedAccountDto) {
         try {
-            Account account = this.getUserAccountObject(encryptedAccountDto, false);
+            Account account = this.getUserAccountObject(this.getAccountDto(encryptedAccountDto), false);
             this.savedUserBankAccount = this.accountRepository.save(account);
-            Float accountAmount = this.transactionService.getRecalculatedAmount("PLN",
-                    account.getCurrency(), 1000.0f);
+            long accountAmount = this.transactionService.getRecalculatedAmount(OPENING_BALANCE, account.getCurrency())
+                    .getMinorUnits();
+            this.ledgerService.postOpeningBonus(this.savedUserBankAccount, accountAmount);
             TransactionCredentials transactionCredentials = new TransactionCredentials(accountAmount, accountAmount,
                     "Inne", "settled", "Założenie nowego konta bankowego.", "incoming");
             TransactionDto transactionDto = this.transactionService.getTransactionDto(account, transactionCredentials);
@@ -300,16 +322,16 @@ public class UserService {
         }
     }
 
-    public ResponseEntity<?> saveNewBankAccount(HttpServletRequest httpServletRequest, String encryptedAccountDto) {
+    public ResponseEntity<?> saveNewBankAccount(HttpServletRequest httpServletRequest, AccountDto accountDto) {
         try {
             String token = this.cookieService.getCookieValue(httpServletRequest, "ACCESS_TOKEN");
-            String identificatorFromToken = this.tokenService.getIdentificatorFromToken(token);
+            String identificatorFromToken = this.tokenService.getIdentificatorFromToken(httpServletRequest, token);
             Optional<User> user = this.userRepository.findById(Long.valueOf(identificatorFromToken));
             if (user.isEmpty()) {
                 throw new Exception("User not found");
             }
             this.savedUserAccount = user.get();
-            Account account = this.getUserAccountObject(encryptedAccountDto, true);
+            Account account = this.getUserAccountObject(accountDto, true);
             this.validationService.validateAccountObject(account);
             this.savedUserBankAccount = this.accountRepository.save(account);
             return ResponseEntity.status(HttpStatus.OK).build();
@@ -322,14 +344,12 @@ public class UserService {
     public ResponseEntity<?> getUserAccountObject(HttpServletRequest httpServletRequest) {
         try {
             String accessToken = this.cookieService.getCookieValue(httpServletRequest, "ACCESS_TOKEN");
-            String identificatorFromToken = this.tokenService.getIdentificatorFromToken(accessToken);
+            String identificatorFromToken = this.tokenService.getIdentificatorFromToken(httpServletRequest,
+                    accessToken);
             Optional<User> retrievedUser = this.userRepository.findById(Long.valueOf(identificatorFromToken));
             if (retrievedUser.isPresent()) {
                 UserDto userDto = this.userMapper.convertToUserDto(retrievedUser.get());
-                String encryptedUserObject = this.cryptoService.encryptData(userDto);
-                EncryptedDto encryptedDto = new EncryptedDto();
-                encryptedDto.setEncryptedData(encryptedUserObject);
-                return ResponseEntity.status(HttpStatus.OK).body(encryptedDto);
+                return ResponseEntity.status(HttpStatus.OK).body(new EncryptedPayload(userDto));
             } else {
                 return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
             }
@@ -359,7 +379,7 @@ public class UserService {
     public ResponseEntity<?> removeTokens(HttpServletRequest httpServletRequest,
             HttpServletResponse httpServletResponse) {
         String refreshToken = this.cookieService.getCookieValue(httpServletRequest, "REFRESH_TOKEN");
-        String identificatorFromToken = this.tokenService.getIdentificatorFromToken(refreshToken);
+        String identificatorFromToken = this.tokenService.getIdentificatorFromToken(httpServletRequest, refreshToken);
         String accessToken = this.tokenService.generateToken(identificatorFromToken, "access");
         String newRefreshToken = this.tokenService.generateToken(identificatorFromToken, "refresh");
         Cookie accessTokenCookie = this.cookieService.generateCookie("ACCESS_TOKEN", accessToken, true, 0);
@@ -411,36 +431,68 @@ public class UserService {
         }
     }
 
-    public ResponseEntity<?> sendNewTransfer(String encryptedTransferDto) {
+    public ResponseEntity<?> sendNewTransfer(HttpServletRequest httpServletRequest, TransferDto transferDto) {
         try {
-            String decryptedTransferDto = this.cryptoService.decryptData(encryptedTransferDto);
-            decryptedTransferDto = decryptedTransferDto.replace("\\", "\"");
-            JsonNode jsonNode = this.objectMapper.readTree(decryptedTransferDto);
-            String senderAccountNumber = jsonNode.get("senderAccountNumber").asText();
-            String receiverAccountNumber = jsonNode.get("receiverAccountNumber").asText();
-            String transferTitle = jsonNode.get("transferTitle").asText();
-            Float transferAmount = Float.valueOf(jsonNode.get("transferAmount").asText());
-            Account senderAccount = this.getUserAccountObject(senderAccountNumber);
-            Account receiverAccount = this.getUserAccountObject(receiverAccountNumber);
-            this.validateTransferCredentials(transferTitle, transferAmount, senderAccount);
-            this.updateSenderAccountBalance(senderAccount, transferTitle, transferAmount);
-            this.updateReceiverAccountBalance(receiverAccount, senderAccount, transferTitle, transferAmount);
+            String accessToken = this.cookieService.getCookieValue(httpServletRequest, "ACCESS_TOKEN");
+            String identificatorFromToken = this.tokenService.getIdentificatorFromToken(httpServletRequest,
+                    accessToken);
+            this.transferService.sendTransfer(transferDto, identificatorFromToken);
             return ResponseEntity.status(HttpStatus.OK).build();
+        } catch (ConcurrencyFailureException e) {
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    public ResponseEntity<?> queueNewTransfer(HttpServletRequest httpServletRequest, TransferDto transferDto) {
+        try {
+            String accessToken = this.cookieService.getCookieValue(httpServletRequest, "ACCESS_TOKEN");
+            String identificatorFromToken = this.tokenService.getIdentificatorFromToken(httpServletRequest,
+                    accessToken);
+            String transferId = this.transferPipelineService.submitTransfer(transferDto, identificatorFromToken);
+            if (transferId == null) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1")
+                        .build();
+            }
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(new EncryptedPayload(new TransferStatusDto(transferId, TransferStatus.PENDING)));
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
-    public ResponseEntity<?> editUserAccount(String encryptedUserObject, HttpServletRequest httpServletRequest) {
+    public ResponseEntity<?> getTransferStatus(HttpServletRequest httpServletRequest, String transferId) {
+        try {
+            String accessToken = this.cookieService.getCookieValue(httpServletRequest, "ACCESS_TOKEN");
+            String identificatorFromToken = this.tokenService.getIdentificatorFromToken(httpServletRequest,
+                    accessToken);
+            TransferStatus transferStatus = this.transferPipelineService.getTransferStatus(transferId,
+                    identificatorFromToken);
+            return transferStatus == null ? ResponseEntity.status(HttpStatus.NOT_FOUND).build()
+                    : ResponseEntity.status(HttpStatus.OK)
+                            .body(new EncryptedPayload(new TransferStatusDto(transferId, transferStatus)));
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    public ResponseEntity<?> editUserAccount(UserDto userDto, HttpServletRequest httpServletRequest) {
         try {
-            UserDto userDto = this.getUserDto(encryptedUserObject);
             User user = this.getUserFromToken(httpServletRequest);
+            String previousPassword = user.getPassword();
             this.setEditedUserCredentials(user, userDto);
             this.setNewUserPassword(user, userDto);
             this.setNewUserAvatar(user, userDto);
             this.validationService.validateEditedUserObject(user);
             this.userRepository.save(user);
+            if (!Objects.equals(previousPassword, user.getPassword())) {
+                this.userAuthService.evictUser(user.getId().toString());
+            }
             return ResponseEntity.status(HttpStatus.OK).build();
         } catch (Exception e) {
             e.printStackTrace();
@@ -492,66 +544,23 @@ public class UserService {
         }
     }
 
-    private Account getUserAccountObject(String accountNumber) throws Exception {
-        Optional<Account> account = this.accountRepository.findById(accountNumber);
-        if (account.isEmpty()) {
-            throw new Exception("Account not exists");
-        }
-        return account.get();
-    }
-
-    private void validateTransferCredentials(String transferTitle, Float transferAmount, Account senderAccount)
-            throws Exception {
-        boolean isTransferTitleValid = this.validationService.validateTransferTitle(transferTitle);
-        boolean isTransferAmountValid = this.validationService.validateTransferAmount(transferAmount, senderAccount);
-        if (isTransferTitleValid == false || isTransferAmountValid == false) {
-            throw new Exception("Trasfer credentials is invalid");
-        }
-    }
-
-    private void updateSenderAccountBalance(Account account, String transferTitle, Float transferAmount)
-            throws Exception {
-        Float newAccountBalance = account.getBalance() - transferAmount;
-        String transactionType = "outgoing";
-        account.setBalance(newAccountBalance);
-        this.saveTransaction(account, transactionType, transferTitle, transferAmount);
-        this.accountRepository.save(account);
-    }
-
-    private void updateReceiverAccountBalance(Account receiverAccount, Account senderAccount, String transferTitle,
-            Float transferAmount)
-            throws Exception {
-        transferAmount = this.transactionService.getRecalculatedAmount(senderAccount.getCurrency(),
-                receiverAccount.getCurrency(), transferAmount);
-        Float newAccountBalance = receiverAccount.getBalance() + transferAmount;
-        String transactionType = "incoming";
-        receiverAccount.setBalance(newAccountBalance);
-        this.saveTransaction(receiverAccount, transactionType, transferTitle, transferAmount);
-        this.accountRepository.save(receiverAccount);
-    }
-
-    private void saveTransaction(Account account, String transactionType, String transactionTitle,
-            Float transactionAmount) throws Exception {
-        TransactionCredentials transactionCredentials = new TransactionCredentials(account.getBalance(),
-                transactionAmount, "Inne", "blockade", transactionTitle, transactionType);
-        TransactionDto transactionDto = this.transactionService.getTransactionDto(account, transactionCredentials);
-        this.transactionService.saveNewTransaction(transactionDto);
-    }
-
-    private Account getUserAccountObject(String encryptedAccountDto, boolean isForLoggedUser) throws Exception {
-        String decryptedAccountDto = this.cryptoService.decryptData(encryptedAccountDto);
-        decryptedAccountDto = decryptedAccountDto.replace("\\", "\"");
-        AccountDto accountDto = objectMapper.readValue(decryptedAccountDto, AccountDto.class);
+    private Account getUserAccountObject(AccountDto accountDto, boolean isForLoggedUser) throws Exception {
         Account account = this.accountMapper.convertToAccount(accountDto);
         account.setUser(this.savedUserAccount);
         this.validationService.validateAccountObject(account);
         if (isForLoggedUser == false) {
-            account.setBalance(this.transactionService.getRecalculatedAmount(
-                    "PLN", account.getCurrency(), 1000.0f));
+            account.setBalance(this.transactionService.getRecalculatedAmount(OPENING_BALANCE, account.getCurrency())
+                    .getMinorUnits());
         }
         return account;
     }
 
+    private AccountDto getAccountDto(String encryptedAccountDto) throws Exception {
+        String decryptedAccountDto = this.cryptoService.decryptData(encryptedAccountDto);
+        decryptedAccountDto = decryptedAccountDto.replace("\\", "\"");
+        return objectMapper.readValue(decryptedAccountDto, AccountDto.class);
+    }
+
     private UserDto getUserDto(String encryptedUserDto) {
         try {
             String decryptedUserDto = this.cryptoService.decryptData(encryptedUserDto);
@@ -565,7 +574,7 @@ public class UserService {
 
     private User getUserFromToken(HttpServletRequest httpServletRequest) throws Exception {
         String accessToken = this.cookieService.getCookieValue(httpServletRequest, "ACCESS_TOKEN");
-        String identificatorFromToken = this.tokenService.getIdentificatorFromToken(accessToken);
+        String identificatorFromToken = this.tokenService.getIdentificatorFromToken(httpServletRequest, accessToken);
         Optional<User> retrievedUser = this.userRepository.findById(Long.valueOf(identificatorFromToken));
         if (retrievedUser.isEmpty()) {
             throw new Exception("User was not found.");
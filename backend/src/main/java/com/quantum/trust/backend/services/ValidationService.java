@@ -1,5 +1,7 @@
 package com.quantum.trust.backend.services;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
@@ -13,11 +15,13 @@ import java.util.regex.Pattern;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.quantum.trust.backend.model.Fees;
 import com.quantum.trust.backend.model.Limits;
+import com.quantum.trust.backend.model.Money;
 import com.quantum.trust.backend.model.entities.Account;
 import com.quantum.trust.backend.model.entities.Card;
+import com.quantum.trust.backend.model.entities.CardFees;
+import com.quantum.trust.backend.model.entities.CardLimits;
 import com.quantum.trust.backend.model.entities.Deposit;
 import com.quantum.trust.backend.model.entities.User;
 
@@ -34,8 +38,6 @@ import com.quantum.trust.backend.model.entities.User;
  *                             encryption and decryption.
  * @param {TransactionService} transactionService - The service for handling
  *                             transactions.
- * @param {ObjectMapper}       objectMapper - The object mapper for JSON
- *                             processing.
  *
  * @method validateUserObject - Validates a User object.
  * @param {User} user - The User object to validate.
@@ -73,6 +75,11 @@ import com.quantum.trust.backend.model.entities.User;
  * @param {String} fromCurrency - The currency to convert from.
  * @returns {Integer} - The recalculated monthly fee.
  *
+ * @method getValidCardFees - Retrieves the fees of the card type in minor units
+ *         of the currency of the account of a card.
+ * @param {Card} card - The Card object.
+ * @returns {CardFees} - The valid fees of the card.
+ *
  * @method validateImage - Validates an image file.
  * @param {String} fileName - The name of the image file.
  * @param {long}   fileSize - The size of the image file.
@@ -90,8 +97,10 @@ import com.quantum.trust.backend.model.entities.User;
  * @param {String} title - The transfer title to validate.
  * @returns {boolean} - True if the transfer title is valid, false otherwise.
  *
- * @method validateTransferAmount - Validates a transfer amount.
- * @param {Float}   transferAmount - The transfer amount to validate.
+ * @method validateTransferAmount - Validates a transfer amount, which has to
+ *         be at least one major unit and covered by the balance.
+ * @param {long}    transferAmount - The transfer amount to validate in minor
+ *                  units of the sender account currency.
  * @param {Account} senderAccount - The sender's account.
  * @returns {boolean} - True if the transfer amount is valid, false otherwise.
  *
@@ -107,7 +116,8 @@ import com.quantum.trust.backend.model.entities.User;
  * @param {String} publisher - The card publisher to validate.
  * @returns {boolean} - True if the card publisher is valid, false otherwise.
  *
- * @method validateCardFees - Validates the fees for a card.
+ * @method validateCardFees - Validates the fees for a card, comparing them in
+ *         minor units with the fees of its type.
  * @param {Card} card - The Card object.
  * @returns {boolean} - True if the card fees are valid, false otherwise.
  * @throws {Exception} - If the card fees are invalid.
@@ -117,9 +127,20 @@ import com.quantum.trust.backend.model.entities.User;
  * @returns {boolean} - True if the card limits are valid, false otherwise.
  * @throws {Exception} - If the card limits are invalid.
  *
+ * @method getIsLimitValid - Validates a transaction limit of a card against
+ *         the minimum limit and the maximum limit of its type.
+ * @param {Card}  card - The Card object.
+ * @param {long}  validMinLimit - The minimum limit in minor units of the
+ *                account currency.
+ * @param {Float} validLimit - The maximum limit of the card type in PLN.
+ * @param {long}  limit - The limit of the card in minor units.
+ * @param {long}  maxLimit - The maximum limit stored with the card in minor
+ *                units of PLN.
+ * @returns {boolean} - True if the limit is valid, false otherwise.
+ *
  * @method validateCardExpirationDate - Validates the expiration date for a
  *         card.
- * @param {String} expirationDate - The expiration date to validate.
+ * @param {LocalDate} expirationDate - The expiration date to validate.
  * @returns {boolean} - True if the expiration date is valid, false otherwise.
  *
  * @method validateCardPin - Validates the PIN for a card.
@@ -151,6 +172,18 @@ import com.quantum.trust.backend.model.entities.User;
  * @param {Float} value - The value to round.
  * @returns {Integer} - The rounded value.
  *
+ * @method getRoundedMinorUnits - Rounds a float value to whole major units and
+ *         converts it into minor units of the currency.
+ * @param {Float}  value - The value to round.
+ * @param {String} currency - The currency of the value.
+ * @returns {long} - The rounded value in minor units.
+ *
+ * @method getMinorUnits - Converts whole major units into minor units of the
+ *         currency.
+ * @param {Integer} value - The value in major units.
+ * @param {String}  currency - The currency of the value.
+ * @returns {long} - The value in minor units.
+ *
  * @method validateDepositType - Validates the type for a deposit.
  * @param {String} type - The type to validate.
  * @returns {boolean} - True if the type is valid, false otherwise.
@@ -204,7 +237,8 @@ import com.quantum.trust.backend.model.entities.User;
  * @returns {boolean} - True if the currency is valid, false otherwise.
  *
  * @method validateAccountBalance - Validates an account balance.
- * @param {Float} accountBalance - The account balance to validate.
+ * @param {long} accountBalance - The account balance to validate in minor
+ *        units.
  * @returns {boolean} - True if the account balance is valid, false otherwise.
  *
  * @method validateAccountImage - Validates an account image.
@@ -216,20 +250,17 @@ public class ValidationService {
     private final Map<String, Limits> validLimits;
     private final CryptoService cryptoService;
     private final TransactionService transactionService;
-    private final ObjectMapper objectMapper;
 
     public final Map<String, Fees> validFees;
 
     @Autowired
-    public ValidationService(CryptoService cryptoService, TransactionService transactionService,
-            ObjectMapper objectMapper) {
+    public ValidationService(CryptoService cryptoService, TransactionService transactionService) {
         this.validFees = new HashMap<>();
         this.validLimits = new HashMap<>();
         this.initializeFeesMap();
         this.initializeLimitsMap();
         this.cryptoService = cryptoService;
         this.transactionService = transactionService;
-        this.objectMapper = objectMapper;
     }
 
     public void validateUserObject(User user) throws Exception {
@@ -324,6 +355,14 @@ public class ValidationService {
         return this.roundValue(recalculatedFee);
     }
 
+    public CardFees getValidCardFees(Card card) {
+        Fees validCardFees = this.validFees.get(card.getType());
+        String accountCurrency = card.getAccount().getCurrency();
+        return new CardFees(
+                this.getMinorUnits(this.getRecalculatedReleaseFee(card, validCardFees, "PLN"), accountCurrency),
+                this.getMinorUnits(this.getRecalculatedMonthlyFee(card, validCardFees, "PLN"), accountCurrency));
+    }
+
     public void validateImage(String fileName, long fileSize) throws Exception {
         List<String> allowedExtensions = Arrays.asList("webp", "ico", "png", "jpg", "jpeg");
         long maxSizeInBytes = 2 * 1024 * 1024;
@@ -358,8 +397,9 @@ public class ValidationService {
         return title.length() >= 10 && title.length() <= 50;
     }
 
-    public boolean validateTransferAmount(Float transferAmount, Account senderAccount) {
-        return transferAmount >= 1.0f && transferAmount <= senderAccount.getBalance();
+    public boolean validateTransferAmount(long transferAmount, Account senderAccount) {
+        long minimumAmount = Money.toMinorUnits(BigDecimal.ONE, senderAccount.getCurrency(), RoundingMode.UNNECESSARY);
+        return transferAmount >= minimumAmount && transferAmount <= senderAccount.getBalance();
     }
 
     public boolean validatePassword(String password) {
@@ -378,24 +418,13 @@ public class ValidationService {
     }
 
     private boolean validateCardFees(Card card) throws Exception {
-        Fees validCardFees = this.validFees.get(card.getType());
-        if (validCardFees == null) {
+        if (this.validFees.get(card.getType()) == null) {
             throw new Exception("Illegal card type.");
         }
-        String decryptedCardFees = this.cryptoService.decryptData(card.getFees());
-        decryptedCardFees = decryptedCardFees.replace("\\", "\"");
-        Fees cardFees = this.objectMapper.readValue(decryptedCardFees, Fees.class);
-        float cardReleaseFee = cardFees.getRelease();
-        float cardMonthlyFee = cardFees.getMonthly();
-        float validRecalculatedReleaseFee = this.getRecalculatedReleaseFee(card,
-                validCardFees, "PLN");
-        float validRecalculatedMonthlyFee = this.getRecalculatedMonthlyFee(card,
-                validCardFees, "PLN");
-        boolean isReleaseFeeValid = areFloatsEqual(validRecalculatedReleaseFee, cardReleaseFee,
-                0.01f);
-        boolean isMontlyFeeValid = areFloatsEqual(validRecalculatedMonthlyFee, cardMonthlyFee,
-                0.01f);
-        return isReleaseFeeValid && isMontlyFeeValid;
+        CardFees cardFees = card.getFees();
+        CardFees validCardFees = this.getValidCardFees(card);
+        return cardFees != null && cardFees.getReleaseFee() == validCardFees.getReleaseFee()
+                && cardFees.getMonthlyFee() == validCardFees.getMonthlyFee();
     }
 
     private boolean validateCardLimits(Card card) throws Exception {
@@ -403,60 +432,27 @@ public class ValidationService {
         if (validCardLimits == null) {
             throw new Exception("Illegal card type.");
         }
-        String decryptedCardLimits = this.cryptoService.decryptData(card.getLimits());
-        decryptedCardLimits = this.getAdjustedCardLimitsObject(decryptedCardLimits);
-        Limits cardLimits = objectMapper.readValue(decryptedCardLimits, Limits.class);
-        boolean isInternetLimitsValid = this.getIsInternetLimitsValid(card, validCardLimits, cardLimits);
-        boolean isCashLimitsValid = this.getIsCashLimitsValid(card, validCardLimits, cardLimits);
-        boolean isTransactionsCountValid = this.getIsCashTransactionsCountValid(validCardLimits, cardLimits)
-                && this.getIsInternetTransactionsCountValid(validCardLimits, cardLimits);
+        CardLimits cardLimits = card.getLimits();
+        if (cardLimits == null) {
+            return false;
+        }
+        long validMinLimit = this.getMinorUnits(this.getRecalculatedMinLimit(card), card.getAccount().getCurrency());
+        boolean isInternetLimitsValid = this.getIsLimitValid(card, validMinLimit,
+                validCardLimits.getInternetTransactions()[0], cardLimits.getInternetTransactionsLimit(),
+                cardLimits.getInternetTransactionsMaxLimit());
+        boolean isCashLimitsValid = this.getIsLimitValid(card, validMinLimit, validCardLimits.getCashTransactions()[0],
+                cardLimits.getCashTransactionsLimit(), cardLimits.getCashTransactionsMaxLimit());
+        boolean isTransactionsCountValid = cardLimits.getInternetTransactionsCount() == Math
+                .round(validCardLimits.getInternetTransactions()[1])
+                && cardLimits.getCashTransactionsCount() == Math.round(validCardLimits.getCashTransactions()[1]);
         return isInternetLimitsValid && isCashLimitsValid && isTransactionsCountValid;
     }
 
-    private String getAdjustedCardLimitsObject(String decryptedCardLimits) {
-        decryptedCardLimits = decryptedCardLimits.replaceFirst("\\[", "");
-        decryptedCardLimits = decryptedCardLimits.replaceFirst("\\](?!.*\\])", "");
-        decryptedCardLimits = decryptedCardLimits.replaceFirst("internetTransactions", "\"internetTransactions\"");
-        decryptedCardLimits = decryptedCardLimits.replaceFirst("cashTransactions", "\"cashTransactions\"");
-        return decryptedCardLimits;
-    }
-
-    private boolean getIsInternetLimitsValid(Card card, Limits validCardLimits, Limits cardLimits) {
-        Integer validMinLimit = this.getRecalculatedMinLimit(card);
-        Integer validMaxLimit = this.getRecalculatedMaxLimit(card, validCardLimits.getInternetTransactions()[0]);
-        boolean isLimitHigherThanMin = cardLimits.getInternetTransactions()[0] >= validMinLimit;
-        boolean isLimitLowerThanMax = cardLimits.getInternetTransactions()[0] <= validMaxLimit;
-        Float cardMaxLimit = Float.valueOf(cardLimits.getInternetTransactions()[2]);
-        Float validCardMaxLimit = Float.valueOf(validCardLimits.getInternetTransactions()[0]);
-        boolean isMaximumLimitEqualValidLimit = areFloatsEqual(cardMaxLimit, validCardMaxLimit, 0.0001f);
-        return isLimitHigherThanMin && isLimitLowerThanMax && isMaximumLimitEqualValidLimit;
-    }
-
-    private boolean getIsCashLimitsValid(Card card, Limits validCardLimits, Limits cardLimits) {
-        Integer validMinLimit = this.getRecalculatedMinLimit(card);
-        Integer validMaxLimit = this.getRecalculatedMaxLimit(card, validCardLimits.getCashTransactions()[0]);
-        boolean isLimitHigherThanMin = cardLimits.getCashTransactions()[0] >= validMinLimit;
-        boolean isLimitLowerThanMax = cardLimits.getCashTransactions()[0] <= validMaxLimit;
-        Float cardMaxLimit = Float.valueOf(cardLimits.getCashTransactions()[2]);
-        Float validCardMaxLimit = Float.valueOf(validCardLimits.getCashTransactions()[0]);
-        boolean isMaximumLimitEqualValidLimit = areFloatsEqual(cardMaxLimit, validCardMaxLimit, 0.0001f);
-        return isLimitHigherThanMin && isLimitLowerThanMax && isMaximumLimitEqualValidLimit;
-    }
-
-    private boolean getIsInternetTransactionsCountValid(Limits validCardLimits, Limits cardLimits) {
-        Float validCount = Float.valueOf(validCardLimits.getInternetTransactions()[1]);
-        Float count = Float.valueOf(cardLimits.getInternetTransactions()[1]);
-        return areFloatsEqual(validCount, count, 0.0001f);
-    }
-
-    private boolean getIsCashTransactionsCountValid(Limits validCardLimits, Limits cardLimits) {
-        Float validCount = Float.valueOf(validCardLimits.getCashTransactions()[1]);
-        Float count = Float.valueOf(cardLimits.getCashTransactions()[1]);
-        return areFloatsEqual(validCount, count, 0.0001f);
-    }
-
-    private boolean areFloatsEqual(float a, float b, float epsilon) {
-        return Math.abs(a - b) < epsilon;
+    private boolean getIsLimitValid(Card card, long validMinLimit, Float validLimit, long limit, long maxLimit) {
+        long validMaxLimit = this.getMinorUnits(this.getRecalculatedMaxLimit(card, validLimit),
+                card.getAccount().getCurrency());
+        boolean isMaximumLimitEqualValidLimit = maxLimit == this.getRoundedMinorUnits(validLimit, "PLN");
+        return limit >= validMinLimit && limit <= validMaxLimit && isMaximumLimitEqualValidLimit;
     }
 
     private Integer getRecalculatedMinLimit(Card card) {
@@ -471,13 +467,8 @@ public class ValidationService {
         return this.roundValue(recalculatedLimit);
     }
 
-    private boolean validateCardExpirationDate(String expirationDate) {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd-MM-yyyy");
-        LocalDate today = LocalDate.now();
-        LocalDate dateToValidate = LocalDate.parse(expirationDate, formatter);
-        int currentYear = today.getYear();
-        int yearToValidate = dateToValidate.getYear();
-        return yearToValidate == currentYear + 4;
+    private boolean validateCardExpirationDate(LocalDate expirationDate) {
+        return expirationDate != null && expirationDate.getYear() == LocalDate.now().getYear() + 4;
     }
 
     private boolean validateCardPin(String encryptedPin) throws Exception {
@@ -508,10 +499,11 @@ public class ValidationService {
     }
 
     private boolean validateDepositBalance(Deposit deposit) {
-        Float minimumBalance = this.transactionService.getRecalculatedAmount("PLN", deposit.getCurrency(), 100);
-        Float maximumBalance = this.transactionService.getRecalculatedAmount("PLN", deposit.getCurrency(), 10000);
-        minimumBalance = (float) this.roundValue(minimumBalance);
-        maximumBalance = (float) this.roundValue(maximumBalance);
+        String currency = deposit.getCurrency();
+        long minimumBalance = this.getRoundedMinorUnits(
+                this.transactionService.getRecalculatedAmount("PLN", currency, 100), currency);
+        long maximumBalance = this.getRoundedMinorUnits(
+                this.transactionService.getRecalculatedAmount("PLN", currency, 10000), currency);
         return deposit.getBalance() >= minimumBalance && deposit.getBalance() <= maximumBalance;
     }
 
@@ -522,6 +514,14 @@ public class ValidationService {
         return Math.round(value);
     }
 
+    private long getRoundedMinorUnits(Float value, String currency) {
+        return this.getMinorUnits(this.roundValue(value), currency);
+    }
+
+    private long getMinorUnits(Integer value, String currency) {
+        return Money.toMinorUnits(BigDecimal.valueOf(value), currency, RoundingMode.UNNECESSARY);
+    }
+
     private boolean validateDepositType(String type) {
         List<String> allowedTypes = Arrays.asList("timely", "family", "mobile", "progressive");
         return allowedTypes.contains(type);
@@ -598,8 +598,8 @@ public class ValidationService {
         return currency != null && validCurrencies.contains(currency);
     }
 
-    private boolean validateAccountBalance(Float accountBalance) {
-        return accountBalance == 0.00f;
+    private boolean validateAccountBalance(long accountBalance) {
+        return accountBalance == 0L;
     }
 
     private boolean validateAccountImage(String accountImage) {
@@ -273,7 +273,7 @@ public class VerificationService {
             JsonNode jsonNode = this.objectMapper.readTree(encryptedOperation);
             String decryptedOperation = this.cryptoService.decryptData(jsonNode.get("encryptedData").asText());
             String token = this.cookieService.getCookieValue(httpServletRequest, "ACCESS_TOKEN");
-            String identificatorFromToken = this.tokenService.getIdentificatorFromToken(token);
+            String identificatorFromToken = this.tokenService.getIdentificatorFromToken(httpServletRequest, token);
             Optional<User> user = this.userRepository.findById(Long.valueOf(identificatorFromToken));
             if (user.isPresent()) {
                 String decryptedEmail = this.cryptoService.decryptData(user.get().getEmailAddress());
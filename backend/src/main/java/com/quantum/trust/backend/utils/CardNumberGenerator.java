@@ -1,31 +1,185 @@
 package com.quantum.trust.backend.utils;
 
 import java.io.Serializable;
-import java.util.Random;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
+import org.hibernate.FlushMode;
 import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerationException;
 import org.hibernate.id.IdentifierGenerator;
 
+import com.quantum.trust.backend.model.entities.Card;
+
 /**
  * @class CardNumberGenerator
- * @description Utility class for generating random card numbers.
+ * @description Utility class allocating card numbers. A card number is the
+ *              six digit BIN of the publisher of the card, a nine digit
+ *              account identifier and a Luhn check digit. The account
+ *              identifiers are reserved from the card_number_block_sequence
+ *              database sequence in blocks of 1000 and handed out from memory
+ *              with an atomic counter, so only one in a thousand numbers
+ *              touches the database and no two numbers repeat across
+ *              instances. The numbers of a new block already taken by cards
+ *              issued before the allocator are skipped, so inserts never
+ *              collide on the primary key. A publisher moves on to its next
+ *              BIN once the blocks of the previous one are used up.
  *
  * @implements IdentifierGenerator
  *
- * @method generate - Generates a random 16-digit card number.
+ * @method generate - Allocates the next card number of the publisher of the
+ *         card.
  * @param {SharedSessionContractImplementor} session - The Hibernate session.
- * @param {Object}                           object - The entity for which the
+ * @param {Object}                           object - The card for which the
  *                                           ID is being generated.
- * @returns {Serializable} - The generated card number.
+ * @returns {Serializable} - The allocated card number.
+ * @throws {IdentifierGenerationException} - If the publisher is unknown or
+ *         its BINs are used up.
+ *
+ * @method allocate - Allocates the next card number of a publisher from the
+ *         current block, reserving a new block when it is used up.
+ * @param {String}      publisher - The publisher of the card.
+ * @param {BlockSource} blockSource - The source of the blocks.
+ * @returns {String} - The allocated card number.
+ *
+ * @method getLuhnCheckDigit - Computes the Luhn check digit of a number.
+ * @param {CharSequence} digits - The digits without the check digit.
+ * @returns {int} - The check digit.
  */
 public class CardNumberGenerator implements IdentifierGenerator {
+    static final String SEQUENCE_NAME = "card_number_block_sequence";
+    static final int BLOCK_SIZE = 1000;
+    static final long BLOCKS_PER_BIN = 1_000_000_000L / BLOCK_SIZE;
+    static final Map<String, List<String>> BIN_RANGES = Map.of(
+            "Visa", List.of("427310", "427311", "427312"),
+            "Mastercard", List.of("535120", "535121", "535122"));
+
+    private final Map<String, AtomicReference<Block>> blocks = new ConcurrentHashMap<>();
+
     @Override
     public Serializable generate(SharedSessionContractImplementor session, Object object) {
-        Random random = new Random();
-        StringBuilder cardNumber = new StringBuilder();
-        for (int i = 0; i < 16; i++) {
-            cardNumber.append(random.nextInt(10));
+        if (!(object instanceof Card card)) {
+            throw new IdentifierGenerationException("Card numbers can only be generated for cards");
+        }
+        return this.allocate(card.getPublisher(), new SessionBlockSource(session));
+    }
+
+    String allocate(String publisher, BlockSource blockSource) {
+        List<String> bins = publisher == null ? null : BIN_RANGES.get(publisher);
+        if (bins == null) {
+            throw new IdentifierGenerationException("Card publisher is invalid");
+        }
+        AtomicReference<Block> currentBlock = this.blocks.computeIfAbsent(publisher,
+                key -> new AtomicReference<>());
+        while (true) {
+            Block block = currentBlock.get();
+            if (block != null) {
+                String cardNumber = block.next();
+                if (cardNumber != null) {
+                    return cardNumber;
+                }
+            }
+            synchronized (currentBlock) {
+                if (currentBlock.get() == block) {
+                    currentBlock.set(reserveBlock(bins, blockSource));
+                }
+            }
+        }
+    }
+
+    static int getLuhnCheckDigit(CharSequence digits) {
+        int sum = 0;
+        boolean isDoubled = true;
+        for (int i = digits.length() - 1; i >= 0; i--) {
+            int digit = digits.charAt(i) - '0';
+            if (isDoubled) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            isDoubled = !isDoubled;
+        }
+        return (10 - sum % 10) % 10;
+    }
+
+    private static Block reserveBlock(List<String> bins, BlockSource blockSource) {
+        long blockIndex = blockSource.nextBlockIndex();
+        if (blockIndex < 0 || blockIndex / BLOCKS_PER_BIN >= bins.size()) {
+            throw new IdentifierGenerationException("Card numbers of the publisher are used up");
+        }
+        String bin = bins.get((int) (blockIndex / BLOCKS_PER_BIN));
+        long firstAccountIdentifier = blockIndex % BLOCKS_PER_BIN * BLOCK_SIZE;
+        Set<String> takenCardNumbers = new HashSet<>(blockSource.findTakenCardNumbers(
+                String.format("%s%09d0", bin, firstAccountIdentifier),
+                String.format("%s%09d9", bin, firstAccountIdentifier + BLOCK_SIZE - 1)));
+        return new Block(bin, firstAccountIdentifier, takenCardNumbers);
+    }
+
+    interface BlockSource {
+        long nextBlockIndex();
+
+        List<String> findTakenCardNumbers(String fromCardNumber, String toCardNumber);
+    }
+
+    private static final class SessionBlockSource implements BlockSource {
+        private final SharedSessionContractImplementor session;
+
+        private SessionBlockSource(SharedSessionContractImplementor session) {
+            this.session = session;
+        }
+
+        @Override
+        public long nextBlockIndex() {
+            String sql = this.session.getJdbcServices().getDialect().getSequenceSupport()
+                    .getSequenceNextValString(SEQUENCE_NAME);
+            return ((Number) this.session.createNativeQuery(sql).getSingleResult()).longValue();
+        }
+
+        @Override
+        public List<String> findTakenCardNumbers(String fromCardNumber, String toCardNumber) {
+            return this.session
+                    .createNativeQuery("SELECT id FROM cards WHERE id BETWEEN :fromCardNumber AND :toCardNumber",
+                            String.class)
+                    .setParameter("fromCardNumber", fromCardNumber)
+                    .setParameter("toCardNumber", toCardNumber)
+                    .setHibernateFlushMode(FlushMode.MANUAL)
+                    .getResultList();
+        }
+    }
+
+    private static final class Block {
+        private final String bin;
+        private final long firstAccountIdentifier;
+        private final Set<String> takenCardNumbers;
+        private final AtomicInteger nextOffset = new AtomicInteger();
+
+        private Block(String bin, long firstAccountIdentifier, Set<String> takenCardNumbers) {
+            this.bin = bin;
+            this.firstAccountIdentifier = firstAccountIdentifier;
+            this.takenCardNumbers = takenCardNumbers;
+        }
+
+        private String next() {
+            while (true) {
+                int offset = this.nextOffset.getAndIncrement();
+                if (offset >= BLOCK_SIZE) {
+                    return null;
+                }
+                String accountIdentifier = Long.toString(this.firstAccountIdentifier + offset);
+                StringBuilder cardNumber = new StringBuilder(16).append(this.bin)
+                        .append("000000000", accountIdentifier.length(), 9).append(accountIdentifier);
+                String number = cardNumber.append(getLuhnCheckDigit(cardNumber)).toString();
+                if (!this.takenCardNumbers.contains(number)) {
+                    return number;
+                }
+            }
         }
-        return cardNumber.toString();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,168 @@
+package com.quantum.trust.backend.utils;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @class ExpiringLruCache
+ * @description Thread safe cache holding about the given number of entries.
+ *              The entries live in a ConcurrentHashMap and carry their own
+ *              expiration instant and access stamp, so reads take no lock
+ *              and readers of different keys never wait for each other.
+ *              Expired entries are dropped when they are read. Every key also
+ *              holds a slot of a key list, so eviction can pick entries at
+ *              random positions. Once the cache is full a put of a new key
+ *              samples a few random slots and evicts an expired entry or else
+ *              the least recently used one of the sample, so the eviction is
+ *              an approximation of LRU. Changes of the key set are serialized,
+ *              reads are not.
+ *
+ * @constructor
+ * @param {int}   maxSize - The maximum number of entries.
+ * @param {Clock} clock - The clock deciding whether an entry has expired.
+ *
+ * @method get - Retrieves the value stored under the given key.
+ * @param {K} key - The key.
+ * @returns {V} - The value or null if it is missing or has expired.
+ *
+ * @method put - Stores the value under the given key until the given instant.
+ *         Values which have already expired are not stored.
+ * @param {K}    key - The key.
+ * @param {V}    value - The value.
+ * @param {long} expiresAtMillis - The expiration instant in epoch millis.
+ *
+ * @method invalidate - Removes the value stored under the given key.
+ * @param {K} key - The key.
+ *
+ * @method clear - Removes all values.
+ *
+ * @method size - Retrieves the number of stored entries, including the expired
+ *         ones which were not read yet.
+ * @returns {int} - The number of entries.
+ *
+ * @method evict - Evicts one entry sampled from random slots to make room
+ *         for a new key. Small caches compare all of their entries.
+ *
+ * @method remove - Removes the entry and frees its slot by moving the key of
+ *         the last slot into it.
+ * @param {K}        key - The key.
+ * @param {Entry<V>} entry - The entry expected under the key.
+ */
+public class ExpiringLruCache<K, V> {
+    static final int EVICTION_SAMPLE_SIZE = 8;
+
+    private final int maxSize;
+    private final Clock clock;
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final List<K> slots = new ArrayList<>();
+    private final AtomicLong accessTicks = new AtomicLong();
+
+    public ExpiringLruCache(int maxSize) {
+        this(maxSize, Clock.systemUTC());
+    }
+
+    public ExpiringLruCache(int maxSize, Clock clock) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Cache size must be positive");
+        }
+        this.maxSize = maxSize;
+        this.clock = clock;
+    }
+
+    public V get(K key) {
+        Entry<V> entry = this.entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAtMillis <= this.clock.millis()) {
+            this.remove(key, entry);
+            return null;
+        }
+        entry.accessTick = this.accessTicks.incrementAndGet();
+        return entry.value;
+    }
+
+    public synchronized void put(K key, V value, long expiresAtMillis) {
+        if (expiresAtMillis <= this.clock.millis()) {
+            return;
+        }
+        Entry<V> storedEntry = this.entries.get(key);
+        if (storedEntry == null) {
+            if (this.slots.size() >= this.maxSize) {
+                this.evict();
+            }
+            this.slots.add(key);
+        }
+        int slot = storedEntry == null ? this.slots.size() - 1 : storedEntry.slot;
+        this.entries.put(key, new Entry<>(value, expiresAtMillis, this.accessTicks.incrementAndGet(), slot));
+    }
+
+    public void invalidate(K key) {
+        Entry<V> entry = this.entries.get(key);
+        if (entry != null) {
+            this.remove(key, entry);
+        }
+    }
+
+    public synchronized void clear() {
+        this.entries.clear();
+        this.slots.clear();
+    }
+
+    public int size() {
+        return this.entries.size();
+    }
+
+    private void evict() {
+        long now = this.clock.millis();
+        K victimKey = null;
+        Entry<V> victim = null;
+        int slotCount = this.slots.size();
+        boolean isSampled = slotCount > EVICTION_SAMPLE_SIZE;
+        for (int i = 0; i < Math.min(slotCount, EVICTION_SAMPLE_SIZE); i++) {
+            K candidateKey = this.slots.get(isSampled ? ThreadLocalRandom.current().nextInt(slotCount) : i);
+            Entry<V> candidate = this.entries.get(candidateKey);
+            if (candidate.expiresAtMillis <= now) {
+                victimKey = candidateKey;
+                victim = candidate;
+                break;
+            }
+            if (victim == null || candidate.accessTick < victim.accessTick) {
+                victimKey = candidateKey;
+                victim = candidate;
+            }
+        }
+        this.remove(victimKey, victim);
+    }
+
+    private synchronized void remove(K key, Entry<V> entry) {
+        if (this.entries.get(key) != entry) {
+            return;
+        }
+        this.entries.remove(key);
+        K lastKey = this.slots.remove(this.slots.size() - 1);
+        if (entry.slot < this.slots.size()) {
+            this.slots.set(entry.slot, lastKey);
+            this.entries.get(lastKey).slot = entry.slot;
+        }
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long expiresAtMillis;
+        private volatile long accessTick;
+        private int slot;
+
+        private Entry(V value, long expiresAtMillis, long accessTick, int slot) {
+            this.value = value;
+            this.expiresAtMillis = expiresAtMillis;
+            this.accessTick = accessTick;
+            this.slot = slot;
+        }
+    }
+}
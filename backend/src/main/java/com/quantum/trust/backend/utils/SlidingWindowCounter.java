@@ -0,0 +1,171 @@
+package com.quantum.trust.backend.utils;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * @class SlidingWindowCounter
+ * @description Lock free counter of amounts and events within a sliding time
+ *              window. The window is split into buckets of equal length kept
+ *              in a ring, so the sums cover the current bucket and the ones
+ *              before it which are still in the window. The ring is immutable
+ *              and replaced with compare-and-set, so a check against the
+ *              limits and the reservation it allows happen atomically without
+ *              a lock.
+ *
+ * @constructor
+ * @param {int}  bucketCount - The number of buckets of the window.
+ * @param {long} bucketMillis - The length of a bucket in millis.
+ *
+ * @method tryAdd - Adds an amount as one event at the given instant if the
+ *         sums of the window stay within the limits.
+ * @param {long} amount - The amount.
+ * @param {long} amountLimit - The highest allowed sum of amounts.
+ * @param {int}  countLimit - The highest allowed number of events.
+ * @param {long} nowMillis - The instant in epoch millis.
+ * @returns {boolean} - True if the amount was added, false if it would exceed
+ *          a limit.
+ *
+ * @method add - Adds an amount as one event at the given instant without
+ *         checking the limits. Instants outside the window are skipped.
+ * @param {long} amount - The amount.
+ * @param {long} timestampMillis - The instant of the event in epoch millis.
+ * @param {long} nowMillis - The current instant in epoch millis.
+ *
+ * @method remove - Removes an amount added as one event at the given instant,
+ *         unless its bucket has already left the window.
+ * @param {long} amount - The amount.
+ * @param {long} timestampMillis - The instant of the event in epoch millis.
+ * @param {long} nowMillis - The current instant in epoch millis.
+ *
+ * @method getAmount - Retrieves the sum of amounts within the window.
+ * @param {long} nowMillis - The current instant in epoch millis.
+ * @returns {long} - The sum of amounts.
+ *
+ * @method getCount - Retrieves the number of events within the window.
+ * @param {long} nowMillis - The current instant in epoch millis.
+ * @returns {int} - The number of events.
+ */
+public class SlidingWindowCounter {
+    private final int bucketCount;
+    private final long bucketMillis;
+    private final AtomicReference<Window> window;
+
+    public SlidingWindowCounter(int bucketCount, long bucketMillis) {
+        if (bucketCount < 1 || bucketMillis < 1) {
+            throw new IllegalArgumentException("Window sizes must be positive");
+        }
+        this.bucketCount = bucketCount;
+        this.bucketMillis = bucketMillis;
+        this.window = new AtomicReference<>(new Window(bucketCount));
+    }
+
+    public boolean tryAdd(long amount, long amountLimit, int countLimit, long nowMillis) {
+        long bucketIndex = nowMillis / this.bucketMillis;
+        while (true) {
+            Window current = this.window.get();
+            if (Math.addExact(current.getAmount(bucketIndex), amount) > amountLimit
+                    || current.getCount(bucketIndex) + 1 > countLimit) {
+                return false;
+            }
+            if (this.window.compareAndSet(current, current.plus(bucketIndex, amount, 1))) {
+                return true;
+            }
+        }
+    }
+
+    public void add(long amount, long timestampMillis, long nowMillis) {
+        this.update(amount, 1, timestampMillis, nowMillis);
+    }
+
+    public void remove(long amount, long timestampMillis, long nowMillis) {
+        this.update(-amount, -1, timestampMillis, nowMillis);
+    }
+
+    public long getAmount(long nowMillis) {
+        return this.window.get().getAmount(nowMillis / this.bucketMillis);
+    }
+
+    public int getCount(long nowMillis) {
+        return this.window.get().getCount(nowMillis / this.bucketMillis);
+    }
+
+    private void update(long amount, int count, long timestampMillis, long nowMillis) {
+        long bucketIndex = timestampMillis / this.bucketMillis;
+        long currentBucketIndex = nowMillis / this.bucketMillis;
+        if (bucketIndex > currentBucketIndex || bucketIndex <= currentBucketIndex - this.bucketCount) {
+            return;
+        }
+        while (true) {
+            Window current = this.window.get();
+            if (count < 0 && current.bucketIndexes[(int) (bucketIndex % this.bucketCount)] != bucketIndex) {
+                return;
+            }
+            if (this.window.compareAndSet(current, current.plus(bucketIndex, amount, count))) {
+                return;
+            }
+        }
+    }
+
+    private static final class Window {
+        private final long[] bucketIndexes;
+        private final long[] amounts;
+        private final int[] counts;
+
+        private Window(int bucketCount) {
+            this.bucketIndexes = new long[bucketCount];
+            this.amounts = new long[bucketCount];
+            this.counts = new int[bucketCount];
+            Arrays.fill(this.bucketIndexes, Long.MIN_VALUE);
+        }
+
+        private Window(long[] bucketIndexes, long[] amounts, int[] counts) {
+            this.bucketIndexes = bucketIndexes;
+            this.amounts = amounts;
+            this.counts = counts;
+        }
+
+        private long getAmount(long currentBucketIndex) {
+            long amount = 0L;
+            for (int i = 0; i < this.bucketIndexes.length; i++) {
+                if (this.isLive(i, currentBucketIndex)) {
+                    amount = Math.addExact(amount, this.amounts[i]);
+                }
+            }
+            return amount;
+        }
+
+        private int getCount(long currentBucketIndex) {
+            int count = 0;
+            for (int i = 0; i < this.bucketIndexes.length; i++) {
+                if (this.isLive(i, currentBucketIndex)) {
+                    count += this.counts[i];
+                }
+            }
+            return count;
+        }
+
+        private boolean isLive(int slot, long currentBucketIndex) {
+            long bucketIndex = this.bucketIndexes[slot];
+            return bucketIndex <= currentBucketIndex && bucketIndex > currentBucketIndex - this.bucketIndexes.length;
+        }
+
+        private Window plus(long bucketIndex, long amount, int count) {
+            int slot = (int) (bucketIndex % this.bucketIndexes.length);
+            if (this.bucketIndexes[slot] > bucketIndex) {
+                return this;
+            }
+            long[] bucketIndexes = this.bucketIndexes.clone();
+            long[] amounts = this.amounts.clone();
+            int[] counts = this.counts.clone();
+            if (bucketIndexes[slot] != bucketIndex) {
+                bucketIndexes[slot] = bucketIndex;
+                amounts[slot] = 0L;
+                counts[slot] = 0;
+            }
+            amounts[slot] = Math.addExact(amounts[slot], amount);
+            counts[slot] += count;
+            return new Window(bucketIndexes, amounts, counts);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.quantum.trust.backend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.stereotype.Component;
+
+import com.quantum.trust.backend.services.ConcurrencyLimitService;
+import com.quantum.trust.backend.services.TokenBucketService.EndpointGroup;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+
+public class ConcurrencyLimitFilterTest {
+
+    @Mock
+    private FilterChain filterChain;
+
+    private ConcurrencyLimitService concurrencyLimitService;
+    private ConcurrencyLimitFilter concurrencyLimitFilter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        concurrencyLimitService = new ConcurrencyLimitService(new MockEnvironment()
+                .withProperty("concurrency-limit.reads.max-limit", "1"));
+        concurrencyLimitFilter = new ConcurrencyLimitFilter(concurrencyLimitService);
+        request = new MockHttpServletRequest("GET", "/api/user/all-accounts");
+        response = new MockHttpServletResponse();
+    }
+
+    @Test
+    public void testDoFilterInternal_ShouldPassAdmittedRequestAndReleasePermit() throws Exception {
+        concurrencyLimitFilter.doFilterInternal(request, response, filterChain);
+
+        verify(filterChain).doFilter(request, response);
+        assertEquals(200, response.getStatus());
+        assertEquals(0, concurrencyLimitService.getInFlight(EndpointGroup.READS));
+    }
+
+    @Test
+    public void testDoFilterInternal_ShouldShedRequestAboveLimit() throws Exception {
+        MockHttpServletResponse shedResponse = new MockHttpServletResponse();
+        doAnswer(invocation -> {
+            concurrencyLimitFilter.doFilterInternal(new MockHttpServletRequest("GET", "/api/cards/user/all"),
+                    shedResponse, filterChain);
+            return null;
+        }).when(filterChain).doFilter(request, response);
+
+        concurrencyLimitFilter.doFilterInternal(request, response, filterChain);
+
+        assertEquals(503, shedResponse.getStatus());
+        assertEquals("1", shedResponse.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals("Service is overloaded. Try again later.", shedResponse.getContentAsString());
+        assertEquals(1, concurrencyLimitService.getShedRequests(EndpointGroup.READS));
+        assertEquals(0, concurrencyLimitService.getInFlight(EndpointGroup.READS));
+    }
+
+    @Test
+    public void testDoFilterInternal_ShouldNotShedOtherEndpointGroups() throws Exception {
+        MockHttpServletResponse writeResponse = new MockHttpServletResponse();
+        doAnswer(invocation -> {
+            concurrencyLimitFilter.doFilterInternal(new MockHttpServletRequest("PATCH", "/api/cards/edit"),
+                    writeResponse, filterChain);
+            return null;
+        }).when(filterChain).doFilter(request, response);
+
+        concurrencyLimitFilter.doFilterInternal(request, response, filterChain);
+
+        assertEquals(200, writeResponse.getStatus());
+        assertEquals(0, concurrencyLimitService.getShedRequests(EndpointGroup.WRITES));
+    }
+
+    @Test
+    public void testDoFilterInternal_ShouldReleasePermitWhenChainThrows() throws Exception {
+        doThrow(new ServletException("failure")).when(filterChain).doFilter(request, response);
+
+        assertThrows(ServletException.class,
+                () -> concurrencyLimitFilter.doFilterInternal(request, response, filterChain));
+
+        assertEquals(0, concurrencyLimitService.getInFlight(EndpointGroup.READS));
+    }
+
+    @Test
+    public void testDoFilterInternal_ShouldNotCallChainWhenShed() throws Exception {
+        ConcurrencyLimitService mockedService = mock(ConcurrencyLimitService.class);
+        when(mockedService.tryAcquire(any())).thenReturn(null);
+        when(mockedService.getRetryAfterSeconds(any())).thenReturn(3L);
+
+        new ConcurrencyLimitFilter(mockedService).doFilterInternal(request, response, filterChain);
+
+        verify(filterChain, never()).doFilter(any(), any());
+        assertEquals(503, response.getStatus());
+        assertEquals("3", response.getHeader(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    public void testDoFilter_ShouldTakeOnePermitPerRequest() throws Exception {
+        ConcurrencyLimitService spiedService = spy(concurrencyLimitService);
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(spiedService);
+        FilterChain innerChain = mock(FilterChain.class);
+        doAnswer(invocation -> {
+            assertEquals(1, spiedService.getInFlight(EndpointGroup.READS));
+            filter.doFilter(request, response, innerChain);
+            return null;
+        }).when(filterChain).doFilter(request, response);
+
+        filter.doFilter(request, response, filterChain);
+
+        verify(spiedService, times(1)).tryAcquire(request);
+        verify(innerChain).doFilter(request, response);
+        assertEquals(0, spiedService.getInFlight(EndpointGroup.READS));
+        assertFalse(ConcurrencyLimitFilter.class.isAnnotationPresent(Component.class));
+    }
+}
@@ -0,0 +1,101 @@
+package com.quantum.trust.backend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quantum.trust.backend.annotations.EncryptedBody;
+import com.quantum.trust.backend.model.dto.AccountDto;
+import com.quantum.trust.backend.model.dto.TransferDto;
+import com.quantum.trust.backend.services.CryptoService;
+
+public class EncryptedBodyArgumentResolverTest {
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private CryptoService cryptoService;
+
+    private EncryptedBodyArgumentResolver resolver;
+
+    @BeforeEach
+    public void setUp() {
+        cryptoService = new CryptoService(null);
+        ReflectionTestUtils.setField(cryptoService, "encryptKey", "/urpXJY0b3CFG7Y9ZvKvMcAZCS9cRnIF54C3982anI8=");
+        resolver = new EncryptedBodyArgumentResolver(cryptoService, objectMapper);
+    }
+
+    @Test
+    public void testSupportsParameter() throws Exception {
+        assertTrue(resolver.supportsParameter(getParameter("handle", TransferDto.class)));
+        assertFalse(resolver.supportsParameter(getParameter("handlePlain", String.class)));
+    }
+
+    @Test
+    public void testResolveArgument_ShouldBindJsonStringPayload() throws Exception {
+        String transferObject = "{\"senderAccountNumber\":\"PL1\",\"receiverAccountNumber\":\"PL2\","
+                + "\"transferTitle\":\"Za \\\"obiad\\\" \\\\ ąę\",\"transferAmount\":12.5}";
+        TransferDto transferDto = (TransferDto) resolve("handle", TransferDto.class,
+                cryptoService.encryptData(transferObject));
+        assertEquals("PL1", transferDto.getSenderAccountNumber());
+        assertEquals("PL2", transferDto.getReceiverAccountNumber());
+        assertEquals("Za \"obiad\" \\ ąę", transferDto.getTransferTitle());
+        assertEquals(new BigDecimal("12.5"), transferDto.getTransferAmount());
+    }
+
+    @Test
+    public void testResolveArgument_ShouldBindJsonObjectPayload() throws Exception {
+        AccountDto accountDto = AccountDto.builder().currency("EUR").type("standard").build();
+        AccountDto resolvedAccountDto = (AccountDto) resolve("handleAccount", AccountDto.class,
+                cryptoService.encryptData(accountDto));
+        assertEquals("EUR", resolvedAccountDto.getCurrency());
+        assertEquals("standard", resolvedAccountDto.getType());
+    }
+
+    @Test
+    public void testResolveArgument_ShouldRejectInvalidBody() throws Exception {
+        assertThrows(HttpMessageNotReadableException.class, () -> resolve("handle", TransferDto.class, ""));
+        assertThrows(HttpMessageNotReadableException.class,
+                () -> resolve("handle", TransferDto.class, "not-encrypted"));
+        String encryptedWithOtherKey = cryptoService.encryptData("{}");
+        ReflectionTestUtils.setField(cryptoService, "encryptKey", "AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA=");
+        assertThrows(HttpMessageNotReadableException.class,
+                () -> resolve("handle", TransferDto.class, encryptedWithOtherKey));
+    }
+
+    private Object resolve(String methodName, Class<?> parameterType, String body) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setContent(body.getBytes());
+        return resolver.resolveArgument(getParameter(methodName, parameterType), null, new ServletWebRequest(request),
+                null);
+    }
+
+    private static MethodParameter getParameter(String methodName, Class<?> parameterType) throws Exception {
+        Method method = EncryptedBodyArgumentResolverTest.class.getDeclaredMethod(methodName, parameterType);
+        return new MethodParameter(method, 0);
+    }
+
+    @SuppressWarnings("unused")
+    private void handle(@EncryptedBody TransferDto transferDto) {
+    }
+
+    @SuppressWarnings("unused")
+    private void handleAccount(@EncryptedBody AccountDto accountDto) {
+    }
+
+    @SuppressWarnings("unused")
+    private void handlePlain(String body) {
+    }
+}
@@ -0,0 +1,91 @@
+package com.quantum.trust.backend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quantum.trust.backend.crypto.PayloadEnvelope;
+import com.quantum.trust.backend.model.dto.EncryptedDto;
+import com.quantum.trust.backend.model.dto.EncryptedPayload;
+import com.quantum.trust.backend.services.CryptoService;
+
+public class EncryptedPayloadHttpMessageConverterTest {
+    private static final String ENCRYPT_KEY = "/urpXJY0b3CFG7Y9ZvKvMcAZCS9cRnIF54C3982anI8=";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private CryptoService cryptoService;
+    private EncryptedPayloadHttpMessageConverter converter;
+
+    @BeforeEach
+    public void setUp() {
+        cryptoService = new CryptoService(null);
+        ReflectionTestUtils.setField(cryptoService, "encryptKey", ENCRYPT_KEY);
+        converter = new EncryptedPayloadHttpMessageConverter(cryptoService);
+    }
+
+    @Test
+    public void testCanWriteOnlyEncryptedPayload() {
+        assertTrue(converter.canWrite(EncryptedPayload.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canWrite(EncryptedDto.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canRead(EncryptedPayload.class, MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    public void testWrite_ShouldProduceEncryptedDtoJson() throws Exception {
+        List<Map<String, Object>> data = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            data.add(Map.of("id", i, "title", "Transaction " + i));
+        }
+        MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+        converter.write(new EncryptedPayload(data), MediaType.APPLICATION_JSON, outputMessage);
+        assertEquals(MediaType.APPLICATION_JSON, outputMessage.getHeaders().getContentType());
+        EncryptedDto encryptedDto = objectMapper.readValue(outputMessage.getBodyAsString(), EncryptedDto.class);
+        String decryptedData = decrypt(encryptedDto.getEncryptedData());
+        assertEquals(data, objectMapper.readValue(decryptedData, new TypeReference<List<Map<String, Object>>>() {
+        }));
+    }
+
+    @Test
+    public void testWrite_ShouldApplyEnvelopeOfPayload() throws Exception {
+        List<String> data = List.of("first", "second");
+        MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+        converter.write(new EncryptedPayload(data, PayloadEnvelope.of("gcm")), MediaType.APPLICATION_JSON,
+                outputMessage);
+        EncryptedDto encryptedDto = objectMapper.readValue(outputMessage.getBodyAsString(), EncryptedDto.class);
+        assertTrue(encryptedDto.getEncryptedData().startsWith("qt1.gcm."));
+        try (InputStream decryptingStream = cryptoService.getDecryptingStream(new ByteArrayInputStream(
+                encryptedDto.getEncryptedData().getBytes(StandardCharsets.US_ASCII)))) {
+            assertEquals(data, objectMapper.readValue(decryptingStream, new TypeReference<List<String>>() {
+            }));
+        }
+    }
+
+    private static String decrypt(String encryptedData) throws Exception {
+        byte[] decodedValue = Base64.getDecoder().decode(encryptedData);
+        Cipher cipher = Cipher.getInstance("AES/CBC/PKCS5Padding");
+        cipher.init(Cipher.DECRYPT_MODE, new SecretKeySpec(Base64.getDecoder().decode(ENCRYPT_KEY), "AES"),
+                new IvParameterSpec(decodedValue, 0, 16));
+        return new String(cipher.doFinal(decodedValue, 16, decodedValue.length - 16), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,196 @@
+package com.quantum.trust.backend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.quantum.trust.backend.model.AuthContext;
+import com.quantum.trust.backend.repositories.IdempotencyRecordRepository;
+import com.quantum.trust.backend.services.IdempotencyService;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+
+public class IdempotencyFilterTest {
+
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Mock
+    private FilterChain filterChain;
+
+    private IdempotencyFilter idempotencyFilter;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        when(idempotencyRecordRepository.findById(any())).thenReturn(Optional.empty());
+        idempotencyFilter = new IdempotencyFilter(
+                new IdempotencyService(idempotencyRecordRepository, new MockEnvironment()));
+        doAnswer(invocation -> {
+            HttpServletResponse response = invocation.getArgument(1);
+            response.setStatus(201);
+            response.setContentType("text/plain");
+            response.getWriter().write("encrypted-card");
+            return null;
+        }).when(filterChain).doFilter(any(), any());
+    }
+
+    @Test
+    public void testDoFilterInternal_ShouldReplayStoredResponse() throws Exception {
+        MockHttpServletResponse firstResponse = new MockHttpServletResponse();
+        MockHttpServletResponse retriedResponse = new MockHttpServletResponse();
+
+        idempotencyFilter.doFilterInternal(getRequest("/api/cards/new", "key-1"), firstResponse, filterChain);
+        idempotencyFilter.doFilterInternal(getRequest("/api/cards/new", "key-1"), retriedResponse, filterChain);
+
+        verify(filterChain, times(1)).doFilter(any(), any());
+        assertEquals(201, firstResponse.getStatus());
+        assertEquals("encrypted-card", firstResponse.getContentAsString());
+        assertNull(firstResponse.getHeader(IdempotencyFilter.IDEMPOTENT_REPLAYED_HEADER));
+        assertEquals(201, retriedResponse.getStatus());
+        assertEquals("text/plain", retriedResponse.getContentType());
+        assertEquals("encrypted-card", retriedResponse.getContentAsString());
+        assertEquals("true", retriedResponse.getHeader(IdempotencyFilter.IDEMPOTENT_REPLAYED_HEADER));
+    }
+
+    @Test
+    public void testDoFilterInternal_ShouldScopeKeysByUserAndPath() throws Exception {
+        MockHttpServletRequest otherUserRequest = getRequest("/api/cards/new", "key-1");
+        otherUserRequest.setAttribute(JwtRequestFilter.AUTH_CONTEXT_ATTRIBUTE, new AuthContext("token", "other"));
+
+        idempotencyFilter.doFilterInternal(getRequest("/api/cards/new", "key-1"), new MockHttpServletResponse(),
+                filterChain);
+        idempotencyFilter.doFilterInternal(getRequest("/api/deposits/new", "key-1"), new MockHttpServletResponse(),
+                filterChain);
+        idempotencyFilter.doFilterInternal(otherUserRequest, new MockHttpServletResponse(), filterChain);
+
+        verify(filterChain, times(3)).doFilter(any(), any());
+    }
+
+    @Test
+    public void testDoFilterInternal_ShouldRunAgainAfterServerError() throws Exception {
+        doAnswer(invocation -> {
+            ((HttpServletResponse) invocation.getArgument(1)).setStatus(500);
+            return null;
+        }).when(filterChain).doFilter(any(), any());
+
+        idempotencyFilter.doFilterInternal(getRequest("/api/user/new-transfer", "key-1"),
+                new MockHttpServletResponse(), filterChain);
+        idempotencyFilter.doFilterInternal(getRequest("/api/user/new-transfer", "key-1"),
+                new MockHttpServletResponse(), filterChain);
+
+        verify(filterChain, times(2)).doFilter(any(), any());
+        verify(idempotencyRecordRepository, never()).save(any());
+    }
+
+    @Test
+    public void testDoFilterInternal_ShouldRunAgainAfterTransientClientError() throws Exception {
+        doAnswer(invocation -> {
+            ((HttpServletResponse) invocation.getArgument(1)).setStatus(409);
+            return null;
+        }).doAnswer(invocation -> {
+            ((HttpServletResponse) invocation.getArgument(1)).setStatus(429);
+            return null;
+        }).doAnswer(invocation -> {
+            ((HttpServletResponse) invocation.getArgument(1)).setStatus(200);
+            return null;
+        }).when(filterChain).doFilter(any(), any());
+
+        MockHttpServletResponse conflictResponse = new MockHttpServletResponse();
+        MockHttpServletResponse tooManyRequestsResponse = new MockHttpServletResponse();
+        MockHttpServletResponse completedResponse = new MockHttpServletResponse();
+        idempotencyFilter.doFilterInternal(getRequest("/api/user/new-transfer", "key-1"), conflictResponse,
+                filterChain);
+        idempotencyFilter.doFilterInternal(getRequest("/api/user/new-transfer", "key-1"), tooManyRequestsResponse,
+                filterChain);
+        idempotencyFilter.doFilterInternal(getRequest("/api/user/new-transfer", "key-1"), completedResponse,
+                filterChain);
+
+        verify(filterChain, times(3)).doFilter(any(), any());
+        assertEquals(409, conflictResponse.getStatus());
+        assertEquals(429, tooManyRequestsResponse.getStatus());
+        assertEquals(200, completedResponse.getStatus());
+        assertNull(completedResponse.getHeader(IdempotencyFilter.IDEMPOTENT_REPLAYED_HEADER));
+        verify(idempotencyRecordRepository, times(1)).save(any());
+    }
+
+    @Test
+    public void testDoFilterInternal_ShouldReplayDeterministicClientError() throws Exception {
+        doAnswer(invocation -> {
+            ((HttpServletResponse) invocation.getArgument(1)).setStatus(400);
+            return null;
+        }).when(filterChain).doFilter(any(), any());
+
+        idempotencyFilter.doFilterInternal(getRequest("/api/user/new-transfer", "key-1"),
+                new MockHttpServletResponse(), filterChain);
+
+        verify(idempotencyRecordRepository, times(1)).save(any());
+    }
+
+    @Test
+    public void testDoFilterInternal_ShouldPassRequestsWithoutKeyOrOnOtherEndpoints() throws Exception {
+        MockHttpServletRequest withoutKeyRequest = getRequest("/api/cards/new", null);
+        MockHttpServletRequest otherEndpointRequest = getRequest("/api/cards/edit", "key-1");
+        otherEndpointRequest.setMethod("PATCH");
+
+        idempotencyFilter.doFilterInternal(withoutKeyRequest, new MockHttpServletResponse(), filterChain);
+        idempotencyFilter.doFilterInternal(withoutKeyRequest, new MockHttpServletResponse(), filterChain);
+        idempotencyFilter.doFilterInternal(otherEndpointRequest, new MockHttpServletResponse(), filterChain);
+
+        verify(filterChain, times(3)).doFilter(any(), any());
+        verify(idempotencyRecordRepository, never()).findById(any());
+    }
+
+    @Test
+    public void testDoFilterInternal_ShouldRejectInvalidKey() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        idempotencyFilter.doFilterInternal(
+                getRequest("/api/cards/new", "k".repeat(IdempotencyFilter.MAX_KEY_LENGTH + 1)), response,
+                filterChain);
+
+        assertEquals(400, response.getStatus());
+        verify(filterChain, never()).doFilter(any(), any());
+    }
+
+    @Test
+    public void testDoFilterInternal_ShouldAnswerConflictWhileKeyIsHeld() throws Exception {
+        IdempotencyService idempotencyService = mock(IdempotencyService.class);
+        when(idempotencyService.acquire(any())).thenThrow(new IllegalStateException("in progress"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new IdempotencyFilter(idempotencyService).doFilterInternal(getRequest("/api/cards/new", "key-1"), response,
+                filterChain);
+
+        assertEquals(409, response.getStatus());
+        assertEquals("1", response.getHeader(HttpHeaders.RETRY_AFTER));
+        verify(filterChain, never()).doFilter(any(), any());
+    }
+
+    private static MockHttpServletRequest getRequest(String path, String idempotencyKey) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        if (idempotencyKey != null) {
+            request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, idempotencyKey);
+        }
+        request.setAttribute(JwtRequestFilter.AUTH_CONTEXT_ATTRIBUTE, new AuthContext("token", "user"));
+        return request;
+    }
+}
@@ -1,15 +1,28 @@
 package com.quantum.trust.backend;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -18,15 +31,25 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.http.HttpStatus;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import com.quantum.trust.backend.model.AuthContext;
 import com.quantum.trust.backend.services.CookieService;
 import com.quantum.trust.backend.services.TokenBucketService;
 import com.quantum.trust.backend.services.TokenService;
 import com.quantum.trust.backend.services.UserAuthService;
 
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.MalformedJwtException;
+
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
 
 public class JwtRequestFilterTest {
 
@@ -54,10 +77,16 @@ public class JwtRequestFilterTest {
     @BeforeEach
     public void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(tokenBucketService.tryConsume(any(), any())).thenReturn(true);
         request = new MockHttpServletRequest();
         response = new MockHttpServletResponse();
     }
 
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
     @Test
     public void testDoFilterInternal_AllowedUri() throws ServletException, IOException {
         request.setRequestURI("/api/auth/login");
@@ -65,11 +94,27 @@ public class JwtRequestFilterTest {
         verify(filterChain, times(1)).doFilter(request, response);
     }
 
+    @Test
+    public void testDoFilter_ShouldTakeOneTokenPerRequest() throws ServletException, IOException {
+        FilterChain innerChain = mock(FilterChain.class);
+        request.setRequestURI("/api/auth/login");
+        doAnswer(invocation -> {
+            jwtRequestFilter.doFilter(request, response, innerChain);
+            return null;
+        }).when(filterChain).doFilter(request, response);
+
+        jwtRequestFilter.doFilter(request, response, filterChain);
+
+        verify(tokenBucketService, times(1)).tryConsume(request, null);
+        verify(innerChain).doFilter(request, response);
+        assertFalse(JwtRequestFilter.class.isAnnotationPresent(Component.class));
+    }
+
     @Test
     public void testDoFilterInternal_TooManyRequests() throws ServletException, IOException {
         request.setRequestURI("/api/protected");
         when(cookieService.getCookieValue(any(), anyString())).thenReturn("ACCESS_TOKEN");
-        when(tokenBucketService.tryConsume()).thenReturn(false);
+        when(tokenBucketService.tryConsume(any(), any())).thenReturn(false);
         jwtRequestFilter.doFilterInternal(request, response, filterChain);
         assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), response.getStatus());
         assertEquals("Too many requests. Try again later.", response.getContentAsString());
@@ -78,12 +123,11 @@ public class JwtRequestFilterTest {
     @Test
     void testDoFilterInternal_invalidToken() throws ServletException, IOException {
         String token = "invalid_token";
-        String identificator = "invalid_identificator";
         request.setRequestURI("/api/user/protected");
-        when(tokenBucketService.tryConsume()).thenReturn(true);
+        when(tokenBucketService.tryConsume(any(), any())).thenReturn(true);
         when(cookieService.getCookieValue(request, "ACCESS_TOKEN")).thenReturn(token);
-        when(tokenService.validateToken(token, identificator)).thenReturn(false);
-        when(tokenService.getIdentificatorFromToken(token)).thenReturn(identificator);
+        when(tokenService.getIdentificatorFromToken(request, token))
+                .thenThrow(new ExpiredJwtException(null, null, "expired"));
         jwtRequestFilter.doFilterInternal(request, response, filterChain);
         assertEquals(response.getStatus(), HttpStatus.UNAUTHORIZED.value());
     }
@@ -94,12 +138,134 @@ public class JwtRequestFilterTest {
         String identificator = "valid_identificator";
         UserDetails userDetails = mock(UserDetails.class);
         request.setRequestURI("/api/user/protected");
-        when(tokenBucketService.tryConsume()).thenReturn(true);
+        when(tokenBucketService.tryConsume(any(), any())).thenReturn(true);
         when(cookieService.getCookieValue(request, "ACCESS_TOKEN")).thenReturn(token);
-        when(tokenService.validateToken(token, identificator)).thenReturn(true);
-        when(tokenService.getIdentificatorFromToken(token)).thenReturn(identificator);
+        when(tokenService.getIdentificatorFromToken(request, token)).thenReturn(identificator);
         when(userAuthService.loadUserByUsername(identificator)).thenReturn(userDetails);
         jwtRequestFilter.doFilterInternal(request, response, filterChain);
         verify(filterChain).doFilter(request, response);
+        verify(tokenService, times(1)).getIdentificatorFromToken(request, token);
+        verify(tokenService, never()).validateToken(anyString(), anyString());
+    }
+
+    @Test
+    void testDoFilterInternal_ShouldMatchAllowedUrisExactly() throws ServletException, IOException {
+        request.setRequestURI("/api/media/public/logo.png");
+        jwtRequestFilter.doFilterInternal(request, response, filterChain);
+        verify(filterChain).doFilter(request, response);
+        verify(cookieService, never()).getCookieValue(any(), anyString());
+        MockHttpServletRequest lookalikeRequest = new MockHttpServletRequest();
+        lookalikeRequest.setRequestURI("/api/user/identity/api/auth/login");
+        when(cookieService.getCookieValue(lookalikeRequest, "ACCESS_TOKEN")).thenReturn("token");
+        when(tokenBucketService.tryConsume(any(), any())).thenReturn(true);
+        when(tokenService.getIdentificatorFromToken(lookalikeRequest, "token"))
+                .thenThrow(new MalformedJwtException("malformed"));
+        jwtRequestFilter.doFilterInternal(lookalikeRequest, response, filterChain);
+        assertEquals(HttpStatus.UNAUTHORIZED.value(), response.getStatus());
+    }
+
+    @Test
+    void testDoFilterInternal_ShouldPassRequestWithoutTokenUnauthenticated() throws ServletException, IOException {
+        request.setRequestURI("/api/user/all-accounts");
+        jwtRequestFilter.doFilterInternal(request, response, filterChain);
+        verify(filterChain).doFilter(request, response);
+        verify(tokenBucketService).tryConsume(request, null);
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void testDoFilterInternal_ShouldUseRefreshTokenForLogout() throws ServletException, IOException {
+        UserDetails userDetails = new User("1", "password", new ArrayList<>());
+        request.setRequestURI("/api/auth/logout");
+        when(tokenBucketService.tryConsume(any(), any())).thenReturn(true);
+        when(cookieService.getCookieValue(request, "REFRESH_TOKEN")).thenReturn("refresh_token");
+        when(tokenService.getIdentificatorFromToken(request, "refresh_token")).thenReturn("1");
+        when(userAuthService.loadUserByUsername("1")).thenReturn(userDetails);
+        jwtRequestFilter.doFilterInternal(request, response, filterChain);
+        AuthContext authContext = (AuthContext) request.getAttribute(JwtRequestFilter.AUTH_CONTEXT_ATTRIBUTE);
+        assertEquals("1", authContext.getIdentificator());
+        assertEquals("refresh_token", authContext.getToken());
+        verify(filterChain).doFilter(request, response);
+    }
+
+    @Test
+    void testDoFilterInternal_ShouldNotLeakIdentityBetweenConcurrentRequests() throws Exception {
+        TokenService realTokenService = new TokenService();
+        ReflectionTestUtils.setField(realTokenService, "jwtSecret",
+                "b4g7h8i9j0k1l2m3n4o5p6q7r8s9t0u1v2w3x4y5z6a7b8c9d0e1f2g3h4i5j6k7");
+        ReflectionTestUtils.setField(realTokenService, "expiration", 3600000L);
+        ReflectionTestUtils.setField(realTokenService, "refreshExpiration", 7200000L);
+        when(tokenBucketService.tryConsume(any(), any())).thenReturn(true);
+        when(userAuthService.loadUserByUsername(anyString()))
+                .thenAnswer(invocation -> new User(invocation.getArgument(0), "password", new ArrayList<>()));
+        JwtRequestFilter concurrentFilter = new JwtRequestFilter(realTokenService, new CookieService(),
+                userAuthService, tokenBucketService);
+        int userCount = 64;
+        int requestCount = 4000;
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < userCount; i++) {
+            tokens.add(realTokenService.generateToken(String.valueOf(i), "access"));
+        }
+        AtomicInteger leakedIdentities = new AtomicInteger();
+        AtomicInteger authenticatedRequests = new AtomicInteger();
+        FilterChain checkingChain = (servletRequest, servletResponse) -> {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            AuthContext authContext = (AuthContext) servletRequest
+                    .getAttribute(JwtRequestFilter.AUTH_CONTEXT_ATTRIBUTE);
+            String expectedIdentificator = (String) servletRequest.getAttribute("expectedIdentificator");
+            if (authentication == null || !expectedIdentificator.equals(authentication.getName())
+                    || !expectedIdentificator.equals(authContext.getIdentificator())) {
+                leakedIdentities.incrementAndGet();
+            } else {
+                authenticatedRequests.incrementAndGet();
+            }
+        };
+        ExecutorService executorService = Executors.newFixedThreadPool(32);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < requestCount; i++) {
+            int userIndex = i % userCount;
+            futures.add(executorService.submit(() -> {
+                startLatch.await();
+                MockHttpServletRequest concurrentRequest = new MockHttpServletRequest();
+                MockHttpServletResponse concurrentResponse = new MockHttpServletResponse();
+                concurrentRequest.setRequestURI("/api/user/all-accounts");
+                concurrentRequest.setCookies(new Cookie("ACCESS_TOKEN", tokens.get(userIndex)));
+                concurrentRequest.setAttribute("expectedIdentificator", String.valueOf(userIndex));
+                try {
+                    concurrentFilter.doFilter(concurrentRequest, concurrentResponse, checkingChain);
+                } finally {
+                    SecurityContextHolder.clearContext();
+                }
+                return concurrentResponse.getStatus();
+            }));
+        }
+        startLatch.countDown();
+        for (Future<Integer> future : futures) {
+            assertEquals(HttpStatus.OK.value(), future.get(30, TimeUnit.SECONDS));
+        }
+        executorService.shutdown();
+        assertEquals(0, leakedIdentities.get());
+        assertEquals(requestCount, authenticatedRequests.get());
+    }
+
+    @Test
+    void testDoFilterInternal_ShouldRateLimitAllowedUriByIp() throws ServletException, IOException {
+        request.setRequestURI("/api/auth/login");
+        when(tokenBucketService.tryConsume(request, null)).thenReturn(false);
+        jwtRequestFilter.doFilterInternal(request, response, filterChain);
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), response.getStatus());
+        verify(filterChain, never()).doFilter(request, response);
+    }
+
+    @Test
+    void testDoFilterInternal_ShouldRateLimitAuthenticatedRequestByUser() throws ServletException, IOException {
+        request.setRequestURI("/api/user/all-accounts");
+        when(cookieService.getCookieValue(request, "ACCESS_TOKEN")).thenReturn("token");
+        when(tokenService.getIdentificatorFromToken(request, "token")).thenReturn("1");
+        when(tokenBucketService.tryConsume(request, "1")).thenReturn(false);
+        jwtRequestFilter.doFilterInternal(request, response, filterChain);
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), response.getStatus());
+        verify(userAuthService, never()).loadUserByUsername(anyString());
     }
-}
\ No newline at end of file
+}
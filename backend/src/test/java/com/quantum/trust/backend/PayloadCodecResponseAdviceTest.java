@@ -0,0 +1,106 @@
+package com.quantum.trust.backend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.quantum.trust.backend.crypto.PayloadCompression;
+import com.quantum.trust.backend.crypto.PayloadEnvelope;
+import com.quantum.trust.backend.model.dto.EncryptedPayload;
+import com.quantum.trust.backend.services.CryptoService;
+
+public class PayloadCodecResponseAdviceTest {
+
+    @Mock
+    private CryptoService cryptoService;
+
+    @InjectMocks
+    private PayloadCodecResponseAdvice payloadCodecResponseAdvice;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(cryptoService.isCodecSupported("gcm")).thenReturn(true);
+    }
+
+    @Test
+    public void testSupports() {
+        assertTrue(payloadCodecResponseAdvice.supports(null, EncryptedPayloadHttpMessageConverter.class));
+        assertFalse(payloadCodecResponseAdvice.supports(null, MappingJackson2HttpMessageConverter.class));
+    }
+
+    @Test
+    public void testBeforeBodyWrite_ShouldKeepLegacyEnvelopeByDefault() throws IOException {
+        EncryptedPayload encryptedPayload = new EncryptedPayload(List.of("data"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        Object body = beforeBodyWrite(encryptedPayload, new MockHttpServletRequest(), response);
+        assertSame(encryptedPayload, body);
+        assertEquals(List.of(PayloadCodecResponseAdvice.CODEC_HEADER, PayloadCodecResponseAdvice.COMPRESSION_HEADER),
+                response.getHeaders(HttpHeaders.VARY));
+    }
+
+    @Test
+    public void testBeforeBodyWrite_ShouldApplyRequestedCodec() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(PayloadCodecResponseAdvice.CODEC_HEADER, "gcm");
+        Object body = beforeBodyWrite(new EncryptedPayload(List.of("data")), request, new MockHttpServletResponse());
+        PayloadEnvelope envelope = ((EncryptedPayload) body).getEnvelope();
+        assertEquals("gcm", envelope.getCodecName());
+        assertEquals(List.of("data"), ((EncryptedPayload) body).getData());
+    }
+
+    @Test
+    public void testBeforeBodyWrite_ShouldApplyRequestedCompression() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(PayloadCodecResponseAdvice.COMPRESSION_HEADER, "deflate");
+        Object body = beforeBodyWrite(new EncryptedPayload(List.of("data")), request, new MockHttpServletResponse());
+        assertEquals("qt1.cbc+deflate.", ((EncryptedPayload) body).getEnvelope().getHeader());
+        request.addHeader(PayloadCodecResponseAdvice.CODEC_HEADER, "gcm");
+        body = beforeBodyWrite(new EncryptedPayload(List.of("data")), request, new MockHttpServletResponse());
+        assertEquals(PayloadCompression.DEFLATE, ((EncryptedPayload) body).getEnvelope().getCompression());
+        assertEquals("gcm", ((EncryptedPayload) body).getEnvelope().getCodecName());
+    }
+
+    @Test
+    public void testBeforeBodyWrite_ShouldIgnoreUnknownCompression() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(PayloadCodecResponseAdvice.COMPRESSION_HEADER, "lz4");
+        EncryptedPayload encryptedPayload = new EncryptedPayload(List.of("data"));
+        assertSame(encryptedPayload, beforeBodyWrite(encryptedPayload, request, new MockHttpServletResponse()));
+    }
+
+    @Test
+    public void testBeforeBodyWrite_ShouldIgnoreUnknownCodec() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(PayloadCodecResponseAdvice.CODEC_HEADER, "rot13");
+        EncryptedPayload encryptedPayload = new EncryptedPayload(List.of("data"));
+        assertSame(encryptedPayload, beforeBodyWrite(encryptedPayload, request, new MockHttpServletResponse()));
+    }
+
+    private Object beforeBodyWrite(Object body, MockHttpServletRequest request, MockHttpServletResponse response)
+            throws IOException {
+        ServletServerHttpResponse serverResponse = new ServletServerHttpResponse(response);
+        Object result = payloadCodecResponseAdvice.beforeBodyWrite(body, null, MediaType.APPLICATION_JSON,
+                EncryptedPayloadHttpMessageConverter.class, new ServletServerHttpRequest(request), serverResponse);
+        serverResponse.flush();
+        return result;
+    }
+}
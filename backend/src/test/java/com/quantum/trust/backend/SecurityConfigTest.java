@@ -12,7 +12,9 @@ import org.springframework.security.config.annotation.ObjectPostProcessor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.cors.CorsConfigurationSource;
 
+import com.quantum.trust.backend.services.ConcurrencyLimitService;
 import com.quantum.trust.backend.services.CookieService;
+import com.quantum.trust.backend.services.IdempotencyService;
 import com.quantum.trust.backend.services.TokenBucketService;
 import com.quantum.trust.backend.services.TokenService;
 import com.quantum.trust.backend.services.UserAuthService;
@@ -33,6 +35,12 @@ public class SecurityConfigTest {
     @Mock
     private TokenBucketService tokenBucketService;
 
+    @Mock
+    private ConcurrencyLimitService concurrencyLimitService;
+
+    @Mock
+    private IdempotencyService idempotencyService;
+
     @Mock
     private ObjectPostProcessor<Object> objectPostProcessor;
 
@@ -67,4 +75,16 @@ public class SecurityConfigTest {
         Filter jwtRequestFilter = securityConfig.getJwtRequestFilter();
         assertNotNull(jwtRequestFilter);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testGetConcurrencyLimitFilter() {
+        Filter concurrencyLimitFilter = securityConfig.getConcurrencyLimitFilter();
+        assertNotNull(concurrencyLimitFilter);
+    }
+
+    @Test
+    public void testGetIdempotencyFilter() {
+        Filter idempotencyFilter = securityConfig.getIdempotencyFilter();
+        assertNotNull(idempotencyFilter);
+    }
+}
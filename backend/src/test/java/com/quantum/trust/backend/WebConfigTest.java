@@ -0,0 +1,97 @@
+package com.quantum.trust.backend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.catalina.filters.RemoteIpFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.core.Ordered;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockFilterConfig;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quantum.trust.backend.services.CryptoService;
+
+import jakarta.servlet.FilterChain;
+
+public class WebConfigTest {
+
+    @Mock
+    private CryptoService cryptoService;
+
+    @Mock
+    private ObjectMapper objectMapper;
+
+    @InjectMocks
+    private WebConfig webConfig;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    public void testExtendMessageConverters() {
+        List<HttpMessageConverter<?>> converters = new ArrayList<>();
+        converters.add(new MappingJackson2HttpMessageConverter());
+        webConfig.extendMessageConverters(converters);
+        assertTrue(converters.get(0) instanceof EncryptedPayloadHttpMessageConverter);
+    }
+
+    @Test
+    public void testAddArgumentResolvers() {
+        List<HandlerMethodArgumentResolver> resolvers = new ArrayList<>();
+        webConfig.addArgumentResolvers(resolvers);
+        assertTrue(resolvers.get(0) instanceof EncryptedBodyArgumentResolver);
+    }
+
+    @Test
+    public void testRemoteIpFilterRegistration_ShouldResolveClientOnlyBehindTrustedProxy() throws Exception {
+        FilterRegistrationBean<RemoteIpFilter> registration = webConfig
+                .remoteIpFilterRegistration(new MockEnvironment());
+        RemoteIpFilter remoteIpFilter = registration.getFilter();
+        remoteIpFilter.init(new MockFilterConfig());
+
+        assertEquals(Ordered.HIGHEST_PRECEDENCE, registration.getOrder());
+        assertEquals("203.0.113.7", getRemoteAddr(remoteIpFilter, "172.18.0.5", "203.0.113.7"));
+        assertEquals("203.0.113.7", getRemoteAddr(remoteIpFilter, "172.18.0.5", "198.51.100.1, 203.0.113.7"));
+        assertEquals("203.0.113.9", getRemoteAddr(remoteIpFilter, "203.0.113.9", "198.51.100.1"));
+    }
+
+    @Test
+    public void testRemoteIpFilterRegistration_ShouldUseConfiguredTrustedProxies() throws Exception {
+        RemoteIpFilter remoteIpFilter = webConfig.remoteIpFilterRegistration(
+                new MockEnvironment().withProperty("rate-limit.trusted-proxies", "198\\.51\\.100\\.2"))
+                .getFilter();
+        remoteIpFilter.init(new MockFilterConfig());
+
+        assertEquals("203.0.113.7", getRemoteAddr(remoteIpFilter, "198.51.100.2", "203.0.113.7"));
+        assertEquals("172.18.0.5", getRemoteAddr(remoteIpFilter, "172.18.0.5", "203.0.113.7"));
+    }
+
+    private static String getRemoteAddr(RemoteIpFilter remoteIpFilter, String peerAddress, String forwardedFor)
+            throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(peerAddress);
+        request.addHeader("X-Forwarded-For", forwardedFor);
+        AtomicReference<String> remoteAddr = new AtomicReference<>();
+        FilterChain filterChain = (filteredRequest, filteredResponse) -> remoteAddr
+                .set(filteredRequest.getRemoteAddr());
+        remoteIpFilter.doFilter(request, new MockHttpServletResponse(), filterChain);
+        return remoteAddr.get();
+    }
+}
@@ -1,5 +1,6 @@
 package com.quantum.trust.backend.controller;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
@@ -10,17 +11,28 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.math.BigDecimal;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quantum.trust.backend.EncryptedBodyArgumentResolver;
+import com.quantum.trust.backend.model.dto.CardAuthorizationDto;
+import com.quantum.trust.backend.model.dto.CardDto;
+import com.quantum.trust.backend.services.CardAuthorizationService;
 import com.quantum.trust.backend.services.CardService;
+import com.quantum.trust.backend.services.CryptoService;
 
 import jakarta.servlet.http.HttpServletRequest;
 
@@ -29,15 +41,26 @@ class CardControllerTest {
     @Mock
     private CardService cardService;
 
+    @Mock
+    private CardAuthorizationService cardAuthorizationService;
+
     @InjectMocks
     private CardController cardController;
 
     private MockMvc mockMvc;
 
+    private CryptoService cryptoService;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
     @BeforeEach
     void setup() {
         MockitoAnnotations.openMocks(this);
-        mockMvc = MockMvcBuilders.standaloneSetup(cardController).build();
+        cryptoService = new CryptoService(null);
+        ReflectionTestUtils.setField(cryptoService, "encryptKey", "/urpXJY0b3CFG7Y9ZvKvMcAZCS9cRnIF54C3982anI8=");
+        mockMvc = MockMvcBuilders.standaloneSetup(cardController)
+                .setCustomArgumentResolvers(new EncryptedBodyArgumentResolver(cryptoService, objectMapper))
+                .build();
     }
 
     @Test
@@ -51,13 +74,41 @@ class CardControllerTest {
 
     @Test
     void testOrderNewCard() throws Exception {
-        String encryptedCardDto = "encrypted-card-data";
-        when(cardService.orderNewCard(encryptedCardDto)).thenReturn(ResponseEntity.ok().build());
+        CardDto cardDto = new CardDto();
+        cardDto.setAssignedAccountNumber("PL61109010140000071219812874");
+        String encryptedCardDto = cryptoService.encryptData(objectMapper.writeValueAsString(cardDto));
+        when(cardService.orderNewCard(any(CardDto.class))).thenReturn(ResponseEntity.ok().build());
         mockMvc.perform(post("/api/cards/new")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(encryptedCardDto))
                 .andExpect(status().isOk());
-        verify(cardService, times(1)).orderNewCard(encryptedCardDto);
+        ArgumentCaptor<CardDto> cardDtoCaptor = ArgumentCaptor.forClass(CardDto.class);
+        verify(cardService, times(1)).orderNewCard(cardDtoCaptor.capture());
+        assertEquals(cardDto.getAssignedAccountNumber(), cardDtoCaptor.getValue().getAssignedAccountNumber());
+    }
+
+    @Test
+    void testAuthorizeCardPayment() throws Exception {
+        CardAuthorizationDto cardAuthorizationDto = CardAuthorizationDto.builder()
+                .cardId("4111111111111111")
+                .channel("internet")
+                .securityCode("123")
+                .title("Zakupy")
+                .amount(new BigDecimal("12.50"))
+                .build();
+        String encryptedDto = cryptoService.encryptData(objectMapper.writeValueAsString(cardAuthorizationDto));
+        when(cardAuthorizationService.authorizeCardPayment(any(HttpServletRequest.class),
+                any(CardAuthorizationDto.class)))
+                .thenReturn(ResponseEntity.ok().build());
+        mockMvc.perform(post("/api/cards/authorize")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(encryptedDto))
+                .andExpect(status().isOk());
+        ArgumentCaptor<CardAuthorizationDto> dtoCaptor = ArgumentCaptor.forClass(CardAuthorizationDto.class);
+        verify(cardAuthorizationService, times(1)).authorizeCardPayment(any(HttpServletRequest.class),
+                dtoCaptor.capture());
+        assertEquals("4111111111111111", dtoCaptor.getValue().getCardId());
+        assertEquals(0, new BigDecimal("12.50").compareTo(dtoCaptor.getValue().getAmount()));
     }
 
     @Test
@@ -82,12 +133,25 @@ class CardControllerTest {
 
     @Test
     void testEditCard() throws Exception {
-        String encryptedCardObject = "encrypted-card-data";
-        when(cardService.editCard(encryptedCardObject)).thenReturn(ResponseEntity.ok().build());
+        CardDto cardDto = new CardDto();
+        cardDto.setId("1");
+        String encryptedCardObject = cryptoService.encryptData(objectMapper.writeValueAsString(cardDto));
+        when(cardService.editCard(any(CardDto.class))).thenReturn(ResponseEntity.ok().build());
         mockMvc.perform(patch("/api/cards/edit")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(encryptedCardObject))
                 .andExpect(status().isOk());
-        verify(cardService, times(1)).editCard(encryptedCardObject);
+        ArgumentCaptor<CardDto> cardDtoCaptor = ArgumentCaptor.forClass(CardDto.class);
+        verify(cardService, times(1)).editCard(cardDtoCaptor.capture());
+        assertEquals("1", cardDtoCaptor.getValue().getId());
+    }
+
+    @Test
+    void testEditCard_ShouldRejectUndecryptableBody() throws Exception {
+        mockMvc.perform(patch("/api/cards/edit")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("encrypted-card-data"))
+                .andExpect(status().isBadRequest());
+        verify(cardService, times(0)).editCard(any(CardDto.class));
     }
 }
\ No newline at end of file
@@ -1,7 +1,7 @@
 package com.quantum.trust.backend.controller;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -10,16 +10,25 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.math.BigDecimal;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quantum.trust.backend.EncryptedBodyArgumentResolver;
+import com.quantum.trust.backend.model.dto.DepositDto;
+import com.quantum.trust.backend.services.CryptoService;
 import com.quantum.trust.backend.services.DepositService;
 
 import jakarta.servlet.http.HttpServletRequest;
@@ -34,10 +43,18 @@ class DepositControllerTest {
 
     private MockMvc mockMvc;
 
+    private CryptoService cryptoService;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
     @BeforeEach
     void setup() {
         MockitoAnnotations.openMocks(this);
-        mockMvc = MockMvcBuilders.standaloneSetup(depositController).build();
+        cryptoService = new CryptoService(null);
+        ReflectionTestUtils.setField(cryptoService, "encryptKey", "/urpXJY0b3CFG7Y9ZvKvMcAZCS9cRnIF54C3982anI8=");
+        mockMvc = MockMvcBuilders.standaloneSetup(depositController)
+                .setCustomArgumentResolvers(new EncryptedBodyArgumentResolver(cryptoService, objectMapper))
+                .build();
     }
 
     @Test
@@ -51,14 +68,18 @@ class DepositControllerTest {
 
     @Test
     void testOpenNewDeposit() throws Exception {
-        HttpServletRequest request = mock(HttpServletRequest.class);
-        String encryptedDepositDto = "encrypted-deposit-data";
-        when(depositService.saveNewDeposit(request, encryptedDepositDto))
+        DepositDto depositDto = DepositDto.builder().type("progressive").balance(new BigDecimal("1000")).duration(12).build();
+        String encryptedDepositDto = cryptoService.encryptData(objectMapper.writeValueAsString(depositDto));
+        when(depositService.saveNewDeposit(any(HttpServletRequest.class), any(DepositDto.class)))
                 .thenReturn(ResponseEntity.ok().build());
         mockMvc.perform(post("/api/deposits/new")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(encryptedDepositDto))
                 .andExpect(status().isOk());
-        verify(depositService, times(1)).saveNewDeposit(any(HttpServletRequest.class), eq(encryptedDepositDto));
+        ArgumentCaptor<DepositDto> depositDtoCaptor = ArgumentCaptor.forClass(DepositDto.class);
+        verify(depositService, times(1)).saveNewDeposit(any(HttpServletRequest.class), depositDtoCaptor.capture());
+        assertEquals("progressive", depositDtoCaptor.getValue().getType());
+        assertEquals(new BigDecimal("1000"), depositDtoCaptor.getValue().getBalance());
+        assertEquals(12, depositDtoCaptor.getValue().getDuration());
     }
 }
\ No newline at end of file
@@ -1,8 +1,13 @@
 package com.quantum.trust.backend.controller;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -11,16 +16,30 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.math.BigDecimal;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
-
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quantum.trust.backend.EncryptedBodyArgumentResolver;
+import com.quantum.trust.backend.model.TransactionFilter;
+import com.quantum.trust.backend.model.dto.AccountDto;
+import com.quantum.trust.backend.model.dto.TransferDto;
+import com.quantum.trust.backend.model.dto.UserDto;
 import com.quantum.trust.backend.services.AccountService;
+import com.quantum.trust.backend.services.CryptoService;
+import com.quantum.trust.backend.services.TransactionExportService;
 import com.quantum.trust.backend.services.TransactionService;
 import com.quantum.trust.backend.services.UserService;
 
@@ -37,15 +56,28 @@ class UserControllerTest {
         @Mock
         private TransactionService transactionService;
 
+        @Mock
+        private TransactionExportService transactionExportService;
+
         @InjectMocks
         private UserController userController;
 
         private MockMvc mockMvc;
 
+        private CryptoService cryptoService;
+
+        private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
         @BeforeEach
         void setup() {
                 MockitoAnnotations.openMocks(this);
-                mockMvc = MockMvcBuilders.standaloneSetup(userController).build();
+                cryptoService = new CryptoService(null);
+                ReflectionTestUtils.setField(cryptoService, "encryptKey",
+                                "/urpXJY0b3CFG7Y9ZvKvMcAZCS9cRnIF54C3982anI8=");
+                mockMvc = MockMvcBuilders.standaloneSetup(userController)
+                                .setCustomArgumentResolvers(
+                                                new EncryptedBodyArgumentResolver(cryptoService, objectMapper))
+                                .build();
         }
 
         @Test
@@ -95,6 +127,34 @@ class UserControllerTest {
                 verify(transactionService, times(1)).getAllUserTransactions(any(HttpServletRequest.class));
         }
 
+        @Test
+        void testGetUserTransactionsPage() throws Exception {
+                ArgumentCaptor<TransactionFilter> filterCaptor = ArgumentCaptor.forClass(TransactionFilter.class);
+                when(transactionService.getUserTransactionsPage(any(HttpServletRequest.class), any(), any(), any()))
+                                .thenReturn(ResponseEntity.ok().build());
+                mockMvc.perform(get("/api/user/transactions").param("type", "incoming")
+                                .param("fromDate", "2024-01-01").param("minAmount", "10.5").param("cursor", "abc")
+                                .param("limit", "20"))
+                                .andExpect(status().isOk());
+                verify(transactionService, times(1)).getUserTransactionsPage(any(HttpServletRequest.class),
+                                filterCaptor.capture(), eq("abc"), eq(20));
+                assertEquals("incoming", filterCaptor.getValue().getType());
+                assertEquals("2024-01-01", filterCaptor.getValue().getFromDate());
+                assertEquals(new BigDecimal("10.5"), filterCaptor.getValue().getMinAmount());
+                assertNull(filterCaptor.getValue().getStatus());
+        }
+
+        @Test
+        void testExportAccountTransactions() throws Exception {
+                when(transactionExportService.exportAccountTransactions(any(HttpServletRequest.class), any(), any(),
+                                anyBoolean(), any(), any())).thenReturn(ResponseEntity.ok().build());
+                mockMvc.perform(get("/api/user/transactions/export").param("accountNumber", "ACC123")
+                                .param("encrypted", "true").header("X-Payload-Codec", "gcm"))
+                                .andExpect(status().isOk());
+                verify(transactionExportService, times(1)).exportAccountTransactions(any(HttpServletRequest.class),
+                                eq("ACC123"), eq("csv"), eq(true), eq("gcm"), isNull());
+        }
+
         @Test
         void testGetIsAccountExists_Exists() throws Exception {
                 String accountNumber = "ACC123";
@@ -106,40 +166,79 @@ class UserControllerTest {
 
         @Test
         void testOpenNewAccount() throws Exception {
-                String encryptedAccountDto = "encryptedData";
+                AccountDto accountDto = AccountDto.builder().currency("PLN").build();
+                String encryptedAccountDto = cryptoService.encryptData(objectMapper.writeValueAsString(accountDto));
                 HttpServletRequest mockRequest = mock(HttpServletRequest.class);
-                when(userService.saveNewBankAccount(any(HttpServletRequest.class), eq(encryptedAccountDto)))
+                when(userService.saveNewBankAccount(any(HttpServletRequest.class), any(AccountDto.class)))
                                 .thenReturn(ResponseEntity.ok().build());
                 mockMvc.perform(post("/api/user/account/open")
                                 .content(encryptedAccountDto)
                                 .contentType("application/json")
                                 .requestAttr("mockRequest", mockRequest))
                                 .andExpect(status().isOk());
+                ArgumentCaptor<AccountDto> accountDtoCaptor = ArgumentCaptor.forClass(AccountDto.class);
                 verify(userService, times(1)).saveNewBankAccount(any(HttpServletRequest.class),
-                                eq(encryptedAccountDto));
+                                accountDtoCaptor.capture());
+                assertEquals("PLN", accountDtoCaptor.getValue().getCurrency());
         }
 
         @Test
         void testSendNewTransfer() throws Exception {
-                String encryptedTransferDto = "transferData";
-                when(userService.sendNewTransfer(encryptedTransferDto)).thenReturn(ResponseEntity.ok().build());
+                String transferObject = "{\"senderAccountNumber\":\"PL1\",\"receiverAccountNumber\":\"PL2\","
+                                + "\"transferTitle\":\"Rent \\\"May\\\"\",\"transferAmount\":\"12.5\"}";
+                String encryptedTransferDto = cryptoService.encryptData(transferObject);
+                when(userService.sendNewTransfer(any(HttpServletRequest.class), any(TransferDto.class)))
+                                .thenReturn(ResponseEntity.ok().build());
                 mockMvc.perform(post("/api/user/new-transfer").content(encryptedTransferDto)
                                 .contentType("application/json"))
                                 .andExpect(status().isOk());
-                verify(userService, times(1)).sendNewTransfer(encryptedTransferDto);
+                ArgumentCaptor<TransferDto> transferDtoCaptor = ArgumentCaptor.forClass(TransferDto.class);
+                verify(userService, times(1)).sendNewTransfer(any(HttpServletRequest.class),
+                                transferDtoCaptor.capture());
+                assertEquals("PL1", transferDtoCaptor.getValue().getSenderAccountNumber());
+                assertEquals("PL2", transferDtoCaptor.getValue().getReceiverAccountNumber());
+                assertEquals("Rent \"May\"", transferDtoCaptor.getValue().getTransferTitle());
+                assertEquals(new BigDecimal("12.5"), transferDtoCaptor.getValue().getTransferAmount());
+        }
+
+        @Test
+        void testSendNewTransfer_ShouldQueueAsyncTransfer() throws Exception {
+                String transferObject = "{\"senderAccountNumber\":\"PL1\",\"receiverAccountNumber\":\"PL2\","
+                                + "\"transferTitle\":\"Monthly rent\",\"transferAmount\":\"12.5\"}";
+                String encryptedTransferDto = cryptoService.encryptData(transferObject);
+                when(userService.queueNewTransfer(any(HttpServletRequest.class), any(TransferDto.class)))
+                                .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).build());
+                mockMvc.perform(post("/api/user/new-transfer").param("async", "true").content(encryptedTransferDto)
+                                .contentType("application/json"))
+                                .andExpect(status().isAccepted());
+                verify(userService, times(1)).queueNewTransfer(any(HttpServletRequest.class),
+                                any(TransferDto.class));
+                verify(userService, never()).sendNewTransfer(any(HttpServletRequest.class), any(TransferDto.class));
+        }
+
+        @Test
+        void testGetTransferStatus() throws Exception {
+                when(userService.getTransferStatus(any(HttpServletRequest.class), eq("transfer-1")))
+                                .thenReturn(ResponseEntity.ok().build());
+                mockMvc.perform(get("/api/user/transfer-status").param("transferId", "transfer-1"))
+                                .andExpect(status().isOk());
+                verify(userService, times(1)).getTransferStatus(any(HttpServletRequest.class), eq("transfer-1"));
         }
 
         @Test
         void testEditUser() throws Exception {
-                String encryptedUserObject = "userData";
+                UserDto userDto = UserDto.builder().firstName("encryptedFirstName").build();
+                String encryptedUserObject = cryptoService.encryptData(objectMapper.writeValueAsString(userDto));
                 HttpServletRequest mockRequest = mock(HttpServletRequest.class);
-                when(userService.editUserAccount(eq(encryptedUserObject), any(HttpServletRequest.class)))
+                when(userService.editUserAccount(any(UserDto.class), any(HttpServletRequest.class)))
                                 .thenReturn(ResponseEntity.ok().build());
                 mockMvc.perform(patch("/api/user/edit")
                                 .content(encryptedUserObject)
                                 .contentType("application/json")
                                 .requestAttr("mockRequest", mockRequest))
                                 .andExpect(status().isOk());
-                verify(userService, times(1)).editUserAccount(eq(encryptedUserObject), any(HttpServletRequest.class));
+                ArgumentCaptor<UserDto> userDtoCaptor = ArgumentCaptor.forClass(UserDto.class);
+                verify(userService, times(1)).editUserAccount(userDtoCaptor.capture(), any(HttpServletRequest.class));
+                assertEquals("encryptedFirstName", userDtoCaptor.getValue().getFirstName());
         }
 }
\ No newline at end of file
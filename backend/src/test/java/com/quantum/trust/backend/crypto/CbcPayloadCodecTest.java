@@ -0,0 +1,65 @@
+package com.quantum.trust.backend.crypto;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.jupiter.api.Test;
+
+public class CbcPayloadCodecTest {
+    private final SecretKey key = new SecretKeySpec(
+            Base64.getDecoder().decode("/urpXJY0b3CFG7Y9ZvKvMcAZCS9cRnIF54C3982anI8="), "AES");
+
+    private final CbcPayloadCodec codec = new CbcPayloadCodec();
+
+    @Test
+    public void testEncrypt_ShouldProduceIvPrefixedCbcCiphertext() throws Exception {
+        byte[] plainData = "{\"currency\":\"PLN\"}".getBytes(StandardCharsets.UTF_8);
+        byte[] encryptedData = codec.encrypt(key, plainData, 0, plainData.length);
+        assertEquals(16 + 32, encryptedData.length);
+        Cipher cipher = Cipher.getInstance("AES/CBC/PKCS5Padding");
+        cipher.init(Cipher.DECRYPT_MODE, key, new IvParameterSpec(encryptedData, 0, 16));
+        assertArrayEquals(plainData, cipher.doFinal(encryptedData, 16, encryptedData.length - 16));
+    }
+
+    @Test
+    public void testDecrypt_ShouldRoundTripRange() throws Exception {
+        byte[] plainData = "__payload__".getBytes(StandardCharsets.UTF_8);
+        byte[] encryptedData = codec.encrypt(key, plainData, 2, 7);
+        assertEquals("payload", new String(codec.decrypt(key, encryptedData, 0, encryptedData.length),
+                StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testDecrypt_ShouldRejectTooShortData() {
+        assertThrows(GeneralSecurityException.class, () -> codec.decrypt(key, new byte[8], 0, 8));
+    }
+
+    @Test
+    public void testStreams_ShouldRoundTrip() throws Exception {
+        byte[] plainData = "a".repeat(100_000).getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream encryptedData = new ByteArrayOutputStream();
+        try (OutputStream encryptingStream = codec.getEncryptingStream(key, encryptedData)) {
+            encryptingStream.write(plainData);
+        }
+        byte[] encryptedBytes = encryptedData.toByteArray();
+        assertArrayEquals(plainData, codec.decrypt(key, encryptedBytes, 0, encryptedBytes.length));
+        try (InputStream decryptingStream = codec.getDecryptingStream(key,
+                new ByteArrayInputStream(encryptedBytes))) {
+            assertArrayEquals(plainData, decryptingStream.readAllBytes());
+        }
+    }
+}
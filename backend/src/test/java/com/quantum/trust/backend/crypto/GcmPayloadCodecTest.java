@@ -0,0 +1,69 @@
+package com.quantum.trust.backend.crypto;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.jupiter.api.Test;
+
+public class GcmPayloadCodecTest {
+    private final SecretKey key = new SecretKeySpec(
+            Base64.getDecoder().decode("/urpXJY0b3CFG7Y9ZvKvMcAZCS9cRnIF54C3982anI8="), "AES");
+
+    private final GcmPayloadCodec codec = new GcmPayloadCodec();
+
+    @Test
+    public void testEncrypt_ShouldAddNonceAndTagWithoutPadding() throws Exception {
+        byte[] plainData = "{\"currency\":\"PLN\"}".getBytes(StandardCharsets.UTF_8);
+        byte[] encryptedData = codec.encrypt(key, plainData, 0, plainData.length);
+        assertEquals(12 + plainData.length + 16, encryptedData.length);
+        assertArrayEquals(plainData, codec.decrypt(key, encryptedData, 0, encryptedData.length));
+    }
+
+    @Test
+    public void testEncrypt_ShouldUseFreshNonce() throws Exception {
+        byte[] plainData = "payload".getBytes(StandardCharsets.UTF_8);
+        byte[] firstEncryption = codec.encrypt(key, plainData, 0, plainData.length);
+        byte[] secondEncryption = codec.encrypt(key, plainData, 0, plainData.length);
+        assertThrows(AssertionError.class, () -> assertArrayEquals(firstEncryption, secondEncryption));
+    }
+
+    @Test
+    public void testDecrypt_ShouldRejectTamperedData() throws Exception {
+        byte[] plainData = "payload".getBytes(StandardCharsets.UTF_8);
+        byte[] encryptedData = codec.encrypt(key, plainData, 0, plainData.length);
+        encryptedData[14] ^= 1;
+        assertThrows(GeneralSecurityException.class, () -> codec.decrypt(key, encryptedData, 0, encryptedData.length));
+    }
+
+    @Test
+    public void testStreams_ShouldRoundTripAndRejectTamperedData() throws Exception {
+        byte[] plainData = "b".repeat(100_000).getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream encryptedData = new ByteArrayOutputStream();
+        try (OutputStream encryptingStream = codec.getEncryptingStream(key, encryptedData)) {
+            encryptingStream.write(plainData);
+        }
+        byte[] encryptedBytes = encryptedData.toByteArray();
+        try (InputStream decryptingStream = codec.getDecryptingStream(key,
+                new ByteArrayInputStream(encryptedBytes))) {
+            assertArrayEquals(plainData, decryptingStream.readAllBytes());
+        }
+        encryptedBytes[encryptedBytes.length - 1] ^= 1;
+        try (InputStream decryptingStream = codec.getDecryptingStream(key,
+                new ByteArrayInputStream(encryptedBytes))) {
+            assertThrows(IOException.class, decryptingStream::readAllBytes);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.quantum.trust.backend.crypto;
+
+import java.util.Base64;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the CBC and GCM payload codecs on typical response sizes. Run with
+ * {@code mvn -Pbenchmark test -Dbenchmark=PayloadCodecBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PayloadCodecBenchmark {
+    private static final String ENCRYPT_KEY = "/urpXJY0b3CFG7Y9ZvKvMcAZCS9cRnIF54C3982anI8=";
+
+    @Param({ CbcPayloadCodec.NAME, GcmPayloadCodec.NAME })
+    private String codecName;
+
+    @Param({ "1024", "4096", "16384", "65536" })
+    private int payloadSize;
+
+    private PayloadCodec payloadCodec;
+    private SecretKey key;
+    private byte[] payload;
+    private byte[] encryptedPayload;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        this.payloadCodec = CbcPayloadCodec.NAME.equals(this.codecName) ? new CbcPayloadCodec()
+                : new GcmPayloadCodec();
+        this.key = new SecretKeySpec(Base64.getDecoder().decode(ENCRYPT_KEY), "AES");
+        this.payload = new byte[this.payloadSize];
+        ThreadLocalRandom.current().nextBytes(this.payload);
+        this.encryptedPayload = this.payloadCodec.encrypt(this.key, this.payload, 0, this.payload.length);
+    }
+
+    @Benchmark
+    public byte[] encrypt() throws Exception {
+        return this.payloadCodec.encrypt(this.key, this.payload, 0, this.payload.length);
+    }
+
+    @Benchmark
+    public byte[] decrypt() throws Exception {
+        return this.payloadCodec.decrypt(this.key, this.encryptedPayload, 0, this.encryptedPayload.length);
+    }
+}
@@ -0,0 +1,65 @@
+package com.quantum.trust.backend.crypto;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+public class PayloadCompressionTest {
+
+    @Test
+    public void testNone_ShouldPassStreamsThrough() {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        InputStream inputStream = new ByteArrayInputStream(new byte[0]);
+        assertSame(outputStream, PayloadCompression.NONE.compress(outputStream));
+        assertSame(inputStream, PayloadCompression.NONE.decompress(inputStream));
+    }
+
+    @Test
+    public void testDeflate_ShouldRoundTripAndShrinkRepetitiveJson() throws IOException {
+        byte[] plainData = "{\"currency\":\"PLN\",\"category\":\"Inne\",\"status\":\"settled\"},"
+                .repeat(1000).getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream compressedData = new ByteArrayOutputStream();
+        try (OutputStream compressingStream = PayloadCompression.DEFLATE.compress(compressedData)) {
+            compressingStream.write(plainData);
+        }
+        assertTrue(compressedData.size() * 20 < plainData.length);
+        try (InputStream decompressingStream = PayloadCompression.DEFLATE
+                .decompress(new ByteArrayInputStream(compressedData.toByteArray()))) {
+            assertArrayEquals(plainData, decompressingStream.readAllBytes());
+        }
+    }
+
+    @Test
+    public void testDeflate_ShouldRejectOversizedPayload() throws IOException {
+        ByteArrayOutputStream compressedData = new ByteArrayOutputStream();
+        try (OutputStream compressingStream = PayloadCompression.DEFLATE.compress(compressedData)) {
+            byte[] zeros = new byte[1024 * 1024];
+            for (long written = 0; written <= PayloadCompression.MAX_INFLATED_SIZE; written += zeros.length) {
+                compressingStream.write(zeros);
+            }
+        }
+        try (InputStream decompressingStream = PayloadCompression.DEFLATE
+                .decompress(new ByteArrayInputStream(compressedData.toByteArray()))) {
+            assertThrows(IOException.class, decompressingStream::readAllBytes);
+        }
+    }
+
+    @Test
+    public void testFromName() {
+        assertEquals(PayloadCompression.DEFLATE, PayloadCompression.fromName("deflate"));
+        assertEquals(PayloadCompression.NONE, PayloadCompression.fromName(""));
+        assertNull(PayloadCompression.fromName("lz4"));
+    }
+}
@@ -0,0 +1,85 @@
+package com.quantum.trust.backend.crypto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+public class PayloadEnvelopeTest {
+
+    @Test
+    public void testOf_ShouldBuildHeader() {
+        PayloadEnvelope envelope = PayloadEnvelope.of("gcm");
+        assertEquals("gcm", envelope.getCodecName());
+        assertEquals("qt1.gcm.", envelope.getHeader());
+        assertFalse(envelope.isLegacy());
+        assertThrows(IllegalArgumentException.class, () -> PayloadEnvelope.of("GCM"));
+        assertThrows(IllegalArgumentException.class, () -> PayloadEnvelope.of("g.cm"));
+        assertThrows(IllegalArgumentException.class, () -> PayloadEnvelope.of(null));
+    }
+
+    @Test
+    public void testOf_ShouldAddCompressionToHeader() {
+        PayloadEnvelope envelope = PayloadEnvelope.of("gcm", PayloadCompression.DEFLATE);
+        assertEquals("gcm", envelope.getCodecName());
+        assertEquals(PayloadCompression.DEFLATE, envelope.getCompression());
+        assertEquals("qt1.gcm+deflate.", envelope.getHeader());
+        assertEquals(PayloadCompression.NONE, PayloadEnvelope.LEGACY.getCompression());
+    }
+
+    @Test
+    public void testParse_ShouldReadCompression() {
+        PayloadEnvelope envelope = PayloadEnvelope.parse("qt1.cbc+deflate.AAAA");
+        assertEquals("cbc", envelope.getCodecName());
+        assertEquals(PayloadCompression.DEFLATE, envelope.getCompression());
+        assertEquals(PayloadCompression.NONE, PayloadEnvelope.parse("qt1.cbc.AAAA").getCompression());
+        assertThrows(IllegalArgumentException.class, () -> PayloadEnvelope.parse("qt1.cbc+lz4.AAAA"));
+        assertThrows(IllegalArgumentException.class, () -> PayloadEnvelope.parse("qt1.cbc+.AAAA"));
+    }
+
+    @Test
+    public void testParse() {
+        assertSame(PayloadEnvelope.LEGACY, PayloadEnvelope.parse("q+t1/AAAA=="));
+        assertTrue(PayloadEnvelope.LEGACY.isLegacy());
+        assertEquals("cbc", PayloadEnvelope.LEGACY.getCodecName());
+        assertEquals("gcm", PayloadEnvelope.parse("qt1.gcm.AAAA").getCodecName());
+        assertThrows(IllegalArgumentException.class, () -> PayloadEnvelope.parse("qt2.gcm.AAAA"));
+        assertThrows(IllegalArgumentException.class, () -> PayloadEnvelope.parse("qt1.gcmAAAA"));
+    }
+
+    @Test
+    public void testRead_ShouldLeaveStreamAtPayload() throws IOException {
+        InputStream envelopeStream = toStream("qt1.gcm.AAAA");
+        assertEquals("gcm", PayloadEnvelope.read(envelopeStream).getCodecName());
+        assertEquals("AAAA", new String(envelopeStream.readAllBytes(), StandardCharsets.US_ASCII));
+        InputStream compressedStream = toStream("qt1.gcm+deflate.AAAA");
+        assertEquals(PayloadCompression.DEFLATE, PayloadEnvelope.read(compressedStream).getCompression());
+        assertEquals("AAAA", new String(compressedStream.readAllBytes(), StandardCharsets.US_ASCII));
+        InputStream legacyStream = toStream("q".repeat(100));
+        assertSame(PayloadEnvelope.LEGACY, PayloadEnvelope.read(legacyStream));
+        assertEquals(100, legacyStream.readAllBytes().length);
+        InputStream shortLegacyStream = toStream("AAAA");
+        assertSame(PayloadEnvelope.LEGACY, PayloadEnvelope.read(shortLegacyStream));
+        assertEquals("AAAA", new String(shortLegacyStream.readAllBytes(), StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    public void testRead_ShouldRejectMalformedHeader() {
+        assertThrows(IOException.class, () -> PayloadEnvelope.read(toStream("qt2.gcm.AAAA")));
+        assertThrows(IOException.class, () -> PayloadEnvelope.read(toStream("qt1." + "g".repeat(100))));
+        assertThrows(IOException.class, () -> PayloadEnvelope.read(toStream("qt1.GCM.AAAA")));
+    }
+
+    private static InputStream toStream(String data) {
+        return new BufferedInputStream(new ByteArrayInputStream(data.getBytes(StandardCharsets.US_ASCII)));
+    }
+}
@@ -0,0 +1,40 @@
+package com.quantum.trust.backend.fx;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class FileFxRateProviderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testLoadRates() throws IOException {
+        Path ratesFile = tempDir.resolve("rates.properties");
+        Files.writeString(ratesFile, "# NBP table\nPLN=1\nEUR = 4.30\n");
+        FileFxRateProvider fileFxRateProvider = new FileFxRateProvider();
+        fileFxRateProvider.ratesFile = ratesFile.toString();
+
+        assertEquals(Map.of("PLN", BigDecimal.ONE, "EUR", new BigDecimal("4.30")), fileFxRateProvider.loadRates());
+    }
+
+    @Test
+    public void testLoadRates_ShouldRejectMissingOrInvalidFile() throws IOException {
+        FileFxRateProvider fileFxRateProvider = new FileFxRateProvider();
+        assertThrows(IOException.class, fileFxRateProvider::loadRates);
+
+        Path ratesFile = tempDir.resolve("rates.properties");
+        Files.writeString(ratesFile, "EUR=four\n");
+        fileFxRateProvider.ratesFile = ratesFile.toString();
+        assertThrows(IOException.class, fileFxRateProvider::loadRates);
+    }
+}
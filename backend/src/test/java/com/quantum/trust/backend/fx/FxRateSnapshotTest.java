@@ -0,0 +1,57 @@
+package com.quantum.trust.backend.fx;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.quantum.trust.backend.model.Money;
+
+public class FxRateSnapshotTest {
+    private final FxRateSnapshot snapshot = FxRateSnapshot.of(3L, new DefaultFxRateProvider().loadRates());
+
+    @Test
+    public void testConvertMinorUnits() {
+        assertEquals(9015L, snapshot.convertMinorUnits(10000L, "USD", "EUR"));
+        assertEquals(36397L, snapshot.convertMinorUnits(100000L, "PLN", "JPY"));
+        assertEquals(100001L, snapshot.convertMinorUnits(36397L, "JPY", "PLN"));
+        assertEquals(-9015L, snapshot.convertMinorUnits(-10000L, "USD", "EUR"));
+        assertEquals(777L, snapshot.convertMinorUnits(777L, "EUR", "EUR"));
+    }
+
+    @Test
+    public void testConvert() {
+        Money amount = Money.ofMinor(10000L, "USD");
+
+        assertEquals(Money.ofMinor(9015L, "EUR"), snapshot.convert(amount, "EUR"));
+        assertSame(amount, snapshot.convert(amount, "USD"));
+        assertEquals(100.0f * 3.8659f / 4.2883f, snapshot.convert(100.0f, "USD", "EUR"), 0.00001f);
+    }
+
+    @Test
+    public void testGetRate_ShouldTreatMissingCurrencyAsBaseCurrency() {
+        assertEquals(0, new BigDecimal("4.2883").compareTo(snapshot.getRate("EUR", "SEK")));
+        assertEquals(429L, snapshot.convertMinorUnits(100L, "EUR", "SEK"));
+        assertEquals(3L, snapshot.getVersion());
+    }
+
+    @Test
+    public void testOf_ShouldRoundHalfToEven() {
+        FxRateSnapshot halfSnapshot = FxRateSnapshot.of(1L, Map.of("PLN", BigDecimal.ONE, "EUR", new BigDecimal("2")));
+
+        assertEquals(2L, halfSnapshot.convertMinorUnits(5L, "PLN", "EUR"));
+        assertEquals(4L, halfSnapshot.convertMinorUnits(7L, "PLN", "EUR"));
+    }
+
+    @Test
+    public void testOf_ShouldRejectInvalidRates() {
+        assertThrows(IllegalArgumentException.class, () -> FxRateSnapshot.of(1L, Map.of("EUR", BigDecimal.ZERO)));
+        assertThrows(IllegalArgumentException.class,
+                () -> FxRateSnapshot.of(1L, Map.of("EUR", new BigDecimal("-4"))));
+        assertThrows(IllegalArgumentException.class, () -> FxRateSnapshot.of(1L, Map.of("ZZZ", BigDecimal.ONE)));
+    }
+}
@@ -2,6 +2,9 @@ package com.quantum.trust.backend.mappers;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -22,14 +25,14 @@ public class AccountMapperTest {
     public void testConvertToAccountDto() {
         Account account = Account.builder()
                 .id("1")
-                .balance(1000.0f)
+                .balance(100050L)
                 .currency("USD")
                 .image("image.png")
                 .type("SAVINGS")
                 .build();
         AccountDto accountDto = accountMapper.convertToAccountDto(account);
         assertEquals(account.getId(), accountDto.getId());
-        assertEquals(account.getBalance(), accountDto.getBalance());
+        assertEquals(new BigDecimal("1000.50"), accountDto.getBalance());
         assertEquals(account.getCurrency(), accountDto.getCurrency());
         assertEquals(account.getImage(), accountDto.getImage());
         assertEquals(account.getType(), accountDto.getType());
@@ -39,16 +42,25 @@ public class AccountMapperTest {
     public void testConvertToAccount() {
         AccountDto accountDto = AccountDto.builder()
                 .id("1")
-                .balance(1000.0f)
+                .balance(new BigDecimal("1000.5"))
                 .currency("USD")
                 .image("image.png")
                 .type("SAVINGS")
                 .build();
         Account account = accountMapper.convertToAccount(accountDto);
         assertNull(account.getId()); 
-        assertEquals(accountDto.getBalance(), account.getBalance());
+        assertEquals(100050L, account.getBalance());
         assertEquals(accountDto.getCurrency(), account.getCurrency());
         assertEquals(accountDto.getImage(), account.getImage());
         assertEquals(accountDto.getType(), account.getType());
     }
+
+    @Test
+    public void testConvertToAccount_ShouldRejectBalanceFinerThanMinorUnit() {
+        AccountDto accountDto = AccountDto.builder()
+                .balance(new BigDecimal("10.5"))
+                .currency("JPY")
+                .build();
+        assertThrows(ArithmeticException.class, () -> accountMapper.convertToAccount(accountDto));
+    }
 }
\ No newline at end of file
@@ -2,6 +2,8 @@ package com.quantum.trust.backend.mappers;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import java.time.LocalDate;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -27,10 +29,8 @@ public class CardMapperTest {
         card.setAccount(account);
         card.setBackImage("backImage");
         card.setCvcCode("123");
-        card.setExpirationDate("15-12-2025");
-        card.setFees("10.0f");
+        card.setExpirationDate(LocalDate.of(2025, 12, 15));
         card.setImage("image");
-        card.setLimits("1000.0f");
         card.setPin("1234");
         card.setPublisher("publisher");
         card.setShowingCardSite("showingCardSite");
@@ -42,9 +42,7 @@ public class CardMapperTest {
         assertEquals(card.getBackImage(), cardDto.getBackImage());
         assertEquals(card.getCvcCode(), cardDto.getCvcCode());
         assertEquals("12/25", cardDto.getExpirationDate());
-        assertEquals(card.getFees(), cardDto.getFees());
         assertEquals(card.getImage(), cardDto.getImage());
-        assertEquals(card.getLimits(), cardDto.getLimits());
         assertEquals(card.getPin(), cardDto.getPin());
         assertEquals(card.getPublisher(), cardDto.getPublisher());
         assertEquals(card.getShowingCardSite(), cardDto.getShowingCardSite());
@@ -59,10 +57,8 @@ public class CardMapperTest {
                 .assignedAccountNumber("2")
                 .backImage("backImage")
                 .cvcCode("123")
-                .expirationDate("12/25")
-                .fees("10.0f")
+                .expirationDate("15-12-2025")
                 .image("image")
-                .limits("1000.0f")
                 .pin("1234")
                 .publisher("publisher")
                 .showingCardSite("showingCardSite")
@@ -72,10 +68,8 @@ public class CardMapperTest {
         Card card = cardMapper.convertToCard(cardDto);
         assertEquals(cardDto.getBackImage(), card.getBackImage());
         assertEquals(cardDto.getCvcCode(), card.getCvcCode());
-        assertEquals(cardDto.getExpirationDate(), card.getExpirationDate());
-        assertEquals(cardDto.getFees(), card.getFees());
+        assertEquals(LocalDate.of(2025, 12, 15), card.getExpirationDate());
         assertEquals(cardDto.getImage(), card.getImage());
-        assertEquals(cardDto.getLimits(), card.getLimits());
         assertEquals(cardDto.getPin(), card.getPin());
         assertEquals(cardDto.getPublisher(), card.getPublisher());
         assertEquals(cardDto.getShowingCardSite(), card.getShowingCardSite());
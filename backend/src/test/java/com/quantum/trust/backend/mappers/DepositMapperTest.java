@@ -3,6 +3,8 @@ package com.quantum.trust.backend.mappers;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
+import java.math.BigDecimal;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -24,7 +26,7 @@ public class DepositMapperTest {
         Deposit deposit = Deposit.builder()
                 .id("1")
                 .account(new Account())
-                .balance(1000.0f)
+                .balance(100000L)
                 .currency("USD")
                 .duration(12)
                 .endDate("2023-12-31")
@@ -35,7 +37,7 @@ public class DepositMapperTest {
         assertNotNull(depositDto);
         assertEquals(deposit.getId(), depositDto.getId());
         assertEquals(deposit.getAccount().toString(), depositDto.getAssignedAccountNumber());
-        assertEquals(deposit.getBalance(), depositDto.getBalance());
+        assertEquals(new BigDecimal("1000.00"), depositDto.getBalance());
         assertEquals(deposit.getCurrency(), depositDto.getCurrency());
         assertEquals(deposit.getDuration(), depositDto.getDuration());
         assertEquals(deposit.getEndDate(), depositDto.getEndDate());
@@ -46,7 +48,7 @@ public class DepositMapperTest {
     @Test
     public void testConvertToDeposit() {
         DepositDto depositDto = DepositDto.builder()
-                .balance(1000.0f)
+                .balance(new BigDecimal("1000"))
                 .currency("USD")
                 .duration(12)
                 .endDate("2023-12-31")
@@ -55,7 +57,7 @@ public class DepositMapperTest {
                 .build();
         Deposit deposit = depositMapper.convertToDeposit(depositDto);
         assertNotNull(deposit);
-        assertEquals(depositDto.getBalance(), deposit.getBalance());
+        assertEquals(100000L, deposit.getBalance());
         assertEquals(depositDto.getCurrency(), deposit.getCurrency());
         assertEquals(depositDto.getDuration(), deposit.getDuration());
         assertEquals(depositDto.getEndDate(), deposit.getEndDate());
@@ -6,6 +6,7 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import com.quantum.trust.backend.model.Money;
 import com.quantum.trust.backend.model.dto.TransactionDto;
 import com.quantum.trust.backend.model.entities.Account;
 import com.quantum.trust.backend.model.entities.Transaction;
@@ -26,9 +27,9 @@ public class TransactionMapperTest {
         Transaction transaction = Transaction.builder()
                 .id(1L)
                 .account(account)
-                .accountAmountAfter(1000.0f)
+                .accountAmountAfter(100000L)
                 .accountCurrency("USD")
-                .amount(100.0f)
+                .amount(10000L)
                 .category("Food")
                 .currency("USD")
                 .date("2023-10-01")
@@ -41,9 +42,9 @@ public class TransactionMapperTest {
         assertNotNull(transactionDto);
         assertEquals(1L, transactionDto.getId());
         assertEquals("account123", transactionDto.getAssignedAccountNumber());
-        assertEquals(1000.0f, transactionDto.getAccountAmountAfter());
+        assertEquals(Money.ofMinor(100000L, "USD"), transactionDto.getAccountAmountAfter());
         assertEquals("USD", transactionDto.getAccountCurrency());
-        assertEquals(100.0f, transactionDto.getAmount());
+        assertEquals(Money.ofMinor(10000L, "USD"), transactionDto.getAmount());
         assertEquals("Food", transactionDto.getCategory());
         assertEquals("USD", transactionDto.getCurrency());
         assertEquals("2023-10-01", transactionDto.getDate());
@@ -56,9 +57,9 @@ public class TransactionMapperTest {
     @Test
     public void testConvertToTransaction() {
         TransactionDto transactionDto = TransactionDto.builder()
-                .accountAmountAfter(1000.0f)
+                .accountAmountAfter(Money.ofMinor(100000L, "USD"))
                 .accountCurrency("USD")
-                .amount(100.0f)
+                .amount(Money.ofMinor(10000L, "USD"))
                 .category("Food")
                 .currency("USD")
                 .date("2023-10-01")
@@ -69,9 +70,9 @@ public class TransactionMapperTest {
                 .build();
         Transaction transaction = transactionMapper.convertToTransaction(transactionDto);
         assertNotNull(transaction);
-        assertEquals(1000.0f, transaction.getAccountAmountAfter());
+        assertEquals(100000L, transaction.getAccountAmountAfter());
         assertEquals("USD", transaction.getAccountCurrency());
-        assertEquals(100.0f, transaction.getAmount());
+        assertEquals(10000L, transaction.getAmount());
         assertEquals("Food", transaction.getCategory());
         assertEquals("USD", transaction.getCurrency());
         assertEquals("2023-10-01", transaction.getDate());
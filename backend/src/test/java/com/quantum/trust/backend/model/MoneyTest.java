@@ -0,0 +1,54 @@
+package com.quantum.trust.backend.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class MoneyTest {
+
+    @Test
+    public void testOf_ShouldKeepExactMinorUnits() {
+        assertEquals(1005L, Money.of(new BigDecimal("10.05"), "PLN").getMinorUnits());
+        assertEquals(1000L, Money.of(new BigDecimal("1000"), "JPY").getMinorUnits());
+        assertEquals("10.05 PLN", Money.of(new BigDecimal("10.05"), "PLN").toString());
+        assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("10.005"), "PLN"));
+        assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("1.5"), "JPY"));
+        assertThrows(IllegalArgumentException.class, () -> Money.ofMinor(1L, "XXX"));
+    }
+
+    @Test
+    public void testArithmetic() {
+        Money money = Money.ofMinor(1010L, "PLN");
+
+        assertEquals(Money.ofMinor(1030L, "PLN"), money.plus(Money.ofMinor(20L, "PLN")));
+        assertTrue(money.minus(Money.ofMinor(1011L, "PLN")).isNegative());
+        assertTrue(money.compareTo(Money.zero("PLN")) > 0);
+        assertThrows(IllegalArgumentException.class, () -> money.plus(Money.ofMinor(1L, "EUR")));
+        assertThrows(ArithmeticException.class, () -> Money.ofMinor(Long.MAX_VALUE, "PLN").plus(money));
+    }
+
+    @Test
+    public void testConvert_ShouldRoundHalfToEven() {
+        BigDecimal plnRate = BigDecimal.ONE;
+        BigDecimal halfRate = new BigDecimal("2");
+
+        assertEquals(Money.ofMinor(2L, "EUR"), Money.ofMinor(5L, "PLN").convert("EUR", plnRate, halfRate));
+        assertEquals(Money.ofMinor(4L, "EUR"), Money.ofMinor(7L, "PLN").convert("EUR", plnRate, halfRate));
+        assertEquals(2L, Money.convertMinorUnits(250L, "PLN", plnRate, "JPY", BigDecimal.ONE));
+        assertEquals(250L, Money.convertMinorUnits(250L, "PLN", plnRate, "PLN", halfRate));
+    }
+
+    @Test
+    public void testSerialize_ShouldWriteDecimalNumber() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        assertEquals("10.50", objectMapper.writeValueAsString(Money.ofMinor(1050L, "PLN")));
+        assertEquals("-7", objectMapper.writeValueAsString(Money.ofMinor(-7L, "JPY")));
+    }
+}
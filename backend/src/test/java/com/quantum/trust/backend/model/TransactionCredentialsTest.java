@@ -7,8 +7,8 @@ public class TransactionCredentialsTest {
 
     @Test
     public void testTransactionCredentialsConstructorAndGetters() {
-        Float accountAmountAfter = 1000.0f;
-        Float amount = 200.0f;
+        long accountAmountAfter = 100000L;
+        long amount = 20000L;
         String category = "Food";
         String status = "Completed";
         String title = "Grocery Shopping";
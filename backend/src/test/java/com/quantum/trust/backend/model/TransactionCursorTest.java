@@ -0,0 +1,41 @@
+package com.quantum.trust.backend.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+
+import com.quantum.trust.backend.model.dto.TransactionDto;
+
+public class TransactionCursorTest {
+
+    @Test
+    public void testEncodeAndDecode() {
+        TransactionCursor transactionCursor = new TransactionCursor("2024-05-01", "12:30", 42L);
+        assertEquals(transactionCursor, TransactionCursor.decode(transactionCursor.encode()));
+    }
+
+    @Test
+    public void testOf() {
+        TransactionDto transactionDto = TransactionDto.builder().id(7L).date("2024-05-02").hour("08:15").build();
+        TransactionCursor transactionCursor = TransactionCursor.of(transactionDto);
+        assertEquals("2024-05-02", transactionCursor.getDate());
+        assertEquals("08:15", transactionCursor.getHour());
+        assertEquals(7L, transactionCursor.getId());
+    }
+
+    @Test
+    public void testDecode_ShouldRejectMalformedTokens() {
+        assertThrows(IllegalArgumentException.class, () -> TransactionCursor.decode("not base64!"));
+        assertThrows(IllegalArgumentException.class, () -> TransactionCursor.decode(encode("2024-05-01|12:30")));
+        assertThrows(IllegalArgumentException.class, () -> TransactionCursor.decode(encode("2024-13-01|12:30|1")));
+        assertThrows(IllegalArgumentException.class, () -> TransactionCursor.decode(encode("2024-05-01|12:30|x")));
+    }
+
+    private static String encode(String value) {
+        return Base64.getUrlEncoder().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
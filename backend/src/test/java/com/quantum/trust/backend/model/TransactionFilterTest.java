@@ -0,0 +1,32 @@
+package com.quantum.trust.backend.model;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.time.format.DateTimeParseException;
+
+import org.junit.jupiter.api.Test;
+
+public class TransactionFilterTest {
+
+    @Test
+    public void testValidate() {
+        assertDoesNotThrow(() -> new TransactionFilter().validate());
+        assertDoesNotThrow(() -> TransactionFilter.builder().fromDate("2024-01-01").toDate("2024-01-01")
+                .minAmount(BigDecimal.ONE).maxAmount(BigDecimal.ONE).build().validate());
+    }
+
+    @Test
+    public void testValidate_ShouldRejectInvalidRanges() {
+        assertThrows(IllegalArgumentException.class,
+                () -> TransactionFilter.builder().fromDate("2024-02-01").toDate("2024-01-01").build().validate());
+        assertThrows(IllegalArgumentException.class,
+                () -> TransactionFilter.builder().minAmount(BigDecimal.TEN).maxAmount(BigDecimal.ONE).build()
+                        .validate());
+        assertThrows(IllegalArgumentException.class,
+                () -> TransactionFilter.builder().minAmount(new BigDecimal("1e20")).build().validate());
+        assertThrows(DateTimeParseException.class,
+                () -> TransactionFilter.builder().fromDate("01.01.2024").build().validate());
+    }
+}
@@ -2,6 +2,8 @@ package com.quantum.trust.backend.model.dto;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import java.math.BigDecimal;
+
 import org.junit.jupiter.api.Test;
 
 public class AccountDtoTest {
@@ -12,35 +14,35 @@ public class AccountDtoTest {
                 .id("123")
                 .image("image.png")
                 .type("savings")
-                .balance(1000.0f)
+                .balance(new BigDecimal("1000.00"))
                 .currency("USD")
                 .build();
         assertEquals("123", accountDto.getId());
         assertEquals("image.png", accountDto.getImage());
         assertEquals("savings", accountDto.getType());
-        assertEquals(1000.0f, accountDto.getBalance());
+        assertEquals(new BigDecimal("1000.00"), accountDto.getBalance());
         assertEquals("USD", accountDto.getCurrency());
     }
 
     @Test
     public void testAccountDtoSettersAndGetters() {
-        AccountDto accountDto = new AccountDto("123", "image.png", "savings", 1000.0f, "USD");
+        AccountDto accountDto = new AccountDto("123", "image.png", "savings", new BigDecimal("1000.00"), "USD");
         accountDto.setId("456");
         accountDto.setImage("new_image.png");
         accountDto.setType("checking");
-        accountDto.setBalance(2000.0f);
+        accountDto.setBalance(new BigDecimal("2000.00"));
         accountDto.setCurrency("EUR");
         assertEquals("456", accountDto.getId());
         assertEquals("new_image.png", accountDto.getImage());
         assertEquals("checking", accountDto.getType());
-        assertEquals(2000.0f, accountDto.getBalance());
+        assertEquals(new BigDecimal("2000.00"), accountDto.getBalance());
         assertEquals("EUR", accountDto.getCurrency());
     }
 
     @Test
     public void testAccountDtoToString() {
-        AccountDto accountDto = new AccountDto("123", "image.png", "savings", 1000.0f, "USD");
-        String expectedString = "AccountDto(id=123, image=image.png, type=savings, balance=1000.0, currency=USD)";
+        AccountDto accountDto = new AccountDto("123", "image.png", "savings", new BigDecimal("1000.00"), "USD");
+        String expectedString = "AccountDto(id=123, image=image.png, type=savings, balance=1000.00, currency=USD)";
         assertEquals(expectedString, accountDto.toString());
     }
 }
\ No newline at end of file
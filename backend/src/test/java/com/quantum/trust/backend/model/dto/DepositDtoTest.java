@@ -2,6 +2,9 @@ package com.quantum.trust.backend.model.dto;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.math.BigDecimal;
+
 import org.junit.jupiter.api.Test;
 
 public class DepositDtoTest {
@@ -12,7 +15,7 @@ public class DepositDtoTest {
                 .id("1")
                 .type("Savings")
                 .percent(2.5f)
-                .balance(1000.0f)
+                .balance(new BigDecimal("1000.00"))
                 .currency("USD")
                 .endDate("2023-12-31")
                 .assignedAccountNumber("123456789")
@@ -22,7 +25,7 @@ public class DepositDtoTest {
         assertEquals("1", depositDto.getId());
         assertEquals("Savings", depositDto.getType());
         assertEquals(2.5f, depositDto.getPercent());
-        assertEquals(1000.0f, depositDto.getBalance());
+        assertEquals(new BigDecimal("1000.00"), depositDto.getBalance());
         assertEquals("USD", depositDto.getCurrency());
         assertEquals("2023-12-31", depositDto.getEndDate());
         assertEquals("123456789", depositDto.getAssignedAccountNumber());
@@ -35,7 +38,7 @@ public class DepositDtoTest {
         depositDto.setId("2");
         depositDto.setType("Fixed");
         depositDto.setPercent(3.0f);
-        depositDto.setBalance(2000.0f);
+        depositDto.setBalance(new BigDecimal("2000.00"));
         depositDto.setCurrency("EUR");
         depositDto.setEndDate("2024-06-30");
         depositDto.setAssignedAccountNumber("987654321");
@@ -43,7 +46,7 @@ public class DepositDtoTest {
         assertEquals("2", depositDto.getId());
         assertEquals("Fixed", depositDto.getType());
         assertEquals(3.0f, depositDto.getPercent());
-        assertEquals(2000.0f, depositDto.getBalance());
+        assertEquals(new BigDecimal("2000.00"), depositDto.getBalance());
         assertEquals("EUR", depositDto.getCurrency());
         assertEquals("2024-06-30", depositDto.getEndDate());
         assertEquals("987654321", depositDto.getAssignedAccountNumber());
@@ -58,12 +61,12 @@ public class DepositDtoTest {
 
     @Test
     public void testDepositDtoAllArgsConstructor() {
-        DepositDto depositDto = new DepositDto("3", "Current", 1.5f, 500.0f, "GBP", "2025-01-01", "1122334455", 6);
+        DepositDto depositDto = new DepositDto("3", "Current", 1.5f, new BigDecimal("500.00"), "GBP", "2025-01-01", "1122334455", 6);
         assertNotNull(depositDto);
         assertEquals("3", depositDto.getId());
         assertEquals("Current", depositDto.getType());
         assertEquals(1.5f, depositDto.getPercent());
-        assertEquals(500.0f, depositDto.getBalance());
+        assertEquals(new BigDecimal("500.00"), depositDto.getBalance());
         assertEquals("GBP", depositDto.getCurrency());
         assertEquals("2025-01-01", depositDto.getEndDate());
         assertEquals("1122334455", depositDto.getAssignedAccountNumber());
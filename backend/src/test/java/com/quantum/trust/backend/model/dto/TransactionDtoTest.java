@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 
 import org.junit.jupiter.api.Test;
 
+import com.quantum.trust.backend.model.Money;
 import com.quantum.trust.backend.model.entities.Account;
 import com.quantum.trust.backend.model.entities.Card;
 
@@ -23,9 +24,9 @@ public class TransactionDtoTest {
                 .card(card)
                 .assignedAccountNumber("123456789")
                 .type("Credit")
-                .amount(100.0f)
+                .amount(Money.ofMinor(10000L, "USD"))
                 .currency("USD")
-                .accountAmountAfter(200.0f)
+                .accountAmountAfter(Money.ofMinor(20000L, "USD"))
                 .category("Shopping")
                 .accountCurrency("USD")
                 .status("Completed")
@@ -39,9 +40,9 @@ public class TransactionDtoTest {
         assertEquals(card, transactionDto.getCard());
         assertEquals("123456789", transactionDto.getAssignedAccountNumber());
         assertEquals("Credit", transactionDto.getType());
-        assertEquals(100.0f, transactionDto.getAmount());
+        assertEquals(Money.ofMinor(10000L, "USD"), transactionDto.getAmount());
         assertEquals("USD", transactionDto.getCurrency());
-        assertEquals(200.0f, transactionDto.getAccountAmountAfter());
+        assertEquals(Money.ofMinor(20000L, "USD"), transactionDto.getAccountAmountAfter());
         assertEquals("Shopping", transactionDto.getCategory());
         assertEquals("USD", transactionDto.getAccountCurrency());
         assertEquals("Completed", transactionDto.getStatus());
@@ -60,9 +61,9 @@ public class TransactionDtoTest {
         transactionDto.setCard(card);
         transactionDto.setAssignedAccountNumber("123456789");
         transactionDto.setType("Credit");
-        transactionDto.setAmount(100.0f);
+        transactionDto.setAmount(Money.ofMinor(10000L, "USD"));
         transactionDto.setCurrency("USD");
-        transactionDto.setAccountAmountAfter(200.0f);
+        transactionDto.setAccountAmountAfter(Money.ofMinor(20000L, "USD"));
         transactionDto.setCategory("Shopping");
         transactionDto.setAccountCurrency("USD");
         transactionDto.setStatus("Completed");
@@ -74,9 +75,9 @@ public class TransactionDtoTest {
         assertEquals(card, transactionDto.getCard());
         assertEquals("123456789", transactionDto.getAssignedAccountNumber());
         assertEquals("Credit", transactionDto.getType());
-        assertEquals(100.0f, transactionDto.getAmount());
+        assertEquals(Money.ofMinor(10000L, "USD"), transactionDto.getAmount());
         assertEquals("USD", transactionDto.getCurrency());
-        assertEquals(200.0f, transactionDto.getAccountAmountAfter());
+        assertEquals(Money.ofMinor(20000L, "USD"), transactionDto.getAccountAmountAfter());
         assertEquals("Shopping", transactionDto.getCategory());
         assertEquals("USD", transactionDto.getAccountCurrency());
         assertEquals("Completed", transactionDto.getStatus());
@@ -20,7 +20,7 @@ public class AccountTest {
                 .id("DE89370400440532013000")
                 .image("image.png")
                 .type("Savings")
-                .balance(1000.0f)
+                .balance(100000L)
                 .currency("EUR")
                 .user(user)
                 .build();
@@ -32,7 +32,7 @@ public class AccountTest {
         assertEquals("DE89370400440532013000", account.getId());
         assertEquals("image.png", account.getImage());
         assertEquals("Savings", account.getType());
-        assertEquals(1000.0f, account.getBalance());
+        assertEquals(100000L, account.getBalance());
         assertEquals("EUR", account.getCurrency());
         assertEquals(user, account.getUser());
     }
@@ -42,18 +42,18 @@ public class AccountTest {
         account.setId("GB29NWBK60161331926819");
         account.setImage("new_image.png");
         account.setType("Checking");
-        account.setBalance(2000.0f);
+        account.setBalance(200000L);
         account.setCurrency("USD");
         assertEquals("GB29NWBK60161331926819", account.getId());
         assertEquals("new_image.png", account.getImage());
         assertEquals("Checking", account.getType());
-        assertEquals(2000.0f, account.getBalance());
+        assertEquals(200000L, account.getBalance());
         assertEquals("USD", account.getCurrency());
     }
 
     @Test
     public void testToString() {
-        String expected = "Account(id=DE89370400440532013000, image=image.png, type=Savings, balance=1000.0, currency=EUR, user=User(id=1, emailAddress=null, phoneNumber=null, firstName=Test User, lastName=null, peselNumber=null, documentType=null, documentSerie=null, address=null, password=null, avatarPath=null))";
+        String expected = "Account(id=DE89370400440532013000, image=image.png, type=Savings, balance=100000, currency=EUR, user=User(id=1, emailAddress=null, phoneNumber=null, firstName=Test User, lastName=null, peselNumber=null, documentType=null, documentSerie=null, address=null, password=null, avatarPath=null))";
         assertEquals(expected, account.toString());
     }
 }
\ No newline at end of file
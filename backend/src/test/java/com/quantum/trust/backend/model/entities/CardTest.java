@@ -23,14 +23,14 @@ public class CardTest {
                 .type("Credit")
                 .publisher("Bank")
                 .image("image.png")
-                .limits("1000")
+                .limits(new CardLimits(100000L, 5, 1000000L, 50000L, 3, 500000L))
                 .pin("1234")
                 .cvcCode("567")
-                .expirationDate("12/25")
+                .expirationDate(LocalDate.of(2025, 12, 15))
                 .creationDate(LocalDate.now())
                 .showingCardSite("site.com")
                 .backImage("backImage.png")
-                .fees("10")
+                .fees(new CardFees(0L, 1000L))
                 .status("Active")
                 .build();
     }
@@ -47,14 +47,17 @@ public class CardTest {
         assertEquals("Credit", card.getType());
         assertEquals("Bank", card.getPublisher());
         assertEquals("image.png", card.getImage());
-        assertEquals("1000", card.getLimits());
+        assertEquals(100000L, card.getLimits().getInternetTransactionsLimit());
+        assertEquals(5, card.getLimits().getInternetTransactionsCount());
+        assertEquals(500000L, card.getLimits().getCashTransactionsMaxLimit());
         assertEquals("1234", card.getPin());
         assertEquals("567", card.getCvcCode());
-        assertEquals("12/25", card.getExpirationDate());
+        assertEquals(LocalDate.of(2025, 12, 15), card.getExpirationDate());
         assertEquals(LocalDate.now(), card.getCreationDate());
         assertEquals("site.com", card.getShowingCardSite());
         assertEquals("backImage.png", card.getBackImage());
-        assertEquals("10", card.getFees());
+        assertEquals(0L, card.getFees().getReleaseFee());
+        assertEquals(1000L, card.getFees().getMonthlyFee());
         assertEquals("Active", card.getStatus());
     }
 }
\ No newline at end of file
@@ -16,10 +16,10 @@ public class DepositTest {
                 .id("DE1234567890")
                 .type("Savings")
                 .percent(2.5f)
-                .balance(1000.0f)
+                .balance(100000L)
                 .currency("USD")
                 .endDate("2023-12-31")
-                .account(new Account("ACC1234567890", null, null, null, null, null))
+                .account(new Account("ACC1234567890", null, null, 0L, null, null))
                 .duration(12)
                 .build();
     }
@@ -46,7 +46,7 @@ public class DepositTest {
 
     @Test
     public void testDepositBalance() {
-        assertEquals(1000.0f, deposit.getBalance());
+        assertEquals(100000L, deposit.getBalance());
     }
 
     @Test
@@ -19,9 +19,9 @@ public class TransactionTest {
                 .account(account)
                 .card(card)
                 .type("Debit")
-                .amount(100.0f)
+                .amount(10000L)
                 .currency("USD")
-                .accountAmountAfter(900.0f)
+                .accountAmountAfter(90000L)
                 .category("Groceries")
                 .accountCurrency("USD")
                 .status("Completed")
@@ -34,9 +34,9 @@ public class TransactionTest {
         assertEquals(account, transaction.getAccount());
         assertEquals(card, transaction.getCard());
         assertEquals("Debit", transaction.getType());
-        assertEquals(100.0f, transaction.getAmount());
+        assertEquals(10000L, transaction.getAmount());
         assertEquals("USD", transaction.getCurrency());
-        assertEquals(900.0f, transaction.getAccountAmountAfter());
+        assertEquals(90000L, transaction.getAccountAmountAfter());
         assertEquals("Groceries", transaction.getCategory());
         assertEquals("USD", transaction.getAccountCurrency());
         assertEquals("Completed", transaction.getStatus());
@@ -54,9 +54,9 @@ public class TransactionTest {
         transaction.setAccount(account);
         transaction.setCard(card);
         transaction.setType("Debit");
-        transaction.setAmount(100.0f);
+        transaction.setAmount(10000L);
         transaction.setCurrency("USD");
-        transaction.setAccountAmountAfter(900.0f);
+        transaction.setAccountAmountAfter(90000L);
         transaction.setCategory("Groceries");
         transaction.setAccountCurrency("USD");
         transaction.setStatus("Completed");
@@ -67,9 +67,9 @@ public class TransactionTest {
         assertEquals(account, transaction.getAccount());
         assertEquals(card, transaction.getCard());
         assertEquals("Debit", transaction.getType());
-        assertEquals(100.0f, transaction.getAmount());
+        assertEquals(10000L, transaction.getAmount());
         assertEquals("USD", transaction.getCurrency());
-        assertEquals(900.0f, transaction.getAccountAmountAfter());
+        assertEquals(90000L, transaction.getAccountAmountAfter());
         assertEquals("Groceries", transaction.getCategory());
         assertEquals("USD", transaction.getAccountCurrency());
         assertEquals("Completed", transaction.getStatus());
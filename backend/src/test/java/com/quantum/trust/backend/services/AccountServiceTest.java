@@ -3,7 +3,10 @@ package com.quantum.trust.backend.services;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.Arrays;
@@ -20,7 +23,7 @@ import org.springframework.http.ResponseEntity;
 
 import com.quantum.trust.backend.mappers.AccountMapper;
 import com.quantum.trust.backend.model.dto.AccountDto;
-import com.quantum.trust.backend.model.dto.EncryptedDto;
+import com.quantum.trust.backend.model.dto.EncryptedPayload;
 import com.quantum.trust.backend.model.entities.Account;
 import com.quantum.trust.backend.model.entities.User;
 import com.quantum.trust.backend.repositories.AccountRepository;
@@ -36,9 +39,6 @@ public class AccountServiceTest {
     @Mock
     private CookieService cookieService;
 
-    @Mock
-    private CryptoService cryptoService;
-
     @Mock
     private AccountMapper accountMapper;
 
@@ -48,6 +48,9 @@ public class AccountServiceTest {
     @Mock
     private AccountRepository accountRepository;
 
+    @Mock
+    private LedgerService ledgerService;
+
     @InjectMocks
     private AccountService accountService;
 
@@ -68,20 +71,19 @@ public class AccountServiceTest {
                 null, identificatorFromToken);
         List<Account> accounts = Arrays.asList(account);
         List<AccountDto> accountDtos = Arrays.asList(accountDto);
-        String encryptedData = "encryptedData";
 
         when(cookieService.getCookieValue(request, "ACCESS_TOKEN")).thenReturn(accessToken);
-        when(tokenService.getIdentificatorFromToken(accessToken)).thenReturn(identificatorFromToken);
+        when(tokenService.getIdentificatorFromToken(request, accessToken)).thenReturn(identificatorFromToken);
         when(userRepository.findById(Long.valueOf(identificatorFromToken))).thenReturn(Optional.of(user));
         when(accountRepository.findAllAcountsByUser(user)).thenReturn(accounts);
         when(accountMapper.convertToAccountDto(account)).thenReturn(accountDto);
-        when(cryptoService.encryptData(accountDtos)).thenReturn(encryptedData);
 
         ResponseEntity<?> response = accountService.getAllAccountsFromUserId(request);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        assertTrue(response.getBody() instanceof EncryptedDto);
-        assertEquals(encryptedData, ((EncryptedDto) response.getBody()).getEncryptedData());
+        assertTrue(response.getBody() instanceof EncryptedPayload);
+        assertEquals(accountDtos, ((EncryptedPayload) response.getBody()).getData());
+        verify(ledgerService).loadBalances(accounts);
     }
 
     @Test
@@ -92,7 +94,7 @@ public class AccountServiceTest {
         User user = new User();
 
         when(cookieService.getCookieValue(request, "ACCESS_TOKEN")).thenReturn(accessToken);
-        when(tokenService.getIdentificatorFromToken(accessToken)).thenReturn(identificatorFromToken);
+        when(tokenService.getIdentificatorFromToken(request, accessToken)).thenReturn(identificatorFromToken);
         when(userRepository.findById(Long.valueOf(identificatorFromToken))).thenReturn(Optional.of(user));
         when(accountRepository.findAllAcountsByUser(user)).thenReturn(Arrays.asList());
 
@@ -108,7 +110,7 @@ public class AccountServiceTest {
         String identificatorFromToken = "1";
 
         when(cookieService.getCookieValue(request, "ACCESS_TOKEN")).thenReturn(accessToken);
-        when(tokenService.getIdentificatorFromToken(accessToken)).thenReturn(identificatorFromToken);
+        when(tokenService.getIdentificatorFromToken(request, accessToken)).thenReturn(identificatorFromToken);
         when(userRepository.findById(Long.valueOf(identificatorFromToken))).thenThrow(new RuntimeException());
 
         ResponseEntity<?> response = accountService.getAllAccountsFromUserId(request);
@@ -126,7 +128,7 @@ public class AccountServiceTest {
         List<Account> accounts = Arrays.asList(account);
 
         when(cookieService.getCookieValue(request, "ACCESS_TOKEN")).thenReturn(accessToken);
-        when(tokenService.getIdentificatorFromToken(accessToken)).thenReturn(identificatorFromToken);
+        when(tokenService.getIdentificatorFromToken(request, accessToken)).thenReturn(identificatorFromToken);
         when(userRepository.findById(Long.valueOf(identificatorFromToken))).thenReturn(Optional.of(user));
         when(accountRepository.findAllAcountsByUser(user)).thenReturn(accounts);
 
@@ -142,7 +144,7 @@ public class AccountServiceTest {
         String identificatorFromToken = "1";
 
         when(cookieService.getCookieValue(request, "ACCESS_TOKEN")).thenReturn(accessToken);
-        when(tokenService.getIdentificatorFromToken(accessToken)).thenReturn(identificatorFromToken);
+        when(tokenService.getIdentificatorFromToken(request, accessToken)).thenReturn(identificatorFromToken);
         when(userRepository.findById(Long.valueOf(identificatorFromToken))).thenReturn(Optional.empty());
 
         List<Account> result = accountService.retrieveAccountsFromUserId(request);
@@ -150,5 +152,12 @@ public class AccountServiceTest {
         assertNull(result);
     }
 
-
-}
\ No newline at end of file
+    @Test
+    public void testRetrieveUserIdFromToken() {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(cookieService.getCookieValue(request, "ACCESS_TOKEN")).thenReturn("accessToken");
+        when(tokenService.getIdentificatorFromToken(request, "accessToken")).thenReturn("7");
+        assertEquals(7L, accountService.retrieveUserIdFromToken(request));
+        verify(userRepository, never()).findById(any());
+    }
+}
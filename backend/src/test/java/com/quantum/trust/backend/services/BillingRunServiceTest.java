@@ -0,0 +1,227 @@
+package com.quantum.trust.backend.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.quantum.trust.backend.model.entities.Account;
+import com.quantum.trust.backend.model.entities.BillingRun;
+import com.quantum.trust.backend.model.entities.Card;
+import com.quantum.trust.backend.model.entities.CardCharge;
+import com.quantum.trust.backend.repositories.AccountRepository;
+import com.quantum.trust.backend.repositories.BillingRunRepository;
+import com.quantum.trust.backend.repositories.CardChargeRepository;
+import com.quantum.trust.backend.repositories.CardRepository;
+
+public class BillingRunServiceTest {
+    private static final LocalDate BILLING_DATE = LocalDate.of(2024, 3, 15);
+
+    @Mock
+    private CardService cardService;
+
+    @Mock
+    private CardRepository cardRepository;
+
+    @Mock
+    private CardChargeRepository cardChargeRepository;
+
+    @Mock
+    private BillingRunRepository billingRunRepository;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BillingRunService billingRunService;
+    private Account firstAccount;
+    private Account secondAccount;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        billingRunService = new BillingRunService(cardService, cardRepository, cardChargeRepository,
+                billingRunRepository, accountRepository, transactionManager, 2);
+        firstAccount = Account.builder().id("PL61109010140000071219812874").currency("PLN").build();
+        secondAccount = Account.builder().id("PL27114020040000300201355387").currency("EUR").build();
+        when(billingRunRepository.findById(BILLING_DATE)).thenReturn(Optional.empty());
+        when(billingRunRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(accountRepository.findAllForUpdateByIdIn(List.of(firstAccount.getId())))
+                .thenReturn(List.of(firstAccount));
+        when(accountRepository.findAllForUpdateByIdIn(List.of(secondAccount.getId())))
+                .thenReturn(List.of(secondAccount));
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        billingRunService.shutdown();
+    }
+
+    @Test
+    public void testRunBilling_ShouldChargeDueCardsOnceAndReport() throws Exception {
+        Card billedCard = getCard("1", firstAccount);
+        Card cancelledCard = getCard("2", firstAccount);
+        Card chargedCard = getCard("3", secondAccount);
+        when(cardRepository.findAllDueForBilling(BILLING_DATE, 15, 15))
+                .thenReturn(List.of(billedCard, cancelledCard, chargedCard));
+        when(cardChargeRepository.findCardIdsByBillingDate(BILLING_DATE)).thenReturn(Set.of("3"));
+        when(cardService.chargeMonthlyFee(billedCard, firstAccount)).thenReturn(true);
+        when(cardService.chargeMonthlyFee(cancelledCard, firstAccount)).thenReturn(false);
+
+        BillingRun billingRun = billingRunService.runBilling(BILLING_DATE);
+
+        assertEquals("completed", billingRun.getStatus());
+        assertEquals(1, billingRun.getAttempts());
+        assertEquals(1, billingRun.getBilledCards());
+        assertEquals(1, billingRun.getCancelledCards());
+        assertEquals(1, billingRun.getSkippedCards());
+        assertEquals(0, billingRun.getFailedCards());
+        ArgumentCaptor<CardCharge> chargeCaptor = ArgumentCaptor.forClass(CardCharge.class);
+        verify(cardChargeRepository, times(2)).save(chargeCaptor.capture());
+        assertEquals("1:2024-03-15", chargeCaptor.getAllValues().get(0).getId());
+        assertEquals("billed", chargeCaptor.getAllValues().get(0).getOutcome());
+        assertEquals("cancelled", chargeCaptor.getAllValues().get(1).getOutcome());
+        verify(cardService, never()).chargeMonthlyFee(chargedCard, secondAccount);
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    public void testRunBilling_ShouldResumeFailedRun() throws Exception {
+        Card card = getCard("1", firstAccount);
+        when(cardRepository.findAllDueForBilling(BILLING_DATE, 15, 15)).thenReturn(List.of(card));
+        when(cardChargeRepository.findCardIdsByBillingDate(BILLING_DATE)).thenReturn(Set.of());
+        when(cardService.chargeMonthlyFee(card, firstAccount)).thenThrow(new Exception("Fees not readable"))
+                .thenReturn(true);
+
+        BillingRun failedRun = billingRunService.runBilling(BILLING_DATE);
+
+        assertEquals("failed", failedRun.getStatus());
+        assertEquals(1, failedRun.getFailedCards());
+        verify(transactionManager).rollback(any());
+        verify(cardChargeRepository, never()).save(any());
+
+        when(billingRunRepository.findById(BILLING_DATE)).thenReturn(Optional.of(failedRun));
+        BillingRun resumedRun = billingRunService.runBilling(BILLING_DATE);
+
+        assertEquals("completed", resumedRun.getStatus());
+        assertEquals(2, resumedRun.getAttempts());
+        assertEquals(1, resumedRun.getBilledCards());
+        assertEquals(0, resumedRun.getFailedCards());
+    }
+
+    @Test
+    public void testRunBilling_ShouldSkipOnlyCardsChargedConcurrently() throws Exception {
+        Card chargedCard = getCard("1", firstAccount);
+        Card brokenCard = getCard("2", secondAccount);
+        when(cardRepository.findAllDueForBilling(BILLING_DATE, 15, 15)).thenReturn(List.of(chargedCard, brokenCard));
+        when(cardChargeRepository.findCardIdsByBillingDate(BILLING_DATE)).thenReturn(Set.of());
+        when(cardService.chargeMonthlyFee(chargedCard, firstAccount))
+                .thenThrow(getIntegrityViolation(BillingRunService.CARD_CHARGES_KEY));
+        when(cardService.chargeMonthlyFee(brokenCard, secondAccount))
+                .thenThrow(getIntegrityViolation("transactions_account_id_fkey"));
+
+        BillingRun billingRun = billingRunService.runBilling(BILLING_DATE);
+
+        assertEquals("failed", billingRun.getStatus());
+        assertEquals(1, billingRun.getSkippedCards());
+        assertEquals(1, billingRun.getFailedCards());
+        assertEquals(0, billingRun.getBilledCards());
+    }
+
+    @Test
+    public void testRunBilling_ShouldNotStartCompletedRunAgain() throws Exception {
+        BillingRun completedRun = BillingRun.builder().billingDate(BILLING_DATE).status("completed").build();
+        when(billingRunRepository.findById(BILLING_DATE)).thenReturn(Optional.of(completedRun));
+
+        assertEquals(completedRun, billingRunService.runBilling(BILLING_DATE));
+        verify(cardRepository, never()).findAllDueForBilling(any(), anyInt(), anyInt());
+        verify(billingRunRepository, never()).save(any());
+    }
+
+    @Test
+    public void testRunBilling_ShouldBillLaterCreationDaysOnLastDayOfMonth() throws Exception {
+        LocalDate lastDay = LocalDate.of(2024, 2, 29);
+        when(billingRunRepository.findById(lastDay)).thenReturn(Optional.empty());
+
+        billingRunService.runBilling(lastDay);
+
+        verify(cardRepository).findAllDueForBilling(lastDay, 29, 31);
+    }
+
+    @Test
+    public void testBillUnfinishedDays_ShouldCatchUpFromEarliestUnfinishedDay() throws Exception {
+        LocalDate failedDate = BILLING_DATE.minusDays(5);
+        when(billingRunRepository.findLastCompletedBillingDate()).thenReturn(BILLING_DATE.minusDays(3));
+        when(billingRunRepository.findFirstUnfinishedBillingDate()).thenReturn(failedDate);
+        for (LocalDate completedDate : List.of(BILLING_DATE.minusDays(4), BILLING_DATE.minusDays(3))) {
+            when(billingRunRepository.findById(completedDate)).thenReturn(Optional
+                    .of(BillingRun.builder().billingDate(completedDate).status("completed").build()));
+        }
+        when(billingRunRepository.findById(failedDate)).thenReturn(Optional
+                .of(BillingRun.builder().billingDate(failedDate).status("failed").attempts(1).build()));
+
+        assertEquals(List.of(failedDate, BILLING_DATE.minusDays(4), BILLING_DATE.minusDays(3),
+                BILLING_DATE.minusDays(2), BILLING_DATE.minusDays(1), BILLING_DATE),
+                billingRunService.billUnfinishedDays(BILLING_DATE));
+
+        verify(cardRepository).findAllDueForBilling(failedDate, 10, 10);
+        verify(cardRepository, never()).findAllDueForBilling(BILLING_DATE.minusDays(4), 11, 11);
+        verify(cardRepository, never()).findAllDueForBilling(BILLING_DATE.minusDays(3), 12, 12);
+        verify(cardRepository).findAllDueForBilling(BILLING_DATE.minusDays(2), 13, 13);
+        verify(cardRepository).findAllDueForBilling(BILLING_DATE.minusDays(1), 14, 14);
+        verify(cardRepository).findAllDueForBilling(BILLING_DATE, 15, 15);
+    }
+
+    @Test
+    public void testBillUnfinishedDays_ShouldBillOnlyTodayWithoutRuns() throws Exception {
+        assertEquals(List.of(BILLING_DATE), billingRunService.billUnfinishedDays(BILLING_DATE));
+        verify(cardRepository, times(1)).findAllDueForBilling(any(), anyInt(), anyInt());
+    }
+
+    @Test
+    public void testGetChunks_ShouldKeepCardsOfAccountTogether() {
+        Account thirdAccount = Account.builder().id("PL10105000997603123456789123").currency("PLN").build();
+        List<Card> dueCards = new ArrayList<>();
+        IntStream.range(0, 60).forEach(i -> dueCards.add(getCard("A" + i, firstAccount)));
+        IntStream.range(0, 60).forEach(i -> dueCards.add(getCard("B" + i, secondAccount)));
+        IntStream.range(0, 10).forEach(i -> dueCards.add(getCard("C" + i, thirdAccount)));
+
+        List<List<Card>> chunks = BillingRunService.getChunks(dueCards, Set.of("C0"));
+
+        assertEquals(2, chunks.size());
+        assertEquals(120, chunks.get(0).size());
+        assertEquals(9, chunks.get(1).size());
+    }
+
+    private static DataIntegrityViolationException getIntegrityViolation(String constraintName) {
+        return new DataIntegrityViolationException("Integrity violation", new ConstraintViolationException(
+                "Integrity violation", new SQLException("Integrity violation", "23505"), constraintName));
+    }
+
+    private static Card getCard(String id, Account account) {
+        return Card.builder().id(id).account(account).creationDate(BILLING_DATE.minusMonths(1)).build();
+    }
+}
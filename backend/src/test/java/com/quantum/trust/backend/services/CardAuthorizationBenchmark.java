@@ -0,0 +1,187 @@
+package com.quantum.trust.backend.services;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+import com.quantum.trust.backend.model.dto.CardAuthorizationDto;
+import com.quantum.trust.backend.model.dto.CardAuthorizationResultDto;
+import com.quantum.trust.backend.model.entities.Account;
+import com.quantum.trust.backend.model.entities.Card;
+import com.quantum.trust.backend.model.entities.CardLimits;
+import com.quantum.trust.backend.model.entities.User;
+import com.quantum.trust.backend.repositories.AccountRepository;
+import com.quantum.trust.backend.repositories.CardRepository;
+import com.quantum.trust.backend.repositories.JournalEntryRepository;
+import com.quantum.trust.backend.repositories.TransactionRepository;
+
+/**
+ * Measures the latency distribution of card authorizations, internet payments
+ * and cash withdrawals of 4096 cards from 64 threads, with the holds recorded
+ * by the writer thread in the background. The repositories are in memory and
+ * every commit waits 200 microseconds in place of the database round trip.
+ * The security codes are encrypted as in the database, so every authorization
+ * pays for decrypting one, and waits for the writer to check the balance of
+ * its account and post the hold. The p0.99 row of the sample time result is the one
+ * to keep below 2 milliseconds. Run with
+ * {@code mvn -Pbenchmark test -Dbenchmark=CardAuthorizationBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(64)
+@Fork(1)
+public class CardAuthorizationBenchmark {
+    private static final int CARDS = 4096;
+    private static final Long OWNER_ID = 1L;
+    private static final long COMMIT_LATENCY_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+
+    private CardAuthorizationService cardAuthorizationService;
+    private CardAuthorizationDto[] authorizations;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        CryptoService cryptoService = new CryptoService(null);
+        ReflectionTestUtils.setField(cryptoService, "encryptKey", "/urpXJY0b3CFG7Y9ZvKvMcAZCS9cRnIF54C3982anI8=");
+        Map<String, Card> cards = new ConcurrentHashMap<>();
+        String cvcCode = cryptoService.encryptData("123");
+        String pin = cryptoService.encryptData("9876");
+        User owner = new User();
+        owner.setId(OWNER_ID);
+        for (int i = 0; i < CARDS; i++) {
+            String cardId = String.format("4%015d", i);
+            Account account = Account.builder().id(String.format("PL%026d", i)).user(owner).balance(Long.MAX_VALUE / 2)
+                    .currency("PLN").build();
+            cards.put(cardId, Card.builder()
+                    .id(cardId)
+                    .account(account)
+                    .cvcCode(cvcCode)
+                    .pin(pin)
+                    .status("active")
+                    .expirationDate(LocalDate.now().plusYears(3))
+                    .limits(CardLimits.builder()
+                            .internetTransactionsLimit(Long.MAX_VALUE / 2)
+                            .internetTransactionsCount(Integer.MAX_VALUE)
+                            .cashTransactionsLimit(Long.MAX_VALUE / 2)
+                            .cashTransactionsCount(Integer.MAX_VALUE)
+                            .build())
+                    .build());
+        }
+        LatentTransactionManager transactionManager = new LatentTransactionManager();
+        this.cardAuthorizationService = new CardAuthorizationService(getCardRepository(cards),
+                getAccountRepository(cards), getTransactionRepository(), cryptoService,
+                getLedgerService(transactionManager), null, transactionManager, 65536, Clock.systemDefaultZone());
+        this.cardAuthorizationService.start();
+        this.authorizations = new CardAuthorizationDto[8192];
+        for (int i = 0; i < this.authorizations.length; i++) {
+            boolean isInternet = i % 4 != 0;
+            this.authorizations[i] = CardAuthorizationDto.builder()
+                    .cardId(String.format("4%015d", i % CARDS))
+                    .channel(isInternet ? "internet" : "cash")
+                    .securityCode(isInternet ? "123" : "9876")
+                    .title("Zakupy")
+                    .amount(BigDecimal.valueOf(1 + i % 500, 2))
+                    .build();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        this.cardAuthorizationService.shutdown();
+    }
+
+    @Benchmark
+    public CardAuthorizationResultDto authorizeCardPayments() throws Exception {
+        return this.cardAuthorizationService
+                .authorize(this.authorizations[ThreadLocalRandom.current().nextInt(this.authorizations.length)],
+                        OWNER_ID);
+    }
+
+    private static CardRepository getCardRepository(Map<String, Card> cards) {
+        return (CardRepository) Proxy.newProxyInstance(CardRepository.class.getClassLoader(),
+                new Class<?>[] { CardRepository.class }, (proxy, method, args) -> {
+                    if (method.getName().equals("findAllWithAccountByIdIn")) {
+                        return ((Collection<?>) args[0]).stream().map(cards::get).toList();
+                    }
+                    return args != null ? args[0] : List.of();
+                });
+    }
+
+    private static AccountRepository getAccountRepository(Map<String, Card> cards) {
+        Map<String, Account> accounts = new ConcurrentHashMap<>();
+        for (Card card : cards.values()) {
+            accounts.put(card.getAccount().getId(), card.getAccount());
+        }
+        return (AccountRepository) Proxy.newProxyInstance(AccountRepository.class.getClassLoader(),
+                new Class<?>[] { AccountRepository.class }, (proxy, method, args) -> {
+                    if (method.getName().equals("findAllForUpdateByIdIn")) {
+                        return ((Collection<?>) args[0]).stream().map(accounts::get).toList();
+                    }
+                    return args != null ? args[0] : List.of();
+                });
+    }
+
+    private static TransactionRepository getTransactionRepository() {
+        return (TransactionRepository) Proxy.newProxyInstance(TransactionRepository.class.getClassLoader(),
+                new Class<?>[] { TransactionRepository.class }, (proxy, method, args) -> args != null ? args[0] : null);
+    }
+
+    private static LedgerService getLedgerService(LatentTransactionManager transactionManager) {
+        JournalEntryRepository journalEntryRepository = (JournalEntryRepository) Proxy.newProxyInstance(
+                JournalEntryRepository.class.getClassLoader(), new Class<?>[] { JournalEntryRepository.class },
+                (proxy, method, args) -> args != null ? args[0] : null);
+        return new LedgerService(journalEntryRepository, null, transactionManager) {
+            @Override
+            public void loadBalances(Collection<Account> accounts) {
+            }
+        };
+    }
+
+    private static final class LatentTransactionManager extends AbstractPlatformTransactionManager {
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+            LockSupport.parkNanos(COMMIT_LATENCY_NANOS);
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
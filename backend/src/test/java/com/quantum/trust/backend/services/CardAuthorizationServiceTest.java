@@ -0,0 +1,351 @@
+package com.quantum.trust.backend.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.quantum.trust.backend.model.AuthorizationDecision;
+import com.quantum.trust.backend.model.CardSpending;
+import com.quantum.trust.backend.model.dto.CardAuthorizationDto;
+import com.quantum.trust.backend.model.dto.CardAuthorizationResultDto;
+import com.quantum.trust.backend.model.dto.EncryptedPayload;
+import com.quantum.trust.backend.model.entities.Account;
+import com.quantum.trust.backend.model.entities.Card;
+import com.quantum.trust.backend.model.entities.CardLimits;
+import com.quantum.trust.backend.model.entities.Transaction;
+import com.quantum.trust.backend.model.entities.User;
+import com.quantum.trust.backend.repositories.AccountRepository;
+import com.quantum.trust.backend.repositories.CardRepository;
+import com.quantum.trust.backend.repositories.TransactionRepository;
+import com.quantum.trust.backend.services.CardAuthorizationService.Hold;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+public class CardAuthorizationServiceTest {
+    private static final String CARD_ID = "4111111111111111";
+    private static final Long OWNER_ID = 7L;
+
+    private final CardRepository cardRepository = mock(CardRepository.class);
+    private final AccountRepository accountRepository = mock(AccountRepository.class);
+    private final TransactionRepository transactionRepository = mock(TransactionRepository.class);
+    private final CryptoService cryptoService = mock(CryptoService.class);
+    private final LedgerService ledgerService = mock(LedgerService.class);
+    private final AccountService accountService = mock(AccountService.class);
+    private final Clock clock = Clock.fixed(Instant.parse("2024-05-10T12:30:00Z"), ZoneOffset.UTC);
+    private Account account;
+    private final HttpServletRequest request = mock(HttpServletRequest.class);
+    private Card card;
+    private CardAuthorizationService cardAuthorizationService;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        User owner = new User();
+        owner.setId(OWNER_ID);
+        account = Account.builder().id("PL61109010140000071219812874").currency("PLN").balance(50000L)
+                .user(owner).build();
+        card = Card.builder()
+                .id(CARD_ID)
+                .account(account)
+                .cvcCode("encryptedCvc")
+                .pin("encryptedPin")
+                .expirationDate(LocalDate.of(2027, 5, 31))
+                .status("active")
+                .limits(CardLimits.builder()
+                        .internetTransactionsLimit(10000L)
+                        .internetTransactionsCount(3)
+                        .cashTransactionsLimit(20000L)
+                        .cashTransactionsCount(1)
+                        .build())
+                .build();
+        when(cardRepository.findAllWithAccountByIdIn(anyCollection())).thenReturn(List.of(card));
+        when(accountRepository.findAllForUpdateByIdIn(anyCollection())).thenReturn(List.of(account));
+        when(cryptoService.decryptData("encryptedCvc")).thenReturn("123");
+        when(cryptoService.decryptData("encryptedPin")).thenReturn("9876");
+        cardAuthorizationService = getCardAuthorizationService(16);
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        cardAuthorizationService.shutdown();
+    }
+
+    @Test
+    public void testAuthorize_ShouldApproveWithinLimitsAndDeclineAboveThem() throws Exception {
+        CardAuthorizationResultDto approved = authorize("internet", "123", "60.00");
+        CardAuthorizationResultDto declined = authorize("internet", "123", "40.01");
+
+        assertEquals(AuthorizationDecision.APPROVED, approved.getDecision());
+        assertNotNull(approved.getAuthorizationId());
+        assertEquals(AuthorizationDecision.DECLINED_AMOUNT_LIMIT, declined.getDecision());
+        assertNull(declined.getAuthorizationId());
+        assertEquals(AuthorizationDecision.APPROVED, authorize("internet", "123", "40.00").getDecision());
+        verify(cardRepository, times(1)).findAllWithAccountByIdIn(List.of(CARD_ID));
+    }
+
+    @Test
+    public void testAuthorize_ShouldDeclineAboveCountLimit() throws Exception {
+        assertEquals(AuthorizationDecision.APPROVED, authorize("cash", "9876", "10.00").getDecision());
+        assertEquals(AuthorizationDecision.DECLINED_COUNT_LIMIT, authorize("cash", "9876", "10.00").getDecision());
+    }
+
+    @Test
+    public void testAuthorize_ShouldDeclineWrongCodeAndUnusableCard() throws Exception {
+        assertEquals(AuthorizationDecision.DECLINED_CARD, authorize("internet", "9876", "1.00").getDecision());
+        assertEquals(AuthorizationDecision.DECLINED_CARD, authorize("cash", "123", "1.00").getDecision());
+
+        card.setStatus("suspended");
+        cardAuthorizationService.refreshCard(CARD_ID);
+
+        assertEquals(AuthorizationDecision.DECLINED_CARD, authorize("internet", "123", "1.00").getDecision());
+    }
+
+    @Test
+    public void testAuthorize_ShouldSuspendCardAfterTooManyWrongSecurityCodes() throws Exception {
+        assertEquals(AuthorizationDecision.DECLINED_CARD, authorize("internet", "111", "1.00").getDecision());
+        assertEquals(AuthorizationDecision.APPROVED, authorize("internet", "123", "1.00").getDecision());
+        for (int i = 0; i < CardAuthorizationService.MAX_SECURITY_CODE_FAILURES; i++) {
+            assertEquals(AuthorizationDecision.DECLINED_CARD, authorize("internet", "11" + i, "1.00").getDecision());
+        }
+        verify(cardRepository, times(1)).suspendById(CARD_ID);
+        card.setStatus("suspended");
+
+        assertEquals(AuthorizationDecision.DECLINED_CARD, authorize("internet", "123", "1.00").getDecision());
+
+        card.setStatus("unsuspended");
+        cardAuthorizationService.refreshCard(CARD_ID);
+
+        assertEquals(AuthorizationDecision.APPROVED, authorize("internet", "123", "1.00").getDecision());
+    }
+
+    @Test
+    public void testAuthorize_ShouldDeclineCardOfAnotherUserWithoutTakingAttempts() throws Exception {
+        for (int i = 0; i < CardAuthorizationService.MAX_SECURITY_CODE_FAILURES + 1; i++) {
+            assertEquals(AuthorizationDecision.DECLINED_CARD, cardAuthorizationService
+                    .authorize(getCardAuthorizationDto("internet", "11" + i, "1.00"), 8L).getDecision());
+        }
+        assertEquals(AuthorizationDecision.DECLINED_CARD,
+                cardAuthorizationService.authorize(getCardAuthorizationDto("internet", "123", "1.00"), 8L)
+                        .getDecision());
+        assertEquals(AuthorizationDecision.DECLINED_CARD,
+                cardAuthorizationService.authorize(getCardAuthorizationDto("internet", "123", "1.00"), null)
+                        .getDecision());
+
+        verify(cryptoService, never()).decryptData(anyString());
+        verify(cardRepository, never()).suspendById(anyString());
+        assertEquals(AuthorizationDecision.APPROVED, authorize("internet", "123", "1.00").getDecision());
+    }
+
+    @Test
+    public void testAuthorizeCardPayment_ShouldAuthorizeForUserOfRequest() throws Exception {
+        when(accountService.retrieveUserIdFromToken(request)).thenReturn(8L);
+        CardAuthorizationResultDto result = (CardAuthorizationResultDto) ((EncryptedPayload) cardAuthorizationService
+                .authorizeCardPayment(request, getCardAuthorizationDto("internet", "123", "1.00")).getBody())
+                .getData();
+        assertEquals(AuthorizationDecision.DECLINED_CARD, result.getDecision());
+
+        when(accountService.retrieveUserIdFromToken(request)).thenReturn(OWNER_ID);
+        result = (CardAuthorizationResultDto) ((EncryptedPayload) cardAuthorizationService
+                .authorizeCardPayment(request, getCardAuthorizationDto("internet", "123", "1.00")).getBody())
+                .getData();
+        assertEquals(AuthorizationDecision.APPROVED, result.getDecision());
+    }
+
+    @Test
+    public void testAuthorize_ShouldCheckNoMoreWrongSecurityCodesUnderParallelGuesses() throws Exception {
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            String securityCode = String.format("%03d", i + 200);
+            Thread thread = new Thread(() -> {
+                try {
+                    authorize("internet", securityCode, "1.00");
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        verify(cryptoService, times(CardAuthorizationService.MAX_SECURITY_CODE_FAILURES)).decryptData("encryptedCvc");
+        assertEquals(AuthorizationDecision.DECLINED_CARD, authorize("internet", "123", "1.00").getDecision());
+    }
+
+    @Test
+    public void testAuthorize_ShouldDeclineUnknownCard() throws Exception {
+        when(cardRepository.findAllWithAccountByIdIn(anyCollection())).thenReturn(List.of());
+
+        assertEquals(AuthorizationDecision.DECLINED_CARD, authorize("internet", "123", "1.00").getDecision());
+    }
+
+    @Test
+    public void testAuthorizeCardPayment_ShouldRejectInvalidPayment() throws Exception {
+        assertThrows(IllegalArgumentException.class,
+                () -> authorize("phone", "123", "1.00"));
+        assertThrows(IllegalArgumentException.class,
+                () -> authorize("internet", "123", "0.001"));
+        assertThrows(IllegalArgumentException.class,
+                () -> authorize("internet", "123", "-1.00"));
+        assertEquals(HttpStatus.BAD_REQUEST, cardAuthorizationService
+                .authorizeCardPayment(request, getCardAuthorizationDto("phone", "123", "1.00")).getStatusCode());
+    }
+
+    @Test
+    public void testRebuildCounters_ShouldCountSpendingsOfTheLastDay() throws Exception {
+        when(transactionRepository.findCardSpendingsSince(anyString(), anyCollection())).thenReturn(List.of(
+                new CardSpending(CARD_ID, CardAuthorizationService.INTERNET_CATEGORY, 9000L, "2024-05-10", "08:15"),
+                new CardSpending(CARD_ID, CardAuthorizationService.INTERNET_CATEGORY, 5000L, "2024-05-09", "11:59"),
+                new CardSpending(CARD_ID, CardAuthorizationService.CASH_CATEGORY, 1000L, "2024-05-09", "13:00")));
+
+        cardAuthorizationService.rebuildCounters();
+
+        verify(transactionRepository, times(1)).findCardSpendingsSince("2024-05-09",
+                List.of(CardAuthorizationService.INTERNET_CATEGORY, CardAuthorizationService.CASH_CATEGORY));
+        assertEquals(AuthorizationDecision.DECLINED_AMOUNT_LIMIT, authorize("internet", "123", "10.01").getDecision());
+        assertEquals(AuthorizationDecision.APPROVED, authorize("internet", "123", "10.00").getDecision());
+        assertEquals(AuthorizationDecision.DECLINED_COUNT_LIMIT, authorize("cash", "9876", "1.00").getDecision());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testAuthorize_ShouldRecordApprovedPaymentAsBlockade() throws Exception {
+        authorize("internet", "123", "12.50");
+
+        ArgumentCaptor<List<Transaction>> transactionsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(transactionRepository, timeout(5000)).saveAll(transactionsCaptor.capture());
+        Transaction transaction = transactionsCaptor.getValue().get(0);
+        assertEquals(card, transaction.getCard());
+        assertEquals(1250L, transaction.getAmount());
+        assertEquals("blockade", transaction.getStatus());
+        assertEquals("outgoing", transaction.getType());
+        assertEquals(CardAuthorizationService.INTERNET_CATEGORY, transaction.getCategory());
+        assertEquals("2024-05-10", transaction.getDate());
+        assertEquals("12:30", transaction.getHour());
+        assertEquals(48750L, transaction.getAccountAmountAfter());
+        verify(accountRepository, times(1)).findAllForUpdateByIdIn(Set.of(account.getId()));
+        verify(ledgerService, times(1)).postCardPayment(account, 1250L);
+    }
+
+    @Test
+    public void testAuthorize_ShouldDeclinePaymentNotCoveredByBalance() throws Exception {
+        account.setBalance(4000L);
+        assertEquals(AuthorizationDecision.APPROVED, authorize("internet", "123", "30.00").getDecision());
+        account.setBalance(1000L);
+
+        CardAuthorizationResultDto declined = authorize("internet", "123", "30.00");
+
+        assertEquals(AuthorizationDecision.DECLINED_INSUFFICIENT_FUNDS, declined.getDecision());
+        assertNull(declined.getAuthorizationId());
+        verify(ledgerService, times(1)).postCardPayment(any(Account.class), anyLong());
+        account.setBalance(50000L);
+        assertEquals(AuthorizationDecision.APPROVED, authorize("internet", "123", "70.00").getDecision());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testWriteHolds_ShouldWriteHoldsAloneAfterBatchFailure() {
+        when(transactionRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Transaction> transactions = invocation.getArgument(0);
+            if (transactions.size() > 1) {
+                throw new IllegalStateException("Constraint violation");
+            }
+            return transactions;
+        });
+
+        cardAuthorizationService.writeHolds(List.of(
+                new Hold("first", CARD_ID, CardAuthorizationService.INTERNET_CATEGORY, 100L, "First", 0L),
+                new Hold("second", CARD_ID, CardAuthorizationService.CASH_CATEGORY, 200L, "Second", 0L)));
+
+        verify(transactionRepository, times(3)).saveAll(anyList());
+    }
+
+    @Test
+    public void testAuthorizeCardPayment_ShouldRefusePaymentsAfterShutdown() throws Exception {
+        when(accountService.retrieveUserIdFromToken(request)).thenReturn(OWNER_ID);
+        cardAuthorizationService.shutdown();
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, cardAuthorizationService
+                .authorizeCardPayment(request, getCardAuthorizationDto("internet", "123", "1.00")).getStatusCode());
+        assertNull(authorize("internet", "123", "100.00"));
+        verify(transactionRepository, times(0)).saveAll(anyList());
+    }
+
+    @Test
+    public void testAuthorizeCardPayment_ShouldFailHoldThatCannotBeRecordedAndReleaseLimits() throws Exception {
+        when(accountService.retrieveUserIdFromToken(request)).thenReturn(OWNER_ID);
+        when(transactionRepository.saveAll(anyList())).thenThrow(new IllegalStateException("Database is down"));
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, cardAuthorizationService
+                .authorizeCardPayment(request, getCardAuthorizationDto("cash", "9876", "10.00")).getStatusCode());
+
+        doReturn(List.of()).when(transactionRepository).saveAll(anyList());
+
+        assertEquals(AuthorizationDecision.APPROVED, authorize("cash", "9876", "10.00").getDecision());
+    }
+
+    @Test
+    public void testAuthorize_ShouldRejectPaymentsBeforeStart() throws Exception {
+        CardAuthorizationService stoppedService = new CardAuthorizationService(cardRepository, accountRepository,
+                transactionRepository, cryptoService, ledgerService, accountService,
+                mock(PlatformTransactionManager.class), 16, clock);
+
+        assertNull(stoppedService.authorize(getCardAuthorizationDto("internet", "123", "1.00"), OWNER_ID));
+        stoppedService.shutdown();
+        verify(transactionRepository, never()).saveAll(anyList());
+    }
+
+    private CardAuthorizationResultDto authorize(String channel, String securityCode, String amount)
+            throws Exception {
+        return cardAuthorizationService.authorize(getCardAuthorizationDto(channel, securityCode, amount), OWNER_ID);
+    }
+
+    private CardAuthorizationService getCardAuthorizationService(int queueCapacity) {
+        CardAuthorizationService service = new CardAuthorizationService(cardRepository, accountRepository,
+                transactionRepository, cryptoService, ledgerService, accountService,
+                mock(PlatformTransactionManager.class), queueCapacity, clock);
+        service.start();
+        return service;
+    }
+
+    private static CardAuthorizationDto getCardAuthorizationDto(String channel, String securityCode,
+            String amount) {
+        return CardAuthorizationDto.builder()
+                .cardId(CARD_ID)
+                .channel(channel)
+                .securityCode(securityCode)
+                .title("Zakupy")
+                .amount(new BigDecimal(amount))
+                .build();
+    }
+}
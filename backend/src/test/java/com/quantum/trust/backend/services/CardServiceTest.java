@@ -1,10 +1,14 @@
 package com.quantum.trust.backend.services;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -15,18 +19,23 @@ import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.quantum.trust.backend.mappers.CardMapper;
-import com.quantum.trust.backend.model.Fees;
+import com.quantum.trust.backend.model.Limits;
 import com.quantum.trust.backend.model.dto.CardDto;
 import com.quantum.trust.backend.model.entities.Account;
 import com.quantum.trust.backend.model.entities.Card;
+import com.quantum.trust.backend.model.entities.CardFees;
+import com.quantum.trust.backend.model.entities.CardLimits;
 import com.quantum.trust.backend.repositories.AccountRepository;
 import com.quantum.trust.backend.repositories.CardRepository;
 
@@ -53,8 +62,17 @@ class CardServiceTest {
     @Mock
     private CardRepository cardRepository;
 
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private LedgerService ledgerService;
+
+    @Mock
+    private CardAuthorizationService cardAuthorizationService;
+
     @Mock
-    private ObjectMapper objectMapper;
+    private PlatformTransactionManager transactionManager;
 
     @InjectMocks
     private CardService cardService;
@@ -65,60 +83,140 @@ class CardServiceTest {
     }
 
     @Test
-    void testCheckCardsFees_ShouldChargeMonthlyFee() throws Exception {
+    void testChargeMonthlyFee_ShouldChargeMonthlyFee() throws Exception {
         Account account = new Account();
-        account.setBalance(1000f);
+        account.setId("PL61109010140000071219812874");
+        account.setCurrency("PLN");
         Card card = new Card();
         card.setId("1");
         card.setAccount(account);
         card.setCreationDate(LocalDate.now().minusMonths(1));
-        card.setFees("encryptedFeesString");
-        Fees fees = new Fees(10f, 10f);
-        when(cardRepository.findAll()).thenReturn(List.of(card));
-        when(cryptoService.decryptData("encryptedFeesString")).thenReturn("{\"monthly\":10,\"release\":10}");
-        when(objectMapper.readValue(anyString(), eq(Fees.class))).thenReturn(fees);
-        cardService.checkCardsFees();
-        verify(accountRepository, times(1)).save(account);
-        assertEquals(990f, account.getBalance());
+        card.setFees(new CardFees(1000L, 1000L));
+        when(ledgerService.getBalance(account.getId())).thenReturn(100000L);
+        assertTrue(cardService.chargeMonthlyFee(card, account));
+        verify(ledgerService, times(1)).postCardFee(account, 1000L);
+        verify(cryptoService, never()).decryptData(anyString());
+        assertEquals(99000L, account.getBalance());
     }
 
     @Test
-    void testCheckCardsFees_ShouldDeleteCardWhenInsufficientFunds() throws Exception {
+    void testChargeMonthlyFee_ShouldDeleteCardWhenInsufficientFunds() throws Exception {
         Card card = new Card();
         Account account = new Account();
-        account.setBalance(5f);
+        account.setId("PL61109010140000071219812874");
+        account.setCurrency("PLN");
         card.setAccount(account);
         card.setCreationDate(LocalDate.now().minusMonths(1));
-        card.setFees("encryptedFeesString");
-        Fees fees = new Fees(10f, 10f);
-        when(cardRepository.findAll()).thenReturn(List.of(card));
-        when(cryptoService.decryptData(anyString())).thenReturn("{\"monthly\":10,\"release\":10}");
-        when(objectMapper.readValue(anyString(), eq(Fees.class))).thenReturn(fees);
-        cardService.checkCardsFees();
+        card.setFees(new CardFees(1000L, 1000L));
+        when(ledgerService.getBalance(account.getId())).thenReturn(500L);
+        assertFalse(cardService.chargeMonthlyFee(card, account));
         verify(cardRepository, times(1)).delete(card);
+        verify(ledgerService, never()).postCardFee(any(), anyLong());
+    }
+
+    @Test
+    void testCheckIsCardValid_ShouldDeleteExpiredCardsOnceEarliestDatePassed() {
+        LocalDate today = LocalDate.now();
+        when(cardRepository.findEarliestExpirationDate()).thenReturn(today.minusDays(1), today.plusYears(1));
+
+        cardService.checkIsCardValid();
+        cardService.checkIsCardValid();
+
+        verify(cardRepository, times(1)).deleteExpiredBefore(today);
+        verify(cardRepository, times(2)).findEarliestExpirationDate();
+        verify(cardRepository, never()).findAll();
+    }
+
+    @Test
+    void testCheckIsCardValid_ShouldKeepCardsValidOnTheirLastDay() {
+        when(cardRepository.findEarliestExpirationDate()).thenReturn(LocalDate.now());
+
+        cardService.checkIsCardValid();
+        cardService.checkIsCardValid();
+
+        verify(cardRepository, never()).deleteExpiredBefore(any());
+        verify(cardRepository, times(1)).findEarliestExpirationDate();
     }
 
     @Test
     void testOrderNewCard_ShouldSaveCard() throws Exception {
-        String encryptedCardDto = "encryptedData";
-        String decryptedCardDto = "{\"assignedAccountNumber\":\"1\"}";
         Card card = new Card();
-        card.setFees("encryptedFeesString");
         card.setId("1");
         CardDto cardDto = new CardDto();
         cardDto.setAssignedAccountNumber("1");
+        cardDto.setFees("encryptedFeesString");
+        cardDto.setLimits("encryptedLimitsString");
         Account account = new Account();
-        account.setBalance(1000f);
-        Fees fees = new Fees(10f, 10f);
-        when(cryptoService.decryptData("encryptedFeesString")).thenReturn("{\"monthly\":10,\"release\":10}");
-        when(cryptoService.decryptData(anyString())).thenReturn(decryptedCardDto);
-        when(objectMapper.readValue(decryptedCardDto, CardDto.class)).thenReturn(cardDto);
+        account.setId("PL61109010140000071219812874");
+        account.setCurrency("PLN");
+        stubOrderedCard(card, account, 100000L);
+        ResponseEntity<?> response = cardService.orderNewCard(cardDto);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        verify(accountRepository, times(1)).findAllForUpdateByIdIn(List.of(account.getId()));
+        verify(cardRepository, times(1)).save(card);
+        verify(ledgerService, times(1)).postCardFee(account, 1000L);
+        assertEquals(99000L, account.getBalance());
+        assertEquals(1000L, card.getFees().getMonthlyFee());
+        assertEquals(150050L, card.getLimits().getInternetTransactionsLimit());
+        assertEquals(5, card.getLimits().getInternetTransactionsCount());
+        assertEquals(1000000L, card.getLimits().getInternetTransactionsMaxLimit());
+        assertEquals(70000L, card.getLimits().getCashTransactionsLimit());
+        assertEquals(3, card.getLimits().getCashTransactionsCount());
+    }
+
+    @Test
+    void testOrderNewCard_ShouldNotSaveCardWhenBalanceDoesNotCoverReleaseFee() throws Exception {
+        Card card = new Card();
+        card.setId("1");
+        CardDto cardDto = new CardDto();
+        cardDto.setAssignedAccountNumber("1");
+        cardDto.setFees("encryptedFeesString");
+        cardDto.setLimits("encryptedLimitsString");
+        Account account = new Account();
+        account.setId("PL61109010140000071219812874");
+        account.setCurrency("PLN");
+        stubOrderedCard(card, account, 999L);
+        ResponseEntity<?> response = cardService.orderNewCard(cardDto);
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        verify(cardRepository, never()).save(any());
+        verify(ledgerService, never()).postCardFee(any(), anyLong());
+        assertEquals(999L, account.getBalance());
+    }
+
+    private void stubOrderedCard(Card card, Account account, long balance) throws Exception {
+        when(cryptoService.decryptData("encryptedFeesString")).thenReturn("{\\monthly\\:10,\\release\\:10}");
+        when(cryptoService.decryptData("encryptedLimitsString"))
+                .thenReturn("[{internetTransactions:[1500.5,5,10000],cashTransactions:[700,3,5000]}]");
         when(accountRepository.findById(anyString())).thenReturn(Optional.of(account));
+        when(accountRepository.findAllForUpdateByIdIn(List.of(account.getId()))).thenReturn(List.of(account));
+        doAnswer(invocation -> {
+            account.setBalance(balance);
+            return null;
+        }).when(ledgerService).loadBalances(List.of(account));
         when(cardMapper.convertToCard(any())).thenReturn(card);
-        when(objectMapper.readValue(anyString(), eq(Fees.class))).thenReturn(fees);
-        ResponseEntity<?> response = cardService.orderNewCard(encryptedCardDto);
+    }
+
+    @Test
+    void testGetResponeWithAllUserCards_ShouldEncryptFeesAndLimits() throws Exception {
+        Account account = new Account();
+        account.setCurrency("EUR");
+        Card card = new Card();
+        card.setAccount(account);
+        card.setFees(new CardFees(0L, 233L));
+        card.setLimits(new CardLimits(23300L, 5, 1000000L, 11650L, 3, 500000L));
+        when(accountService.retrieveAccountsFromUserId(any())).thenReturn(List.of(account));
+        when(cardRepository.findAllCardsByAccount(account)).thenReturn(List.of(card));
+        when(cardMapper.convertToCardDto(card)).thenReturn(new CardDto());
+        when(cryptoService.encryptData(any())).thenReturn("encryptedData");
+        ResponseEntity<?> response = cardService.getResponeWithAllUserCards(null);
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        verify(cardRepository, times(1)).save(card);
+        verify(cryptoService, times(1)).encryptData("{\"release\":0.0,\"monthly\":2.33}");
+        ArgumentCaptor<Object> limitsCaptor = ArgumentCaptor.forClass(Object.class);
+        verify(cryptoService, times(2)).encryptData(limitsCaptor.capture());
+        Limits limits = ((List<?>) limitsCaptor.getAllValues().get(1)).stream().map(Limits.class::cast).findFirst()
+                .get();
+        assertArrayEquals(new Float[] { 233f, 5f, 10000f }, limits.getInternetTransactions());
+        assertArrayEquals(new Float[] { 116.5f, 3f, 5000f }, limits.getCashTransactions());
     }
 
     @Test
@@ -130,6 +228,7 @@ class CardServiceTest {
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals("suspended", card.getStatus());
         verify(cardRepository, times(1)).save(card);
+        verify(cardAuthorizationService, times(1)).refreshCard(card.getId());
     }
 
     @Test
@@ -145,16 +244,12 @@ class CardServiceTest {
 
     @Test
     void testEditCard_ShouldThrowErrorWhenAccountIsNotFound() throws Exception {
-        String encryptedCardObject = "encryptedCardObject";
-        String decryptedCardObject = "{\"id\":\"1\"}";
         CardDto cardDto = new CardDto();
         cardDto.setId("1");
         Card card = new Card();
         card.setId("1");
-        when(cryptoService.decryptData(encryptedCardObject)).thenReturn(decryptedCardObject);
-        when(objectMapper.readValue(decryptedCardObject, CardDto.class)).thenReturn(cardDto);
         when(cardRepository.findById(anyLong())).thenReturn(Optional.of(card));
-        ResponseEntity<?> response = cardService.editCard(encryptedCardObject);
+        ResponseEntity<?> response = cardService.editCard(cardDto);
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
     }
 }
\ No newline at end of file
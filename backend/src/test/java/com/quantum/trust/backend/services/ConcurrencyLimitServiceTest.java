@@ -0,0 +1,136 @@
+package com.quantum.trust.backend.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import com.quantum.trust.backend.services.ConcurrencyLimitService.Permit;
+import com.quantum.trust.backend.services.TokenBucketService.EndpointGroup;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class ConcurrencyLimitServiceTest {
+    private final AtomicLong now = new AtomicLong(1_000_000_000L);
+    private final MockHttpServletRequest readRequest = new MockHttpServletRequest("GET", "/api/user/all-accounts");
+
+    private ConcurrencyLimitService concurrencyLimitService;
+
+    @BeforeEach
+    public void setUp() {
+        concurrencyLimitService = new ConcurrencyLimitService(Map.of(EndpointGroup.READS, 100), now::get);
+    }
+
+    @Test
+    public void testTryAcquire_ShouldShedAboveInitialLimit() {
+        List<Permit> permits = acquire(20);
+
+        assertNull(concurrencyLimitService.tryAcquire(readRequest));
+        assertEquals(20, concurrencyLimitService.getInFlight(EndpointGroup.READS));
+        assertEquals(1, concurrencyLimitService.getShedRequests(EndpointGroup.READS));
+        assertNotNull(concurrencyLimitService.tryAcquire(new MockHttpServletRequest("POST", "/api/auth/login")));
+        permits.get(0).release(false);
+        assertNotNull(concurrencyLimitService.tryAcquire(readRequest));
+    }
+
+    @Test
+    public void testBindTo_ShouldPublishGroupMetrics() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        concurrencyLimitService.bindTo(registry);
+        acquire(20);
+        concurrencyLimitService.tryAcquire(readRequest);
+
+        assertEquals(20.0, registry.get("concurrency.limit").tag("group", "reads").gauge().value());
+        assertEquals(20.0, registry.get("concurrency.in-flight").tag("group", "reads").gauge().value());
+        assertEquals(1.0, registry.get("concurrency.shed-requests").tag("group", "reads").functionCounter().count());
+        assertEquals(0.0, registry.get("concurrency.in-flight").tag("group", "auth").gauge().value());
+    }
+
+    @Test
+    public void testRelease_ShouldGrowLimitWhileLatencyIsStable() {
+        for (int i = 0; i < 20; i++) {
+            runFullBatch(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+
+        assertTrue(concurrencyLimitService.getLimit(EndpointGroup.READS) > 20);
+        assertTrue(concurrencyLimitService.getLimit(EndpointGroup.READS) <= 100);
+    }
+
+    @Test
+    public void testRelease_ShouldShrinkLimitWhenLatencyRises() {
+        for (int i = 0; i < 20; i++) {
+            runFullBatch(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        int grownLimit = concurrencyLimitService.getLimit(EndpointGroup.READS);
+        for (int i = 0; i < 20; i++) {
+            runFullBatch(TimeUnit.MILLISECONDS.toNanos(200));
+        }
+
+        assertTrue(concurrencyLimitService.getLimit(EndpointGroup.READS) < grownLimit / 2);
+        assertEquals(1, concurrencyLimitService.getRetryAfterSeconds(readRequest));
+    }
+
+    @Test
+    public void testRelease_ShouldBackOffOnFailures() {
+        List<Permit> permits = acquire(20);
+        for (Permit permit : permits) {
+            permit.release(true);
+            permit.release(true);
+        }
+
+        assertEquals(2, concurrencyLimitService.getLimit(EndpointGroup.READS));
+        assertEquals(0, concurrencyLimitService.getInFlight(EndpointGroup.READS));
+    }
+
+    @Test
+    public void testGetRetryAfterSeconds_ShouldFollowRecentLatency() {
+        Permit permit = concurrencyLimitService.tryAcquire(readRequest);
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(2500));
+        permit.release(false);
+
+        assertEquals(3, concurrencyLimitService.getRetryAfterSeconds(readRequest));
+        assertEquals(1, concurrencyLimitService.getRetryAfterSeconds(new MockHttpServletRequest("PATCH", "/api")));
+    }
+
+    @Test
+    public void testConstructor_ShouldReadConfiguredLimits() {
+        ConcurrencyLimitService configuredService = new ConcurrencyLimitService(
+                new MockEnvironment().withProperty("concurrency-limit.auth.max-limit", "2"));
+        MockHttpServletRequest loginRequest = new MockHttpServletRequest("POST", "/api/auth/login");
+
+        assertNotNull(configuredService.tryAcquire(loginRequest));
+        assertNotNull(configuredService.tryAcquire(loginRequest));
+        assertNull(configuredService.tryAcquire(loginRequest));
+        assertEquals(20, configuredService.getLimit(EndpointGroup.READS));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ConcurrencyLimitService(Map.of(EndpointGroup.AUTH, 0), now::get));
+    }
+
+    private List<Permit> acquire(int count) {
+        List<Permit> permits = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            permits.add(concurrencyLimitService.tryAcquire(readRequest));
+        }
+        return permits;
+    }
+
+    private void runFullBatch(long latencyNanos) {
+        List<Permit> permits = acquire(concurrencyLimitService.getLimit(EndpointGroup.READS));
+        now.addAndGet(latencyNanos);
+        for (Permit permit : permits) {
+            permit.release(false);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.quantum.trust.backend.services;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the original per-call CryptoService implementation with the pooled
+ * one. Run with {@code mvn -Pbenchmark test -Dbenchmark=CryptoServiceBenchmark}
+ * to get ops/sec together with the allocation rate reported by the gc
+ * profiler.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CryptoServiceBenchmark {
+    private static final String ENCRYPT_KEY = "/urpXJY0b3CFG7Y9ZvKvMcAZCS9cRnIF54C3982anI8=";
+
+    @Param({ "100", "1024", "16384", "131072", "1048576" })
+    private int payloadSize;
+
+    private CryptoService cryptoService;
+    private String payload;
+    private String encryptedPayload;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        this.cryptoService = new CryptoService(null);
+        this.cryptoService.encryptKey = ENCRYPT_KEY;
+        StringBuilder payloadBuilder = new StringBuilder(this.payloadSize);
+        for (int i = 0; i < this.payloadSize; i++) {
+            payloadBuilder.append((char) ('a' + ThreadLocalRandom.current().nextInt(26)));
+        }
+        this.payload = payloadBuilder.toString();
+        this.encryptedPayload = this.cryptoService.encryptData(this.payload);
+    }
+
+    @Benchmark
+    public String legacyEncrypt() throws Exception {
+        return legacyEncryptData(this.payload);
+    }
+
+    @Benchmark
+    public String pooledEncrypt() throws Exception {
+        return this.cryptoService.encryptData(this.payload);
+    }
+
+    @Benchmark
+    public String legacyDecrypt() throws Exception {
+        return legacyDecryptData(this.encryptedPayload);
+    }
+
+    @Benchmark
+    public String pooledDecrypt() throws Exception {
+        return this.cryptoService.decryptData(this.encryptedPayload);
+    }
+
+    private static String legacyEncryptData(Object data) throws Exception {
+        byte[] iv = new byte[16];
+        SecureRandom random = new SecureRandom();
+        random.nextBytes(iv);
+        IvParameterSpec ivParameterSpec = new IvParameterSpec(iv);
+        Cipher cipher = Cipher.getInstance("AES/CBC/PKCS5Padding");
+        byte[] decodedKey = Base64.getDecoder().decode(ENCRYPT_KEY);
+        SecretKeySpec keySpec = new SecretKeySpec(decodedKey, "AES");
+        cipher.init(Cipher.ENCRYPT_MODE, keySpec, ivParameterSpec);
+        String jsonData = new com.fasterxml.jackson.databind.ObjectMapper().writeValueAsString(data);
+        byte[] encryptedBytes = cipher.doFinal(jsonData.getBytes(StandardCharsets.UTF_8));
+        byte[] encryptedDataWithIv = new byte[iv.length + encryptedBytes.length];
+        System.arraycopy(iv, 0, encryptedDataWithIv, 0, iv.length);
+        System.arraycopy(encryptedBytes, 0, encryptedDataWithIv, iv.length, encryptedBytes.length);
+        return Base64.getEncoder().encodeToString(encryptedDataWithIv);
+    }
+
+    private static String legacyDecryptData(String encryptedData) throws Exception {
+        byte[] decodedKey = Base64.getDecoder().decode(ENCRYPT_KEY);
+        SecretKeySpec keySpec = new SecretKeySpec(decodedKey, "AES");
+        byte[] decodedValue = Base64.getDecoder().decode(encryptedData);
+        byte[] iv = new byte[16];
+        byte[] ciphertext = new byte[decodedValue.length - 16];
+        System.arraycopy(decodedValue, 0, iv, 0, 16);
+        System.arraycopy(decodedValue, 16, ciphertext, 0, ciphertext.length);
+        Cipher cipher = Cipher.getInstance("AES/CBC/PKCS5Padding");
+        cipher.init(Cipher.DECRYPT_MODE, keySpec, new IvParameterSpec(iv));
+        byte[] decryptedValue = cipher.doFinal(ciphertext);
+        return new String(decryptedValue, "UTF-8").replace("\"", "");
+    }
+}
@@ -2,18 +2,35 @@ package com.quantum.trust.backend.services;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import com.quantum.trust.backend.crypto.PayloadCompression;
+import com.quantum.trust.backend.crypto.PayloadEnvelope;
+
 class CryptoServiceTest {
 
     @Mock
@@ -54,6 +71,139 @@ class CryptoServiceTest {
         assertTrue(decryptedData.contains("30"), "Decrypted data should contain the original age");
     }
 
+    @Test
+    void testEncryptData_ShouldUseFreshIvForEveryCall() throws Exception {
+        String input = "Hello, World!";
+        assertNotEquals(cryptoService.encryptData(input), cryptoService.encryptData(input));
+    }
+
+    @Test
+    void testEncryptAndDecryptLargePayload_ShouldKeepWorkingAfterBufferGrowth() throws Exception {
+        String largeInput = "a".repeat(200 * 1024);
+        assertEquals(largeInput, cryptoService.decryptData(cryptoService.encryptData(largeInput)));
+        String smallInput = "small payload";
+        assertEquals(smallInput, cryptoService.decryptData(cryptoService.encryptData(smallInput)));
+    }
+
+    @Test
+    void testDecryptData_ShouldUseChangedKey() throws Exception {
+        String encryptedWithOldKey = cryptoService.encryptData("Hello, World!");
+        cryptoService.encryptKey = "AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA=";
+        String encryptedWithNewKey = cryptoService.encryptData("Hello, World!");
+        assertEquals("Hello, World!", cryptoService.decryptData(encryptedWithNewKey));
+        assertThrows(Exception.class, () -> cryptoService.decryptData(encryptedWithOldKey));
+    }
+
+    @Test
+    void testWriteEncryptedData_ShouldBeDecryptable() throws Exception {
+        TestObject testObject = new TestObject("John Doe", 30);
+        for (PayloadEnvelope envelope : List.of(PayloadEnvelope.LEGACY, PayloadEnvelope.of("gcm"),
+                PayloadEnvelope.of("cbc", PayloadCompression.DEFLATE),
+                PayloadEnvelope.of("gcm", PayloadCompression.DEFLATE))) {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            cryptoService.writeEncryptedData(testObject, envelope, outputStream);
+            String encryptedData = outputStream.toString(StandardCharsets.US_ASCII);
+            assertTrue(encryptedData.startsWith(envelope.getHeader()));
+            assertEquals(cryptoService.decryptData(cryptoService.encryptData(testObject)),
+                    cryptoService.decryptData(encryptedData));
+        }
+    }
+
+    @Test
+    void testGetEncryptingStream_ShouldStreamDecryptableChunks() throws Exception {
+        PayloadEnvelope envelope = PayloadEnvelope.of("gcm", PayloadCompression.DEFLATE);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (OutputStream encryptingStream = cryptoService.getEncryptingStream(envelope, outputStream)) {
+            for (int i = 0; i < 1000; i++) {
+                encryptingStream.write(("line " + i + "\n").getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        outputStream.write('!');
+        byte[] encrypted = outputStream.toByteArray();
+        assertEquals('!', encrypted[encrypted.length - 1]);
+        try (InputStream decryptingStream = cryptoService
+                .getDecryptingStream(new ByteArrayInputStream(encrypted, 0, encrypted.length - 1))) {
+            String decrypted = new String(decryptingStream.readAllBytes(), StandardCharsets.UTF_8);
+            assertTrue(decrypted.startsWith("line 0\nline 1\n"));
+            assertTrue(decrypted.endsWith("line 999\n"));
+        }
+    }
+
+    @Test
+    void testEncryptData_ShouldUseGcmEnvelope() throws Exception {
+        String encryptedData = cryptoService.encryptData("Hello, World!", PayloadEnvelope.of("gcm"));
+        assertTrue(encryptedData.startsWith("qt1.gcm."));
+        assertEquals("Hello, World!", cryptoService.decryptData(encryptedData));
+    }
+
+    @Test
+    void testDecryptData_ShouldRejectTamperedGcmPayload() throws Exception {
+        String encryptedData = cryptoService.encryptData("Hello, World!", PayloadEnvelope.of("gcm"));
+        byte[] payload = Base64.getDecoder().decode(encryptedData.substring("qt1.gcm.".length()));
+        payload[payload.length - 1] ^= 1;
+        String tamperedData = "qt1.gcm." + Base64.getEncoder().encodeToString(payload);
+        assertThrows(Exception.class, () -> cryptoService.decryptData(tamperedData));
+    }
+
+    @Test
+    void testDecryptData_ShouldRejectUnknownEnvelope() throws Exception {
+        String encodedData = cryptoService.encryptData("Hello, World!");
+        assertThrows(Exception.class, () -> cryptoService.decryptData("qt1.rot13." + encodedData));
+        assertThrows(Exception.class, () -> cryptoService.decryptData("qt9.cbc." + encodedData));
+        assertThrows(Exception.class, () -> cryptoService.encryptData("Hello", PayloadEnvelope.of("rot13")));
+    }
+
+    @Test
+    void testGetDecryptingStream_ShouldReadEveryEnvelope() throws Exception {
+        for (PayloadEnvelope envelope : List.of(PayloadEnvelope.LEGACY, PayloadEnvelope.of("cbc"),
+                PayloadEnvelope.of("gcm"), PayloadEnvelope.of("gcm", PayloadCompression.DEFLATE))) {
+            String encryptedData = cryptoService.encryptData("Hello, World!", envelope);
+            try (InputStream decryptingStream = cryptoService
+                    .getDecryptingStream(new ByteArrayInputStream(encryptedData.getBytes(StandardCharsets.US_ASCII)))) {
+                assertEquals("\"Hello, World!\"", new String(decryptingStream.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    @Test
+    void testEncryptData_ShouldCompressRepetitivePayload() throws Exception {
+        List<TestObject> testObjects = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            testObjects.add(new TestObject("John Doe", i));
+        }
+        String encryptedData = cryptoService.encryptData(testObjects);
+        String compressedData = cryptoService.encryptData(testObjects,
+                PayloadEnvelope.of("gcm", PayloadCompression.DEFLATE));
+        assertTrue(compressedData.startsWith("qt1.gcm+deflate."));
+        assertTrue(compressedData.length() * 5 < encryptedData.length());
+        assertEquals(cryptoService.decryptData(encryptedData), cryptoService.decryptData(compressedData));
+    }
+
+    @Test
+    void testIsCodecSupported() {
+        assertTrue(cryptoService.isCodecSupported("cbc"));
+        assertTrue(cryptoService.isCodecSupported("gcm"));
+        assertFalse(cryptoService.isCodecSupported("rot13"));
+    }
+
+    @Test
+    void testEncryptAndDecrypt_ShouldBeThreadSafe() throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                String input = "payload-" + i;
+                results.add(executorService
+                        .submit(() -> input.equals(cryptoService.decryptData(cryptoService.encryptData(input)))));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
     @Test
     void testGetEncryptedPassword_ShouldEncryptPassword() {
         String rawPassword = "password123";
@@ -1,25 +1,29 @@
 package com.quantum.trust.backend.services;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.time.LocalDate;
 import java.util.Arrays;
+import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.quantum.trust.backend.mappers.DepositMapper;
 import com.quantum.trust.backend.model.dto.DepositDto;
 import com.quantum.trust.backend.model.entities.Account;
@@ -34,18 +38,12 @@ public class DepositServiceTest {
     @Mock
     private AccountService accountService;
 
-    @Mock
-    private CryptoService cryptoService;
-
     @Mock
     private ValidationService validationService;
 
     @Mock
     private DepositMapper depositMapper;
 
-    @Mock
-    private ObjectMapper objectMapper;
-
     @Mock
     private TransactionService transactionService;
 
@@ -55,6 +53,12 @@ public class DepositServiceTest {
     @Mock
     private AccountRepository accountRepository;
 
+    @Mock
+    private LedgerService ledgerService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private DepositService depositService;
 
@@ -67,32 +71,79 @@ public class DepositServiceTest {
     public void testCheckDeposits() throws Exception {
         Deposit deposit = new Deposit();
         deposit.setEndDate(LocalDate.now().toString());
-        deposit.setBalance(1.0f);
+        deposit.setBalance(100L);
+        deposit.setCurrency("PLN");
         deposit.setPercent(3.5f);
         deposit.setDuration(3);
         deposit.setType("timely");
         Account account = new Account();
-        account.setBalance(20.0f);
+        account.setId("PL61109010140000071219812874");
         deposit.setAccount(account);
         when(depositRepository.findAll()).thenReturn(Arrays.asList(deposit));
+        stubLockedAccount(account, 2000L);
         depositService.checkDeposits();
         verify(depositRepository, times(1)).findAll();
+        verify(accountRepository, times(1)).findAllForUpdateByIdIn(List.of(account.getId()));
+        verify(ledgerService, times(1)).postDepositClosing(account, 100L, 0L);
+        assertEquals(2100L, account.getBalance());
         verify(depositRepository, times(1)).delete(deposit);
     }
 
     @Test
     public void testSaveNewDeposit_ShouldThrowExceptionWhenAccountNotFound() throws Exception {
-        String encryptedDepositDto = "encryptedData";
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        DepositDto depositDto = new DepositDto();
+        depositDto.setAssignedAccountNumber("1");
         Deposit deposit = new Deposit();
-        DepositService depositService = Mockito.mock(DepositService.class);
-        when(cryptoService.decryptData(encryptedDepositDto)).thenReturn("decryptedData");
-        when(objectMapper.readValue("decryptedData", DepositDto.class)).thenReturn(new DepositDto());
-        when(depositMapper.convertToDeposit(any(DepositDto.class))).thenReturn(deposit);
-        doThrow(new Exception("Account not founded")).when(depositService).assignAccountToDeposit(any(Deposit.class),
-                any(DepositDto.class));
+        when(depositMapper.convertToDeposit(depositDto)).thenReturn(deposit);
+        when(accountRepository.findAllForUpdateByIdIn(List.of("1"))).thenReturn(List.of());
+        ResponseEntity<?> response = depositService.saveNewDeposit(request, depositDto);
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
         verify(depositRepository, times(0)).save(deposit);
     }
 
+    @Test
+    public void testSaveNewDeposit_ShouldOpenDepositFromLockedAccount() throws Exception {
+        Account account = new Account();
+        account.setId("PL61109010140000071219812874");
+        Deposit deposit = getNewDeposit(account, 1500L);
+        ResponseEntity<?> response = depositService.saveNewDeposit(mock(HttpServletRequest.class),
+                getDepositDto(account, deposit));
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        verify(ledgerService, times(1)).postDepositOpening(account, 1500L);
+        verify(depositRepository, times(1)).save(deposit);
+        assertEquals(500L, account.getBalance());
+        assertEquals(account, deposit.getAccount());
+    }
+
+    @Test
+    public void testSaveNewDeposit_ShouldNotPostDepositNotCoveredByBalance() throws Exception {
+        Account account = new Account();
+        account.setId("PL61109010140000071219812874");
+        Deposit deposit = getNewDeposit(account, 2001L);
+        ResponseEntity<?> response = depositService.saveNewDeposit(mock(HttpServletRequest.class),
+                getDepositDto(account, deposit));
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        verify(ledgerService, never()).postDepositOpening(any(), anyLong());
+        verify(depositRepository, never()).save(any());
+        assertEquals(2000L, account.getBalance());
+    }
+
+    @Test
+    public void testSaveNewDeposit_ShouldValidateDepositBeforePosting() throws Exception {
+        Account account = new Account();
+        account.setId("PL61109010140000071219812874");
+        Deposit deposit = getNewDeposit(account, 1500L);
+        doThrow(new IllegalArgumentException("Deposit object is invalid")).when(validationService)
+                .validateDeposit(deposit);
+        ResponseEntity<?> response = depositService.saveNewDeposit(mock(HttpServletRequest.class),
+                getDepositDto(account, deposit));
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        verify(accountRepository, never()).findAllForUpdateByIdIn(any());
+        verify(ledgerService, never()).postDepositOpening(any(), anyLong());
+        verify(depositRepository, never()).save(any());
+    }
+
     @Test
     public void testGetAllUserDeposits() throws Exception {
         HttpServletRequest request = mock(HttpServletRequest.class);
@@ -107,11 +158,46 @@ public class DepositServiceTest {
     @Test
     public void testCalculateInterest() {
         Deposit deposit = new Deposit();
-        deposit.setBalance(1000f);
+        deposit.setBalance(100000L);
+        deposit.setCurrency("PLN");
         deposit.setPercent(5f);
         deposit.setDuration(12);
         deposit.setType("non-progressive");
-        float interest = depositService.calculateInterest(deposit);
-        assert (interest > 0);
+        long interest = depositService.calculateInterest(deposit);
+        assertEquals(7300L, interest);
+    }
+
+    @Test
+    public void testCalculateInterest_ShouldRoundProgressiveProfitExactly() {
+        Deposit deposit = new Deposit();
+        deposit.setBalance(100000L);
+        deposit.setCurrency("PLN");
+        deposit.setPercent(5f);
+        deposit.setDuration(12);
+        deposit.setType("progressive");
+        assertEquals(4200L, depositService.calculateInterest(deposit));
+    }
+
+    private Deposit getNewDeposit(Account account, long balance) {
+        Deposit deposit = new Deposit();
+        deposit.setBalance(balance);
+        deposit.setCurrency("PLN");
+        stubLockedAccount(account, 2000L);
+        return deposit;
+    }
+
+    private DepositDto getDepositDto(Account account, Deposit deposit) {
+        DepositDto depositDto = new DepositDto();
+        depositDto.setAssignedAccountNumber(account.getId());
+        when(depositMapper.convertToDeposit(depositDto)).thenReturn(deposit);
+        return depositDto;
+    }
+
+    private void stubLockedAccount(Account account, long balance) {
+        when(accountRepository.findAllForUpdateByIdIn(List.of(account.getId()))).thenReturn(List.of(account));
+        doAnswer(invocation -> {
+            account.setBalance(balance);
+            return null;
+        }).when(ledgerService).loadBalances(List.of(account));
     }
-}
\ No newline at end of file
+}
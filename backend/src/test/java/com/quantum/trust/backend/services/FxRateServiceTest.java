@@ -0,0 +1,86 @@
+package com.quantum.trust.backend.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.quantum.trust.backend.fx.DefaultFxRateProvider;
+import com.quantum.trust.backend.fx.FxRateProvider;
+import com.quantum.trust.backend.fx.FxRateSnapshot;
+
+public class FxRateServiceTest {
+
+    @Test
+    public void testGetSnapshot_ShouldStartWithDefaultRates() {
+        FxRateSnapshot snapshot = new FxRateService().getSnapshot();
+
+        assertEquals(1L, snapshot.getVersion());
+        assertEquals(new BigDecimal("4.2883"), snapshot.getRates().get("EUR"));
+    }
+
+    @Test
+    public void testPublishRates_ShouldKeepPinnedSnapshots() {
+        FxRateService fxRateService = new FxRateService();
+        FxRateSnapshot pinnedSnapshot = fxRateService.getSnapshot();
+
+        FxRateSnapshot snapshot = fxRateService.publishRates(Map.of("PLN", BigDecimal.ONE, "EUR", BigDecimal.TEN));
+
+        assertEquals(2L, snapshot.getVersion());
+        assertSame(snapshot, fxRateService.getSnapshot());
+        assertSame(snapshot, fxRateService.publishRates(Map.of("PLN", BigDecimal.ONE, "EUR", BigDecimal.TEN)));
+        assertSame(pinnedSnapshot, fxRateService.getSnapshot(1L));
+        assertEquals(9015L, pinnedSnapshot.convertMinorUnits(10000L, "USD", "EUR"));
+        assertEquals(1000L, snapshot.convertMinorUnits(10000L, "PLN", "EUR"));
+    }
+
+    @Test
+    public void testPublishRates_ShouldRetainLimitedHistory() {
+        FxRateService fxRateService = new FxRateService();
+        for (int i = 1; i <= FxRateService.RETAINED_SNAPSHOTS; i++) {
+            fxRateService.publishRates(Map.of("EUR", BigDecimal.valueOf(i)));
+        }
+
+        assertNull(fxRateService.getSnapshot(1L));
+        assertEquals(2L + FxRateService.RETAINED_SNAPSHOTS - 1, fxRateService.getSnapshot().getVersion());
+        assertEquals(2L, fxRateService.getSnapshot(2L).getVersion());
+        assertThrows(IllegalArgumentException.class, () -> fxRateService.publishRates(Map.of("EUR", BigDecimal.ZERO)));
+    }
+
+    @Test
+    public void testRefreshRates_ShouldLoadConfiguredProvider() {
+        Map<String, BigDecimal> rates = new HashMap<>();
+        FxRateProvider stubProvider = new FxRateProvider() {
+            @Override
+            public String getName() {
+                return "stub";
+            }
+
+            @Override
+            public Map<String, BigDecimal> loadRates() throws IOException {
+                if (rates.isEmpty()) {
+                    throw new IOException("Rates are not available");
+                }
+                return rates;
+            }
+        };
+        FxRateService fxRateService = new FxRateService(List.of(new DefaultFxRateProvider(), stubProvider));
+        fxRateService.providerName = "stub";
+
+        fxRateService.refreshRates();
+        assertEquals(1L, fxRateService.getSnapshot().getVersion());
+
+        rates.put("EUR", new BigDecimal("4.30"));
+        fxRateService.refreshRates();
+        assertEquals(2L, fxRateService.getSnapshot().getVersion());
+        assertEquals(Map.of("EUR", new BigDecimal("4.30")), fxRateService.getSnapshot().getRates());
+    }
+}
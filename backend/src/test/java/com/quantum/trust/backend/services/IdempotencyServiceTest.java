@@ -0,0 +1,129 @@
+package com.quantum.trust.backend.services;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.quantum.trust.backend.model.entities.IdempotencyRecord;
+import com.quantum.trust.backend.repositories.IdempotencyRecordRepository;
+
+public class IdempotencyServiceTest {
+    private static final String KEY = "user:/api/user/new-transfer:7d0f4b52";
+
+    private final AtomicReference<Instant> now = new AtomicReference<>(Instant.parse("2024-01-01T00:00:00Z"));
+
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        Clock clock = new Clock() {
+            @Override
+            public ZoneId getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return this;
+            }
+
+            @Override
+            public Instant instant() {
+                return now.get();
+            }
+        };
+        idempotencyService = new IdempotencyService(idempotencyRecordRepository, 2, clock);
+        when(idempotencyRecordRepository.findById(any())).thenReturn(Optional.empty());
+    }
+
+    @Test
+    public void testAcquire_ShouldReturnStoredResponseOnceCompleted() throws Exception {
+        assertNull(idempotencyService.acquire(KEY));
+
+        idempotencyService.complete(KEY, 200, "text/plain", new byte[] { 1, 2 });
+        IdempotencyRecord record = idempotencyService.acquire(KEY);
+
+        assertEquals(200, record.getStatus());
+        assertArrayEquals(new byte[] { 1, 2 }, record.getBody());
+        ArgumentCaptor<IdempotencyRecord> recordCaptor = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        verify(idempotencyRecordRepository).save(recordCaptor.capture());
+        assertEquals(KEY, recordCaptor.getValue().getKey());
+        assertEquals(now.get(), recordCaptor.getValue().getCreatedAt());
+        verify(idempotencyRecordRepository, times(1)).findById(KEY);
+    }
+
+    @Test
+    public void testAcquire_ShouldFallBackToStoredRecordsWithinRetention() throws Exception {
+        IdempotencyRecord storedRecord = IdempotencyRecord.builder().key(KEY).status(202).body(new byte[0])
+                .createdAt(now.get().minus(IdempotencyService.RETENTION).plusSeconds(1)).build();
+        when(idempotencyRecordRepository.findById(KEY)).thenReturn(Optional.of(storedRecord));
+
+        assertSame(storedRecord, idempotencyService.acquire(KEY));
+        assertSame(storedRecord, idempotencyService.acquire(KEY));
+        verify(idempotencyRecordRepository, times(1)).findById(KEY);
+
+        now.set(now.get().plusSeconds(2));
+        assertNull(idempotencyService.acquire(KEY));
+    }
+
+    @Test
+    public void testAcquire_ShouldMakeDuplicatesWaitForFirstRequest() throws Exception {
+        assertNull(idempotencyService.acquire(KEY));
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            Future<IdempotencyRecord> duplicate = executorService.submit(() -> idempotencyService.acquire(KEY));
+            Thread.sleep(100);
+            assertFalse(duplicate.isDone());
+
+            idempotencyService.complete(KEY, 201, null, new byte[0]);
+
+            assertEquals(201, duplicate.get(5, TimeUnit.SECONDS).getStatus());
+        } finally {
+            executorService.shutdown();
+        }
+        verify(idempotencyRecordRepository, times(1)).findById(KEY);
+    }
+
+    @Test
+    public void testRelease_ShouldLetNextRequestRunAgain() throws Exception {
+        assertNull(idempotencyService.acquire(KEY));
+
+        idempotencyService.release(KEY);
+
+        assertNull(idempotencyService.acquire(KEY));
+    }
+
+    @Test
+    public void testDeleteExpiredRecords_ShouldDeleteRecordsOlderThanRetention() {
+        idempotencyService.deleteExpiredRecords();
+
+        verify(idempotencyRecordRepository).deleteCreatedBefore(now.get().minus(IdempotencyService.RETENTION));
+    }
+}
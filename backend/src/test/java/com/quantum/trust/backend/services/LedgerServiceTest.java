@@ -0,0 +1,217 @@
+package com.quantum.trust.backend.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.quantum.trust.backend.model.AccountBalance;
+import com.quantum.trust.backend.model.entities.Account;
+import com.quantum.trust.backend.model.entities.BalanceCheckpoint;
+import com.quantum.trust.backend.model.entities.JournalEntry;
+import com.quantum.trust.backend.repositories.BalanceCheckpointRepository;
+import com.quantum.trust.backend.repositories.JournalEntryRepository;
+
+public class LedgerServiceTest {
+    private static final String SENDER_NUMBER = "PL61109010140000071219812874";
+    private static final String RECEIVER_NUMBER = "PL27114020040000300201355387";
+
+    @Mock
+    private JournalEntryRepository journalEntryRepository;
+
+    @Mock
+    private BalanceCheckpointRepository balanceCheckpointRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private LedgerService ledgerService;
+    private Account senderAccount;
+    private Account receiverAccount;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ledgerService = new LedgerService(journalEntryRepository, balanceCheckpointRepository, transactionManager);
+        senderAccount = Account.builder().id(SENDER_NUMBER).currency("PLN").build();
+        receiverAccount = Account.builder().id(RECEIVER_NUMBER).currency("EUR").build();
+    }
+
+    @Test
+    public void testPostTransfer_ShouldBalanceCurrenciesThroughExchangeAccount() {
+        ledgerService.postTransfer(senderAccount, 42883L, receiverAccount, 10000L);
+
+        List<JournalEntry> lines = this.capturePostedLines();
+        assertEquals(4, lines.size());
+        Map<String, Long> currencySums = lines.stream().collect(
+                Collectors.groupingBy(JournalEntry::getCurrency, Collectors.summingLong(JournalEntry::getAmount)));
+        assertEquals(Map.of("PLN", 0L, "EUR", 0L), currencySums);
+        assertEquals(-42883L, lines.get(0).getAmount());
+        assertEquals(SENDER_NUMBER, lines.get(0).getAccountId());
+        assertEquals(10000L, lines.get(3).getAmount());
+        assertEquals(RECEIVER_NUMBER, lines.get(3).getAccountId());
+        assertEquals(LedgerService.FX_ACCOUNT + ":PLN", lines.get(1).getAccountId());
+        assertEquals(LedgerService.FX_ACCOUNT + ":EUR", lines.get(2).getAccountId());
+        assertEquals(1L, lines.stream().map(JournalEntry::getPostingId).distinct().count());
+        assertTrue(lines.stream().allMatch(line -> line.getType().equals("transfer") && line.getPostedAt() != null));
+    }
+
+    @Test
+    public void testPostTransfer_ShouldPostTwoLinesInOneCurrency() {
+        receiverAccount.setCurrency("PLN");
+
+        ledgerService.postTransfer(senderAccount, 1000L, receiverAccount, 1000L);
+
+        List<JournalEntry> lines = this.capturePostedLines();
+        assertEquals(2, lines.size());
+        assertEquals(-1000L, lines.get(0).getAmount());
+        assertEquals(1000L, lines.get(1).getAmount());
+    }
+
+    @Test
+    public void testPostDepositClosing_ShouldPayCapitalAndInterest() {
+        ledgerService.postDepositClosing(senderAccount, 100000L, 7300L);
+
+        List<JournalEntry> lines = this.capturePostedLines();
+        assertEquals(LedgerService.DEPOSITS_ACCOUNT + ":PLN", lines.get(0).getAccountId());
+        assertEquals(-100000L, lines.get(0).getAmount());
+        assertEquals(LedgerService.INTEREST_ACCOUNT + ":PLN", lines.get(1).getAccountId());
+        assertEquals(-7300L, lines.get(1).getAmount());
+        assertEquals(107300L, lines.get(2).getAmount());
+        assertTrue(lines.stream().allMatch(line -> line.getType().equals("deposit_closing")));
+    }
+
+    @Test
+    public void testPostCardPayment_ShouldDebitAccountAgainstCardPaymentsAccount() {
+        ledgerService.postCardPayment(senderAccount, 1250L);
+
+        List<JournalEntry> lines = this.capturePostedLines();
+        assertEquals(SENDER_NUMBER, lines.get(0).getAccountId());
+        assertEquals(-1250L, lines.get(0).getAmount());
+        assertEquals(LedgerService.CARD_PAYMENTS_ACCOUNT + ":PLN", lines.get(1).getAccountId());
+        assertEquals(1250L, lines.get(1).getAmount());
+        assertTrue(lines.stream().allMatch(line -> line.getType().equals("card_payment")));
+    }
+
+    @Test
+    public void testPost_ShouldRejectUnbalancedLines() {
+        JournalEntry debit = JournalEntry.builder().accountId(SENDER_NUMBER).amount(-100L).currency("PLN").build();
+        JournalEntry credit = JournalEntry.builder().accountId(RECEIVER_NUMBER).amount(100L).currency("EUR").build();
+
+        assertThrows(IllegalArgumentException.class, () -> ledgerService.post("transfer", List.of(debit, credit)));
+        assertThrows(IllegalArgumentException.class, () -> ledgerService.post("transfer", List.of(debit)));
+        verify(journalEntryRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    public void testGetBalance_ShouldAddJournalTailToCheckpoint() {
+        when(balanceCheckpointRepository.findById(SENDER_NUMBER)).thenReturn(Optional.of(
+                BalanceCheckpoint.builder().accountId(SENDER_NUMBER).balance(50000L).lastEntryId(120L).build()));
+        when(journalEntryRepository.sumAmountsAfter(SENDER_NUMBER, 120L)).thenReturn(-1500L);
+        when(journalEntryRepository.sumAmountsAfter(RECEIVER_NUMBER, 0L)).thenReturn(700L);
+
+        assertEquals(48500L, ledgerService.getBalance(SENDER_NUMBER));
+        assertEquals(700L, ledgerService.getBalance(RECEIVER_NUMBER));
+    }
+
+    @Test
+    public void testLoadBalances_ShouldCombineCheckpointsAndTails() {
+        Account idleAccount = Account.builder().id("PL10105000997603123456789123").currency("PLN").balance(1L)
+                .build();
+        List<String> accountIds = List.of(SENDER_NUMBER, RECEIVER_NUMBER, idleAccount.getId());
+        when(balanceCheckpointRepository.findBalancesByAccountIdIn(accountIds))
+                .thenReturn(List.of(new AccountBalance(SENDER_NUMBER, 48500L)));
+        when(journalEntryRepository.sumAmounts(List.of(RECEIVER_NUMBER, idleAccount.getId())))
+                .thenReturn(List.of(new AccountBalance(RECEIVER_NUMBER, 700L)));
+
+        ledgerService.loadBalances(List.of(senderAccount, receiverAccount, idleAccount));
+
+        assertEquals(48500L, senderAccount.getBalance());
+        assertEquals(700L, receiverAccount.getBalance());
+        assertEquals(0L, idleAccount.getBalance());
+        verify(balanceCheckpointRepository, never()).findAllById(any());
+    }
+
+    @Test
+    public void testLoadBalances_ShouldSkipTailQueryWhenAllAccountsHaveCheckpoints() {
+        List<String> accountIds = List.of(SENDER_NUMBER, RECEIVER_NUMBER);
+        when(balanceCheckpointRepository.findBalancesByAccountIdIn(accountIds)).thenReturn(List.of(
+                new AccountBalance(SENDER_NUMBER, 48500L), new AccountBalance(RECEIVER_NUMBER, 700L)));
+
+        ledgerService.loadBalances(List.of(senderAccount, receiverAccount));
+
+        assertEquals(48500L, senderAccount.getBalance());
+        assertEquals(700L, receiverAccount.getBalance());
+        verify(journalEntryRepository, never()).sumAmounts(any());
+    }
+
+    @Test
+    public void testCompactCheckpoints_ShouldFoldOldLinesInChunks() {
+        long maxEntryId = 2 * LedgerService.COMPACTION_CHUNK_SIZE + 500L;
+        when(journalEntryRepository.findMaxIdPostedBefore(any())).thenReturn(maxEntryId);
+        when(balanceCheckpointRepository.findLastCompactedEntryId()).thenReturn(0L);
+
+        ledgerService.compactCheckpoints();
+
+        verify(journalEntryRepository).sumAmountsBetween(0L, LedgerService.COMPACTION_CHUNK_SIZE);
+        verify(journalEntryRepository).sumAmountsBetween(LedgerService.COMPACTION_CHUNK_SIZE,
+                2 * LedgerService.COMPACTION_CHUNK_SIZE);
+        verify(journalEntryRepository).sumAmountsBetween(2 * LedgerService.COMPACTION_CHUNK_SIZE, maxEntryId);
+    }
+
+    @Test
+    public void testCompactCheckpoints_ShouldSkipWhenNothingIsOldEnough() {
+        when(journalEntryRepository.findMaxIdPostedBefore(any())).thenReturn(null);
+
+        ledgerService.compactCheckpoints();
+
+        verify(journalEntryRepository, never()).sumAmountsBetween(anyLong(), anyLong());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testCompactRange_ShouldMoveCheckpointsForward() {
+        BalanceCheckpoint senderCheckpoint = BalanceCheckpoint.builder().accountId(SENDER_NUMBER).balance(50000L)
+                .lastEntryId(120L).build();
+        when(journalEntryRepository.sumAmountsBetween(120L, 180L)).thenReturn(List.of(
+                new AccountBalance(SENDER_NUMBER, -1500L), new AccountBalance(RECEIVER_NUMBER, 700L)));
+        when(balanceCheckpointRepository.findAllById(List.of(SENDER_NUMBER, RECEIVER_NUMBER)))
+                .thenReturn(List.of(senderCheckpoint));
+
+        ledgerService.compactRange(120L, 180L);
+
+        ArgumentCaptor<Collection<BalanceCheckpoint>> checkpointsCaptor = ArgumentCaptor.forClass(Collection.class);
+        verify(balanceCheckpointRepository).saveAll(checkpointsCaptor.capture());
+        Map<String, BalanceCheckpoint> checkpoints = checkpointsCaptor.getValue().stream()
+                .collect(Collectors.toMap(BalanceCheckpoint::getAccountId, checkpoint -> checkpoint));
+        assertEquals(48500L, checkpoints.get(SENDER_NUMBER).getBalance());
+        assertEquals(700L, checkpoints.get(RECEIVER_NUMBER).getBalance());
+        assertTrue(checkpoints.values().stream().allMatch(checkpoint -> checkpoint.getLastEntryId() == 180L));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<JournalEntry> capturePostedLines() {
+        ArgumentCaptor<List<JournalEntry>> linesCaptor = ArgumentCaptor.forClass(List.class);
+        verify(journalEntryRepository).saveAll(linesCaptor.capture());
+        return new ArrayList<>(linesCaptor.getValue());
+    }
+}
@@ -0,0 +1,91 @@
+package com.quantum.trust.backend.services;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import com.quantum.trust.backend.services.TokenBucketService.EndpointGroup;
+import com.quantum.trust.backend.services.TokenBucketService.Limit;
+
+/**
+ * Compares the former global synchronized bucket with the per-client buckets
+ * at 64 threads, every thread acting as a different user. Run with
+ * {@code mvn -Pbenchmark test -Dbenchmark=TokenBucketServiceBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(64)
+@Fork(1)
+public class TokenBucketServiceBenchmark {
+    private TokenBucketService tokenBucketService;
+    private LegacyTokenBucket legacyTokenBucket;
+
+    @State(Scope.Thread)
+    public static class Client {
+        private static final AtomicInteger clientCount = new AtomicInteger();
+
+        private MockHttpServletRequest request;
+        private String identificator;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            int client = clientCount.incrementAndGet();
+            this.request = new MockHttpServletRequest("GET", "/api/user/all-accounts");
+            this.request.setRemoteAddr("10.0." + (client / 256) + "." + (client % 256));
+            this.identificator = String.valueOf(client);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.tokenBucketService = new TokenBucketService(
+                Map.of(EndpointGroup.READS, new Limit(Integer.MAX_VALUE / 2, 1_000_000_000)), System::nanoTime);
+        this.legacyTokenBucket = new LegacyTokenBucket();
+    }
+
+    @Benchmark
+    public boolean perClientBuckets(Client client) {
+        return this.tokenBucketService.tryConsume(client.request, client.identificator);
+    }
+
+    @Benchmark
+    public boolean legacyGlobalBucket() {
+        return this.legacyTokenBucket.tryConsume();
+    }
+
+    private static final class LegacyTokenBucket {
+        private final AtomicInteger tokens = new AtomicInteger(Integer.MAX_VALUE);
+        private Instant lastRefillTime = Instant.now();
+
+        private synchronized boolean tryConsume() {
+            Instant now = Instant.now();
+            long millisSinceLastRefill = now.toEpochMilli() - this.lastRefillTime.toEpochMilli();
+            if (millisSinceLastRefill > 2000) {
+                this.lastRefillTime = now;
+            }
+            if (this.tokens.get() > 0) {
+                this.tokens.decrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    }
+}
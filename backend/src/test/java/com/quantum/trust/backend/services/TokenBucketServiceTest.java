@@ -1,38 +1,180 @@
 package com.quantum.trust.backend.services;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import com.quantum.trust.backend.services.TokenBucketService.EndpointGroup;
+import com.quantum.trust.backend.services.TokenBucketService.KeyClass;
+import com.quantum.trust.backend.services.TokenBucketService.Limit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 public class TokenBucketServiceTest {
+    private final AtomicLong now = new AtomicLong(1_000_000_000L);
 
     private TokenBucketService tokenBucketService;
 
     @BeforeEach
     public void setUp() {
-        tokenBucketService = new TokenBucketService();
+        tokenBucketService = new TokenBucketService(Map.of(EndpointGroup.READS, new Limit(3, 1),
+                EndpointGroup.AUTH, new Limit(2, 1)), now::get);
     }
 
     @Test
     public void testTryConsume_Success() {
-        assertTrue(tokenBucketService.tryConsume());
+        assertTrue(tokenBucketService.tryConsume(getRequest("GET", "/api/user/all-accounts", "10.0.0.1"), "1"));
     }
 
     @Test
     public void testTryConsume_Failure() {
-        for (int i = 0; i < 1000; i++) {
-            tokenBucketService.tryConsume();
+        MockHttpServletRequest request = getRequest("GET", "/api/user/all-accounts", "10.0.0.1");
+        for (int i = 0; i < 3; i++) {
+            assertTrue(tokenBucketService.tryConsume(request, "1"));
+        }
+        assertFalse(tokenBucketService.tryConsume(request, "1"));
+        assertEquals(1, tokenBucketService.getRejectedRequests(KeyClass.USER));
+        assertEquals(0, tokenBucketService.getRejectedRequests(KeyClass.IP));
+    }
+
+    @Test
+    public void testBindTo_ShouldPublishRejectionsAndBuckets() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        tokenBucketService.bindTo(registry);
+        MockHttpServletRequest request = getRequest("POST", "/api/auth/login", "10.0.0.1");
+        for (int i = 0; i < 3; i++) {
+            tokenBucketService.tryConsume(request, null);
         }
-        assertFalse(tokenBucketService.tryConsume());
+        tokenBucketService.tryConsume(getRequest("GET", "/api/user/all-accounts", "10.0.0.1"), "1");
+
+        assertEquals(1.0, registry.get("rate-limit.rejected-requests").tag("key-class", "ip").functionCounter()
+                .count());
+        assertEquals(0.0, registry.get("rate-limit.rejected-requests").tag("key-class", "user").functionCounter()
+                .count());
+        assertEquals(2.0, registry.get("rate-limit.buckets").gauge().value());
     }
 
     @Test
-    public void testRefill() throws InterruptedException {
-        for (int i = 0; i < 1000; i++) {
-            tokenBucketService.tryConsume();
+    public void testRefill() {
+        MockHttpServletRequest request = getRequest("GET", "/api/user/all-accounts", "10.0.0.1");
+        for (int i = 0; i < 3; i++) {
+            tokenBucketService.tryConsume(request, "1");
         }
-        assertFalse(tokenBucketService.tryConsume());
+        assertFalse(tokenBucketService.tryConsume(request, "1"));
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertTrue(tokenBucketService.tryConsume(request, "1"));
+        assertFalse(tokenBucketService.tryConsume(request, "1"));
+        now.addAndGet(TimeUnit.SECONDS.toNanos(60));
+        for (int i = 0; i < 3; i++) {
+            assertTrue(tokenBucketService.tryConsume(request, "1"));
+        }
+        assertFalse(tokenBucketService.tryConsume(request, "1"));
+    }
+
+    @Test
+    public void testTryConsume_ShouldIsolateUsersIpsAndEndpointGroups() {
+        MockHttpServletRequest readRequest = getRequest("GET", "/api/user/all-accounts", "10.0.0.1");
+        for (int i = 0; i < 3; i++) {
+            tokenBucketService.tryConsume(readRequest, "1");
+        }
+        assertFalse(tokenBucketService.tryConsume(readRequest, "1"));
+        assertTrue(tokenBucketService.tryConsume(readRequest, "2"));
+        assertTrue(tokenBucketService.tryConsume(readRequest, null));
+        assertTrue(tokenBucketService.tryConsume(getRequest("POST", "/api/auth/login", "10.0.0.1"), "1"));
+        MockHttpServletRequest loginRequest = getRequest("POST", "/api/auth/login", "10.0.0.2");
+        assertTrue(tokenBucketService.tryConsume(loginRequest, null));
+        assertTrue(tokenBucketService.tryConsume(loginRequest, null));
+        assertFalse(tokenBucketService.tryConsume(loginRequest, null));
+        assertTrue(tokenBucketService.tryConsume(getRequest("POST", "/api/auth/login", "10.0.0.3"), null));
+        assertEquals(1, tokenBucketService.getRejectedRequests(KeyClass.IP));
+    }
+
+    @Test
+    public void testGetEndpointGroup() {
+        assertEquals(EndpointGroup.AUTH, TokenBucketService.getEndpointGroup(getRequest("POST", "/api/auth/login",
+                "10.0.0.1")));
+        assertEquals(EndpointGroup.TRANSFERS, TokenBucketService.getEndpointGroup(getRequest("POST",
+                "/api/user/new-transfer", "10.0.0.1")));
+        assertEquals(EndpointGroup.READS, TokenBucketService.getEndpointGroup(getRequest("GET",
+                "/api/cards/user/all", "10.0.0.1")));
+        assertEquals(EndpointGroup.WRITES, TokenBucketService.getEndpointGroup(getRequest("PATCH",
+                "/api/cards/edit", "10.0.0.1")));
+    }
+
+    @Test
+    public void testEvictIdleBuckets_ShouldDropOnlyRefilledBuckets() {
+        tokenBucketService.tryConsume(getRequest("GET", "/api/user/all-accounts", "10.0.0.1"), "1");
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        tokenBucketService.tryConsume(getRequest("GET", "/api/user/all-accounts", "10.0.0.1"), "2");
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(600));
+        tokenBucketService.evictIdleBuckets();
+        assertEquals(1, tokenBucketService.getBucketCount());
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        tokenBucketService.evictIdleBuckets();
+        assertEquals(0, tokenBucketService.getBucketCount());
+    }
+
+    @Test
+    public void testConstructor_ShouldReadConfiguredLimits() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("rate-limit.transfers.capacity", "1")
+                .withProperty("rate-limit.transfers.refill-per-second", "0.01");
+        TokenBucketService configuredService = new TokenBucketService(environment);
+        MockHttpServletRequest request = getRequest("POST", "/api/user/new-transfer", "10.0.0.1");
+        assertTrue(configuredService.tryConsume(request, "1"));
+        assertFalse(configuredService.tryConsume(request, "1"));
+        assertThrows(IllegalArgumentException.class, () -> new Limit(0, 1));
+    }
+
+    @Test
+    public void testTryConsume_ShouldNeverGrantMoreThanCapacityUnderContention() throws Exception {
+        TokenBucketService contendedService = new TokenBucketService(
+                Map.of(EndpointGroup.READS, new Limit(1000, 0.001)), now::get);
+        MockHttpServletRequest request = getRequest("GET", "/api/user/all-accounts", "10.0.0.1");
+        ExecutorService executorService = Executors.newFixedThreadPool(64);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            futures.add(executorService.submit(() -> {
+                startLatch.await();
+                int granted = 0;
+                for (int j = 0; j < 100; j++) {
+                    if (contendedService.tryConsume(request, "1")) {
+                        granted++;
+                    }
+                }
+                return granted;
+            }));
+        }
+        startLatch.countDown();
+        int granted = 0;
+        for (Future<Integer> future : futures) {
+            granted += future.get(30, TimeUnit.SECONDS);
+        }
+        executorService.shutdown();
+        assertEquals(1000, granted);
+        assertEquals(5400, contendedService.getRejectedRequests(KeyClass.USER));
+    }
+
+    private static MockHttpServletRequest getRequest(String method, String uri, String remoteAddress) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setRemoteAddr(remoteAddress);
+        return request;
     }
-}
\ No newline at end of file
+}
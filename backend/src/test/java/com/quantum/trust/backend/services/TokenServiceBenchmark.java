@@ -0,0 +1,88 @@
+package com.quantum.trust.backend.services;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.spec.SecretKeySpec;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+
+/**
+ * Measures the token work of one authenticated request: the filter verifies
+ * the token and reads the identificator, then a service reads the
+ * identificator again. The legacy variant parses the token four times with a
+ * freshly built parser and key, as TokenService did before. Run with
+ * {@code mvn -Pbenchmark test -Dbenchmark=TokenServiceBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenServiceBenchmark {
+    private static final String JWT_SECRET = "b4g7h8i9j0k1l2m3n4o5p6q7r8s9t0u1v2w3x4y5z6a7b8c9d0e1f2g3h4i5j6k7";
+
+    private TokenService tokenService;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.tokenService = new TokenService();
+        ReflectionTestUtils.setField(this.tokenService, "jwtSecret", JWT_SECRET);
+        ReflectionTestUtils.setField(this.tokenService, "expiration", 3600000L);
+        ReflectionTestUtils.setField(this.tokenService, "refreshExpiration", 7200000L);
+        this.token = this.tokenService.generateToken("1", "access");
+    }
+
+    @Benchmark
+    public String legacyRequest() {
+        String identificator = legacyParse(this.token).getSubject();
+        if (!legacyParse(this.token).getSubject().equals(identificator)
+                || legacyParse(this.token).getExpiration() == null) {
+            throw new IllegalStateException();
+        }
+        return legacyParse(this.token).getSubject();
+    }
+
+    @Benchmark
+    public String cachedRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        if (this.tokenService.getIdentificatorFromToken(request, this.token) == null) {
+            throw new IllegalStateException();
+        }
+        return this.tokenService.getIdentificatorFromToken(request, this.token);
+    }
+
+    @Benchmark
+    public Claims uncachedVerification() {
+        return Jwts.parserBuilder()
+                .setSigningKey(new SecretKeySpec(JWT_SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"))
+                .build()
+                .parseClaimsJws(this.token)
+                .getBody();
+    }
+
+    private static Claims legacyParse(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(new SecretKeySpec(JWT_SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+}
@@ -2,6 +2,7 @@ package com.quantum.trust.backend.services;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -12,9 +13,13 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.security.SignatureException;
 
 public class TokenServiceTest {
 
@@ -64,6 +69,44 @@ public class TokenServiceTest {
         assertThrows(ExpiredJwtException.class, () -> tokenService.validateToken(token, identificator));
     }
 
+    @Test
+    public void testVerifyToken_ShouldReuseVerifiedClaims() {
+        String token = tokenService.generateToken("testUser", "access");
+        Claims claims = tokenService.verifyToken(token);
+        assertEquals("testUser", claims.getSubject());
+        assertSame(claims, tokenService.verifyToken(token));
+    }
+
+    @Test
+    public void testVerifyToken_ShouldRejectTamperedToken() {
+        String token = tokenService.generateToken("testUser", "access");
+        tokenService.verifyToken(token);
+        String tamperedToken = token.substring(0, token.length() - 2)
+                + (token.charAt(token.length() - 2) == 'A' ? "B" : "A") + token.charAt(token.length() - 1);
+        assertThrows(SignatureException.class, () -> tokenService.verifyToken(tamperedToken));
+    }
+
+    @Test
+    public void testVerifyToken_ShouldForgetTokensOfPreviousSecret() {
+        String token = tokenService.generateToken("testUser", "access");
+        tokenService.verifyToken(token);
+        ReflectionTestUtils.setField(tokenService, "jwtSecret",
+                "c5h8i9j0k1l2m3n4o5p6q7r8s9t0u1v2w3x4y5z6a7b8c9d0e1f2g3h4i5j6k7l8");
+        assertThrows(SignatureException.class, () -> tokenService.verifyToken(token));
+    }
+
+    @Test
+    public void testVerifyToken_ShouldStoreClaimsInRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        String token = tokenService.generateToken("testUser", "access");
+        Claims claims = tokenService.verifyToken(request, token);
+        assertSame(claims, request.getAttribute(TokenService.CLAIMS_ATTRIBUTE));
+        assertEquals("testUser", tokenService.getIdentificatorFromToken(request, token));
+        String otherToken = tokenService.generateToken("otherUser", "refresh");
+        assertEquals("otherUser", tokenService.getIdentificatorFromToken(request, otherToken));
+        assertThrows(MalformedJwtException.class, () -> tokenService.verifyToken(request, "malformedToken"));
+    }
+
     @Test
     public void testValidateToken_MalformedToken() {
         String malformedToken = "malformedToken";
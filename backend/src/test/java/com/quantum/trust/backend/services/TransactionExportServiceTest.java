@@ -0,0 +1,176 @@
+package com.quantum.trust.backend.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quantum.trust.backend.model.dto.TransactionDto;
+import com.quantum.trust.backend.repositories.AccountRepository;
+import com.quantum.trust.backend.repositories.TransactionRepository;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+public class TransactionExportServiceTest {
+    private static final String ACCOUNT_NUMBER = "PL61109010140000071219812874";
+
+    @Mock
+    private AccountService accountService;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CryptoService cryptoService;
+    private TransactionExportService transactionExportService;
+    private HttpServletRequest request;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        cryptoService = new CryptoService(mock(PasswordEncoder.class));
+        cryptoService.encryptKey = "/urpXJY0b3CFG7Y9ZvKvMcAZCS9cRnIF54C3982anI8=";
+        transactionExportService = new TransactionExportService(accountService, cryptoService, accountRepository,
+                transactionRepository, transactionManager);
+        request = mock(HttpServletRequest.class);
+        when(accountService.retrieveUserIdFromToken(request)).thenReturn(1L);
+        when(accountRepository.existsByIdAndUserId(ACCOUNT_NUMBER, 1L)).thenReturn(true);
+    }
+
+    @Test
+    public void testExportAccountTransactions_ShouldStreamCsv() throws Exception {
+        AtomicBoolean isStreamClosed = new AtomicBoolean();
+        when(transactionRepository.streamTransactionDtosByAccountNumber(ACCOUNT_NUMBER)).thenReturn(Stream.of(
+                getTransactionDto(1L, "Rent, May", -50000L), getTransactionDto(2L, "=HYPERLINK(\"x\")", 2050L))
+                .onClose(() -> isStreamClosed.set(true)));
+
+        ResponseEntity<?> response = transactionExportService.exportAccountTransactions(request, ACCOUNT_NUMBER,
+                "csv", false, null, null);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("text/csv", response.getHeaders().getContentType().toString());
+        assertTrue(response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION)
+                .contains("transactions-" + ACCOUNT_NUMBER + ".csv"));
+        String[] lines = write(response).split("\r\n");
+        assertEquals(3, lines.length);
+        assertEquals("id,date,hour,title,assignedAccountNumber,type,amount,currency,accountAmountAfter,category,"
+                + "accountCurrency,status", lines[0]);
+        assertEquals("1,2024-01-01,10:00,\"Rent, May\"," + ACCOUNT_NUMBER + ",outgoing,-500.00,PLN,90.00,Inne,PLN,"
+                + "settled", lines[1]);
+        assertTrue(lines[2].contains(",\"'=HYPERLINK(\"\"x\"\")\","));
+        assertTrue(isStreamClosed.get());
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    public void testExportAccountTransactions_ShouldStreamNdjson() throws Exception {
+        when(transactionRepository.streamTransactionDtosByAccountNumber(ACCOUNT_NUMBER)).thenReturn(Stream.of(
+                getTransactionDto(1L, "First", 1000L), getTransactionDto(2L, "Second", 2000L)));
+
+        ResponseEntity<?> response = transactionExportService.exportAccountTransactions(request, ACCOUNT_NUMBER,
+                "NDJSON", false, null, null);
+
+        assertEquals("application/x-ndjson", response.getHeaders().getContentType().toString());
+        String export = write(response);
+        assertTrue(export.endsWith("\n"));
+        String[] lines = export.split("\n");
+        assertEquals(2, lines.length);
+        JsonNode second = new ObjectMapper().readTree(lines[1]);
+        assertEquals(2L, second.get("id").asLong());
+        assertEquals("Second", second.get("title").asText());
+        assertTrue(lines[1].contains("\"amount\":20.00,"));
+        assertFalse(second.has("account"));
+    }
+
+    @Test
+    public void testExportAccountTransactions_ShouldStreamEncryptedExport() throws Exception {
+        when(transactionRepository.streamTransactionDtosByAccountNumber(ACCOUNT_NUMBER))
+                .thenReturn(Stream.of(getTransactionDto(1L, "First", 1000L)));
+
+        ResponseEntity<?> response = transactionExportService.exportAccountTransactions(request, ACCOUNT_NUMBER,
+                "csv", true, "gcm", "deflate");
+
+        assertEquals("text/plain", response.getHeaders().getContentType().toString());
+        String export = write(response);
+        assertTrue(export.startsWith("qt1.gcm+deflate."));
+        try (InputStream decryptingStream = cryptoService
+                .getDecryptingStream(new ByteArrayInputStream(export.getBytes(StandardCharsets.US_ASCII)))) {
+            String decrypted = new String(decryptingStream.readAllBytes(), StandardCharsets.UTF_8);
+            assertTrue(decrypted.startsWith("id,date,hour"));
+            assertTrue(decrypted.contains("1,2024-01-01,10:00,First,"));
+        }
+    }
+
+    @Test
+    public void testExportAccountTransactions_ShouldRejectForeignAccount() {
+        ResponseEntity<?> response = transactionExportService.exportAccountTransactions(request, "PL00", "csv",
+                false, null, null);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        verify(transactionRepository, never()).streamTransactionDtosByAccountNumber(any());
+    }
+
+    @Test
+    public void testExportAccountTransactions_ShouldRejectInvalidOptions() {
+        assertEquals(HttpStatus.BAD_REQUEST, transactionExportService.exportAccountTransactions(request,
+                ACCOUNT_NUMBER, "xml", false, null, null).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, transactionExportService.exportAccountTransactions(request,
+                ACCOUNT_NUMBER, "csv", true, "rot13", null).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, transactionExportService.exportAccountTransactions(request,
+                ACCOUNT_NUMBER, "csv", true, null, "zip").getStatusCode());
+    }
+
+    @Test
+    public void testExportAccountTransactions_ShouldWriteOnlyHeaderForEmptyHistory() throws Exception {
+        when(transactionRepository.streamTransactionDtosByAccountNumber(ACCOUNT_NUMBER)).thenReturn(Stream.empty());
+
+        ResponseEntity<?> csvResponse = transactionExportService.exportAccountTransactions(request, ACCOUNT_NUMBER,
+                "csv", false, null, null);
+
+        assertEquals(1, write(csvResponse).split("\r\n").length);
+        when(transactionRepository.streamTransactionDtosByAccountNumber(ACCOUNT_NUMBER)).thenReturn(Stream.empty());
+        assertEquals("", write(transactionExportService.exportAccountTransactions(request, ACCOUNT_NUMBER,
+                "ndjson", false, null, null)));
+    }
+
+    private static String write(ResponseEntity<?> response) throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ((StreamingResponseBody) response.getBody()).writeTo(outputStream);
+        return outputStream.toString(StandardCharsets.UTF_8);
+    }
+
+    private static TransactionDto getTransactionDto(Long id, String title, long amount) {
+        return new TransactionDto(id, "2024-01-01", "10:00", title, ACCOUNT_NUMBER, "outgoing", amount, "PLN", 9000L,
+                "Inne", "PLN", "settled");
+    }
+}
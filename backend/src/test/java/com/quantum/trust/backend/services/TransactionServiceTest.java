@@ -1,29 +1,43 @@
 package com.quantum.trust.backend.services;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
 import com.quantum.trust.backend.mappers.TransactionMapper;
+import com.quantum.trust.backend.model.Money;
 import com.quantum.trust.backend.model.TransactionCredentials;
+import com.quantum.trust.backend.model.TransactionCursor;
+import com.quantum.trust.backend.model.TransactionFilter;
+import com.quantum.trust.backend.model.dto.EncryptedPayload;
 import com.quantum.trust.backend.model.dto.TransactionDto;
+import com.quantum.trust.backend.model.dto.TransactionPageDto;
 import com.quantum.trust.backend.model.entities.Account;
-import com.quantum.trust.backend.model.entities.Card;
 import com.quantum.trust.backend.model.entities.Transaction;
 import com.quantum.trust.backend.repositories.TransactionRepository;
 
@@ -31,12 +45,6 @@ import jakarta.servlet.http.HttpServletRequest;
 
 public class TransactionServiceTest {
 
-    @Mock
-    private CardService cardService;
-
-    @Mock
-    private CryptoService cryptoService;
-
     @Mock
     private AccountService accountService;
 
@@ -46,6 +54,9 @@ public class TransactionServiceTest {
     @Mock
     private TransactionRepository transactionRepository;
 
+    @Spy
+    private FxRateService fxRateService = new FxRateService();
+
     @InjectMocks
     private TransactionService transactionService;
 
@@ -56,29 +67,128 @@ public class TransactionServiceTest {
 
     @Test
     public void testCheckTransactionStatuses() {
-        Transaction transaction = new Transaction();
-        transaction.setDate(LocalDate.now().minusDays(3).toString());
-        transaction.setStatus("blockade");
-        when(transactionRepository.findAll()).thenReturn(Collections.singletonList(transaction));
+        String beforeDate = LocalDate.now().minusDays(2).toString();
+        when(transactionRepository.findDueTransactionIds(eq("blockade"), eq(beforeDate), any(Pageable.class)))
+                .thenReturn(List.of(1L, 2L));
+        when(transactionRepository.updateStatuses(List.of(1L, 2L), "blockade", "settled")).thenReturn(2);
         transactionService.checkTransactionStatuses();
-        assertEquals("blockade", transaction.getStatus());
+        verify(transactionRepository).updateStatuses(List.of(1L, 2L), "blockade", "settled");
+        verify(transactionRepository, never()).findAll();
+        assertEquals(2, transactionService.getLastSettledCount());
+        assertEquals(2, transactionService.getTotalSettledCount());
+    }
+
+    @Test
+    public void testCheckTransactionStatuses_ShouldSettleInChunks() {
+        List<Long> fullChunk = LongStream.range(0, TransactionService.SETTLEMENT_CHUNK_SIZE).boxed().toList();
+        when(transactionRepository.findDueTransactionIds(eq("blockade"), any(), any(Pageable.class)))
+                .thenReturn(fullChunk, List.of(1000L), List.of());
+        when(transactionRepository.updateStatuses(any(), eq("blockade"), eq("settled")))
+                .thenReturn(TransactionService.SETTLEMENT_CHUNK_SIZE, 1);
+        transactionService.checkTransactionStatuses();
+        verify(transactionRepository, times(2)).findDueTransactionIds(eq("blockade"), any(), any(Pageable.class));
+        verify(transactionRepository, times(2)).updateStatuses(any(), eq("blockade"), eq("settled"));
+        assertEquals(TransactionService.SETTLEMENT_CHUNK_SIZE + 1, transactionService.getLastSettledCount());
+    }
+
+    @Test
+    public void testCheckTransactionStatuses_ShouldStopWhenNothingIsUpdated() {
+        List<Long> fullChunk = LongStream.range(0, TransactionService.SETTLEMENT_CHUNK_SIZE).boxed().toList();
+        when(transactionRepository.findDueTransactionIds(eq("blockade"), any(), any(Pageable.class)))
+                .thenReturn(fullChunk);
+        when(transactionRepository.updateStatuses(any(), eq("blockade"), eq("settled"))).thenReturn(0);
+        transactionService.checkTransactionStatuses();
+        verify(transactionRepository, times(1)).updateStatuses(any(), eq("blockade"), eq("settled"));
+        assertEquals(0, transactionService.getLastSettledCount());
+    }
+
+    @Test
+    public void testCheckTransactionStatuses_ShouldNotUpdateWithoutDueTransactions() {
+        when(transactionRepository.findDueTransactionIds(eq("blockade"), any(), any(Pageable.class)))
+                .thenReturn(List.of());
+        transactionService.checkTransactionStatuses();
+        verify(transactionRepository, never()).updateStatuses(any(), any(), any());
+        assertEquals(0, transactionService.getTotalSettledCount());
     }
 
     @Test
     public void testGetAllUserTransactions() throws Exception {
         HttpServletRequest request = mock(HttpServletRequest.class);
-        Account account = new Account();
-        Card card = new Card();
-        when(accountService.retrieveAccountsFromUserId(request)).thenReturn(Collections.singletonList(account));
-        when(cardService.getAllUserCards(request)).thenReturn(Collections.singletonList(card));
-        when(transactionRepository.findAllTransactionsByAccount(any(Account.class)))
-                .thenReturn(Collections.emptyList());
-        when(transactionRepository.findAllTransactionsByCard(any(Card.class))).thenReturn(Collections.emptyList());
-        when(cryptoService.encryptData(any())).thenReturn("encryptedData");
+        when(accountService.retrieveUserIdFromToken(request)).thenReturn(1L);
+        when(transactionRepository.findAllTransactionDtosByUserId(1L)).thenReturn(Collections.emptyList());
         ResponseEntity<?> response = transactionService.getAllUserTransactions(request);
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
     }
 
+    @Test
+    public void testGetAllUserTransactions_ShouldUseSingleQuery() throws Exception {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        TransactionDto transactionDto = new TransactionDto(1L, "2024-01-01", "10:00", "Title",
+                "PL61109010140000071219812874", "outgoing", 1000L, "PLN", 9000L, "Inne", "PLN", "settled");
+        when(accountService.retrieveUserIdFromToken(request)).thenReturn(1L);
+        when(transactionRepository.findAllTransactionDtosByUserId(1L)).thenReturn(List.of(transactionDto));
+        ResponseEntity<?> response = transactionService.getAllUserTransactions(request);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of(transactionDto), ((EncryptedPayload) response.getBody()).getData());
+        verify(accountService, never()).retrieveAccountsFromUserId(any());
+        verify(transactionRepository, never()).findAllTransactionsByAccount(any());
+        verify(transactionRepository, never()).findAllTransactionsByCard(any());
+    }
+
+    @Test
+    public void testGetAllUserTransactions_ShouldReturnErrorOnInvalidToken() throws Exception {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(accountService.retrieveUserIdFromToken(request)).thenThrow(new IllegalArgumentException());
+        ResponseEntity<?> response = transactionService.getAllUserTransactions(request);
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+    }
+
+    @Test
+    public void testGetUserTransactionsPage_ShouldReturnCursorOfNextPage() throws Exception {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        TransactionFilter transactionFilter = TransactionFilter.builder().type("outgoing").build();
+        List<TransactionDto> transactions = List.of(getTransactionDto(3L), getTransactionDto(2L),
+                getTransactionDto(1L));
+        when(accountService.retrieveUserIdFromToken(request)).thenReturn(1L);
+        when(transactionRepository.findTransactionHistoryPage(1L, transactionFilter, null, 3))
+                .thenReturn(transactions);
+        ResponseEntity<?> response = transactionService.getUserTransactionsPage(request, transactionFilter, null, 2);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        TransactionPageDto page = (TransactionPageDto) ((EncryptedPayload) response.getBody()).getData();
+        assertEquals(transactions.subList(0, 2), page.getTransactions());
+        assertEquals(new TransactionCursor("2024-01-01", "10:00", 2L), TransactionCursor.decode(page.getNextCursor()));
+    }
+
+    @Test
+    public void testGetUserTransactionsPage_ShouldContinueFromCursor() throws Exception {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        TransactionFilter transactionFilter = new TransactionFilter();
+        TransactionCursor transactionCursor = new TransactionCursor("2024-01-01", "10:00", 2L);
+        when(accountService.retrieveUserIdFromToken(request)).thenReturn(1L);
+        when(transactionRepository.findTransactionHistoryPage(1L, transactionFilter, transactionCursor,
+                TransactionService.DEFAULT_PAGE_SIZE + 1)).thenReturn(List.of(getTransactionDto(1L)));
+        ResponseEntity<?> response = transactionService.getUserTransactionsPage(request, transactionFilter,
+                transactionCursor.encode(), null);
+        TransactionPageDto page = (TransactionPageDto) ((EncryptedPayload) response.getBody()).getData();
+        assertEquals(1, page.getTransactions().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    public void testGetUserTransactionsPage_ShouldRejectInvalidRequests() {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        TransactionFilter transactionFilter = new TransactionFilter();
+        assertEquals(HttpStatus.BAD_REQUEST,
+                transactionService.getUserTransactionsPage(request, transactionFilter, "bad", null).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST,
+                transactionService.getUserTransactionsPage(request, transactionFilter, null, 0).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, transactionService.getUserTransactionsPage(request,
+                transactionFilter, null, TransactionService.MAX_PAGE_SIZE + 1).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, transactionService.getUserTransactionsPage(request,
+                TransactionFilter.builder().fromDate("yesterday").build(), null, null).getStatusCode());
+        verify(transactionRepository, never()).findTransactionHistoryPage(any(), any(), any(), anyInt());
+    }
+
     @Test
     public void testSaveNewTransaction() {
         TransactionDto transactionDto = new TransactionDto(null, null, null, null, null, null, null, null, null, null,
@@ -95,12 +205,12 @@ public class TransactionServiceTest {
     public void testGetTransactionDto() {
         Account account = new Account();
         account.setCurrency("USD");
-        TransactionCredentials credentials = new TransactionCredentials(100.0f, 50.0f, "Food", "completed", "Grocery",
+        TransactionCredentials credentials = new TransactionCredentials(10000L, 5000L, "Food", "completed", "Grocery",
                 "debit");
         TransactionDto transactionDto = transactionService.getTransactionDto(account, credentials);
         assertEquals("USD", transactionDto.getAccountCurrency());
-        assertEquals(100.0f, transactionDto.getAccountAmountAfter());
-        assertEquals(50.0f, transactionDto.getAmount());
+        assertEquals(Money.ofMinor(10000L, "USD"), transactionDto.getAccountAmountAfter());
+        assertEquals(Money.ofMinor(5000L, "USD"), transactionDto.getAmount());
         assertEquals("Food", transactionDto.getCategory());
         assertEquals("completed", transactionDto.getStatus());
         assertEquals("Grocery", transactionDto.getTitle());
@@ -112,4 +222,25 @@ public class TransactionServiceTest {
         float amount = transactionService.getRecalculatedAmount("USD", "EUR", 100.0f);
         assertEquals(100.0f * 3.8659f / 4.2883f, amount, 0.00001f);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testGetRecalculatedAmount_ShouldConvertMoneyExactly() {
+        assertEquals(Money.ofMinor(9015L, "EUR"),
+                transactionService.getRecalculatedAmount(Money.ofMinor(10000L, "USD"), "EUR"));
+        assertEquals(36397L, transactionService.getRecalculatedMinorUnits("PLN", "JPY", 100000L));
+        assertEquals(100000L, transactionService.getRecalculatedMinorUnits("PLN", "PLN", 100000L));
+    }
+
+    @Test
+    public void testGetRecalculatedAmount_ShouldUsePublishedRates() {
+        fxRateService.publishRates(Map.of("PLN", BigDecimal.ONE, "EUR", new BigDecimal("4")));
+
+        assertEquals(2500L, transactionService.getRecalculatedMinorUnits("EUR", "PLN", 625L));
+        assertEquals(25.0f, transactionService.getRecalculatedAmount("PLN", "EUR", 100.0f));
+    }
+
+    private static TransactionDto getTransactionDto(Long id) {
+        return new TransactionDto(id, "2024-01-01", "10:00", "Title", "PL61109010140000071219812874", "outgoing",
+                1000L, "PLN", 9000L, "Inne", "PLN", "settled");
+    }
+}
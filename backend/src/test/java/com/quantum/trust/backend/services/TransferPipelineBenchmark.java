@@ -0,0 +1,166 @@
+package com.quantum.trust.backend.services;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+import com.quantum.trust.backend.mappers.TransactionMapper;
+import com.quantum.trust.backend.model.dto.TransferDto;
+import com.quantum.trust.backend.model.entities.Account;
+import com.quantum.trust.backend.model.entities.User;
+import com.quantum.trust.backend.repositories.AccountRepository;
+import com.quantum.trust.backend.repositories.JournalEntryRepository;
+import com.quantum.trust.backend.repositories.TransactionRepository;
+
+/**
+ * Measures transfers per second of a payday burst, 1024 sender accounts paying
+ * into a few hot receiver accounts from 64 threads, applied synchronously or
+ * through the sharded transfer pipeline. The repositories are in memory and
+ * every commit waits 200 microseconds in place of the database round trip, so
+ * the synchronous path pays for holding the locks of the hot receivers during
+ * every commit and the pipeline pays one commit per batch. The asynchronous
+ * mode counts transfers accepted by the bounded queues, which in a steady
+ * state is the rate the writers apply them. Run with
+ * {@code mvn -Pbenchmark test -Dbenchmark=TransferPipelineBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(64)
+@Fork(1)
+public class TransferPipelineBenchmark {
+    private static final int SENDER_ACCOUNTS = 1024;
+    private static final long COMMIT_LATENCY_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+
+    @Param({ "sync", "async" })
+    private String mode;
+
+    @Param({ "4" })
+    private int hotReceivers;
+
+    private TransferService transferService;
+    private TransferPipelineService transferPipelineService;
+    private TransferDto[] transfers;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Map<String, Account> accounts = new ConcurrentHashMap<>();
+        User owner = User.builder().id(1L).build();
+        for (int i = 0; i < SENDER_ACCOUNTS + this.hotReceivers; i++) {
+            String accountNumber = String.format("PL%026d", i);
+            accounts.put(accountNumber,
+                    Account.builder().id(accountNumber).balance(Long.MAX_VALUE / 2).currency("PLN").user(owner)
+                            .build());
+        }
+        FxRateService fxRateService = new FxRateService();
+        TransactionService transactionService = new TransactionService(null, new TransactionMapper(), null,
+                fxRateService);
+        LatentTransactionManager transactionManager = new LatentTransactionManager();
+        this.transferService = new TransferService(getAccountRepository(accounts), getTransactionRepository(),
+                transactionService, new TransactionMapper(), new ValidationService(null, transactionService),
+                fxRateService, getLedgerService(transactionManager), transactionManager);
+        if (this.mode.equals("async")) {
+            this.transferPipelineService = new TransferPipelineService(this.transferService, fxRateService,
+                    transactionManager, 8, 4096);
+        }
+        this.transfers = new TransferDto[4096];
+        for (int i = 0; i < this.transfers.length; i++) {
+            String sender = String.format("PL%026d", i % SENDER_ACCOUNTS);
+            String receiver = String.format("PL%026d", SENDER_ACCOUNTS + i % this.hotReceivers);
+            this.transfers[i] = new TransferDto(sender, receiver, "Payday transfer", BigDecimal.ONE);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        if (this.transferPipelineService != null) {
+            this.transferPipelineService.shutdown();
+        }
+    }
+
+    @Benchmark
+    public void paydayTransfers() throws InterruptedException {
+        TransferDto transferDto = this.transfers[ThreadLocalRandom.current().nextInt(this.transfers.length)];
+        if (this.transferPipelineService == null) {
+            this.transferService.sendTransfer(transferDto, "1");
+            return;
+        }
+        while (this.transferPipelineService.submitTransfer(transferDto, "1") == null) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private static AccountRepository getAccountRepository(Map<String, Account> accounts) {
+        return (AccountRepository) Proxy.newProxyInstance(AccountRepository.class.getClassLoader(),
+                new Class<?>[] { AccountRepository.class }, (proxy, method, args) -> {
+                    if (method.getName().equals("findAllForUpdateByIdIn") || method.getName().equals("findAllById")) {
+                        return ((Collection<?>) args[0]).stream().sorted().map(accounts::get).toList();
+                    }
+                    if (method.getName().equals("existsByIdAndUserId")) {
+                        return accounts.containsKey(args[0]);
+                    }
+                    return args != null ? args[0] : null;
+                });
+    }
+
+    private static TransactionRepository getTransactionRepository() {
+        return (TransactionRepository) Proxy.newProxyInstance(TransactionRepository.class.getClassLoader(),
+                new Class<?>[] { TransactionRepository.class }, (proxy, method, args) -> args != null ? args[0] : null);
+    }
+
+    private static LedgerService getLedgerService(LatentTransactionManager transactionManager) {
+        JournalEntryRepository journalEntryRepository = (JournalEntryRepository) Proxy.newProxyInstance(
+                JournalEntryRepository.class.getClassLoader(), new Class<?>[] { JournalEntryRepository.class },
+                (proxy, method, args) -> args != null ? args[0] : null);
+        return new LedgerService(journalEntryRepository, null, transactionManager) {
+            @Override
+            public void loadBalances(Collection<Account> accounts) {
+            }
+        };
+    }
+
+    private static final class LatentTransactionManager extends AbstractPlatformTransactionManager {
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+            LockSupport.parkNanos(COMMIT_LATENCY_NANOS);
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
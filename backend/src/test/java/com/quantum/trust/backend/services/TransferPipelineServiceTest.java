@@ -0,0 +1,178 @@
+package com.quantum.trust.backend.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.quantum.trust.backend.model.TransferStatus;
+import com.quantum.trust.backend.model.dto.TransferDto;
+import com.quantum.trust.backend.services.TransferPipelineService.QueuedTransfer;
+
+public class TransferPipelineServiceTest {
+    private static final String OWNER_ID = "1";
+
+    private final TransferService transferService = mock(TransferService.class);
+    private TransferPipelineService transferPipelineService;
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        if (transferPipelineService != null) {
+            transferPipelineService.shutdown();
+        }
+    }
+
+    @Test
+    public void testSubmitTransfer_ShouldApplyQueuedTransfer() throws Exception {
+        when(transferService.executeTransferBatch(anyList(), any()))
+                .thenAnswer(invocation -> Collections.nCopies(invocation.<List<?>>getArgument(0).size(),
+                        TransferStatus.COMPLETED));
+        transferPipelineService = getTransferPipelineService(2, 16);
+
+        String transferId = transferPipelineService.submitTransfer(getTransferDto("PL1"), OWNER_ID);
+
+        assertNotNull(transferId);
+        assertEquals(TransferStatus.COMPLETED, awaitStatus(transferId));
+        assertNull(transferPipelineService.getTransferStatus("unknown", OWNER_ID));
+    }
+
+    @Test
+    public void testGetTransferStatus_ShouldHideTransfersOfOtherUsers() throws Exception {
+        when(transferService.executeTransferBatch(anyList(), any()))
+                .thenAnswer(invocation -> Collections.nCopies(invocation.<List<?>>getArgument(0).size(),
+                        TransferStatus.COMPLETED));
+        transferPipelineService = getTransferPipelineService(1, 16);
+
+        String transferId = transferPipelineService.submitTransfer(getTransferDto("PL1"), OWNER_ID);
+
+        assertNull(transferPipelineService.getTransferStatus(transferId, "2"));
+        assertEquals(TransferStatus.COMPLETED, awaitStatus(transferId));
+        assertNull(transferPipelineService.getTransferStatus(transferId, "2"));
+    }
+
+    @Test
+    public void testSubmitTransfer_ShouldRejectTransferFromAccountOfAnotherUser() {
+        transferPipelineService = getTransferPipelineService(1, 16);
+        TransferDto transferDto = getTransferDto("PL1");
+        doThrow(new IllegalArgumentException("Transfer credentials are invalid")).when(transferService)
+                .validateSenderOwner(transferDto, "2");
+
+        assertThrows(IllegalArgumentException.class, () -> transferPipelineService.submitTransfer(transferDto, "2"));
+        verify(transferService).validateSenderOwner(transferDto, "2");
+        verify(transferService, never()).executeTransferBatch(anyList(), any());
+    }
+
+    @Test
+    public void testSubmitTransfer_ShouldRejectInvalidTransfer() {
+        transferPipelineService = getTransferPipelineService(1, 16);
+        TransferDto transferDto = getTransferDto("PL1");
+        doThrow(new IllegalArgumentException("Transfer credentials are invalid")).when(transferService)
+                .validateTransferCredentials(transferDto);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> transferPipelineService.submitTransfer(transferDto, OWNER_ID));
+        verify(transferService, never()).executeTransferBatch(anyList(), any());
+    }
+
+    @Test
+    public void testSubmitTransfer_ShouldRefuseTransfersWhileQueueIsFull() throws Exception {
+        CountDownLatch isApplying = new CountDownLatch(1);
+        CountDownLatch canApply = new CountDownLatch(1);
+        when(transferService.executeTransferBatch(anyList(), any())).thenAnswer(invocation -> {
+            isApplying.countDown();
+            canApply.await();
+            return Collections.nCopies(invocation.<List<?>>getArgument(0).size(), TransferStatus.COMPLETED);
+        });
+        transferPipelineService = getTransferPipelineService(1, 1);
+
+        String firstTransferId = transferPipelineService.submitTransfer(getTransferDto("PL1"), OWNER_ID);
+        assertTrue(isApplying.await(5, TimeUnit.SECONDS));
+        String secondTransferId = transferPipelineService.submitTransfer(getTransferDto("PL2"), OWNER_ID);
+        String refusedTransferId = transferPipelineService.submitTransfer(getTransferDto("PL3"), OWNER_ID);
+
+        assertNotNull(secondTransferId);
+        assertNull(refusedTransferId);
+        assertEquals(TransferStatus.PENDING, transferPipelineService.getTransferStatus(secondTransferId, OWNER_ID));
+        canApply.countDown();
+        assertEquals(TransferStatus.COMPLETED, awaitStatus(firstTransferId));
+        assertEquals(TransferStatus.COMPLETED, awaitStatus(secondTransferId));
+    }
+
+    @Test
+    public void testApplyBatch_ShouldApplyTransfersAloneAfterBatchFailure() {
+        TransferDto brokenTransferDto = getTransferDto("PL2");
+        when(transferService.executeTransferBatch(anyList(), any())).thenAnswer(invocation -> {
+            List<TransferDto> transferDtos = invocation.getArgument(0);
+            if (transferDtos.contains(brokenTransferDto)) {
+                throw new IllegalStateException("Constraint violation");
+            }
+            return Collections.nCopies(transferDtos.size(), TransferStatus.REJECTED);
+        });
+        transferPipelineService = getTransferPipelineService(1, 16);
+
+        transferPipelineService.applyBatch(List.of(new QueuedTransfer("first", OWNER_ID, getTransferDto("PL1")),
+                new QueuedTransfer("broken", OWNER_ID, brokenTransferDto),
+                new QueuedTransfer("third", OWNER_ID, getTransferDto("PL3"))));
+
+        assertEquals(TransferStatus.REJECTED, transferPipelineService.getTransferStatus("first", OWNER_ID));
+        assertEquals(TransferStatus.FAILED, transferPipelineService.getTransferStatus("broken", OWNER_ID));
+        assertEquals(TransferStatus.REJECTED, transferPipelineService.getTransferStatus("third", OWNER_ID));
+    }
+
+    @Test
+    public void testShutdown_ShouldApplyQueuedTransfersAndRefuseNewOnes() throws Exception {
+        when(transferService.executeTransferBatch(anyList(), any()))
+                .thenAnswer(invocation -> Collections.nCopies(invocation.<List<?>>getArgument(0).size(),
+                        TransferStatus.COMPLETED));
+        transferPipelineService = getTransferPipelineService(2, 64);
+        List<String> transferIds = List.of(
+                transferPipelineService.submitTransfer(getTransferDto("PL1"), OWNER_ID),
+                transferPipelineService.submitTransfer(getTransferDto("PL2"), OWNER_ID),
+                transferPipelineService.submitTransfer(getTransferDto("PL3"), OWNER_ID));
+
+        transferPipelineService.shutdown();
+
+        for (String transferId : transferIds) {
+            assertEquals(TransferStatus.COMPLETED, transferPipelineService.getTransferStatus(transferId, OWNER_ID));
+        }
+        assertNull(transferPipelineService.submitTransfer(getTransferDto("PL1"), OWNER_ID));
+    }
+
+    private TransferPipelineService getTransferPipelineService(int shardCount, int queueCapacity) {
+        return new TransferPipelineService(transferService, new FxRateService(), mock(PlatformTransactionManager.class),
+                shardCount, queueCapacity);
+    }
+
+    private TransferStatus awaitStatus(String transferId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        TransferStatus transferStatus = transferPipelineService.getTransferStatus(transferId, OWNER_ID);
+        while (transferStatus == TransferStatus.PENDING && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+            transferStatus = transferPipelineService.getTransferStatus(transferId, OWNER_ID);
+        }
+        return transferStatus;
+    }
+
+    private static TransferDto getTransferDto(String senderAccountNumber) {
+        return new TransferDto(senderAccountNumber, "PL27114020040000300201355387", "Monthly transfer",
+                BigDecimal.TEN);
+    }
+}
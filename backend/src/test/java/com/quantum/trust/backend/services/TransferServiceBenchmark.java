@@ -0,0 +1,133 @@
+package com.quantum.trust.backend.services;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+import com.quantum.trust.backend.mappers.TransactionMapper;
+import com.quantum.trust.backend.model.dto.TransferDto;
+import com.quantum.trust.backend.model.entities.Account;
+import com.quantum.trust.backend.model.entities.User;
+import com.quantum.trust.backend.repositories.AccountRepository;
+import com.quantum.trust.backend.repositories.JournalEntryRepository;
+import com.quantum.trust.backend.repositories.TransactionRepository;
+
+/**
+ * Measures transfers per second of the transfer engine at 64 threads moving
+ * money between a small set of hot accounts, with in-memory repositories in
+ * place of the database. Run with
+ * {@code mvn -Pbenchmark test -Dbenchmark=TransferServiceBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(64)
+@Fork(1)
+public class TransferServiceBenchmark {
+    @Param({ "2", "8", "1024" })
+    private int hotAccounts;
+
+    private TransferService transferService;
+    private TransferDto[] transfers;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Map<String, Account> accounts = new ConcurrentHashMap<>();
+        User owner = User.builder().id(1L).build();
+        for (int i = 0; i < this.hotAccounts; i++) {
+            String accountNumber = String.format("PL%026d", i);
+            accounts.put(accountNumber,
+                    Account.builder().id(accountNumber).balance(Long.MAX_VALUE / 2).currency("PLN").user(owner)
+                            .build());
+        }
+        FxRateService fxRateService = new FxRateService();
+        TransactionService transactionService = new TransactionService(null, new TransactionMapper(), null,
+                fxRateService);
+        this.transferService = new TransferService(getAccountRepository(accounts), getTransactionRepository(),
+                transactionService, new TransactionMapper(), new ValidationService(null, transactionService),
+                fxRateService, getLedgerService(), new NoOpTransactionManager());
+        List<String> accountNumbers = List.copyOf(accounts.keySet());
+        this.transfers = new TransferDto[1024];
+        for (int i = 0; i < this.transfers.length; i++) {
+            int sender = i % this.hotAccounts;
+            int receiver = (sender + 1 + i / this.hotAccounts % (this.hotAccounts - 1)) % this.hotAccounts;
+            this.transfers[i] = new TransferDto(accountNumbers.get(sender), accountNumbers.get(receiver),
+                    "Benchmark transfer", BigDecimal.ONE);
+        }
+    }
+
+    @Benchmark
+    public void hotAccountTransfers() throws InterruptedException {
+        this.transferService.sendTransfer(this.transfers[ThreadLocalRandom.current().nextInt(this.transfers.length)],
+                "1");
+    }
+
+    private static AccountRepository getAccountRepository(Map<String, Account> accounts) {
+        return (AccountRepository) Proxy.newProxyInstance(AccountRepository.class.getClassLoader(),
+                new Class<?>[] { AccountRepository.class }, (proxy, method, args) -> {
+                    if (method.getName().equals("findAllForUpdateByIdIn")) {
+                        return ((Collection<?>) args[0]).stream().sorted().map(accounts::get).toList();
+                    }
+                    return args != null ? args[0] : null;
+                });
+    }
+
+    private static TransactionRepository getTransactionRepository() {
+        return (TransactionRepository) Proxy.newProxyInstance(TransactionRepository.class.getClassLoader(),
+                new Class<?>[] { TransactionRepository.class }, (proxy, method, args) -> args != null ? args[0] : null);
+    }
+
+    private static LedgerService getLedgerService() {
+        JournalEntryRepository journalEntryRepository = (JournalEntryRepository) Proxy.newProxyInstance(
+                JournalEntryRepository.class.getClassLoader(), new Class<?>[] { JournalEntryRepository.class },
+                (proxy, method, args) -> args != null ? args[0] : null);
+        return new LedgerService(journalEntryRepository, null, new NoOpTransactionManager()) {
+            @Override
+            public void loadBalances(Collection<Account> accounts) {
+            }
+        };
+    }
+
+    private static final class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.quantum.trust.backend.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.quantum.trust.backend.mappers.TransactionMapper;
+import com.quantum.trust.backend.model.TransferStatus;
+import com.quantum.trust.backend.model.dto.TransferDto;
+import com.quantum.trust.backend.model.entities.Account;
+import com.quantum.trust.backend.model.entities.Transaction;
+import com.quantum.trust.backend.model.entities.User;
+import com.quantum.trust.backend.repositories.AccountRepository;
+import com.quantum.trust.backend.repositories.TransactionRepository;
+
+public class TransferServiceTest {
+    private static final String SENDER_NUMBER = "PL61109010140000071219812874";
+    private static final String RECEIVER_NUMBER = "PL27114020040000300201355387";
+    private static final String OWNER_ID = "1";
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private LedgerService ledgerService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private Account senderAccount;
+    private Account receiverAccount;
+    private TransferService transferService;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        FxRateService fxRateService = new FxRateService();
+        TransactionService transactionService = new TransactionService(null, new TransactionMapper(), null,
+                fxRateService);
+        transferService = new TransferService(accountRepository, transactionRepository, transactionService,
+                new TransactionMapper(), new ValidationService(null, transactionService), fxRateService,
+                ledgerService, transactionManager);
+        senderAccount = Account.builder().id(SENDER_NUMBER).balance(100000L).currency("PLN")
+                .user(User.builder().id(1L).build()).build();
+        receiverAccount = Account.builder().id(RECEIVER_NUMBER).balance(500L).currency("EUR")
+                .user(User.builder().id(2L).build()).build();
+        when(accountRepository.findAllForUpdateByIdIn(List.of(SENDER_NUMBER, RECEIVER_NUMBER)))
+                .thenReturn(List.of(senderAccount, receiverAccount));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testSendTransfer_ShouldMoveMoneyInOneTransaction() throws Exception {
+        transferService.sendTransfer(getTransferDto("428.83"), OWNER_ID);
+
+        assertEquals(57117L, senderAccount.getBalance());
+        assertEquals(10500L, receiverAccount.getBalance());
+        ArgumentCaptor<List<Transaction>> transactionsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(transactionRepository).saveAll(transactionsCaptor.capture());
+        List<Transaction> transactions = transactionsCaptor.getValue();
+        assertEquals("outgoing", transactions.get(0).getType());
+        assertEquals(42883L, transactions.get(0).getAmount());
+        assertEquals(57117L, transactions.get(0).getAccountAmountAfter());
+        assertEquals("incoming", transactions.get(1).getType());
+        assertEquals(10000L, transactions.get(1).getAmount());
+        assertEquals("EUR", transactions.get(1).getCurrency());
+        verify(ledgerService).loadBalances(List.of(senderAccount, receiverAccount));
+        verify(ledgerService).postTransfer(senderAccount, 42883L, receiverAccount, 10000L);
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    public void testSendTransfer_ShouldRetryLockConflicts() throws Exception {
+        when(accountRepository.findAllForUpdateByIdIn(anyList()))
+                .thenThrow(new CannotAcquireLockException("deadlock detected"))
+                .thenReturn(List.of(senderAccount, receiverAccount));
+
+        transferService.sendTransfer(getTransferDto("10"), OWNER_ID);
+
+        verify(accountRepository, times(2)).findAllForUpdateByIdIn(anyList());
+        verify(transactionManager).rollback(any());
+        assertEquals(99000L, senderAccount.getBalance());
+    }
+
+    @Test
+    public void testSendTransfer_ShouldGiveUpAfterLastAttempt() {
+        when(accountRepository.findAllForUpdateByIdIn(anyList()))
+                .thenThrow(new CannotAcquireLockException("lock timeout"));
+
+        assertThrows(ConcurrencyFailureException.class,
+                () -> transferService.sendTransfer(getTransferDto("10"), OWNER_ID));
+        verify(accountRepository, times(TransferService.MAX_ATTEMPTS)).findAllForUpdateByIdIn(anyList());
+        verify(ledgerService, never()).postTransfer(any(), anyLong(), any(), anyLong());
+    }
+
+    @Test
+    public void testSendTransfer_ShouldRejectInvalidTransfers() {
+        assertThrows(IllegalArgumentException.class,
+                () -> transferService.sendTransfer(getTransferDto("1000.01"), OWNER_ID));
+        assertThrows(IllegalArgumentException.class,
+                () -> transferService.sendTransfer(getTransferDto("0.50"), OWNER_ID));
+        verify(ledgerService, never()).postTransfer(any(), anyLong(), any(), anyLong());
+        verify(transactionManager, times(2)).rollback(any());
+        assertEquals(100000L, senderAccount.getBalance());
+
+        TransferDto selfTransferDto = new TransferDto(SENDER_NUMBER, SENDER_NUMBER, "Transfer to myself",
+                BigDecimal.TEN);
+        assertThrows(IllegalArgumentException.class, () -> transferService.sendTransfer(selfTransferDto, OWNER_ID));
+        TransferDto shortTitleDto = new TransferDto(SENDER_NUMBER, RECEIVER_NUMBER, "Rent", BigDecimal.TEN);
+        assertThrows(IllegalArgumentException.class, () -> transferService.sendTransfer(shortTitleDto, OWNER_ID));
+        when(accountRepository.findAllForUpdateByIdIn(anyList())).thenReturn(List.of(senderAccount));
+        assertThrows(IllegalArgumentException.class,
+                () -> transferService.sendTransfer(getTransferDto("10"), OWNER_ID));
+    }
+
+    @Test
+    public void testSendTransfer_ShouldRejectAccountsOfOtherUsers() {
+        assertThrows(IllegalArgumentException.class, () -> transferService.sendTransfer(getTransferDto("10"), "2"));
+        assertThrows(IllegalArgumentException.class, () -> transferService.sendTransfer(getTransferDto("10"), null));
+
+        verify(ledgerService, never()).loadBalances(anyList());
+        verify(ledgerService, never()).postTransfer(any(), anyLong(), any(), anyLong());
+        verify(transactionRepository, never()).saveAll(anyList());
+        assertEquals(100000L, senderAccount.getBalance());
+    }
+
+    @Test
+    public void testSendTransfer_ShouldNotLoseConcurrentUpdates() throws Exception {
+        receiverAccount.setCurrency("PLN");
+        receiverAccount.setUser(senderAccount.getUser());
+        when(accountRepository.findAllForUpdateByIdIn(List.of(RECEIVER_NUMBER, SENDER_NUMBER)))
+                .thenReturn(List.of(senderAccount, receiverAccount));
+        TransferDto forwardDto = getTransferDto("1");
+        TransferDto backwardDto = new TransferDto(RECEIVER_NUMBER, SENDER_NUMBER, "Monthly transfer", BigDecimal.ONE);
+        receiverAccount.setBalance(100000L);
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Object>> results = executorService.invokeAll(IntStream.range(0, 8)
+                    .mapToObj(thread -> (Callable<Object>) () -> {
+                        for (int i = 0; i < 200; i++) {
+                            transferService.sendTransfer(thread % 2 == 0 ? forwardDto : backwardDto, OWNER_ID);
+                        }
+                        return null;
+                    }).toList());
+            for (Future<Object> result : results) {
+                result.get();
+            }
+        } finally {
+            executorService.shutdown();
+        }
+
+        assertEquals(100000L, senderAccount.getBalance());
+        assertEquals(100000L, receiverAccount.getBalance());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testExecuteTransferBatch_ShouldApplyTransfersInOrderLockingOnlySenders() {
+        when(accountRepository.findAllForUpdateByIdIn(Set.of(SENDER_NUMBER))).thenReturn(List.of(senderAccount));
+        when(accountRepository.findAllById(Set.of(RECEIVER_NUMBER, "PL00"))).thenReturn(List.of(receiverAccount));
+        List<TransferDto> transferDtos = List.of(getTransferDto("428.83"), getTransferDto("600"),
+                new TransferDto(SENDER_NUMBER, "PL00", "Monthly transfer", BigDecimal.TEN), getTransferDto("0.017"),
+                getTransferDto("10"));
+
+        List<TransferStatus> transferStatuses = transferService.executeTransferBatch(transferDtos,
+                new FxRateService().getSnapshot());
+
+        assertEquals(List.of(TransferStatus.COMPLETED, TransferStatus.REJECTED, TransferStatus.REJECTED,
+                TransferStatus.REJECTED, TransferStatus.COMPLETED), transferStatuses);
+        assertEquals(56117L, senderAccount.getBalance());
+        verify(ledgerService).postTransfer(senderAccount, 42883L, receiverAccount, 10000L);
+        verify(ledgerService).postTransfer(senderAccount, 1000L, receiverAccount, 233L);
+        ArgumentCaptor<List<Transaction>> transactionsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(transactionRepository).saveAll(transactionsCaptor.capture());
+        assertEquals(4, transactionsCaptor.getValue().size());
+        verify(accountRepository, never()).findAllForUpdateByIdIn(List.of(SENDER_NUMBER, RECEIVER_NUMBER));
+    }
+
+    @Test
+    public void testValidateSenderOwner_ShouldRejectAccountOfAnotherUser() {
+        TransferDto transferDto = getTransferDto("10");
+        when(accountRepository.existsByIdAndUserId(SENDER_NUMBER, 1L)).thenReturn(true);
+
+        transferService.validateSenderOwner(transferDto, "1");
+        assertThrows(IllegalArgumentException.class, () -> transferService.validateSenderOwner(transferDto, "2"));
+        assertThrows(IllegalArgumentException.class, () -> transferService.validateSenderOwner(transferDto, null));
+    }
+
+    private static TransferDto getTransferDto(String amount) {
+        return new TransferDto(SENDER_NUMBER, RECEIVER_NUMBER, "Monthly transfer", new BigDecimal(amount));
+    }
+}
@@ -1,14 +1,29 @@
 package com.quantum.trust.backend.services;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.security.core.CredentialsContainer;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import com.quantum.trust.backend.model.entities.User;
@@ -19,12 +34,29 @@ public class UserAuthServiceTest {
     @Mock
     private UserRepository userRepository;
 
-    @InjectMocks
+    private final AtomicReference<Instant> now = new AtomicReference<>(Instant.parse("2024-01-01T00:00:00Z"));
+
     private UserAuthService userAuthService;
 
     @BeforeEach
     public void setUp() {
         MockitoAnnotations.openMocks(this);
+        userAuthService = new UserAuthService(userRepository, new Clock() {
+            @Override
+            public ZoneId getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return this;
+            }
+
+            @Override
+            public Instant instant() {
+                return now.get();
+            }
+        });
     }
 
     @Test
@@ -49,4 +81,92 @@ public class UserAuthServiceTest {
             userAuthService.loadUserByUsername("1");
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testLoadUserByUsername_ShouldCacheUserDetails() {
+        User user = new User();
+        user.setId(1L);
+        user.setPassword("password");
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        UserDetails firstUserDetails = userAuthService.loadUserByUsername("1");
+        UserDetails secondUserDetails = userAuthService.loadUserByUsername("1");
+        verify(userRepository, times(1)).findById(1L);
+        assertNotSame(firstUserDetails, secondUserDetails);
+        assertEquals("password", secondUserDetails.getPassword());
+    }
+
+    @Test
+    public void testLoadUserByUsername_ShouldNotShareErasedCredentials() {
+        User user = new User();
+        user.setId(1L);
+        user.setPassword("password");
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        ((CredentialsContainer) userAuthService.loadUserByUsername("1")).eraseCredentials();
+        assertEquals("password", userAuthService.loadUserByUsername("1").getPassword());
+    }
+
+    @Test
+    public void testEvictUser_ShouldReloadUserDetails() {
+        User user = new User();
+        user.setId(1L);
+        user.setPassword("password");
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        userAuthService.loadUserByUsername("1");
+        user.setPassword("newPassword");
+        userAuthService.evictUser("1");
+        assertEquals("newPassword", userAuthService.loadUserByUsername("1").getPassword());
+        verify(userRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    public void testLoadUserByUsername_ShouldReloadExpiredUserDetails() {
+        User user = new User();
+        user.setId(1L);
+        user.setPassword("password");
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        userAuthService.loadUserByUsername("1");
+        now.set(now.get().plus(Duration.ofMinutes(4)));
+        userAuthService.loadUserByUsername("1");
+        verify(userRepository, times(1)).findById(1L);
+        now.set(now.get().plus(Duration.ofMinutes(1)));
+        userAuthService.loadUserByUsername("1");
+        verify(userRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    public void testLoadUserByUsername_ShouldServeConcurrentUsersFromCache() throws Exception {
+        when(userRepository.findById(anyLong())).thenAnswer(invocation -> {
+            User user = new User();
+            user.setId(invocation.getArgument(0));
+            user.setPassword("password" + invocation.getArgument(0));
+            return Optional.of(user);
+        });
+        AtomicInteger mismatches = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int j = 0; j < 1000; j++) {
+                        String identificator = Integer.toString(j % 16);
+                        if (!userAuthService.loadUserByUsername(identificator).getPassword()
+                                .equals("password" + identificator)) {
+                            mismatches.incrementAndGet();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(0, mismatches.get());
+        verify(userRepository, atMost(8 * 16)).findById(anyLong());
+    }
+}
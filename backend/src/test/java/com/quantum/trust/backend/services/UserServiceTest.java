@@ -9,7 +9,9 @@ import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -22,6 +24,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -31,10 +35,16 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.quantum.trust.backend.mappers.AccountMapper;
 import com.quantum.trust.backend.mappers.UserMapper;
+import com.quantum.trust.backend.model.TransferStatus;
+import com.quantum.trust.backend.model.dto.EncryptedPayload;
+import com.quantum.trust.backend.model.dto.TransferDto;
+import com.quantum.trust.backend.model.dto.TransferStatusDto;
+import com.quantum.trust.backend.model.dto.UserDto;
 import com.quantum.trust.backend.model.entities.User;
 import com.quantum.trust.backend.repositories.AccountRepository;
 import com.quantum.trust.backend.repositories.UserRepository;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
 public class UserServiceTest {
@@ -66,6 +76,15 @@ public class UserServiceTest {
     @Mock
     private TransactionService transactionService;
 
+    @Mock
+    private TransferService transferService;
+
+    @Mock
+    private LedgerService ledgerService;
+
+    @Mock
+    private TransferPipelineService transferPipelineService;
+
     @Mock
     private ObjectMapper objectMapper;
 
@@ -78,6 +97,9 @@ public class UserServiceTest {
     @Mock
     private AuthenticationManager authenticationManager;
 
+    @Mock
+    private UserAuthService userAuthService;
+
     @InjectMocks
     private UserService userService;
 
@@ -202,4 +224,103 @@ public class UserServiceTest {
         ResponseEntity<?> response = userService.isIdentifierExists(encryptedId);
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testEditUserAccount_ShouldEvictCachedUserDetailsOnPasswordChange() throws Exception {
+        User user = this.mockEditedUser("newPassword");
+        when(validationService.validatePassword("newPassword")).thenReturn(true);
+        when(cryptoService.getEncryptedPassword("newPassword")).thenReturn("newHash");
+        ResponseEntity<?> response = userService.editUserAccount(this.getEditedUserDto(),
+                mock(HttpServletRequest.class));
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("newHash", user.getPassword());
+        verify(userAuthService).evictUser("1");
+    }
+
+    @Test
+    public void testEditUserAccount_ShouldKeepCachedUserDetailsWithoutPasswordChange() throws Exception {
+        this.mockEditedUser("");
+        ResponseEntity<?> response = userService.editUserAccount(this.getEditedUserDto(),
+                mock(HttpServletRequest.class));
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        verify(userAuthService, never()).evictUser(anyString());
+    }
+
+    @Test
+    public void testSendNewTransfer() throws Exception {
+        HttpServletRequest request = this.mockTransferOwner("1");
+        TransferDto transferDto = new TransferDto();
+        assertEquals(HttpStatus.OK, userService.sendNewTransfer(request, transferDto).getStatusCode());
+        verify(transferService).sendTransfer(transferDto, "1");
+
+        doThrow(new CannotAcquireLockException("lock timeout")).when(transferService).sendTransfer(transferDto, "1");
+        assertEquals(HttpStatus.CONFLICT, userService.sendNewTransfer(request, transferDto).getStatusCode());
+        doThrow(new IllegalArgumentException("Transfer credentials are invalid")).when(transferService)
+                .sendTransfer(transferDto, "1");
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR,
+                userService.sendNewTransfer(request, transferDto).getStatusCode());
+    }
+
+    @Test
+    public void testQueueNewTransfer() throws Exception {
+        TransferDto transferDto = new TransferDto();
+        HttpServletRequest request = this.mockTransferOwner("1");
+        when(transferPipelineService.submitTransfer(transferDto, "1")).thenReturn("transfer-1");
+        ResponseEntity<?> response = userService.queueNewTransfer(request, transferDto);
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        TransferStatusDto transferStatusDto = (TransferStatusDto) ((EncryptedPayload) response.getBody()).getData();
+        assertEquals("transfer-1", transferStatusDto.getTransferId());
+        assertEquals(TransferStatus.PENDING, transferStatusDto.getStatus());
+
+        when(transferPipelineService.submitTransfer(transferDto, "1")).thenReturn(null);
+        response = userService.queueNewTransfer(request, transferDto);
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        when(transferPipelineService.submitTransfer(transferDto, "1"))
+                .thenThrow(new IllegalArgumentException("Transfer credentials are invalid"));
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR,
+                userService.queueNewTransfer(request, transferDto).getStatusCode());
+    }
+
+    @Test
+    public void testGetTransferStatus() {
+        HttpServletRequest request = this.mockTransferOwner("1");
+        when(transferPipelineService.getTransferStatus("transfer-1", "1")).thenReturn(TransferStatus.COMPLETED);
+        ResponseEntity<?> response = userService.getTransferStatus(request, "transfer-1");
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(TransferStatus.COMPLETED,
+                ((TransferStatusDto) ((EncryptedPayload) response.getBody()).getData()).getStatus());
+        assertEquals(HttpStatus.NOT_FOUND, userService.getTransferStatus(request, "transfer-2").getStatusCode());
+    }
+
+    @Test
+    public void testGetTransferStatus_ShouldHideTransferOfAnotherUser() {
+        HttpServletRequest request = this.mockTransferOwner("2");
+        when(transferPipelineService.getTransferStatus("transfer-1", "1")).thenReturn(TransferStatus.COMPLETED);
+        assertEquals(HttpStatus.NOT_FOUND, userService.getTransferStatus(request, "transfer-1").getStatusCode());
+        verify(transferPipelineService).getTransferStatus("transfer-1", "2");
+    }
+
+    private HttpServletRequest mockTransferOwner(String identificator) {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(cookieService.getCookieValue(request, "ACCESS_TOKEN")).thenReturn("token");
+        when(tokenService.getIdentificatorFromToken(request, "token")).thenReturn(identificator);
+        return request;
+    }
+
+    private User mockEditedUser(String decryptedPassword) throws Exception {
+        User user = new User();
+        user.setId(1L);
+        user.setPassword("oldHash");
+        when(cookieService.getCookieValue(any(), anyString())).thenReturn("token");
+        when(tokenService.getIdentificatorFromToken(any(), anyString())).thenReturn("1");
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(cryptoService.decryptData("encryptedPassword")).thenReturn(decryptedPassword);
+        when(cryptoService.decryptData("encryptedAvatar")).thenReturn("");
+        return user;
+    }
+
+    private UserDto getEditedUserDto() {
+        return UserDto.builder().password("encryptedPassword").avatarPath("encryptedAvatar").build();
+    }
+}
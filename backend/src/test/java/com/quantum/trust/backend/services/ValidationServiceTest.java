@@ -1,17 +1,24 @@
 package com.quantum.trust.backend.services;
 
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyFloat;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.when;
 
+import java.time.LocalDate;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.quantum.trust.backend.model.entities.Account;
+import com.quantum.trust.backend.model.entities.Card;
+import com.quantum.trust.backend.model.entities.CardFees;
+import com.quantum.trust.backend.model.entities.CardLimits;
 import com.quantum.trust.backend.model.entities.Deposit;
 import com.quantum.trust.backend.model.entities.User;
 
@@ -23,16 +30,13 @@ public class ValidationServiceTest {
     @Mock
     private TransactionService transactionService;
 
-    @Mock
-    private ObjectMapper objectMapper;
-
     @InjectMocks
     private ValidationService validationService;
 
     @BeforeEach
     public void setUp() {
         MockitoAnnotations.openMocks(this);
-        validationService = new ValidationService(cryptoService, transactionService, objectMapper);
+        validationService = new ValidationService(cryptoService, transactionService);
     }
 
     @Test
@@ -88,7 +92,7 @@ public class ValidationServiceTest {
         Account account = new Account();
         account.setType("personal");
         account.setCurrency("PLN");
-        account.setBalance(0.00f);
+        account.setBalance(0L);
         account.setImage("first-account.webp");
         validationService.validateAccountObject(account);
     }
@@ -96,7 +100,8 @@ public class ValidationServiceTest {
     @Test
     public void testValidateDeposit() {
         Deposit deposit = new Deposit();
-        deposit.setBalance(500.0f);
+        deposit.setBalance(50000L);
+        deposit.setCurrency("PLN");
         deposit.setType("timely");
         deposit.setPercent(3.0f);
         deposit.setDuration(2);
@@ -106,6 +111,29 @@ public class ValidationServiceTest {
         assertThrows(Exception.class, () -> validationService.validateDeposit(deposit));
     }
 
+    @Test
+    public void testValidateCard() throws Exception {
+        Account account = new Account();
+        account.setCurrency("PLN");
+        Card card = Card.builder().account(account).type("STANDARD").publisher("Visa")
+                .fees(new CardFees(0L, 1000L)).limits(new CardLimits(200000L, 5, 1000000L, 50000L, 3, 500000L))
+                .expirationDate(LocalDate.now().plusYears(4)).pin("encryptedPin").image("visa-standard.webp")
+                .showingCardSite("front").backImage("visa-back.webp").status("unsuspended").build();
+        when(cryptoService.decryptData("encryptedPin")).thenReturn("1234");
+        when(transactionService.getRecalculatedAmount(anyString(), anyString(), anyFloat()))
+                .thenAnswer(invocation -> invocation.getArgument(2));
+        validationService.validateCard(card);
+
+        card.getFees().setMonthlyFee(999L);
+        assertThrows(IllegalArgumentException.class, () -> validationService.validateCard(card));
+        card.getFees().setMonthlyFee(1000L);
+        card.getLimits().setCashTransactionsLimit(49999L);
+        assertThrows(IllegalArgumentException.class, () -> validationService.validateCard(card));
+        card.getLimits().setCashTransactionsLimit(50000L);
+        card.getLimits().setInternetTransactionsCount(6);
+        assertThrows(IllegalArgumentException.class, () -> validationService.validateCard(card));
+    }
+
     @Test
     public void testValidateImage() throws Exception {
         validationService.validateImage("test.png", 1024 * 1024);
@@ -129,8 +157,11 @@ public class ValidationServiceTest {
     @Test
     public void testValidateTransferAmount() {
         Account senderAccount = new Account();
-        senderAccount.setBalance(1000.0f);
-        assertTrue(validationService.validateTransferAmount(500.0f, senderAccount));
+        senderAccount.setBalance(100000L);
+        senderAccount.setCurrency("PLN");
+        assertTrue(validationService.validateTransferAmount(50000L, senderAccount));
+        assertFalse(validationService.validateTransferAmount(50L, senderAccount));
+        assertFalse(validationService.validateTransferAmount(100001L, senderAccount));
     }
 
     @Test
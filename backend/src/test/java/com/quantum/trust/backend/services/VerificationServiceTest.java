@@ -149,7 +149,7 @@ public class VerificationServiceTest {
         when(jsonNode.asText()).thenReturn("encryptedOperation");
         when(cryptoService.decryptData("encryptedOperation")).thenReturn("decryptedOperation");
         when(cookieService.getCookieValue(request, "ACCESS_TOKEN")).thenReturn("token");
-        when(tokenService.getIdentificatorFromToken("token")).thenReturn("1");
+        when(tokenService.getIdentificatorFromToken(request, "token")).thenReturn("1");
         when(userRepository.findById(Long.valueOf("1"))).thenReturn(Optional.empty());
         ResponseEntity<?> result = verificationService.handleOperationVerification(encryptedOperation, request,
                 response);
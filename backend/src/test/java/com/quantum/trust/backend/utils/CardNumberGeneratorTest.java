@@ -1,43 +1,161 @@
 package com.quantum.trust.backend.utils;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
-import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import com.quantum.trust.backend.model.entities.Card;
+import com.quantum.trust.backend.utils.CardNumberGenerator.BlockSource;
+
 public class CardNumberGeneratorTest {
 
     private CardNumberGenerator cardNumberGenerator;
-    private SharedSessionContractImplementor session;
+    private InMemoryBlockSource blockSource;
 
     @BeforeEach
     public void setUp() {
         cardNumberGenerator = new CardNumberGenerator();
-        session = Mockito.mock(SharedSessionContractImplementor.class);
+        blockSource = new InMemoryBlockSource(0L, List.of());
     }
 
     @Test
     public void testGenerateCardNumberNotNull() {
-        Serializable cardNumber = cardNumberGenerator.generate(session, new Object());
+        String cardNumber = cardNumberGenerator.allocate("Visa", blockSource);
         assertNotNull(cardNumber, "Generated card number should not be null");
     }
 
     @Test
     public void testGenerateCardNumberLength() {
-        Serializable cardNumber = cardNumberGenerator.generate(session, new Object());
-        assertEquals(16, cardNumber.toString().length(), "Generated card number should be 16 digits long");
+        String cardNumber = cardNumberGenerator.allocate("Visa", blockSource);
+        assertEquals(16, cardNumber.length(), "Generated card number should be 16 digits long");
     }
 
     @Test
     public void testGenerateCardNumberDigits() {
-        Serializable cardNumber = cardNumberGenerator.generate(session, new Object());
-        String cardNumberStr = cardNumber.toString();
-        assertTrue(cardNumberStr.matches("\\d{16}"), "Generated card number should contain only digits");
+        String cardNumber = cardNumberGenerator.allocate("Mastercard", blockSource);
+        assertTrue(cardNumber.matches("\\d{16}"), "Generated card number should contain only digits");
+    }
+
+    @Test
+    public void testAllocate_ShouldPrefixBinAndAppendLuhnCheckDigit() {
+        assertEquals("4273100000000000", cardNumberGenerator.allocate("Visa", blockSource));
+        String cardNumber = cardNumberGenerator.allocate("Mastercard", blockSource);
+        assertTrue(cardNumber.startsWith("535120000001000"));
+        assertTrue(isLuhnValid(cardNumber));
+        assertTrue(isLuhnValid("4111111111111111"));
+        assertFalse(isLuhnValid("4111111111111112"));
+        assertEquals(8, CardNumberGenerator.getLuhnCheckDigit("427310000000001"));
+    }
+
+    @Test
+    public void testAllocate_ShouldReserveNewBlockOnlyWhenCurrentIsUsedUp() {
+        for (int i = 0; i < CardNumberGenerator.BLOCK_SIZE; i++) {
+            cardNumberGenerator.allocate("Visa", blockSource);
+        }
+        assertEquals(1, blockSource.reservedBlocks.get());
+        assertTrue(cardNumberGenerator.allocate("Visa", blockSource).startsWith("427310000001000"));
+        assertEquals(2, blockSource.reservedBlocks.get());
+    }
+
+    @Test
+    public void testAllocate_ShouldSkipTakenCardNumbers() {
+        blockSource = new InMemoryBlockSource(0L, List.of("4273100000000000", "4273100000000018"));
+        assertEquals("427310000000002", cardNumberGenerator.allocate("Visa", blockSource).substring(0, 15));
+        assertEquals("4273100000000000", blockSource.fromCardNumber);
+        assertEquals("4273100000009999", blockSource.toCardNumber);
+    }
+
+    @Test
+    public void testAllocate_ShouldMoveToNextBinAndFailWhenBinsAreUsedUp() {
+        blockSource = new InMemoryBlockSource(CardNumberGenerator.BLOCKS_PER_BIN, List.of());
+        assertTrue(cardNumberGenerator.allocate("Visa", blockSource).startsWith("427311000000000"));
+
+        CardNumberGenerator exhaustedGenerator = new CardNumberGenerator();
+        InMemoryBlockSource exhaustedBlockSource = new InMemoryBlockSource(
+                CardNumberGenerator.BLOCKS_PER_BIN * CardNumberGenerator.BIN_RANGES.get("Visa").size(), List.of());
+        assertThrows(IdentifierGenerationException.class,
+                () -> exhaustedGenerator.allocate("Visa", exhaustedBlockSource));
+    }
+
+    @Test
+    public void testAllocate_ShouldNotRepeatCardNumbersUnderContention() throws Exception {
+        Set<String> cardNumbers = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int j = 0; j < 2500; j++) {
+                        assertTrue(cardNumbers.add(cardNumberGenerator.allocate("Visa", blockSource)));
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(20000, cardNumbers.size());
+        assertEquals(20, blockSource.reservedBlocks.get());
+    }
+
+    @Test
+    public void testGenerate_ShouldRejectUnknownPublisher() {
+        SharedSessionContractImplementor session = Mockito.mock(SharedSessionContractImplementor.class);
+        Card card = Card.builder().publisher("Amex").build();
+        assertThrows(IdentifierGenerationException.class, () -> cardNumberGenerator.generate(session, card));
+        assertThrows(IdentifierGenerationException.class, () -> cardNumberGenerator.generate(session, new Object()));
+        Mockito.verifyNoInteractions(session);
+    }
+
+    private static boolean isLuhnValid(String cardNumber) {
+        return CardNumberGenerator.getLuhnCheckDigit(cardNumber.substring(0, cardNumber.length() - 1)) == cardNumber
+                .charAt(cardNumber.length() - 1) - '0';
+    }
+
+    private static final class InMemoryBlockSource implements BlockSource {
+        private final AtomicLong nextBlockIndex;
+        private final AtomicLong reservedBlocks = new AtomicLong();
+        private final List<String> takenCardNumbers;
+        private volatile String fromCardNumber;
+        private volatile String toCardNumber;
+
+        private InMemoryBlockSource(long firstBlockIndex, List<String> takenCardNumbers) {
+            this.nextBlockIndex = new AtomicLong(firstBlockIndex);
+            this.takenCardNumbers = takenCardNumbers;
+        }
+
+        @Override
+        public long nextBlockIndex() {
+            this.reservedBlocks.incrementAndGet();
+            return this.nextBlockIndex.getAndIncrement();
+        }
+
+        @Override
+        public List<String> findTakenCardNumbers(String fromCardNumber, String toCardNumber) {
+            this.fromCardNumber = fromCardNumber;
+            this.toCardNumber = toCardNumber;
+            return this.takenCardNumbers;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,166 @@
+package com.quantum.trust.backend.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ExpiringLruCacheTest {
+    private final AtomicReference<Instant> now = new AtomicReference<>(Instant.parse("2024-01-01T00:00:00Z"));
+
+    private ExpiringLruCache<String, String> cache;
+
+    @BeforeEach
+    public void setUp() {
+        Clock clock = new Clock() {
+            @Override
+            public ZoneId getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return this;
+            }
+
+            @Override
+            public Instant instant() {
+                return now.get();
+            }
+        };
+        cache = new ExpiringLruCache<>(2, clock);
+    }
+
+    @Test
+    public void testGet_ShouldReturnValueUntilItExpires() {
+        cache.put("token", "claims", now.get().plusSeconds(60).toEpochMilli());
+        assertEquals("claims", cache.get("token"));
+        now.set(now.get().plus(Duration.ofSeconds(60)));
+        assertNull(cache.get("token"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testPut_ShouldSkipExpiredValue() {
+        cache.put("token", "claims", now.get().toEpochMilli());
+        assertNull(cache.get("token"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testPut_ShouldEvictLeastRecentlyUsedValue() {
+        long expiresAt = now.get().plusSeconds(60).toEpochMilli();
+        cache.put("first", "1", expiresAt);
+        cache.put("second", "2", expiresAt);
+        cache.get("first");
+        cache.put("third", "3", expiresAt);
+        assertEquals("1", cache.get("first"));
+        assertNull(cache.get("second"));
+        assertEquals("3", cache.get("third"));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testPut_ShouldEvictExpiredValueFirst() {
+        cache.put("first", "1", now.get().plusSeconds(120).toEpochMilli());
+        cache.put("second", "2", now.get().plusSeconds(60).toEpochMilli());
+        cache.get("second");
+        now.set(now.get().plus(Duration.ofSeconds(60)));
+        cache.put("third", "3", now.get().plusSeconds(60).toEpochMilli());
+        assertEquals("1", cache.get("first"));
+        assertEquals("3", cache.get("third"));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testPut_ShouldSampleEvictionCandidatesAcrossTheCache() {
+        ExpiringLruCache<Integer, Integer> largeCache = new ExpiringLruCache<>(100);
+        long expiresAt = System.currentTimeMillis() + 60_000L;
+        for (int i = 0; i < 100; i++) {
+            largeCache.put(i, i, expiresAt);
+        }
+        for (int i = 0; i < 50; i++) {
+            largeCache.get(i);
+        }
+        for (int i = 100; i < 125; i++) {
+            largeCache.put(i, i, expiresAt);
+        }
+        int retainedRecentKeys = 0;
+        for (int i = 0; i < 50; i++) {
+            retainedRecentKeys += largeCache.get(i) == null ? 0 : 1;
+        }
+        assertEquals(100, largeCache.size());
+        assertTrue(retainedRecentKeys >= 45);
+    }
+
+    @Test
+    public void testInvalidate_ShouldFreeSlotForNewKeys() {
+        long expiresAt = now.get().plusSeconds(60).toEpochMilli();
+        cache.put("first", "1", expiresAt);
+        cache.put("second", "2", expiresAt);
+        cache.invalidate("first");
+        cache.put("second", "updated", expiresAt);
+        cache.put("third", "3", expiresAt);
+        assertEquals("updated", cache.get("second"));
+        assertEquals("3", cache.get("third"));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testPut_ShouldStayBoundedUnderContention() throws Exception {
+        ExpiringLruCache<Integer, Integer> sharedCache = new ExpiringLruCache<>(100);
+        long expiresAt = System.currentTimeMillis() + 60_000L;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            int offset = i * 10_000;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int j = 0; j < 10_000; j++) {
+                        sharedCache.put(offset + j, j, expiresAt);
+                        sharedCache.get(offset + j);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(sharedCache.size() <= 100);
+    }
+
+    @Test
+    public void testInvalidateAndClear() {
+        long expiresAt = now.get().plusSeconds(60).toEpochMilli();
+        cache.put("first", "1", expiresAt);
+        cache.put("second", "2", expiresAt);
+        cache.invalidate("first");
+        assertNull(cache.get("first"));
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testConstructor_ShouldRejectInvalidSize() {
+        assertThrows(IllegalArgumentException.class, () -> new ExpiringLruCache<String, String>(0));
+    }
+}
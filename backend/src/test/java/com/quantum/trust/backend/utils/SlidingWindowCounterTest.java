@@ -0,0 +1,99 @@
+package com.quantum.trust.backend.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+public class SlidingWindowCounterTest {
+    private static final long BUCKET_MILLIS = 1000L;
+
+    private final SlidingWindowCounter counter = new SlidingWindowCounter(4, BUCKET_MILLIS);
+
+    @Test
+    public void testTryAdd_ShouldRefuseAmountsAboveLimits() {
+        assertTrue(counter.tryAdd(60L, 100L, 3, 0L));
+        assertFalse(counter.tryAdd(41L, 100L, 3, 500L));
+        assertTrue(counter.tryAdd(40L, 100L, 3, 1500L));
+        assertFalse(counter.tryAdd(0L, 1000L, 2, 1600L));
+        assertEquals(100L, counter.getAmount(1600L));
+        assertEquals(2, counter.getCount(1600L));
+    }
+
+    @Test
+    public void testTryAdd_ShouldForgetBucketsLeavingTheWindow() {
+        assertTrue(counter.tryAdd(100L, 100L, 10, 0L));
+        assertFalse(counter.tryAdd(1L, 100L, 10, 3999L));
+        assertTrue(counter.tryAdd(100L, 100L, 10, 4000L));
+        assertEquals(100L, counter.getAmount(4000L));
+        assertEquals(0L, counter.getAmount(8000L));
+        assertEquals(0, counter.getCount(8000L));
+    }
+
+    @Test
+    public void testAdd_ShouldSkipInstantsOutsideTheWindow() {
+        counter.add(10L, 5000L, 5000L);
+        counter.add(20L, 2000L, 5000L);
+        counter.add(30L, 1000L, 5000L);
+        counter.add(40L, 6000L, 5000L);
+        assertEquals(30L, counter.getAmount(5000L));
+        assertEquals(2, counter.getCount(5000L));
+    }
+
+    @Test
+    public void testRemove_ShouldReleaseAmountUnlessBucketWasReused() {
+        counter.add(50L, 0L, 0L);
+        counter.remove(50L, 0L, 500L);
+        assertEquals(0L, counter.getAmount(500L));
+        assertEquals(0, counter.getCount(500L));
+
+        counter.add(50L, 0L, 0L);
+        counter.add(70L, 4000L, 4000L);
+        counter.remove(50L, 0L, 3999L);
+        assertEquals(70L, counter.getAmount(4000L));
+        assertEquals(1, counter.getCount(4000L));
+    }
+
+    @Test
+    public void testTryAdd_ShouldNotExceedLimitsUnderContention() throws Exception {
+        int threadCount = 8;
+        AtomicInteger accepted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < threadCount; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int j = 0; j < 1000; j++) {
+                        if (counter.tryAdd(1L, 500L, 10000, 0L)) {
+                            accepted.incrementAndGet();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(500, accepted.get());
+        assertEquals(500L, counter.getAmount(0L));
+    }
+
+    @Test
+    public void testConstructor_ShouldRejectEmptyWindow() {
+        assertThrows(IllegalArgumentException.class, () -> new SlidingWindowCounter(0, BUCKET_MILLIS));
+        assertThrows(IllegalArgumentException.class, () -> new SlidingWindowCounter(4, 0L));
+    }
+}